@@ -0,0 +1,17 @@
+#!/bin/sh
+# Builds the benchmarks and runs them with the gc profiler, reporting throughput along with the
+# allocation rate. Arguments are handed over to JMH, for e.g.
+#   ./run.sh DecodeBenchmark -p messageSize=1024 -p codingSymbols=01
+# Maven runs offline as long as the plugins and JMH are in the local repository, which the first
+# run downloads.
+#
+# The largest messages of EncodeBenchmark, DecodeBenchmark and CodingTableBenchmark hold 100M
+# symbols, and their encoded forms need a heap of about 6 GB. The maximum heap of the forked JVMs
+# is taken from BENCHMARK_HEAP, 6g by default; it is not committed up front, so the smaller
+# messages run on any machine. On a machine with less memory, lower it and leave out the largest
+# messages, for e.g.
+#   BENCHMARK_HEAP=1g ./run.sh EncodeBenchmark -p messageSize=1024,1048576
+set -e
+cd "$(dirname "$0")"
+mvn -B -q -o package 2>/dev/null || mvn -B -q package
+exec java -jar target/benchmarks.jar -prof gc -jvmArgsAppend "-Xmx${BENCHMARK_HEAP:-6g}" "$@"
@@ -0,0 +1,177 @@
+package benchmark;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import decoder.DecoderImpl;
+import decoder.LookupTableDecoder;
+import decoder.StreamingDecoder;
+
+/**
+ * This class represents the generator of the messages and decoders used by the benchmarks.
+ * Every message is generated from a fixed seed, hence every run of a benchmark sees the same data.
+ *
+ * <p>A uniform message draws every symbol of the alphabet with the same probability. A skewed
+ * message draws the symbol of rank <code>k</code> with a probability proportional to
+ * <code>1 / k<sup>1.2</sup></code>, a Zipf distribution close to that of the letters and words of
+ * English text, which leads to a much deeper coding tree.
+ */
+public final class BenchmarkMessages {
+
+  /**
+   * the name of the uniform distribution.
+   */
+  public static final String UNIFORM = "uniform";
+
+  /**
+   * the name of the skewed distribution.
+   */
+  public static final String SKEWED = "skewed";
+
+  private static final long SEED = 5010;
+  private static final double ZIPF_EXPONENT = 1.2;
+  private static final String ALPHABET = getPrintableAlphabet();
+
+  /**
+   * Prevents instantiation of this class.
+   */
+  private BenchmarkMessages() {
+  }
+
+  /**
+   * Returns a message of the given length made of printable ASCII characters and line feeds, drawn
+   * from the given distribution.
+   *
+   * @param length       the length of the message
+   * @param distribution the name of the distribution, uniform or skewed
+   * @return the generated message
+   * @throws IllegalArgumentException if the distribution is unknown
+   */
+  public static String generateMessage(int length, String distribution)
+          throws IllegalArgumentException {
+
+    double[] cumulativeWeights = getCumulativeWeights(ALPHABET.length(), distribution);
+    Random random = new Random(SEED);
+    char[] message = new char[length];
+    for (int i = 0; i < length; i++) {
+      message[i] = ALPHABET.charAt(drawRank(cumulativeWeights, random));
+    }
+    return new String(message);
+  }
+
+  /**
+   * Returns a message in which each of the given number of symbols appears at least once, the
+   * number of occurrences of every symbol following the given distribution. The symbols are the
+   * characters from 0 upwards, skipping the surrogates, hence the Huffman code of the message
+   * holds exactly the given number of symbols.
+   *
+   * @param numberOfSymbols the number of distinct symbols, at most 63488
+   * @param distribution    the name of the distribution, uniform or skewed
+   * @return the generated message
+   * @throws IllegalArgumentException if the distribution is unknown
+   */
+  public static String generateAlphabetMessage(int numberOfSymbols, String distribution)
+          throws IllegalArgumentException {
+
+    double[] cumulativeWeights = getCumulativeWeights(numberOfSymbols, distribution);
+    double smallestWeight = cumulativeWeights[numberOfSymbols - 1]
+            - (numberOfSymbols > 1 ? cumulativeWeights[numberOfSymbols - 2] : 0);
+
+    StringBuilder message = new StringBuilder();
+    double previous = 0;
+    for (int rank = 0; rank < numberOfSymbols; rank++) {
+      long occurrences = Math.round((cumulativeWeights[rank] - previous) / smallestWeight);
+      previous = cumulativeWeights[rank];
+      char symbol = (char) (rank < Character.MIN_SURROGATE
+              ? rank : rank + (Character.MAX_SURROGATE - Character.MIN_SURROGATE + 1));
+      for (long i = 0; i < Math.max(1, occurrences); i++) {
+        message.append(symbol);
+      }
+    }
+    return message.toString();
+  }
+
+  /**
+   * Returns a decoder of the given type holding all the codes of the given coding table.
+   *
+   * @param type          the type of decoder, tree, lookup or compiled
+   * @param codingSymbols the coding symbols of the table
+   * @param codingTable   the coding table
+   * @return the decoder holding all the codes of the table
+   * @throws IllegalArgumentException if the type is unknown
+   */
+  public static StreamingDecoder getDecoder(String type, String codingSymbols,
+                                            Map<Character, String> codingTable)
+          throws IllegalArgumentException {
+
+    DecoderImpl decoder;
+    switch (type) {
+      case "tree":
+      case "compiled":
+        decoder = new DecoderImpl(codingSymbols);
+        break;
+      case "lookup":
+        decoder = new LookupTableDecoder(codingSymbols);
+        break;
+      default:
+        throw new IllegalArgumentException(String.format("Invalid decoder type:'%s'", type));
+    }
+
+    for (Map.Entry<Character, String> entry : codingTable.entrySet()) {
+      decoder.addCode(entry.getKey(), entry.getValue());
+    }
+    return "compiled".equals(type) ? decoder.compile() : decoder;
+  }
+
+  /**
+   * Returns the cumulative weights of the given number of ranks under the given distribution.
+   *
+   * @param numberOfRanks the number of ranks
+   * @param distribution  the name of the distribution, uniform or skewed
+   * @return the cumulative weight of every rank
+   * @throws IllegalArgumentException if the distribution is unknown
+   */
+  private static double[] getCumulativeWeights(int numberOfRanks, String distribution)
+          throws IllegalArgumentException {
+
+    if (!UNIFORM.equals(distribution) && !SKEWED.equals(distribution)) {
+      throw new IllegalArgumentException(
+              String.format("Invalid distribution:'%s'", distribution));
+    }
+
+    double[] cumulativeWeights = new double[numberOfRanks];
+    double sum = 0;
+    for (int rank = 0; rank < numberOfRanks; rank++) {
+      sum += UNIFORM.equals(distribution) ? 1 : 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+      cumulativeWeights[rank] = sum;
+    }
+    return cumulativeWeights;
+  }
+
+  /**
+   * Draws a rank from the given cumulative weights.
+   *
+   * @param cumulativeWeights the cumulative weight of every rank
+   * @param random            the source of randomness
+   * @return the rank drawn
+   */
+  private static int drawRank(double[] cumulativeWeights, Random random) {
+    double value = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+    int rank = Arrays.binarySearch(cumulativeWeights, value);
+    return rank >= 0 ? rank : Math.min(-rank - 1, cumulativeWeights.length - 1);
+  }
+
+  /**
+   * Returns the printable ASCII characters followed by a line feed.
+   *
+   * @return the alphabet of the generated messages
+   */
+  private static String getPrintableAlphabet() {
+    StringBuilder alphabet = new StringBuilder();
+    for (char symbol = ' '; symbol <= '~'; symbol++) {
+      alphabet.append(symbol);
+    }
+    return alphabet.append('\n').toString();
+  }
+}
@@ -0,0 +1,67 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import encoder.HuffmanEncoder;
+import util.Utils;
+
+/**
+ * This class represents the benchmark of {@link HuffmanEncoder#generateCodingTable(List,
+ * String)}, for every combination of alphabet size, message size and distribution of the symbols.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodingTableBenchmark {
+
+  @Param({"01", "012", "0123456789abcdef"})
+  private String codingSymbols;
+
+  @Param({"1024", "1048576", "104857600"})
+  private int messageSize;
+
+  @Param({BenchmarkMessages.SKEWED, BenchmarkMessages.UNIFORM})
+  private String distribution;
+
+  private HuffmanEncoder encoder;
+  private List<Character> codingSymbolList;
+  private String message;
+
+  /**
+   * Generates the message of the current parameters.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    this.encoder = new HuffmanEncoder();
+    this.codingSymbolList = Utils.convertStringToCharacterArray(this.codingSymbols);
+    this.message = BenchmarkMessages.generateMessage(this.messageSize, this.distribution);
+  }
+
+  /**
+   * Generates the coding table of the message.
+   *
+   * @return the coding table, returned so that it is not optimized away
+   */
+  @Benchmark
+  public Map<Character, String> generateCodingTable() {
+    return this.encoder.generateCodingTable(this.codingSymbolList, this.message);
+  }
+}
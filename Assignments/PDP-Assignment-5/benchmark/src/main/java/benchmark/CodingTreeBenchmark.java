@@ -0,0 +1,92 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import decoder.DecoderImpl;
+import encoder.HuffmanEncoder;
+import util.Utils;
+
+/**
+ * This class represents the benchmark of building the coding tree of a {@link DecoderImpl} by
+ * adding every code of a table, and of checking whether the built tree is complete, for every
+ * combination of alphabet size, number of symbols in the table and distribution of the symbols.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CodingTreeBenchmark {
+
+  @Param({"01", "012", "0123456789abcdef"})
+  private String codingSymbols;
+
+  @Param({"96", "4096", "60000"})
+  private int numberOfSymbols;
+
+  @Param({BenchmarkMessages.SKEWED, BenchmarkMessages.UNIFORM})
+  private String distribution;
+
+  private char[] symbols;
+  private String[] codes;
+  private DecoderImpl decoder;
+
+  /**
+   * Generates the coding table of the current parameters and builds a decoder holding it.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    String message =
+            BenchmarkMessages.generateAlphabetMessage(this.numberOfSymbols, this.distribution);
+    Map<Character, String> codingTable = new HuffmanEncoder().generateCodingTable(
+            Utils.convertStringToCharacterArray(this.codingSymbols), message);
+
+    this.symbols = new char[codingTable.size()];
+    this.codes = new String[codingTable.size()];
+    int index = 0;
+    for (Map.Entry<Character, String> entry : codingTable.entrySet()) {
+      this.symbols[index] = entry.getKey();
+      this.codes[index++] = entry.getValue();
+    }
+    this.decoder = this.addCodes();
+  }
+
+  /**
+   * Builds a decoder by adding every code of the table.
+   *
+   * @return the decoder, returned so that it is not optimized away
+   */
+  @Benchmark
+  public DecoderImpl addCodes() {
+    DecoderImpl newDecoder = new DecoderImpl(this.codingSymbols);
+    for (int i = 0; i < this.symbols.length; i++) {
+      newDecoder.addCode(this.symbols[i], this.codes[i]);
+    }
+    return newDecoder;
+  }
+
+  /**
+   * Checks whether the coding tree of the decoder is complete.
+   *
+   * @return true if the coding tree is complete
+   */
+  @Benchmark
+  public boolean isCodeComplete() {
+    return this.decoder.isCodeComplete();
+  }
+}
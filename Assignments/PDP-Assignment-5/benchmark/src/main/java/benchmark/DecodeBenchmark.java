@@ -0,0 +1,84 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import decoder.StreamingDecoder;
+import encoder.HuffmanEncoder;
+import util.Utils;
+
+/**
+ * This class represents the benchmark of decoding a packed message with the prefix tree of {@link
+ * decoder.DecoderImpl}, the lookup tables of {@link decoder.LookupTableDecoder} and the flat tree
+ * of {@link decoder.CompiledDecoder}, for every combination of alphabet size, message size and
+ * distribution of the symbols.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecodeBenchmark {
+
+  @Param({"01", "012", "0123456789abcdef"})
+  private String codingSymbols;
+
+  @Param({"1024", "1048576", "104857600"})
+  private int messageSize;
+
+  @Param({BenchmarkMessages.SKEWED, BenchmarkMessages.UNIFORM})
+  private String distribution;
+
+  @Param({"tree", "lookup", "compiled"})
+  private String decoderType;
+
+  private StreamingDecoder decoder;
+  private byte[] packedMessage;
+  private long encodedLength;
+
+  /**
+   * Generates and encodes the message of the current parameters, and builds the decoder.
+   *
+   * @throws IOException if encoding the message fails
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    HuffmanEncoder encoder = new HuffmanEncoder();
+    List<Character> codingSymbolList = Utils.convertStringToCharacterArray(this.codingSymbols);
+    String message = BenchmarkMessages.generateMessage(this.messageSize, this.distribution);
+    Map<Character, String> codingTable = encoder.generateCodingTable(codingSymbolList, message);
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    this.encodedLength = encoder.encode(codingSymbolList, codingTable, message, outputStream);
+    this.packedMessage = outputStream.toByteArray();
+    this.decoder = BenchmarkMessages.getDecoder(this.decoderType, this.codingSymbols,
+            codingTable);
+  }
+
+  /**
+   * Decodes the packed message.
+   *
+   * @return the decoded message, returned so that it is not optimized away
+   */
+  @Benchmark
+  public String decode() {
+    return this.decoder.decode(this.packedMessage, this.encodedLength);
+  }
+}
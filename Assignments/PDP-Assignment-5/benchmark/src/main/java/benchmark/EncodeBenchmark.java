@@ -0,0 +1,84 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import encoder.HuffmanEncoder;
+import util.Utils;
+
+/**
+ * This class represents the benchmark of encoding a message with {@link HuffmanEncoder}, both as a
+ * string of coding symbols and as packed bits written to a stream which discards them, for every
+ * combination of alphabet size, message size and distribution of the symbols.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodeBenchmark {
+
+  @Param({"01", "012", "0123456789abcdef"})
+  private String codingSymbols;
+
+  @Param({"1024", "1048576", "104857600"})
+  private int messageSize;
+
+  @Param({BenchmarkMessages.SKEWED, BenchmarkMessages.UNIFORM})
+  private String distribution;
+
+  private HuffmanEncoder encoder;
+  private List<Character> codingSymbolList;
+  private Map<Character, String> codingTable;
+  private String message;
+
+  /**
+   * Generates the message and the coding table of the current parameters.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    this.encoder = new HuffmanEncoder();
+    this.codingSymbolList = Utils.convertStringToCharacterArray(this.codingSymbols);
+    this.message = BenchmarkMessages.generateMessage(this.messageSize, this.distribution);
+    this.codingTable = this.encoder.generateCodingTable(this.codingSymbolList, this.message);
+  }
+
+  /**
+   * Encodes the message as a string of coding symbols.
+   *
+   * @return the encoded message, returned so that it is not optimized away
+   */
+  @Benchmark
+  public String encodeToString() {
+    return this.encoder.encode(this.codingTable, this.message);
+  }
+
+  /**
+   * Encodes the message as packed bits.
+   *
+   * @return the number of coding symbols written
+   * @throws IOException if writing the packed bits fails
+   */
+  @Benchmark
+  public long encodePacked() throws IOException {
+    return this.encoder.encode(this.codingSymbolList, this.codingTable, this.message,
+            OutputStream.nullOutputStream());
+  }
+}
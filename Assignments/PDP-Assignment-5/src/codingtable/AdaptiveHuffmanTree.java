@@ -0,0 +1,313 @@
+package codingtable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class represents a binary adaptive Huffman tree, updated as the symbols of a message arrive
+ * using the FGK algorithm. An encoder and a decoder which start from an empty tree and update it
+ * with the same symbols in the same order always hold the same tree, hence the codes never have to
+ * be transmitted.
+ *
+ * <p>The tree starts with a single escape leaf, also known as the NYT (not yet transmitted) node.
+ * The first occurrence of a symbol is encoded as the code of the escape leaf followed by the 16
+ * bits of the symbol, after which the escape leaf is split into a new escape leaf and a leaf for the
+ * symbol. Every node has a number, the root having the lowest one, and the weights of the nodes
+ * never increase with their numbers (the sibling property). Before the weight of a node is
+ * incremented, the node is swapped with the node of the lowest number having the same weight, which
+ * keeps the sibling property and hence keeps the tree a Huffman tree for the symbols seen so far.
+ *
+ * <p>The nodes are identified by their index in flat primitive arrays which grow as symbols are
+ * added.
+ */
+public class AdaptiveHuffmanTree {
+
+  /**
+   * The number of bits used to encode a symbol after the escape code.
+   */
+  public static final int SYMBOL_BITS = Character.SIZE;
+
+  private static final int NONE = -1;
+  private static final int INITIAL_CAPACITY = 64;
+
+  private long[] weight;
+  private int[] parent;
+  private int[] leftChild;
+  private int[] rightChild;
+  private int[] symbol;
+  private int[] number;
+  private int[] nodeAtNumber;
+  private final Map<Character, Integer> leafOfSymbol;
+  private int numberOfNodes;
+  private int root;
+  private int escape;
+
+  /**
+   * Constructs an {@link AdaptiveHuffmanTree} holding only the escape leaf.
+   */
+  public AdaptiveHuffmanTree() {
+    this.leafOfSymbol = new HashMap<>();
+    this.reset();
+  }
+
+  /**
+   * Resets this tree to a single escape leaf, as if no symbol had been seen.
+   */
+  public void reset() {
+    this.weight = new long[INITIAL_CAPACITY];
+    this.parent = new int[INITIAL_CAPACITY];
+    this.leftChild = new int[INITIAL_CAPACITY];
+    this.rightChild = new int[INITIAL_CAPACITY];
+    this.symbol = new int[INITIAL_CAPACITY];
+    this.number = new int[INITIAL_CAPACITY];
+    this.nodeAtNumber = new int[INITIAL_CAPACITY];
+    this.leafOfSymbol.clear();
+    this.numberOfNodes = 0;
+
+    this.root = this.createNode(NONE, NONE);
+    this.escape = this.root;
+  }
+
+  /**
+   * Returns the root of this tree.
+   *
+   * @return the root of this tree
+   */
+  public int getRoot() {
+    return this.root;
+  }
+
+  /**
+   * Returns the child of the given node reached by the given bit.
+   *
+   * @param node the group node
+   * @param bit  0 for the left child and 1 for the right child
+   * @return the child of the given node
+   * @throws IllegalStateException if the given node is a leaf
+   */
+  public int getChild(int node, int bit) throws IllegalStateException {
+    if (this.isLeaf(node)) {
+      throw new IllegalStateException("leafNode does not have children");
+    }
+    return bit == 0 ? this.leftChild[node] : this.rightChild[node];
+  }
+
+  /**
+   * Returns true if the given node is a leaf, i.e. a symbol leaf or the escape leaf.
+   *
+   * @param node the node
+   * @return true if the given node is a leaf
+   */
+  public boolean isLeaf(int node) {
+    return this.leftChild[node] == NONE;
+  }
+
+  /**
+   * Returns true if the given node is the escape leaf.
+   *
+   * @param node the node
+   * @return true if the given node is the escape leaf
+   */
+  public boolean isEscape(int node) {
+    return node == this.escape;
+  }
+
+  /**
+   * Returns the symbol at the given leaf.
+   *
+   * @param leaf the symbol leaf
+   * @return the symbol at the given leaf
+   * @throws IllegalStateException if the given node is not a symbol leaf
+   */
+  public char getSymbol(int leaf) throws IllegalStateException {
+    if (this.symbol[leaf] == NONE) {
+      throw new IllegalStateException("node does not store a symbol");
+    }
+    return (char) this.symbol[leaf];
+  }
+
+  /**
+   * Returns true if the given symbol has been seen, i.e. it has a leaf of its own.
+   *
+   * @param symbol the symbol
+   * @return true if the given symbol has been seen
+   */
+  public boolean contains(char symbol) {
+    return this.leafOfSymbol.containsKey(symbol);
+  }
+
+  /**
+   * Returns the current code of the given symbol as bits, the first bit being the one closest to
+   * the root. If the symbol has not been seen, the code of the escape leaf is returned.
+   *
+   * @param symbol the symbol
+   * @return the code of the symbol, or of the escape leaf if the symbol has not been seen
+   */
+  public int[] getCode(char symbol) {
+    return this.getPath(this.leafOfSymbol.getOrDefault(symbol, this.escape));
+  }
+
+  /**
+   * Returns the current code of every symbol seen so far, written using the given coding symbols.
+   *
+   * @param codingSymbols the two coding symbols, the first one standing for a left branch
+   * @return the current code of every symbol seen so far
+   */
+  public Map<Character, String> getCodingTable(String codingSymbols) {
+    Map<Character, String> codingTable = new HashMap<>();
+    for (Map.Entry<Character, Integer> entry : this.leafOfSymbol.entrySet()) {
+      StringBuilder code = new StringBuilder();
+      for (int bit : this.getPath(entry.getValue())) {
+        code.append(codingSymbols.charAt(bit));
+      }
+      codingTable.put(entry.getKey(), code.toString());
+    }
+    return codingTable;
+  }
+
+  /**
+   * Updates this tree with an occurrence of the given symbol. A symbol seen for the first time
+   * splits the escape leaf. The weight of the leaf of the symbol and of all its ancestors is then
+   * incremented, swapping every node with the leader of its block first.
+   *
+   * @param symbol the symbol which occurred
+   */
+  public void update(char symbol) {
+    Integer leaf = this.leafOfSymbol.get(symbol);
+    int node;
+    if (leaf == null) {
+      int oldEscape = this.escape;
+      int newLeaf = this.createNode(oldEscape, symbol);
+      this.escape = this.createNode(oldEscape, NONE);
+      this.leftChild[oldEscape] = this.escape;
+      this.rightChild[oldEscape] = newLeaf;
+      this.leafOfSymbol.put(symbol, newLeaf);
+
+      this.weight[newLeaf]++;
+      this.weight[oldEscape]++;
+      node = this.parent[oldEscape];
+    } else {
+      node = leaf;
+    }
+
+    while (node != NONE) {
+      int leader = this.getBlockLeader(node);
+      if (leader != node && leader != this.parent[node]) {
+        this.swap(node, leader);
+      }
+      this.weight[node]++;
+      node = this.parent[node];
+    }
+  }
+
+  /**
+   * Returns the node of the lowest number having the same weight as the given node. Since the
+   * weights never increase with the numbers, the nodes of the same weight have consecutive
+   * numbers.
+   *
+   * @param node the node
+   * @return the leader of the block of the given node
+   */
+  private int getBlockLeader(int node) {
+    int leaderNumber = this.number[node];
+    while (leaderNumber > 0
+            && this.weight[this.nodeAtNumber[leaderNumber - 1]] == this.weight[node]) {
+      leaderNumber--;
+    }
+    return this.nodeAtNumber[leaderNumber];
+  }
+
+  /**
+   * Swaps the positions of the given nodes in the tree along with their numbers. The subtrees of
+   * the nodes move along with them.
+   *
+   * @param node1 the first node
+   * @param node2 the second node
+   */
+  private void swap(int node1, int node2) {
+    int parent1 = this.parent[node1];
+    int parent2 = this.parent[node2];
+    if (parent1 == parent2) {
+      int left = this.leftChild[parent1];
+      this.leftChild[parent1] = this.rightChild[parent1];
+      this.rightChild[parent1] = left;
+    } else {
+      this.replaceChild(parent1, node1, node2);
+      this.replaceChild(parent2, node2, node1);
+      this.parent[node1] = parent2;
+      this.parent[node2] = parent1;
+    }
+
+    int number1 = this.number[node1];
+    this.number[node1] = this.number[node2];
+    this.number[node2] = number1;
+    this.nodeAtNumber[this.number[node1]] = node1;
+    this.nodeAtNumber[this.number[node2]] = node2;
+  }
+
+  /**
+   * Replaces the given child of the given parent by another node.
+   *
+   * @param parent   the parent
+   * @param oldChild the child to replace
+   * @param newChild the node to replace the child with
+   */
+  private void replaceChild(int parent, int oldChild, int newChild) {
+    if (this.leftChild[parent] == oldChild) {
+      this.leftChild[parent] = newChild;
+    } else {
+      this.rightChild[parent] = newChild;
+    }
+  }
+
+  /**
+   * Returns the path from the root to the given node as bits.
+   *
+   * @param node the node
+   * @return the bits of the path from the root to the given node
+   */
+  private int[] getPath(int node) {
+    int depth = 0;
+    for (int current = node; current != this.root; current = this.parent[current]) {
+      depth++;
+    }
+
+    int[] path = new int[depth];
+    for (int current = node; current != this.root; current = this.parent[current]) {
+      path[--depth] = this.rightChild[this.parent[current]] == current ? 1 : 0;
+    }
+    return path;
+  }
+
+  /**
+   * Creates a leaf of weight 0 with the given parent and symbol, numbered after all the existing
+   * nodes.
+   *
+   * @param parent the parent of the node
+   * @param symbol the symbol of the leaf, or -1 for the escape leaf
+   * @return the created node
+   */
+  private int createNode(int parent, int symbol) {
+    if (this.numberOfNodes == this.weight.length) {
+      int capacity = this.weight.length * 2;
+      this.weight = Arrays.copyOf(this.weight, capacity);
+      this.parent = Arrays.copyOf(this.parent, capacity);
+      this.leftChild = Arrays.copyOf(this.leftChild, capacity);
+      this.rightChild = Arrays.copyOf(this.rightChild, capacity);
+      this.symbol = Arrays.copyOf(this.symbol, capacity);
+      this.number = Arrays.copyOf(this.number, capacity);
+      this.nodeAtNumber = Arrays.copyOf(this.nodeAtNumber, capacity);
+    }
+
+    int node = this.numberOfNodes++;
+    this.weight[node] = 0;
+    this.parent[node] = parent;
+    this.leftChild[node] = NONE;
+    this.rightChild[node] = NONE;
+    this.symbol[node] = symbol;
+    this.number[node] = node;
+    this.nodeAtNumber[node] = node;
+    return node;
+  }
+}
@@ -0,0 +1,343 @@
+package codingtable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * This class represents the frequency table of an asymmetric numeral systems coder, as used by
+ * {@link encoder.RansEncoder} and {@link decoder.RansDecoder}. Unlike a coding table it does not
+ * hold a code for every symbol but the frequency of every symbol quantized so that they add up to
+ * exactly <code>2^precisionBits</code>, hence a symbol of frequency f is coded in about
+ * <code>precisionBits - log2(f)</code> bits, a fraction of a bit for a very frequent symbol.
+ *
+ * <p>The symbols are held in ascending order, and the cumulative frequency of a symbol is the sum
+ * of the frequencies of the symbols before it. The serialized form is the magic number "RANS", a
+ * version byte, the precision, the number of symbols and then every symbol with its frequency.
+ */
+public class AnsFrequencyTable {
+
+  /**
+   * the largest precision of a table, so that every char can have a frequency of its own.
+   */
+  public static final int MAX_PRECISION_BITS = Character.SIZE;
+
+  private static final int MAGIC = 0x52414E53;
+  private static final int VERSION = 1;
+
+  private final int precisionBits;
+  private final char[] symbols;
+  private final int[] frequencies;
+  private final int[] cumulativeFrequencies;
+  private final int[] symbolIndex;
+
+  /**
+   * Constructs an {@link AnsFrequencyTable} with the given precision and the given frequency of
+   * every symbol. It throws an {@link IllegalArgumentException} if
+   * <ul>
+   * <li>the precision is less than 1 or more than {@link AnsFrequencyTable#MAX_PRECISION_BITS}</li>
+   * <li>the map of frequencies is null, empty or holds null</li>
+   * <li>any frequency is less than 1</li>
+   * <li>the frequencies do not add up to <code>2^precisionBits</code></li>
+   * </ul>
+   *
+   * @param precisionBits the number of bits the frequencies are quantized to
+   * @param frequencies   the quantized frequency of every symbol
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  public AnsFrequencyTable(int precisionBits, Map<Character, Integer> frequencies)
+          throws IllegalArgumentException {
+
+    if (precisionBits < 1 || precisionBits > MAX_PRECISION_BITS) {
+      throw new IllegalArgumentException(String.format("Invalid precision:'%d'", precisionBits));
+    }
+    if (Objects.isNull(frequencies) || frequencies.isEmpty()) {
+      throw new IllegalArgumentException("frequencies cannot be null or empty");
+    }
+    for (Map.Entry<Character, Integer> entry : frequencies.entrySet()) {
+      if (Objects.isNull(entry.getKey()) || Objects.isNull(entry.getValue())) {
+        throw new IllegalArgumentException("frequencies cannot contain null");
+      }
+    }
+
+    Map<Character, Integer> sortedFrequencies = new TreeMap<>(frequencies);
+    this.precisionBits = precisionBits;
+    this.symbols = new char[sortedFrequencies.size()];
+    this.frequencies = new int[sortedFrequencies.size()];
+    this.cumulativeFrequencies = new int[sortedFrequencies.size()];
+
+    long total = 0;
+    int index = 0;
+    for (Map.Entry<Character, Integer> entry : sortedFrequencies.entrySet()) {
+      if (entry.getValue() < 1) {
+        throw new IllegalArgumentException(
+                String.format("Invalid frequency for symbol:'%s'", entry.getKey()));
+      }
+      this.symbols[index] = entry.getKey();
+      this.frequencies[index] = entry.getValue();
+      this.cumulativeFrequencies[index++] = (int) Math.min(total, Integer.MAX_VALUE);
+      total += entry.getValue();
+    }
+    if (total != 1L << precisionBits) {
+      throw new IllegalArgumentException(String.format("Invalid frequency total:'%d'", total));
+    }
+
+    this.symbolIndex = new int[this.symbols[this.symbols.length - 1] + 1];
+    Arrays.fill(this.symbolIndex, -1);
+    for (int i = 0; i < this.symbols.length; i++) {
+      this.symbolIndex[this.symbols[i]] = i;
+    }
+  }
+
+  /**
+   * Returns the table of the given frequencies quantized to the given precision. Every symbol with
+   * a non zero frequency keeps a quantized frequency of at least 1, and the rounding error is
+   * spread over the symbols whose frequencies lose the least by it. It throws an {@link
+   * IllegalArgumentException} if the frequencies are null or all 0, or the precision is invalid or
+   * too small to give every symbol a frequency of its own.
+   *
+   * @param frequencies   the frequency of every character, indexed by the character
+   * @param precisionBits the number of bits to quantize the frequencies to
+   * @return the table of the quantized frequencies
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  public static AnsFrequencyTable fromFrequencies(long[] frequencies, int precisionBits)
+          throws IllegalArgumentException {
+
+    if (precisionBits < 1 || precisionBits > MAX_PRECISION_BITS) {
+      throw new IllegalArgumentException(String.format("Invalid precision:'%d'", precisionBits));
+    }
+    if (Objects.isNull(frequencies)) {
+      throw new IllegalArgumentException("frequencies cannot be null");
+    }
+
+    long total = 0;
+    int numberOfSymbols = 0;
+    for (long frequency : frequencies) {
+      if (frequency > 0) {
+        total = Math.addExact(total, frequency);
+        numberOfSymbols++;
+      }
+    }
+    if (numberOfSymbols == 0) {
+      throw new IllegalArgumentException("frequencies cannot be all 0");
+    }
+    long scale = 1L << precisionBits;
+    if (numberOfSymbols > scale) {
+      throw new IllegalArgumentException(String.format("Invalid precision:'%d'", precisionBits));
+    }
+
+    // floor of the exact share of every symbol, the remainder tells what the rounding cost it
+    Integer[] symbols = new Integer[numberOfSymbols];
+    long[] quantized = new long[frequencies.length];
+    long[] remainders = new long[frequencies.length];
+    long quantizedTotal = 0;
+    int index = 0;
+    for (int symbol = 0; symbol < frequencies.length; symbol++) {
+      if (frequencies[symbol] > 0) {
+        symbols[index++] = symbol;
+        double share = (double) frequencies[symbol] * scale / total;
+        quantized[symbol] = Math.max(1, (long) share);
+        remainders[symbol] = (long) ((share - Math.floor(share)) * scale);
+        quantizedTotal += quantized[symbol];
+      }
+    }
+
+    if (quantizedTotal < scale) {
+      Arrays.sort(symbols, (a, b) -> Long.compare(remainders[b], remainders[a]));
+      for (int i = 0; quantizedTotal < scale; i = (i + 1) % numberOfSymbols) {
+        quantized[symbols[i]]++;
+        quantizedTotal++;
+      }
+    } else if (quantizedTotal > scale) {
+      // the symbols pushed up to 1 are paid for by the most frequent ones, which lose the least
+      Arrays.sort(symbols, (a, b) -> Long.compare(frequencies[b], frequencies[a]));
+      for (int i = 0; quantizedTotal > scale; i = (i + 1) % numberOfSymbols) {
+        if (quantized[symbols[i]] > 1) {
+          quantized[symbols[i]]--;
+          quantizedTotal--;
+        }
+      }
+    }
+
+    Map<Character, Integer> quantizedFrequencies = new TreeMap<>();
+    for (Integer symbol : symbols) {
+      quantizedFrequencies.put((char) symbol.intValue(), (int) quantized[symbol]);
+    }
+    return new AnsFrequencyTable(precisionBits, quantizedFrequencies);
+  }
+
+  /**
+   * Returns the number of bits the frequencies are quantized to.
+   *
+   * @return the precision of the table
+   */
+  public int getPrecisionBits() {
+    return this.precisionBits;
+  }
+
+  /**
+   * Returns the number of symbols of the table.
+   *
+   * @return the number of symbols of the table
+   */
+  public int getNumberOfSymbols() {
+    return this.symbols.length;
+  }
+
+  /**
+   * Returns the symbol at the given index, the symbols being in ascending order.
+   *
+   * @param index the index of the symbol
+   * @return the symbol at the given index
+   */
+  public char getSymbol(int index) {
+    return this.symbols[index];
+  }
+
+  /**
+   * Returns the index of the given symbol, -1 if the table has no frequency for it.
+   *
+   * @param symbol the symbol to look up
+   * @return the index of the given symbol, -1 if it is not in the table
+   */
+  public int getSymbolIndex(char symbol) {
+    return symbol < this.symbolIndex.length ? this.symbolIndex[symbol] : -1;
+  }
+
+  /**
+   * Returns the quantized frequency of the symbol at the given index.
+   *
+   * @param index the index of the symbol
+   * @return the quantized frequency of the symbol
+   */
+  public int getFrequency(int index) {
+    return this.frequencies[index];
+  }
+
+  /**
+   * Returns the sum of the quantized frequencies of the symbols before the symbol at the given
+   * index.
+   *
+   * @param index the index of the symbol
+   * @return the cumulative frequency of the symbol
+   */
+  public int getCumulativeFrequency(int index) {
+    return this.cumulativeFrequencies[index];
+  }
+
+  /**
+   * Returns the number of bits the given message takes when coded with this table, ignoring the
+   * few bytes taken to flush the coder. It throws an {@link IllegalArgumentException} if the
+   * message holds a symbol which is not in the table.
+   *
+   * @param message the message to measure
+   * @return the number of bits the coded message takes
+   * @throws IllegalArgumentException if the message holds a symbol which is not in the table
+   */
+  public double getCodedLengthInBits(CharSequence message) throws IllegalArgumentException {
+    double bits = 0;
+    for (int i = 0; i < message.length(); i++) {
+      int index = this.getSymbolIndex(message.charAt(i));
+      if (index < 0) {
+        throw new IllegalArgumentException(
+                String.format("Invalid symbol:'%s'", message.charAt(i)));
+      }
+      bits += this.precisionBits - Math.log(this.frequencies[index]) / Math.log(2);
+    }
+    return bits;
+  }
+
+  /**
+   * Writes the serialized form of the table to the given output.
+   *
+   * @param output the output to write to
+   * @throws IOException if writing to the output fails
+   */
+  public void writeTo(DataOutput output) throws IOException {
+    output.writeInt(MAGIC);
+    output.writeByte(VERSION);
+    output.writeByte(this.precisionBits);
+    output.writeInt(this.symbols.length);
+    for (int i = 0; i < this.symbols.length; i++) {
+      output.writeChar(this.symbols[i]);
+      output.writeInt(this.frequencies[i]);
+    }
+  }
+
+  /**
+   * Returns the serialized form of the table.
+   *
+   * @return the serialized form of the table
+   */
+  public byte[] toByteArray() {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (DataOutputStream output = new DataOutputStream(outputStream)) {
+      this.writeTo(output);
+    } catch (IOException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return outputStream.toByteArray();
+  }
+
+  /**
+   * Reads the table from the given input, as written by {@link
+   * AnsFrequencyTable#writeTo(DataOutput)}. It throws an {@link IllegalStateException} if the
+   * serialized table is malformed.
+   *
+   * @param input the input to read from
+   * @return the table read from the input
+   * @throws IOException           if reading from the input fails
+   * @throws IllegalStateException if the serialized table is malformed
+   */
+  public static AnsFrequencyTable readFrom(DataInput input)
+          throws IOException, IllegalStateException {
+
+    if (input.readInt() != MAGIC || input.readByte() != VERSION) {
+      throw new IllegalStateException("malformed frequency table");
+    }
+    int precisionBits = input.readByte();
+    int numberOfSymbols = input.readInt();
+    if (numberOfSymbols < 1 || numberOfSymbols > Character.MAX_VALUE + 1) {
+      throw new IllegalStateException("malformed frequency table");
+    }
+
+    Map<Character, Integer> frequencies = new TreeMap<>();
+    for (int i = 0; i < numberOfSymbols; i++) {
+      frequencies.put(input.readChar(), input.readInt());
+    }
+
+    try {
+      return new AnsFrequencyTable(precisionBits, frequencies);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException(
+              String.format("malformed frequency table: %s", e.getMessage()));
+    }
+  }
+
+  /**
+   * Reads the table from the given serialized form. The failure conditions are the same as that of
+   * {@link AnsFrequencyTable#readFrom(DataInput)}.
+   *
+   * @param serializedTable the serialized form of the table
+   * @return the table read from the given bytes
+   * @throws IllegalStateException if the serialized table is malformed
+   */
+  public static AnsFrequencyTable fromByteArray(byte[] serializedTable)
+          throws IllegalStateException {
+
+    try {
+      return readFrom(new DataInputStream(new ByteArrayInputStream(serializedTable)));
+    } catch (IOException e) {
+      throw new IllegalStateException("malformed frequency table");
+    }
+  }
+}
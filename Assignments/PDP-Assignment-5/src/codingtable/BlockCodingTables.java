@@ -0,0 +1,260 @@
+package codingtable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class represents the coding tables of a message encoded block by block, as written by
+ * {@link encoder.BlockHuffmanEncoder}. The message is split into blocks of a fixed number of
+ * symbols and every block is coded with one of a small set of {@link CanonicalCodingTable}s. The
+ * table of every block is recorded as a list of switches: a switch names a table and the number of
+ * consecutive blocks coded with it, hence a message whose distribution does not change takes a
+ * single switch.
+ *
+ * <p>The serialized form is the magic number "HUFB", a version byte, the block size, the number of
+ * symbols and coding symbols of the message, the tables and then the switches.
+ */
+public class BlockCodingTables {
+
+  private static final int MAGIC = 0x48554642;
+  private static final int VERSION = 1;
+
+  private final int blockSize;
+  private final long messageLength;
+  private final long encodedLength;
+  private final List<CanonicalCodingTable> tables;
+  private final int[] switchTables;
+  private final int[] switchBlocks;
+
+  /**
+   * Constructs a {@link BlockCodingTables} with the given params. It throws an {@link
+   * IllegalArgumentException} if
+   * <ul>
+   * <li>the block size is less than 1 or a length is negative</li>
+   * <li>the list of tables is null, empty, holds null or tables with other coding symbols</li>
+   * <li>the switches are null, of different sizes, name a table which does not exist or do not
+   * cover exactly the blocks of the message</li>
+   * </ul>
+   *
+   * @param blockSize     the number of symbols of a block
+   * @param messageLength the number of symbols of the message
+   * @param encodedLength the number of coding symbols of the encoded message
+   * @param tables        the coding tables
+   * @param switchTables  the index of the table of every switch
+   * @param switchBlocks  the number of blocks of every switch
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  public BlockCodingTables(int blockSize, long messageLength, long encodedLength,
+                           List<CanonicalCodingTable> tables, int[] switchTables,
+                           int[] switchBlocks) throws IllegalArgumentException {
+
+    if (blockSize < 1) {
+      throw new IllegalArgumentException(String.format("Invalid block size:'%d'", blockSize));
+    }
+    if (messageLength < 0 || encodedLength < 0) {
+      throw new IllegalArgumentException("length cannot be negative");
+    }
+    if (Objects.isNull(tables) || tables.isEmpty() || tables.contains(null)) {
+      throw new IllegalArgumentException("tables cannot be null or empty");
+    }
+    for (CanonicalCodingTable table : tables) {
+      if (!table.getCodingSymbols().equals(tables.get(0).getCodingSymbols())) {
+        throw new IllegalArgumentException("tables must have the same coding symbols");
+      }
+    }
+    if (Objects.isNull(switchTables) || Objects.isNull(switchBlocks)
+            || switchTables.length != switchBlocks.length) {
+      throw new IllegalArgumentException("Invalid switches");
+    }
+
+    long blocks = 0;
+    for (int i = 0; i < switchTables.length; i++) {
+      if (switchTables[i] < 0 || switchTables[i] >= tables.size() || switchBlocks[i] < 1) {
+        throw new IllegalArgumentException("Invalid switches");
+      }
+      blocks += switchBlocks[i];
+    }
+    if (blocks != (messageLength + blockSize - 1) / blockSize) {
+      throw new IllegalArgumentException("Invalid switches");
+    }
+
+    this.blockSize = blockSize;
+    this.messageLength = messageLength;
+    this.encodedLength = encodedLength;
+    this.tables = Collections.unmodifiableList(new ArrayList<>(tables));
+    this.switchTables = Arrays.copyOf(switchTables, switchTables.length);
+    this.switchBlocks = Arrays.copyOf(switchBlocks, switchBlocks.length);
+  }
+
+  /**
+   * Returns the number of symbols of a block. The last block may be shorter.
+   *
+   * @return the number of symbols of a block
+   */
+  public int getBlockSize() {
+    return this.blockSize;
+  }
+
+  /**
+   * Returns the number of symbols of the message.
+   *
+   * @return the number of symbols of the message
+   */
+  public long getMessageLength() {
+    return this.messageLength;
+  }
+
+  /**
+   * Returns the number of coding symbols of the encoded message.
+   *
+   * @return the number of coding symbols of the encoded message
+   */
+  public long getEncodedLength() {
+    return this.encodedLength;
+  }
+
+  /**
+   * Returns the coding symbols of the tables, in the order of their index.
+   *
+   * @return the coding symbols of the tables
+   */
+  public String getCodingSymbols() {
+    return this.tables.get(0).getCodingSymbols();
+  }
+
+  /**
+   * Returns an unmodifiable list of the coding tables.
+   *
+   * @return the coding tables
+   */
+  public List<CanonicalCodingTable> getTables() {
+    return this.tables;
+  }
+
+  /**
+   * Returns the number of switches between the tables, counting the first table as a switch.
+   *
+   * @return the number of switches
+   */
+  public int getNumberOfSwitches() {
+    return this.switchTables.length;
+  }
+
+  /**
+   * Returns the index of the table the given switch switches to.
+   *
+   * @param switchIndex the index of the switch
+   * @return the index of the table of the switch
+   */
+  public int getSwitchTable(int switchIndex) {
+    return this.switchTables[switchIndex];
+  }
+
+  /**
+   * Returns the number of consecutive blocks coded with the table of the given switch.
+   *
+   * @param switchIndex the index of the switch
+   * @return the number of blocks of the switch
+   */
+  public int getSwitchBlocks(int switchIndex) {
+    return this.switchBlocks[switchIndex];
+  }
+
+  /**
+   * Writes the serialized form of the tables to the given output.
+   *
+   * @param output the output to write to
+   * @throws IOException if writing to the output fails
+   */
+  public void writeTo(DataOutput output) throws IOException {
+    output.writeInt(MAGIC);
+    output.writeByte(VERSION);
+    output.writeInt(this.blockSize);
+    output.writeLong(this.messageLength);
+    output.writeLong(this.encodedLength);
+    output.writeInt(this.tables.size());
+    for (CanonicalCodingTable table : this.tables) {
+      table.writeTo(output);
+    }
+    output.writeInt(this.switchTables.length);
+    for (int i = 0; i < this.switchTables.length; i++) {
+      output.writeInt(this.switchTables[i]);
+      output.writeInt(this.switchBlocks[i]);
+    }
+  }
+
+  /**
+   * Returns the serialized form of the tables.
+   *
+   * @return the serialized form of the tables
+   */
+  public byte[] toByteArray() {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (DataOutputStream output = new DataOutputStream(outputStream)) {
+      this.writeTo(output);
+    } catch (IOException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return outputStream.toByteArray();
+  }
+
+  /**
+   * Reads the tables from the given input, as written by {@link
+   * BlockCodingTables#writeTo(DataOutput)}. It throws an {@link IllegalStateException} if the
+   * serialized tables are malformed.
+   *
+   * @param input the input to read from
+   * @return the tables read from the input
+   * @throws IOException           if reading from the input fails
+   * @throws IllegalStateException if the serialized tables are malformed
+   */
+  public static BlockCodingTables readFrom(DataInput input)
+          throws IOException, IllegalStateException {
+
+    if (input.readInt() != MAGIC || input.readByte() != VERSION) {
+      throw new IllegalStateException("malformed block coding tables");
+    }
+    int blockSize = input.readInt();
+    long messageLength = input.readLong();
+    long encodedLength = input.readLong();
+    if (blockSize < 1 || messageLength < 0) {
+      throw new IllegalStateException("malformed block coding tables");
+    }
+
+    int numberOfTables = input.readInt();
+    if (numberOfTables < 1 || numberOfTables > Character.MAX_VALUE) {
+      throw new IllegalStateException("malformed block coding tables");
+    }
+    List<CanonicalCodingTable> tables = new ArrayList<>(numberOfTables);
+    for (int i = 0; i < numberOfTables; i++) {
+      tables.add(CanonicalCodingTable.readFrom(input));
+    }
+
+    int numberOfSwitches = input.readInt();
+    if (numberOfSwitches < 0 || (long) numberOfSwitches * blockSize > messageLength + blockSize) {
+      throw new IllegalStateException("malformed block coding tables");
+    }
+    int[] switchTables = new int[numberOfSwitches];
+    int[] switchBlocks = new int[numberOfSwitches];
+    for (int i = 0; i < numberOfSwitches; i++) {
+      switchTables[i] = input.readInt();
+      switchBlocks[i] = input.readInt();
+    }
+
+    try {
+      return new BlockCodingTables(blockSize, messageLength, encodedLength, tables, switchTables,
+              switchBlocks);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException(
+              String.format("malformed block coding tables: %s", e.getMessage()));
+    }
+  }
+}
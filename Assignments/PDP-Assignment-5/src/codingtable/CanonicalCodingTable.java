@@ -0,0 +1,395 @@
+package codingtable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import util.Utils;
+
+/**
+ * This class represents a canonical coding table. In a canonical code the code of every symbol is
+ * completely determined by the code lengths of all the symbols, hence only the code lengths need
+ * to be stored or transmitted. The codes are assigned by sorting the symbols by their code length
+ * and then by the symbol itself, and counting upwards in the radix of the coding symbols: the
+ * first symbol gets the code made up of the first coding symbol only, every next symbol gets the
+ * code of the previous symbol incremented by one, extended with the first coding symbol whenever
+ * the code length grows. This works for binary as well as n-ary coding symbols.
+ *
+ * <p>The serialized form of the table contains the coding symbols followed by the symbols in
+ * ascending order, each stored as the variable length difference from the previous symbol and its
+ * code length. A table of printable ASCII symbols hence takes about two bytes per symbol.
+ */
+public class CanonicalCodingTable {
+
+  private final String codingSymbols;
+  private final char[] symbols;
+  private final int[] codeLengths;
+  private final Map<Character, String> codingTable;
+
+  /**
+   * Constructs a {@link CanonicalCodingTable} with the given coding symbols and code lengths. It
+   * throws an {@link IllegalArgumentException} if
+   * <ul>
+   * <li>the given codingSymbols string is null, empty, has less than 2 or duplicate symbols</li>
+   * <li>the given map of code lengths is null or empty</li>
+   * <li>any code length is null or less than 1</li>
+   * <li>the code lengths cannot belong to a prefix code, i.e. violate the Kraft inequality</li>
+   * </ul>
+   *
+   * @param codingSymbols the coding symbols, in the order of their index
+   * @param codeLengths   the code length of each symbol
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  public CanonicalCodingTable(String codingSymbols, Map<Character, Integer> codeLengths)
+          throws IllegalArgumentException {
+
+    checkCodingSymbols(codingSymbols);
+    Utils.checkNullOrEmptyMap(codeLengths);
+
+    List<Character> sortedSymbols = new ArrayList<>(codeLengths.keySet());
+    Collections.sort(sortedSymbols);
+
+    this.codingSymbols = codingSymbols;
+    this.symbols = new char[sortedSymbols.size()];
+    this.codeLengths = new int[sortedSymbols.size()];
+    for (int i = 0; i < sortedSymbols.size(); i++) {
+      Integer codeLength = codeLengths.get(sortedSymbols.get(i));
+      if (Objects.isNull(codeLength) || codeLength < 1) {
+        throw new IllegalArgumentException(
+                String.format("Invalid code length for symbol:'%s'", sortedSymbols.get(i)));
+      }
+      this.symbols[i] = sortedSymbols.get(i);
+      this.codeLengths[i] = codeLength;
+    }
+
+    checkKraftInequality(codingSymbols.length(), this.codeLengths);
+    this.codingTable = Collections.unmodifiableMap(this.assignCanonicalCodes());
+  }
+
+  /**
+   * Constructs a {@link CanonicalCodingTable} with the coding symbols and code lengths of the given
+   * coding table. Only the length of each code is used, the codes themselves are reassigned.
+   *
+   * @param codingSymbols the coding symbols, in the order of their index
+   * @param codingTable   the coding table whose code lengths are used
+   * @return the canonical coding table with the same code lengths as the given table
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  public static CanonicalCodingTable fromCodingTable(String codingSymbols,
+                                                     Map<Character, String> codingTable)
+          throws IllegalArgumentException {
+
+    Utils.checkNullOrEmptyMap(codingTable);
+    Map<Character, Integer> codeLengths = new HashMap<>(codingTable.size());
+    for (Map.Entry<Character, String> entry : codingTable.entrySet()) {
+      Utils.checkNullOrEmptyString(entry.getValue());
+      codeLengths.put(entry.getKey(), entry.getValue().length());
+    }
+    return new CanonicalCodingTable(codingSymbols, codeLengths);
+  }
+
+  /**
+   * Returns the coding symbols of this table, in the order of their index.
+   *
+   * @return the coding symbols of this table
+   */
+  public String getCodingSymbols() {
+    return this.codingSymbols;
+  }
+
+  /**
+   * Returns an unmodifiable coding table containing the canonical code of every symbol.
+   *
+   * @return the canonical coding table
+   */
+  public Map<Character, String> getCodingTable() {
+    return this.codingTable;
+  }
+
+  /**
+   * Returns the code length of every symbol.
+   *
+   * @return the code length of every symbol
+   */
+  public Map<Character, Integer> getCodeLengths() {
+    Map<Character, Integer> lengths = new HashMap<>(this.symbols.length);
+    for (int i = 0; i < this.symbols.length; i++) {
+      lengths.put(this.symbols[i], this.codeLengths[i]);
+    }
+    return Collections.unmodifiableMap(lengths);
+  }
+
+  /**
+   * Writes the serialized form of this table to the given output.
+   *
+   * @param output the output to write to
+   * @throws IOException if writing to the output fails
+   */
+  public void writeTo(DataOutput output) throws IOException {
+    writeVarInt(output, this.codingSymbols.length());
+    for (char codingSymbol : this.codingSymbols.toCharArray()) {
+      writeVarInt(output, codingSymbol);
+    }
+
+    writeVarInt(output, this.symbols.length);
+    int previousSymbol = 0;
+    for (int i = 0; i < this.symbols.length; i++) {
+      writeVarInt(output, this.symbols[i] - previousSymbol);
+      writeVarInt(output, this.codeLengths[i]);
+      previousSymbol = this.symbols[i];
+    }
+  }
+
+  /**
+   * Returns the serialized form of this table.
+   *
+   * @return the serialized form of this table
+   */
+  public byte[] toByteArray() {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (DataOutputStream output = new DataOutputStream(outputStream)) {
+      this.writeTo(output);
+    } catch (IOException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return outputStream.toByteArray();
+  }
+
+  /**
+   * Reads a table serialized by {@link CanonicalCodingTable#writeTo(DataOutput)} from the given
+   * input. It throws an {@link IllegalStateException} if the serialized table is malformed.
+   *
+   * @param input the input to read from
+   * @return the table read from the input
+   * @throws IOException           if reading from the input fails
+   * @throws IllegalStateException if the serialized table is malformed
+   */
+  public static CanonicalCodingTable readFrom(DataInput input)
+          throws IOException, IllegalStateException {
+
+    int numberOfCodingSymbols = readVarInt(input);
+    if (numberOfCodingSymbols > Character.MAX_VALUE) {
+      throw new IllegalStateException("malformed coding table");
+    }
+    StringBuilder codingSymbols = new StringBuilder(numberOfCodingSymbols);
+    for (int i = 0; i < numberOfCodingSymbols; i++) {
+      codingSymbols.append(readChar(input, 0));
+    }
+
+    int numberOfSymbols = readVarInt(input);
+    if (numberOfSymbols > Character.MAX_VALUE + 1) {
+      throw new IllegalStateException("malformed coding table");
+    }
+    Map<Character, Integer> codeLengths = new HashMap<>(numberOfSymbols);
+    int previousSymbol = 0;
+    for (int i = 0; i < numberOfSymbols; i++) {
+      char symbol = readChar(input, previousSymbol);
+      if (i > 0 && symbol == previousSymbol) {
+        throw new IllegalStateException("malformed coding table");
+      }
+      codeLengths.put(symbol, readVarInt(input));
+      previousSymbol = symbol;
+    }
+
+    try {
+      return new CanonicalCodingTable(codingSymbols.toString(), codeLengths);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException(String.format("malformed coding table: %s", e.getMessage()));
+    }
+  }
+
+  /**
+   * Reads a table from its serialized form. It throws an {@link IllegalStateException} if the
+   * serialized table is malformed.
+   *
+   * @param serializedTable the serialized table
+   * @return the table read from the serialized form
+   * @throws IllegalStateException if the serialized table is malformed
+   */
+  public static CanonicalCodingTable fromByteArray(byte[] serializedTable)
+          throws IllegalStateException {
+
+    if (Objects.isNull(serializedTable)) {
+      throw new IllegalArgumentException("serializedTable cannot be null");
+    }
+    try (DataInputStream input = new DataInputStream(
+            new ByteArrayInputStream(serializedTable))) {
+      return readFrom(input);
+    } catch (IOException e) {
+      throw new IllegalStateException("malformed coding table");
+    }
+  }
+
+  /**
+   * Assigns the canonical codes to the symbols of this table.
+   *
+   * @return the coding table containing the canonical code of every symbol
+   */
+  private Map<Character, String> assignCanonicalCodes() {
+    Integer[] order = new Integer[this.symbols.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (index1, index2) -> {
+      int lengthDiff = Integer.compare(this.codeLengths[index1], this.codeLengths[index2]);
+      return lengthDiff != 0 ? lengthDiff : Character.compare(
+              this.symbols[index1], this.symbols[index2]);
+    });
+
+    int radix = this.codingSymbols.length();
+    int[] code = new int[this.codeLengths[order[order.length - 1]]];
+    int currentLength = this.codeLengths[order[0]];
+
+    Map<Character, String> canonicalCodes = new HashMap<>(this.symbols.length);
+    for (int i = 0; i < order.length; i++) {
+      int symbolIndex = order[i];
+      if (i > 0) {
+        incrementCode(code, currentLength, radix);
+        currentLength = this.codeLengths[symbolIndex];
+      }
+
+      StringBuilder builder = new StringBuilder(currentLength);
+      for (int j = 0; j < currentLength; j++) {
+        builder.append(this.codingSymbols.charAt(code[j]));
+      }
+      canonicalCodes.put(this.symbols[symbolIndex], builder.toString());
+    }
+    return canonicalCodes;
+  }
+
+  /**
+   * Increments the first <code>length</code> digits of the given code by one. The digits after
+   * them are expected to be zero, so extending the code later appends the first coding symbol.
+   *
+   * @param code   the digits of the code, the first digit being the most significant one
+   * @param length the current length of the code
+   * @param radix  the number of coding symbols
+   */
+  static void incrementCode(int[] code, int length, int radix) {
+    for (int i = length - 1; i >= 0; i--) {
+      code[i]++;
+      if (code[i] < radix) {
+        return;
+      }
+      code[i] = 0;
+    }
+  }
+
+  /**
+   * Checks that the given coding symbols string is not null or empty, has at least 2 symbols and
+   * does not contain duplicate symbols.
+   *
+   * @param codingSymbols the coding symbols to check
+   * @throws IllegalArgumentException if the given coding symbols are invalid
+   */
+  private static void checkCodingSymbols(String codingSymbols) throws IllegalArgumentException {
+    Utils.checkNullOrEmptyString(codingSymbols);
+    if (codingSymbols.length() < 2) {
+      throw new IllegalArgumentException("coding symbols cannot be less than 2");
+    }
+
+    Set<Character> codingSymbolSet = new HashSet<>();
+    for (char codingSymbol : codingSymbols.toCharArray()) {
+      if (!codingSymbolSet.add(codingSymbol)) {
+        throw new IllegalArgumentException("duplicate coding symbols are not allowed");
+      }
+    }
+  }
+
+  /**
+   * Checks that the given code lengths satisfy the Kraft inequality, i.e. the sum of
+   * <code>radix^-length</code> over all the codes is not greater than 1. A prefix code with the
+   * given lengths exists if and only if the inequality holds.
+   *
+   * @param radix       the number of coding symbols
+   * @param codeLengths the code lengths to check
+   * @throws IllegalArgumentException if the given code lengths violate the Kraft inequality
+   */
+  static void checkKraftInequality(int radix, int[] codeLengths)
+          throws IllegalArgumentException {
+
+    int maxLength = 0;
+    for (int codeLength : codeLengths) {
+      maxLength = Math.max(maxLength, codeLength);
+    }
+
+    BigInteger bigRadix = BigInteger.valueOf(radix);
+    BigInteger sum = BigInteger.ZERO;
+    for (int codeLength : codeLengths) {
+      sum = sum.add(bigRadix.pow(maxLength - codeLength));
+    }
+    if (sum.compareTo(bigRadix.pow(maxLength)) > 0) {
+      throw new IllegalArgumentException("code lengths do not form a prefix code");
+    }
+  }
+
+  /**
+   * Writes the given non negative value using 7 bits per byte, the highest bit of a byte being set
+   * if more bytes follow.
+   *
+   * @param output the output to write to
+   * @param value  the value to write
+   * @throws IOException if writing to the output fails
+   */
+  private static void writeVarInt(DataOutput output, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      output.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    output.writeByte(value);
+  }
+
+  /**
+   * Reads a value written by {@link CanonicalCodingTable#writeVarInt(DataOutput, int)}.
+   *
+   * @param input the input to read from
+   * @return the value read
+   * @throws IOException           if reading from the input fails
+   * @throws IllegalStateException if the value does not fit in an int
+   */
+  private static int readVarInt(DataInput input) throws IOException, IllegalStateException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int nextByte = input.readUnsignedByte();
+      value |= (nextByte & 0x7F) << shift;
+      if ((nextByte & 0x80) == 0) {
+        if (value < 0) {
+          throw new IllegalStateException("malformed coding table");
+        }
+        return value;
+      }
+    }
+    throw new IllegalStateException("malformed coding table");
+  }
+
+  /**
+   * Reads a character stored as the difference from the given base.
+   *
+   * @param input the input to read from
+   * @param base  the base to which the stored difference is added
+   * @return the character read
+   * @throws IOException           if reading from the input fails
+   * @throws IllegalStateException if the resulting value is not a character
+   */
+  private static char readChar(DataInput input, int base) throws IOException {
+    int value = base + readVarInt(input);
+    if (value > Character.MAX_VALUE) {
+      throw new IllegalStateException("malformed coding table");
+    }
+    return (char) value;
+  }
+}
@@ -0,0 +1,288 @@
+package codingtable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class represents a static Huffman model, a {@link CanonicalCodingTable} trained once on a
+ * corpus and shared by the encoder and the decoder, hence a message coded with it needs neither a
+ * frequency pass nor a coding table of its own.
+ *
+ * <p>A message may contain symbols which were never seen in training. The table of the model hence
+ * holds an escape symbol, a symbol which does not occur in the corpus. A symbol without a code of
+ * its own, as well as the escape symbol itself, is coded as the code of the escape symbol followed
+ * by the value of the symbol written with a fixed number of coding symbols, most significant
+ * first, in the radix of the coding symbols. For e.g. a binary model escapes a symbol with 16
+ * coding symbols and a hexadecimal model with 4.
+ *
+ * <p>The serialized form of the model contains the magic number "HUFM", the format version as a
+ * byte, the escape symbol as a char and the table serialized by {@link
+ * CanonicalCodingTable#writeTo(DataOutput)}.
+ */
+public class HuffmanModel {
+
+  /**
+   * The magic number at the start of a serialized model, "HUFM" in ASCII.
+   */
+  public static final int MAGIC = 0x4855464D;
+
+  /**
+   * The version of the serialized form of the model.
+   */
+  public static final byte VERSION = 1;
+
+  private final CanonicalCodingTable codingTable;
+  private final char escapeSymbol;
+  private final String escapeCode;
+  private final int escapeLength;
+  private final String[] codes;
+
+  /**
+   * Constructs a {@link HuffmanModel} with the given coding table and escape symbol. It throws an
+   * {@link IllegalArgumentException} if the given table is null or has no code for the given
+   * escape symbol.
+   *
+   * @param codingTable  the coding table of the model
+   * @param escapeSymbol the symbol whose code introduces a symbol without a code of its own
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  public HuffmanModel(CanonicalCodingTable codingTable, char escapeSymbol)
+          throws IllegalArgumentException {
+
+    if (Objects.isNull(codingTable)) {
+      throw new IllegalArgumentException("codingTable cannot be null");
+    }
+    Map<Character, String> codes = codingTable.getCodingTable();
+    if (!codes.containsKey(escapeSymbol)) {
+      throw new IllegalArgumentException(
+              String.format("Invalid escape symbol:'%s'", escapeSymbol));
+    }
+
+    this.codingTable = codingTable;
+    this.escapeSymbol = escapeSymbol;
+    this.escapeCode = codes.get(escapeSymbol);
+    this.escapeLength = getEscapeLength(codingTable.getCodingSymbols().length());
+
+    char maxSymbol = 0;
+    for (char symbol : codes.keySet()) {
+      maxSymbol = (char) Math.max(maxSymbol, symbol);
+    }
+    this.codes = new String[maxSymbol + 1];
+    for (Map.Entry<Character, String> entry : codes.entrySet()) {
+      if (entry.getKey() != escapeSymbol) {
+        this.codes[entry.getKey()] = entry.getValue();
+      }
+    }
+  }
+
+  /**
+   * Returns the coding table of this model.
+   *
+   * @return the coding table of this model
+   */
+  public CanonicalCodingTable getCodingTable() {
+    return this.codingTable;
+  }
+
+  /**
+   * Returns the coding symbols of this model, in the order of their index.
+   *
+   * @return the coding symbols of this model
+   */
+  public String getCodingSymbols() {
+    return this.codingTable.getCodingSymbols();
+  }
+
+  /**
+   * Returns the escape symbol of this model.
+   *
+   * @return the escape symbol of this model
+   */
+  public char getEscapeSymbol() {
+    return this.escapeSymbol;
+  }
+
+  /**
+   * Returns the number of coding symbols which follow the code of the escape symbol to hold the
+   * value of an escaped symbol.
+   *
+   * @return the number of coding symbols of an escaped value
+   */
+  public int getEscapeLength() {
+    return this.escapeLength;
+  }
+
+  /**
+   * Returns true if the given symbol has a code of its own in this model, false if it is escaped.
+   *
+   * @param symbol the symbol to check
+   * @return true if the given symbol has a code of its own
+   */
+  public boolean hasCode(char symbol) {
+    return symbol < this.codes.length && Objects.nonNull(this.codes[symbol]);
+  }
+
+  /**
+   * Returns the code of the given symbol, which for a symbol without a code of its own is the code
+   * of the escape symbol followed by the value of the symbol.
+   *
+   * @param symbol the symbol to return the code of
+   * @return the code of the given symbol
+   */
+  public String getCode(char symbol) {
+    if (this.hasCode(symbol)) {
+      return this.codes[symbol];
+    }
+
+    String codingSymbols = this.codingTable.getCodingSymbols();
+    char[] code = new char[this.escapeCode.length() + this.escapeLength];
+    this.escapeCode.getChars(0, this.escapeCode.length(), code, 0);
+    int value = symbol;
+    for (int i = code.length - 1; i >= this.escapeCode.length(); i--) {
+      code[i] = codingSymbols.charAt(value % codingSymbols.length());
+      value /= codingSymbols.length();
+    }
+    return new String(code);
+  }
+
+  /**
+   * Writes the serialized form of this model to the given output.
+   *
+   * @param output the output to write to
+   * @throws IOException if writing to the output fails
+   */
+  public void writeTo(DataOutput output) throws IOException {
+    output.writeInt(MAGIC);
+    output.writeByte(VERSION);
+    output.writeChar(this.escapeSymbol);
+    this.codingTable.writeTo(output);
+  }
+
+  /**
+   * Returns the serialized form of this model.
+   *
+   * @return the serialized form of this model
+   */
+  public byte[] toByteArray() {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (DataOutputStream output = new DataOutputStream(outputStream)) {
+      this.writeTo(output);
+    } catch (IOException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return outputStream.toByteArray();
+  }
+
+  /**
+   * Writes the serialized form of this model to the given file, replacing the file if it exists.
+   *
+   * @param file the file to write the model to
+   * @throws IOException              if writing to the file fails
+   * @throws IllegalArgumentException if the given file is null
+   */
+  public void save(Path file) throws IOException, IllegalArgumentException {
+    if (Objects.isNull(file)) {
+      throw new IllegalArgumentException("file cannot be null");
+    }
+    try (DataOutputStream output = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(file)))) {
+      this.writeTo(output);
+    }
+  }
+
+  /**
+   * Reads a model serialized by {@link HuffmanModel#writeTo(DataOutput)} from the given input. It
+   * throws an {@link IllegalStateException} if the serialized model is malformed.
+   *
+   * @param input the input to read from
+   * @return the model read from the input
+   * @throws IOException           if reading from the input fails
+   * @throws IllegalStateException if the serialized model is malformed
+   */
+  public static HuffmanModel readFrom(DataInput input) throws IOException, IllegalStateException {
+    if (input.readInt() != MAGIC || input.readByte() != VERSION) {
+      throw new IllegalStateException("malformed model");
+    }
+    char escapeSymbol = input.readChar();
+    CanonicalCodingTable codingTable = CanonicalCodingTable.readFrom(input);
+
+    try {
+      return new HuffmanModel(codingTable, escapeSymbol);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException(String.format("malformed model: %s", e.getMessage()));
+    }
+  }
+
+  /**
+   * Reads a model from its serialized form. It throws an {@link IllegalStateException} if the
+   * serialized model is malformed.
+   *
+   * @param serializedModel the serialized model
+   * @return the model read from the serialized form
+   * @throws IllegalStateException    if the serialized model is malformed
+   * @throws IllegalArgumentException if the given serialized model is null
+   */
+  public static HuffmanModel fromByteArray(byte[] serializedModel)
+          throws IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(serializedModel)) {
+      throw new IllegalArgumentException("serializedModel cannot be null");
+    }
+    try (DataInputStream input = new DataInputStream(
+            new ByteArrayInputStream(serializedModel))) {
+      return readFrom(input);
+    } catch (IOException e) {
+      throw new IllegalStateException("malformed model");
+    }
+  }
+
+  /**
+   * Reads a model from the given file written by {@link HuffmanModel#save(Path)}. It throws an
+   * {@link IllegalStateException} if the serialized model is malformed.
+   *
+   * @param file the file to read the model from
+   * @return the model read from the file
+   * @throws IOException              if reading the file fails
+   * @throws IllegalStateException    if the serialized model is malformed
+   * @throws IllegalArgumentException if the given file is null
+   */
+  public static HuffmanModel load(Path file)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(file)) {
+      throw new IllegalArgumentException("file cannot be null");
+    }
+    try (DataInputStream input = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(file)))) {
+      return readFrom(input);
+    } catch (EOFException e) {
+      throw new IllegalStateException("malformed model");
+    }
+  }
+
+  /**
+   * Returns the number of coding symbols needed to write any char in the given radix.
+   *
+   * @param radix the number of coding symbols
+   * @return the number of coding symbols needed to write any char
+   */
+  private static int getEscapeLength(int radix) {
+    int escapeLength = 0;
+    for (long values = 1; values <= Character.MAX_VALUE; values *= radix) {
+      escapeLength++;
+    }
+    return escapeLength;
+  }
+}
@@ -0,0 +1,203 @@
+package codingtable;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class represents a canonical coding table for symbols which are non negative ints, such as
+ * Unicode code points or the values of raw bytes. The codes are assigned exactly as by {@link
+ * CanonicalCodingTable}, i.e. by sorting the symbols by their code length and then by the symbol
+ * itself, but the table is held in primitive arrays indexed by the symbol instead of a map of
+ * boxed characters, so looking up a code does not allocate.
+ *
+ * <p>The codes are stored as the indexes of their coding symbols, one after the other in a single
+ * array, hence only the number of coding symbols matters to the table and not the coding symbols
+ * themselves. A symbol without a code has a code length of 0.
+ */
+public class IntCodingTable {
+
+  private final int radix;
+  private final int[] codeLengths;
+  private final int[] codeOffsets;
+  private final int[] codes;
+  private final int numberOfSymbols;
+  private final int maxCodeLength;
+
+  /**
+   * Constructs an {@link IntCodingTable} with the given number of coding symbols and the given code
+   * length of every symbol. It throws an {@link IllegalArgumentException} if
+   * <ul>
+   * <li>the given radix is less than 2</li>
+   * <li>the given array of code lengths is null or empty</li>
+   * <li>any code length is negative or all the code lengths are 0</li>
+   * <li>the code lengths cannot belong to a prefix code, i.e. violate the Kraft inequality</li>
+   * </ul>
+   *
+   * @param radix       the number of coding symbols
+   * @param codeLengths the code length of every symbol, indexed by the symbol, 0 if the symbol has
+   *                    no code
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  public IntCodingTable(int radix, int[] codeLengths) throws IllegalArgumentException {
+    if (radix < 2) {
+      throw new IllegalArgumentException("coding symbols cannot be less than 2");
+    }
+    if (Objects.isNull(codeLengths) || codeLengths.length == 0) {
+      throw new IllegalArgumentException("code lengths cannot be null or empty");
+    }
+
+    int symbols = 0;
+    int maxLength = 0;
+    long totalLength = 0;
+    for (int symbol = 0; symbol < codeLengths.length; symbol++) {
+      if (codeLengths[symbol] < 0) {
+        throw new IllegalArgumentException(
+                String.format("Invalid code length for symbol:'%d'", symbol));
+      }
+      if (codeLengths[symbol] > 0) {
+        symbols++;
+        maxLength = Math.max(maxLength, codeLengths[symbol]);
+        totalLength += codeLengths[symbol];
+      }
+    }
+    if (symbols == 0) {
+      throw new IllegalArgumentException("code lengths cannot be null or empty");
+    }
+    if (totalLength > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("code lengths are too long");
+    }
+
+    int[] usedCodeLengths = new int[symbols];
+    int index = 0;
+    for (int codeLength : codeLengths) {
+      if (codeLength > 0) {
+        usedCodeLengths[index++] = codeLength;
+      }
+    }
+    CanonicalCodingTable.checkKraftInequality(radix, usedCodeLengths);
+
+    this.radix = radix;
+    this.codeLengths = codeLengths.clone();
+    this.numberOfSymbols = symbols;
+    this.maxCodeLength = maxLength;
+    this.codeOffsets = new int[codeLengths.length + 1];
+    for (int symbol = 0; symbol < codeLengths.length; symbol++) {
+      this.codeOffsets[symbol + 1] = this.codeOffsets[symbol] + codeLengths[symbol];
+    }
+    this.codes = new int[(int) totalLength];
+    this.assignCanonicalCodes();
+  }
+
+  /**
+   * Returns the number of coding symbols of this table.
+   *
+   * @return the number of coding symbols
+   */
+  public int getRadix() {
+    return this.radix;
+  }
+
+  /**
+   * Returns the size of the alphabet of this table, i.e. one more than the largest symbol which
+   * can have a code.
+   *
+   * @return the size of the alphabet
+   */
+  public int getAlphabetSize() {
+    return this.codeLengths.length;
+  }
+
+  /**
+   * Returns the number of symbols which have a code.
+   *
+   * @return the number of symbols which have a code
+   */
+  public int getNumberOfSymbols() {
+    return this.numberOfSymbols;
+  }
+
+  /**
+   * Returns the length of the longest code.
+   *
+   * @return the length of the longest code
+   */
+  public int getMaxCodeLength() {
+    return this.maxCodeLength;
+  }
+
+  /**
+   * Returns the code length of the given symbol, or 0 if the symbol does not have a code.
+   *
+   * @param symbol the symbol
+   * @return the code length of the given symbol
+   */
+  public int getCodeLength(int symbol) {
+    if (symbol < 0 || symbol >= this.codeLengths.length) {
+      return 0;
+    }
+    return this.codeLengths[symbol];
+  }
+
+  /**
+   * Returns the index of the coding symbol at the given position of the code of the given symbol.
+   * The symbol is expected to have a code longer than the given position.
+   *
+   * @param symbol   the symbol
+   * @param position the position in the code, the first position being the one closest to the
+   *                 root of the coding tree
+   * @return the index of the coding symbol at the given position
+   */
+  public int getCodingSymbolIndex(int symbol, int position) {
+    return this.codes[this.codeOffsets[symbol] + position];
+  }
+
+  /**
+   * Returns the code of the given symbol as the indexes of its coding symbols. It throws an {@link
+   * IllegalArgumentException} if the given symbol does not have a code.
+   *
+   * @param symbol the symbol
+   * @return the indexes of the coding symbols making up the code
+   * @throws IllegalArgumentException if the given symbol does not have a code
+   */
+  public int[] getCode(int symbol) throws IllegalArgumentException {
+    if (this.getCodeLength(symbol) == 0) {
+      throw new IllegalArgumentException(String.format("Invalid symbol:'%d'", symbol));
+    }
+    return Arrays.copyOfRange(this.codes, this.codeOffsets[symbol], this.codeOffsets[symbol + 1]);
+  }
+
+  /**
+   * Assigns the canonical code of every symbol by visiting the symbols in the order of their code
+   * length and then of the symbol itself, and counting upwards in the radix of the coding symbols.
+   * The symbols of every length are collected with a counting sort, hence no boxing is needed.
+   */
+  private void assignCanonicalCodes() {
+    int[] lengthCount = new int[this.maxCodeLength + 2];
+    for (int codeLength : this.codeLengths) {
+      if (codeLength > 0) {
+        lengthCount[codeLength + 1]++;
+      }
+    }
+    for (int length = 1; length < lengthCount.length; length++) {
+      lengthCount[length] += lengthCount[length - 1];
+    }
+
+    int[] sortedSymbols = new int[this.numberOfSymbols];
+    for (int symbol = 0; symbol < this.codeLengths.length; symbol++) {
+      if (this.codeLengths[symbol] > 0) {
+        sortedSymbols[lengthCount[this.codeLengths[symbol]]++] = symbol;
+      }
+    }
+
+    int[] code = new int[this.maxCodeLength];
+    int currentLength = this.codeLengths[sortedSymbols[0]];
+    for (int i = 0; i < sortedSymbols.length; i++) {
+      int symbol = sortedSymbols[i];
+      if (i > 0) {
+        CanonicalCodingTable.incrementCode(code, currentLength, this.radix);
+        currentLength = this.codeLengths[symbol];
+      }
+      System.arraycopy(code, 0, this.codes, this.codeOffsets[symbol], currentLength);
+    }
+  }
+}
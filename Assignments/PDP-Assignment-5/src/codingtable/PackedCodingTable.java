@@ -0,0 +1,231 @@
+package codingtable;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+
+import util.BitWriter;
+import util.Utils;
+
+/**
+ * This class represents a coding table compiled for writing packed codes. The packed code of every
+ * symbol, i.e. the indexes of its coding symbols of {@link Utils#getBitsPerCodingSymbol(int)} bits
+ * each, is concatenated into a single long, and the codes and their lengths in bits are held in
+ * two parallel arrays indexed by the symbol. Hence writing the code of a symbol takes two array
+ * reads and a single call to {@link BitWriter#writeBits(long, int)}, with no lookup in a map, no
+ * boxing and no allocation. A sequence of symbols is written in bulk: the codes of consecutive
+ * symbols are appended to a local 64 bit register which is handed to the writer only once the
+ * next code does not fit in it, hence the writer is called about once per 64 bits instead of once
+ * per symbol.
+ *
+ * <p>A code whose packed form takes more than 64 bits is kept as the array of its coding symbol
+ * indexes instead and written one coding symbol at a time. Such codes only occur in very deep
+ * coding trees, i.e. for very rare symbols.
+ */
+public class PackedCodingTable {
+
+  private static final byte NO_CODE = 0;
+  private static final byte LONG_CODE = -1;
+  private static final int CHUNK_SIZE = 4096;
+
+  private final int bitsPerCodingSymbol;
+  private final long[] codes;
+  private final byte[] codeLengths;
+  private final int[][] longCodes;
+
+  /**
+   * Constructs a {@link PackedCodingTable} from the given arrays.
+   *
+   * @param bitsPerCodingSymbol the number of bits of a coding symbol
+   * @param codes               the packed code of every symbol
+   * @param codeLengths         the length in bits of the packed code of every symbol
+   * @param longCodes           the coding symbol indexes of the codes longer than 64 bits
+   */
+  private PackedCodingTable(int bitsPerCodingSymbol, long[] codes, byte[] codeLengths,
+                            int[][] longCodes) {
+    this.bitsPerCodingSymbol = bitsPerCodingSymbol;
+    this.codes = codes;
+    this.codeLengths = codeLengths;
+    this.longCodes = longCodes;
+  }
+
+  /**
+   * Compiles the given coding table, whose codes are made of the given coding symbols. Empty codes
+   * are skipped so that writing a symbol with an empty code fails in the same way as writing a
+   * symbol which is not in the table. It throws an {@link IllegalArgumentException} if any param
+   * is null or empty and an {@link IllegalStateException} if a code contains a symbol which is not
+   * a coding symbol.
+   *
+   * @param codingSymbols the coding symbols, in the order of their index
+   * @param codingTable   the coding table to compile
+   * @return the compiled coding table
+   * @throws IllegalArgumentException if any of the given params is null or empty
+   * @throws IllegalStateException    if a code contains a symbol which is not a coding symbol
+   */
+  public static PackedCodingTable compile(String codingSymbols, Map<Character, String> codingTable)
+          throws IllegalArgumentException, IllegalStateException {
+
+    Utils.checkNullOrEmptyString(codingSymbols);
+    Utils.checkNullOrEmptyMap(codingTable);
+
+    int bitsPerCodingSymbol = Utils.getBitsPerCodingSymbol(codingSymbols.length());
+    int[] codingSymbolIndex = Utils.getCodingSymbolIndexArray(codingSymbols);
+    char maxSymbol = 0;
+    for (Character symbol : codingTable.keySet()) {
+      maxSymbol = (char) Math.max(maxSymbol, symbol);
+    }
+
+    long[] codes = new long[maxSymbol + 1];
+    byte[] codeLengths = new byte[maxSymbol + 1];
+    int[][] longCodes = null;
+    for (Map.Entry<Character, String> entry : codingTable.entrySet()) {
+      String code = entry.getValue();
+      if (Objects.isNull(code) || code.isEmpty()) {
+        continue;
+      }
+
+      int[] packedCode = new int[code.length()];
+      for (int i = 0; i < code.length(); i++) {
+        char codingSymbol = code.charAt(i);
+        if (codingSymbol >= codingSymbolIndex.length || codingSymbolIndex[codingSymbol] < 0) {
+          throw new IllegalStateException(
+                  String.format("Invalid coding symbol:'%s'", codingSymbol));
+        }
+        packedCode[i] = codingSymbolIndex[codingSymbol];
+      }
+
+      char symbol = entry.getKey();
+      if ((long) code.length() * bitsPerCodingSymbol > Long.SIZE) {
+        if (Objects.isNull(longCodes)) {
+          longCodes = new int[maxSymbol + 1][];
+        }
+        longCodes[symbol] = packedCode;
+        codeLengths[symbol] = LONG_CODE;
+      } else {
+        for (int index : packedCode) {
+          codes[symbol] = (codes[symbol] << bitsPerCodingSymbol) | index;
+        }
+        codeLengths[symbol] = (byte) (code.length() * bitsPerCodingSymbol);
+      }
+    }
+    return new PackedCodingTable(bitsPerCodingSymbol, codes, codeLengths, longCodes);
+  }
+
+  /**
+   * Returns the number of bits of a coding symbol.
+   *
+   * @return the number of bits of a coding symbol
+   */
+  public int getBitsPerCodingSymbol() {
+    return this.bitsPerCodingSymbol;
+  }
+
+  /**
+   * Returns the length in bits of the packed code of the given symbol, 0 if it does not have a
+   * code.
+   *
+   * @param symbol the symbol
+   * @return the length in bits of the packed code of the symbol
+   */
+  public long getCodeLengthInBits(char symbol) {
+    if (symbol >= this.codeLengths.length) {
+      return 0;
+    }
+    if (this.codeLengths[symbol] == LONG_CODE) {
+      return (long) this.longCodes[symbol].length * this.bitsPerCodingSymbol;
+    }
+    return this.codeLengths[symbol];
+  }
+
+  /**
+   * Writes the packed code of the given symbol using the given writer.
+   *
+   * @param writer the writer to write the code to
+   * @param symbol the symbol to write the code of
+   * @throws IOException           if the writer fails
+   * @throws IllegalStateException if the code for the given symbol is not present
+   */
+  public void writeCode(BitWriter writer, char symbol) throws IOException, IllegalStateException {
+    int codeLength = symbol < this.codeLengths.length ? this.codeLengths[symbol] : NO_CODE;
+    if (codeLength > 0) {
+      writer.writeBits(this.codes[symbol], codeLength);
+    } else if (codeLength == LONG_CODE) {
+      for (int codingSymbolIndex : this.longCodes[symbol]) {
+        writer.writeBits(codingSymbolIndex, this.bitsPerCodingSymbol);
+      }
+    } else {
+      throw new IllegalStateException(
+              String.format("invalid coding symbol for symbol:'%s'", symbol));
+    }
+  }
+
+  /**
+   * Writes the packed codes of the symbols of the given sequence between the given indexes using
+   * the given writer.
+   *
+   * @param writer  the writer to write the codes to
+   * @param symbols the sequence holding the symbols
+   * @param start   the index of the first symbol to write
+   * @param end     the index just past the last symbol to write
+   * @throws IOException           if the writer fails
+   * @throws IllegalStateException if the code for a symbol is not present
+   */
+  public void writeCodes(BitWriter writer, CharSequence symbols, int start, int end)
+          throws IOException, IllegalStateException {
+
+    // copying a chunk at a time lets the bulk loop run over an array instead of calling charAt
+    char[] chunk = new char[Math.min(CHUNK_SIZE, Math.max(0, end - start))];
+    for (int chunkStart = start; chunkStart < end; chunkStart += chunk.length) {
+      int chunkEnd = Math.min(end, chunkStart + chunk.length);
+      if (symbols instanceof String) {
+        ((String) symbols).getChars(chunkStart, chunkEnd, chunk, 0);
+      } else {
+        for (int i = chunkStart; i < chunkEnd; i++) {
+          chunk[i - chunkStart] = symbols.charAt(i);
+        }
+      }
+      this.writeCodes(writer, chunk, 0, chunkEnd - chunkStart);
+    }
+  }
+
+  /**
+   * Writes the packed codes of the symbols of the given array between the given indexes using the
+   * given writer. The codes are gathered in a local register which is spilled to the writer only
+   * when the next code does not fit in it. The codes of the symbols before a symbol without a code
+   * are written before the failure is reported, as when they are written one at a time.
+   *
+   * @param writer  the writer to write the codes to
+   * @param symbols the array holding the symbols
+   * @param start   the index of the first symbol to write
+   * @param end     the index just past the last symbol to write
+   * @throws IOException           if the writer fails
+   * @throws IllegalStateException if the code for a symbol is not present
+   */
+  public void writeCodes(BitWriter writer, char[] symbols, int start, int end)
+          throws IOException, IllegalStateException {
+
+    long[] codes = this.codes;
+    byte[] codeLengths = this.codeLengths;
+    long register = 0;
+    int bitsInRegister = 0;
+    for (int i = start; i < end; i++) {
+      char symbol = symbols[i];
+      int codeLength = symbol < codeLengths.length ? codeLengths[symbol] : NO_CODE;
+      if (codeLength <= 0) {
+        writer.writeBits(register, bitsInRegister);
+        register = 0;
+        bitsInRegister = 0;
+        this.writeCode(writer, symbol);
+      } else if (bitsInRegister + codeLength <= Long.SIZE) {
+        // a shift by 64 is a shift by 0 in Java, but then the register is still empty
+        register = (register << codeLength) | codes[symbol];
+        bitsInRegister += codeLength;
+      } else {
+        writer.writeBits(register, bitsInRegister);
+        register = codes[symbol];
+        bitsInRegister = codeLength;
+      }
+    }
+    writer.writeBits(register, bitsInRegister);
+  }
+}
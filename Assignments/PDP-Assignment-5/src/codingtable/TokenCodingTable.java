@@ -0,0 +1,203 @@
+package codingtable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class represents the coding table of a message coded token by token, as written by {@link
+ * encoder.TokenHuffmanEncoder}. Every distinct token of the message, i.e. a word, a run of
+ * whitespace or a punctuation mark, is interned as an int id, the ids being given in the order the
+ * tokens first appear, and the codes of the ids are held in an {@link IntCodingTable}. Hence a
+ * frequent word such as "the" takes a single short code instead of one code per character.
+ *
+ * <p>The serialized form is the magic number "HUFT", a version byte, the number of coding
+ * symbols, the number of tokens and then every token with its code length, in the order of the
+ * ids.
+ */
+public class TokenCodingTable {
+
+  /**
+   * the largest number of chars of a token, so that every token can be serialized with {@link
+   * DataOutput#writeUTF(String)}.
+   */
+  public static final int MAX_TOKEN_LENGTH = 1 << 14;
+
+  private static final int MAGIC = 0x48554654;
+  private static final int VERSION = 1;
+
+  private final String[] tokens;
+  private final Map<String, Integer> tokenIds;
+  private final IntCodingTable codingTable;
+
+  /**
+   * Constructs a {@link TokenCodingTable} with the given tokens, indexed by their id, and the given
+   * table of the codes of the ids. It throws an {@link IllegalArgumentException} if
+   * <ul>
+   * <li>any of the params is null</li>
+   * <li>a token is null, empty, longer than {@link TokenCodingTable#MAX_TOKEN_LENGTH} or
+   * repeated</li>
+   * <li>the coding table does not have a code for exactly the ids of the tokens</li>
+   * </ul>
+   *
+   * @param tokens      the tokens, indexed by their id
+   * @param codingTable the coding table of the ids
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  public TokenCodingTable(String[] tokens, IntCodingTable codingTable)
+          throws IllegalArgumentException {
+
+    if (Objects.isNull(tokens) || Objects.isNull(codingTable)) {
+      throw new IllegalArgumentException("tokens and codingTable cannot be null");
+    }
+    if (codingTable.getAlphabetSize() != tokens.length
+            || codingTable.getNumberOfSymbols() != tokens.length) {
+      throw new IllegalArgumentException(String.format("Invalid token count:'%d'", tokens.length));
+    }
+
+    this.tokens = tokens.clone();
+    this.tokenIds = new HashMap<>(tokens.length * 2);
+    for (int id = 0; id < tokens.length; id++) {
+      if (Objects.isNull(tokens[id]) || tokens[id].isEmpty()
+              || tokens[id].length() > MAX_TOKEN_LENGTH) {
+        throw new IllegalArgumentException(String.format("Invalid token:'%s'", tokens[id]));
+      }
+      if (Objects.nonNull(this.tokenIds.put(tokens[id], id))) {
+        throw new IllegalArgumentException("duplicate tokens are not allowed");
+      }
+    }
+    this.codingTable = codingTable;
+  }
+
+  /**
+   * Returns the number of tokens of the table.
+   *
+   * @return the number of tokens
+   */
+  public int getNumberOfTokens() {
+    return this.tokens.length;
+  }
+
+  /**
+   * Returns the token with the given id.
+   *
+   * @param id the id of the token
+   * @return the token with the given id
+   */
+  public String getToken(int id) {
+    return this.tokens[id];
+  }
+
+  /**
+   * Returns the id of the given token, -1 if the table does not have it.
+   *
+   * @param token the token to look up
+   * @return the id of the given token, -1 if it is not in the table
+   */
+  public int getTokenId(String token) {
+    return this.tokenIds.getOrDefault(token, -1);
+  }
+
+  /**
+   * Returns the coding table of the ids of the tokens.
+   *
+   * @return the coding table of the ids
+   */
+  public IntCodingTable getCodingTable() {
+    return this.codingTable;
+  }
+
+  /**
+   * Writes the serialized form of the table to the given output.
+   *
+   * @param output the output to write to
+   * @throws IOException if writing to the output fails
+   */
+  public void writeTo(DataOutput output) throws IOException {
+    output.writeInt(MAGIC);
+    output.writeByte(VERSION);
+    output.writeInt(this.codingTable.getRadix());
+    output.writeInt(this.tokens.length);
+    for (int id = 0; id < this.tokens.length; id++) {
+      output.writeUTF(this.tokens[id]);
+      output.writeInt(this.codingTable.getCodeLength(id));
+    }
+  }
+
+  /**
+   * Returns the serialized form of the table.
+   *
+   * @return the serialized form of the table
+   */
+  public byte[] toByteArray() {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (DataOutputStream output = new DataOutputStream(outputStream)) {
+      this.writeTo(output);
+    } catch (IOException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return outputStream.toByteArray();
+  }
+
+  /**
+   * Reads the table from the given input, as written by {@link
+   * TokenCodingTable#writeTo(DataOutput)}. It throws an {@link IllegalStateException} if the
+   * serialized table is malformed.
+   *
+   * @param input the input to read from
+   * @return the table read from the input
+   * @throws IOException           if reading from the input fails
+   * @throws IllegalStateException if the serialized table is malformed
+   */
+  public static TokenCodingTable readFrom(DataInput input)
+          throws IOException, IllegalStateException {
+
+    if (input.readInt() != MAGIC || input.readByte() != VERSION) {
+      throw new IllegalStateException("malformed token coding table");
+    }
+    int radix = input.readInt();
+    int numberOfTokens = input.readInt();
+    if (numberOfTokens < 1) {
+      throw new IllegalStateException("malformed token coding table");
+    }
+
+    String[] tokens = new String[numberOfTokens];
+    int[] codeLengths = new int[numberOfTokens];
+    for (int id = 0; id < numberOfTokens; id++) {
+      tokens[id] = input.readUTF();
+      codeLengths[id] = input.readInt();
+    }
+
+    try {
+      return new TokenCodingTable(tokens, new IntCodingTable(radix, codeLengths));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException(
+              String.format("malformed token coding table: %s", e.getMessage()));
+    }
+  }
+
+  /**
+   * Reads the table from the given serialized form. The failure conditions are the same as that of
+   * {@link TokenCodingTable#readFrom(DataInput)}.
+   *
+   * @param serializedTable the serialized form of the table
+   * @return the table read from the given bytes
+   * @throws IllegalStateException if the serialized table is malformed
+   */
+  public static TokenCodingTable fromByteArray(byte[] serializedTable)
+          throws IllegalStateException {
+
+    try {
+      return readFrom(new DataInputStream(new ByteArrayInputStream(serializedTable)));
+    } catch (IOException e) {
+      throw new IllegalStateException("malformed token coding table");
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package container;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import container.bean.BlockInfo;
+
+/**
+ * This class represents the layout of a compressed container. All the numbers are stored big
+ * endian. A container is laid out as follows.
+ * <ul>
+ * <li>header: the magic number "HUFC", the format version as a byte, the length of the serialized
+ * coding table as an int and the coding table serialized by {@link
+ * codingtable.CanonicalCodingTable}, which also holds the coding symbols. The length is 0 if the
+ * original message is empty.</li>
+ * <li>blocks: every block starts with its encoded length as a long, its symbol count as an int,
+ * its decoded length in UTF-8 bytes as a long, its CRC32C checksum as an int and its payload
+ * length as an int, followed by the payload, i.e. the packed coding symbols. A block does not
+ * depend on any other block, hence it can be decoded on its own.</li>
+ * <li>index: one entry per block holding the offset of the block header as a long followed by the
+ * same fields as the block header, in the order payload length, encoded length, symbol count,
+ * decoded length and checksum.</li>
+ * <li>trailer: the offset of the index as a long, the number of blocks as an int and the magic
+ * number "HUFI".</li>
+ * </ul>
+ */
+public class ContainerFormat {
+
+  /**
+   * The magic number at the start of a container, "HUFC" in ASCII.
+   */
+  public static final int HEADER_MAGIC = 0x48554643;
+
+  /**
+   * The magic number at the end of a container, "HUFI" in ASCII.
+   */
+  public static final int TRAILER_MAGIC = 0x48554649;
+
+  /**
+   * The version of the container format.
+   */
+  public static final byte VERSION = 1;
+
+  /**
+   * The size of the fixed part of the header, before the coding table.
+   */
+  public static final int HEADER_SIZE = 4 + 1 + 4;
+
+  /**
+   * The size of a block header.
+   */
+  public static final int BLOCK_HEADER_SIZE = 8 + 4 + 8 + 4 + 4;
+
+  /**
+   * The size of an index entry.
+   */
+  public static final int INDEX_ENTRY_SIZE = 8 + BLOCK_HEADER_SIZE;
+
+  /**
+   * The size of the trailer.
+   */
+  public static final int TRAILER_SIZE = 8 + 4 + 4;
+
+  /**
+   * Writes the header of the given block.
+   *
+   * @param output    the output to write to
+   * @param blockInfo the block whose header is to be written
+   * @throws IOException if writing fails
+   */
+  public static void writeBlockHeader(DataOutput output, BlockInfo blockInfo) throws IOException {
+    output.writeLong(blockInfo.getEncodedLength());
+    output.writeInt(blockInfo.getSymbolCount());
+    output.writeLong(blockInfo.getDecodedByteLength());
+    output.writeInt(blockInfo.getChecksum());
+    output.writeInt(blockInfo.getPayloadLength());
+  }
+
+  /**
+   * Writes the index entry of the given block.
+   *
+   * @param output    the output to write to
+   * @param blockInfo the block whose index entry is to be written
+   * @throws IOException if writing fails
+   */
+  public static void writeIndexEntry(DataOutput output, BlockInfo blockInfo) throws IOException {
+    output.writeLong(blockInfo.getOffset());
+    output.writeInt(blockInfo.getPayloadLength());
+    output.writeLong(blockInfo.getEncodedLength());
+    output.writeInt(blockInfo.getSymbolCount());
+    output.writeLong(blockInfo.getDecodedByteLength());
+    output.writeInt(blockInfo.getChecksum());
+  }
+
+  /**
+   * Reads an index entry written by {@link ContainerFormat#writeIndexEntry(DataOutput,
+   * BlockInfo)}.
+   *
+   * @param input the input to read from
+   * @return the block described by the index entry
+   * @throws IOException if reading fails
+   */
+  public static BlockInfo readIndexEntry(DataInput input) throws IOException {
+    long offset = input.readLong();
+    int payloadLength = input.readInt();
+    long encodedLength = input.readLong();
+    int symbolCount = input.readInt();
+    long decodedByteLength = input.readLong();
+    int checksum = input.readInt();
+    return new BlockInfo(offset, payloadLength, encodedLength, symbolCount, decodedByteLength,
+            checksum);
+  }
+
+  /**
+   * Returns the number of bytes of the given characters when encoded as UTF-8.
+   *
+   * @param chars  the characters
+   * @param length the number of characters to measure
+   * @return the number of bytes of the given characters when encoded as UTF-8
+   */
+  public static long getUtf8Length(char[] chars, int length) {
+    return new String(chars, 0, length).getBytes(StandardCharsets.UTF_8).length;
+  }
+}
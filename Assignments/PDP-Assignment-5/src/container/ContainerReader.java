@@ -0,0 +1,329 @@
+package container;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+import codingtable.CanonicalCodingTable;
+import container.bean.BlockInfo;
+import decoder.DecoderImpl;
+
+/**
+ * This class represents a ContainerReader. It reads a container laid out as described by {@link
+ * ContainerFormat}. The header and the block index are read when the reader is opened, after which
+ * any block can be read and decoded on its own. The checksum of a block is verified every time the
+ * block is read, so a corrupted block is detected before it is decoded.
+ */
+public class ContainerReader implements Closeable {
+
+  private final FileChannel channel;
+  private final CanonicalCodingTable canonicalCodingTable;
+  private final DecoderImpl decoder;
+  private final List<BlockInfo> blocks;
+
+  /**
+   * Constructs a {@link ContainerReader} for the container at the given path. It throws an {@link
+   * IllegalStateException} if the file is not a container, if its version is not supported or if
+   * its header or index is malformed.
+   *
+   * @param container the path of the container
+   * @throws IOException              if reading the container fails
+   * @throws IllegalStateException    if the container is invalid
+   * @throws IllegalArgumentException if the given path is null
+   */
+  public ContainerReader(Path container)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(container)) {
+      throw new IllegalArgumentException("container cannot be null");
+    }
+
+    this.channel = FileChannel.open(container, StandardOpenOption.READ);
+    try {
+      this.canonicalCodingTable = this.readHeader();
+      this.decoder = getDecoder(this.canonicalCodingTable);
+      this.blocks = Collections.unmodifiableList(this.readIndex());
+    } catch (IOException | RuntimeException e) {
+      this.channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the canonical coding table of the container, or null if the container holds an empty
+   * message.
+   *
+   * @return the canonical coding table of the container
+   */
+  public CanonicalCodingTable getCodingTable() {
+    return this.canonicalCodingTable;
+  }
+
+  /**
+   * Returns the number of blocks in the container.
+   *
+   * @return the number of blocks in the container
+   */
+  public int getNumberOfBlocks() {
+    return this.blocks.size();
+  }
+
+  /**
+   * Returns the information about the block at the given index.
+   *
+   * @param blockIndex the index of the block
+   * @return the information about the block
+   * @throws IllegalArgumentException if there is no block at the given index
+   */
+  public BlockInfo getBlockInfo(int blockIndex) throws IllegalArgumentException {
+    if (blockIndex < 0 || blockIndex >= this.blocks.size()) {
+      throw new IllegalArgumentException(String.format("Invalid block index:'%d'", blockIndex));
+    }
+    return this.blocks.get(blockIndex);
+  }
+
+  /**
+   * Reads, verifies and decodes the block at the given index. It can be called concurrently for
+   * different blocks since neither the channel position nor the decoder is modified.
+   *
+   * @param blockIndex the index of the block
+   * @return the decoded text of the block
+   * @throws IOException              if reading the container fails
+   * @throws IllegalStateException    if the block is corrupted or cannot be decoded
+   * @throws IllegalArgumentException if there is no block at the given index
+   */
+  public String decodeBlock(int blockIndex)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    BlockInfo blockInfo = this.getBlockInfo(blockIndex);
+    byte[] payload = this.readPayload(blockIndex);
+    String text = this.decoder.decode(payload, blockInfo.getEncodedLength());
+    if (text.length() != blockInfo.getSymbolCount()) {
+      throw new IllegalStateException(
+              String.format("symbol count mismatch in block:'%d'", blockIndex));
+    }
+    return text;
+  }
+
+  /**
+   * Decodes all the blocks in order and writes the text to the given writer. The writer is flushed
+   * but not closed.
+   *
+   * @param writer the writer to write the text to
+   * @return the number of symbols written
+   * @throws IOException              if reading the container or writing the text fails
+   * @throws IllegalStateException    if a block is corrupted or cannot be decoded
+   * @throws IllegalArgumentException if the given writer is null
+   */
+  public long decompress(Writer writer)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(writer)) {
+      throw new IllegalArgumentException("writer cannot be null");
+    }
+
+    long symbols = 0;
+    for (int i = 0; i < this.blocks.size(); i++) {
+      String text = this.decodeBlock(i);
+      writer.write(text);
+      symbols += text.length();
+    }
+    writer.flush();
+    return symbols;
+  }
+
+  /**
+   * Decodes all the blocks in order and writes the text to the given path encoded as UTF-8,
+   * replacing the file if it exists.
+   *
+   * @param output the path to write the text to
+   * @return the number of symbols written
+   * @throws IOException              if reading the container or writing the text fails
+   * @throws IllegalStateException    if a block is corrupted or cannot be decoded
+   * @throws IllegalArgumentException if the given path is null
+   */
+  public long decompress(Path output)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(output)) {
+      throw new IllegalArgumentException("output cannot be null");
+    }
+    try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+      return this.decompress(writer);
+    }
+  }
+
+  /**
+   * Closes the underlying container file.
+   *
+   * @throws IOException if closing the file fails
+   */
+  @Override
+  public void close() throws IOException {
+    this.channel.close();
+  }
+
+  /**
+   * Reads the payload of the block at the given index and verifies it against the block header and
+   * the checksum.
+   *
+   * @param blockIndex the index of the block
+   * @return the payload of the block
+   * @throws IOException           if reading the container fails
+   * @throws IllegalStateException if the block header does not match the index or the checksum
+   *                               does not match the payload
+   */
+  private byte[] readPayload(int blockIndex) throws IOException, IllegalStateException {
+    BlockInfo blockInfo = this.blocks.get(blockIndex);
+    ByteBuffer block =
+            this.read(blockInfo.getOffset(),
+                    ContainerFormat.BLOCK_HEADER_SIZE + blockInfo.getPayloadLength());
+
+    if (block.getLong() != blockInfo.getEncodedLength()
+            || block.getInt() != blockInfo.getSymbolCount()
+            || block.getLong() != blockInfo.getDecodedByteLength()
+            || block.getInt() != blockInfo.getChecksum()
+            || block.getInt() != blockInfo.getPayloadLength()) {
+      throw new IllegalStateException(
+              String.format("block header does not match index for block:'%d'", blockIndex));
+    }
+
+    byte[] payload = new byte[blockInfo.getPayloadLength()];
+    block.get(payload);
+    CRC32C checksum = new CRC32C();
+    checksum.update(payload, 0, payload.length);
+    if ((int) checksum.getValue() != blockInfo.getChecksum()) {
+      throw new IllegalStateException(
+              String.format("checksum mismatch in block:'%d'", blockIndex));
+    }
+    return payload;
+  }
+
+  /**
+   * Reads and validates the header of the container and returns its coding table.
+   *
+   * @return the coding table of the container, or null if the container holds an empty message
+   * @throws IOException           if reading the container fails
+   * @throws IllegalStateException if the header is invalid
+   */
+  private CanonicalCodingTable readHeader() throws IOException, IllegalStateException {
+    if (this.channel.size() < ContainerFormat.HEADER_SIZE + ContainerFormat.TRAILER_SIZE) {
+      throw new IllegalStateException("not a container file");
+    }
+
+    ByteBuffer header = this.read(0, ContainerFormat.HEADER_SIZE);
+    if (header.getInt() != ContainerFormat.HEADER_MAGIC) {
+      throw new IllegalStateException("not a container file");
+    }
+    byte version = header.get();
+    if (version != ContainerFormat.VERSION) {
+      throw new IllegalStateException(
+              String.format("unsupported container version:'%d'", version));
+    }
+
+    int tableLength = header.getInt();
+    if (tableLength < 0 || tableLength > this.channel.size() - ContainerFormat.HEADER_SIZE
+            - ContainerFormat.TRAILER_SIZE) {
+      throw new IllegalStateException("malformed container header");
+    }
+    if (tableLength == 0) {
+      return null;
+    }
+    return CanonicalCodingTable.fromByteArray(
+            this.read(ContainerFormat.HEADER_SIZE, tableLength).array());
+  }
+
+  /**
+   * Reads and validates the trailer and the block index of the container.
+   *
+   * @return the information about every block in the container
+   * @throws IOException           if reading the container fails
+   * @throws IllegalStateException if the trailer or the index is invalid
+   */
+  private List<BlockInfo> readIndex() throws IOException, IllegalStateException {
+    long size = this.channel.size();
+    ByteBuffer trailer = this.read(size - ContainerFormat.TRAILER_SIZE,
+            ContainerFormat.TRAILER_SIZE);
+    long indexOffset = trailer.getLong();
+    int blockCount = trailer.getInt();
+    if (trailer.getInt() != ContainerFormat.TRAILER_MAGIC) {
+      throw new IllegalStateException("not a container file");
+    }
+    if (blockCount < 0 || blockCount > Integer.MAX_VALUE / ContainerFormat.INDEX_ENTRY_SIZE
+            || indexOffset < ContainerFormat.HEADER_SIZE
+            || indexOffset + (long) blockCount * ContainerFormat.INDEX_ENTRY_SIZE
+            != size - ContainerFormat.TRAILER_SIZE
+            || (blockCount > 0 && Objects.isNull(this.canonicalCodingTable))) {
+      throw new IllegalStateException("malformed container index");
+    }
+
+    byte[] index = this.read(indexOffset, blockCount * ContainerFormat.INDEX_ENTRY_SIZE).array();
+    DataInputStream input = new DataInputStream(new ByteArrayInputStream(index));
+    List<BlockInfo> blocks = new ArrayList<>(blockCount);
+    long expectedOffset = size - ContainerFormat.TRAILER_SIZE
+            - (long) blockCount * ContainerFormat.INDEX_ENTRY_SIZE;
+    for (int i = 0; i < blockCount; i++) {
+      BlockInfo blockInfo = ContainerFormat.readIndexEntry(input);
+      if (blockInfo.getPayloadLength() < 0 || blockInfo.getOffset() < ContainerFormat.HEADER_SIZE
+              || blockInfo.getOffset() + ContainerFormat.BLOCK_HEADER_SIZE
+              + blockInfo.getPayloadLength() > expectedOffset) {
+        throw new IllegalStateException("malformed container index");
+      }
+      blocks.add(blockInfo);
+    }
+    return blocks;
+  }
+
+  /**
+   * Reads the given number of bytes at the given position of the container without moving the
+   * position of the channel.
+   *
+   * @param position the position to read from
+   * @param length   the number of bytes to read
+   * @return a buffer holding the bytes read, positioned at its start
+   * @throws IOException           if reading the container fails
+   * @throws IllegalStateException if the container ends before the given number of bytes
+   */
+  private ByteBuffer read(long position, int length) throws IOException, IllegalStateException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      int bytesRead = this.channel.read(buffer, position + buffer.position());
+      if (bytesRead < 0) {
+        throw new IllegalStateException("unexpected end of container");
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * Returns a decoder holding all the codes of the given canonical coding table.
+   *
+   * @param canonicalCodingTable the coding table, or null if the container is empty
+   * @return the decoder for the given table, or null if the table is null
+   */
+  private static DecoderImpl getDecoder(CanonicalCodingTable canonicalCodingTable) {
+    if (Objects.isNull(canonicalCodingTable)) {
+      return null;
+    }
+    DecoderImpl decoder = new DecoderImpl(canonicalCodingTable.getCodingSymbols());
+    for (Map.Entry<Character, String> entry : canonicalCodingTable.getCodingTable().entrySet()) {
+      decoder.addCode(entry.getKey(), entry.getValue());
+    }
+    return decoder;
+  }
+}
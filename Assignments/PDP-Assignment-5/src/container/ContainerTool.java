@@ -0,0 +1,88 @@
+package container;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import encoder.HuffmanEncoder;
+import util.Utils;
+
+/**
+ * This class represents a command line tool to compress a UTF-8 encoded file into a container and
+ * to decompress a container back into the file, decoding the blocks in parallel on the common
+ * {@link ForkJoinPool}. It is used as follows.
+ * <ul>
+ * <li><code>compress &lt;input&gt; &lt;container&gt; [codingSymbols]</code>, the coding symbols
+ * defaulting to "01"</li>
+ * <li><code>decompress &lt;container&gt; &lt;output&gt;</code></li>
+ * </ul>
+ */
+public class ContainerTool {
+
+  private static final String DEFAULT_CODING_SYMBOLS = "01";
+  private static final String USAGE =
+          "usage: compress <input> <container> [codingSymbols] | decompress <container> <output>";
+
+  /**
+   * Runs the tool with the given arguments. It exits with status 1 if the arguments are invalid or
+   * the command fails.
+   *
+   * @param args the command line arguments
+   */
+  public static void main(String[] args) {
+    try {
+      System.out.println(run(args));
+    } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+      System.err.println(e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Runs the tool with the given arguments and returns a summary of what was done.
+   *
+   * @param args the command line arguments
+   * @return a summary of what was done
+   * @throws IOException              if reading or writing a file fails
+   * @throws IllegalStateException    if the container is invalid
+   * @throws IllegalArgumentException if the arguments are invalid
+   */
+  public static String run(String[] args)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (args.length == 4 && args[0].equals("compress")) {
+      return compress(Paths.get(args[1]), Paths.get(args[2]), args[3]);
+    } else if (args.length == 3 && args[0].equals("compress")) {
+      return compress(Paths.get(args[1]), Paths.get(args[2]), DEFAULT_CODING_SYMBOLS);
+    } else if (args.length == 3 && args[0].equals("decompress")) {
+      try (ContainerReader reader = new ContainerReader(Paths.get(args[1]))) {
+        long symbols = new ParallelContainerDecoder(ForkJoinPool.commonPool())
+                .decode(reader, Paths.get(args[2]));
+        return String.format("decompressed %d symbols from %d blocks", symbols,
+                reader.getNumberOfBlocks());
+      }
+    }
+    throw new IllegalArgumentException(USAGE);
+  }
+
+  /**
+   * Compresses the given file into a container using the given coding symbols.
+   *
+   * @param input         the UTF-8 encoded file to compress
+   * @param output        the path of the container to write
+   * @param codingSymbols the coding symbols to encode with
+   * @return a summary of the compression
+   * @throws IOException              if reading or writing a file fails
+   * @throws IllegalArgumentException if the coding symbols are invalid
+   */
+  private static String compress(Path input, Path output, String codingSymbols)
+          throws IOException, IllegalArgumentException {
+
+    List<Character> codingSymbolList = Utils.convertStringToCharacterArray(codingSymbols);
+    int blocks = new ContainerWriter(new HuffmanEncoder(), codingSymbolList)
+            .compress(input, output).size();
+    return String.format("compressed into %d blocks", blocks);
+  }
+}
@@ -0,0 +1,192 @@
+package container;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+import codingtable.CanonicalCodingTable;
+import container.bean.BlockInfo;
+import encoder.HuffmanEncoder;
+import util.Utils;
+
+/**
+ * This class represents a ContainerWriter. It compresses a UTF-8 encoded file into a container
+ * laid out as described by {@link ContainerFormat}. The coding table is generated for the whole
+ * file using {@link HuffmanEncoder#generateCanonicalCodingTable(List, Path)}, hence only the code
+ * lengths have to be stored, and the text of the file is then encoded in blocks of a fixed number
+ * of symbols. A block never ends between the two surrogates of a supplementary character, so every
+ * block decodes to valid text on its own.
+ */
+public class ContainerWriter {
+
+  /**
+   * The default number of symbols in a block.
+   */
+  public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+  private final HuffmanEncoder encoder;
+  private final List<Character> codingSymbols;
+  private final int blockSize;
+
+  /**
+   * Constructs a {@link ContainerWriter} which encodes using the given encoder and coding symbols,
+   * with the default block size.
+   *
+   * @param encoder       the encoder to generate the coding table and encode with
+   * @param codingSymbols the coding symbols to encode with
+   * @throws IllegalArgumentException if the given params are invalid
+   */
+  public ContainerWriter(HuffmanEncoder encoder, List<Character> codingSymbols)
+          throws IllegalArgumentException {
+    this(encoder, codingSymbols, DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * Constructs a {@link ContainerWriter} which encodes using the given encoder and coding symbols.
+   * It throws {@link IllegalArgumentException} if the encoder is null, the coding symbols are null
+   * or empty or the block size is less than 2.
+   *
+   * @param encoder       the encoder to generate the coding table and encode with
+   * @param codingSymbols the coding symbols to encode with
+   * @param blockSize     the number of symbols in a block
+   * @throws IllegalArgumentException if the given params are invalid
+   */
+  public ContainerWriter(HuffmanEncoder encoder, List<Character> codingSymbols, int blockSize)
+          throws IllegalArgumentException {
+
+    if (Objects.isNull(encoder)) {
+      throw new IllegalArgumentException("encoder cannot be null");
+    }
+    Utils.checkNullOrEmptyCollection(codingSymbols);
+    if (blockSize < 2) {
+      throw new IllegalArgumentException(String.format("Invalid block size:'%d'", blockSize));
+    }
+    this.encoder = encoder;
+    this.codingSymbols = new ArrayList<>(codingSymbols);
+    this.blockSize = blockSize;
+  }
+
+  /**
+   * Compresses the given UTF-8 encoded file into a container at the given output path, replacing
+   * the output if it exists. A malformed byte sequence in the input is read as the replacement
+   * character. An empty input results in a container without a coding table and blocks.
+   *
+   * @param input  the UTF-8 encoded file to compress
+   * @param output the path of the container to write
+   * @return the blocks written to the container
+   * @throws IOException              if reading the input or writing the output fails
+   * @throws IllegalArgumentException if the given paths are null or the coding symbols do not
+   *                                  pass the sanity checks of {@link HuffmanEncoder}
+   */
+  public List<BlockInfo> compress(Path input, Path output)
+          throws IOException, IllegalArgumentException {
+
+    if (Objects.isNull(input) || Objects.isNull(output)) {
+      throw new IllegalArgumentException("input and output cannot be null");
+    }
+
+    CanonicalCodingTable canonicalCodingTable = null;
+    byte[] serializedTable = new byte[0];
+    if (Files.size(input) > 0) {
+      canonicalCodingTable = this.encoder.generateCanonicalCodingTable(this.codingSymbols, input);
+      serializedTable = canonicalCodingTable.toByteArray();
+    }
+
+    List<BlockInfo> blocks = new ArrayList<>();
+    try (PushbackReader reader =
+                 new PushbackReader(Utils.newUtf8Reader(input));
+         DataOutputStream outputStream =
+                 new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+
+      outputStream.writeInt(ContainerFormat.HEADER_MAGIC);
+      outputStream.writeByte(ContainerFormat.VERSION);
+      outputStream.writeInt(serializedTable.length);
+      outputStream.write(serializedTable);
+      long offset = ContainerFormat.HEADER_SIZE + serializedTable.length;
+
+      if (Objects.nonNull(canonicalCodingTable)) {
+        Map<Character, String> codingTable = canonicalCodingTable.getCodingTable();
+        char[] block = new char[this.blockSize];
+        int blockLength;
+        while ((blockLength = readBlock(reader, block)) > 0) {
+          BlockInfo blockInfo =
+                  this.writeBlock(outputStream, offset, codingTable, block, blockLength);
+          blocks.add(blockInfo);
+          offset += ContainerFormat.BLOCK_HEADER_SIZE + blockInfo.getPayloadLength();
+        }
+      }
+
+      for (BlockInfo blockInfo : blocks) {
+        ContainerFormat.writeIndexEntry(outputStream, blockInfo);
+      }
+      outputStream.writeLong(offset);
+      outputStream.writeInt(blocks.size());
+      outputStream.writeInt(ContainerFormat.TRAILER_MAGIC);
+    }
+    return blocks;
+  }
+
+  /**
+   * Encodes the given block and writes its header and payload to the given stream.
+   *
+   * @param outputStream the stream to write the block to
+   * @param offset       the position of the block in the container
+   * @param codingTable  the coding table to encode with
+   * @param block        the symbols of the block
+   * @param blockLength  the number of symbols in the block
+   * @return the information about the written block
+   * @throws IOException if writing the block fails
+   */
+  private BlockInfo writeBlock(DataOutputStream outputStream, long offset,
+                               Map<Character, String> codingTable, char[] block, int blockLength)
+          throws IOException {
+
+    ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    long encodedLength = this.encoder.encode(this.codingSymbols, codingTable,
+            new CharArrayReader(block, 0, blockLength), payload);
+    byte[] payloadBytes = payload.toByteArray();
+
+    CRC32C checksum = new CRC32C();
+    checksum.update(payloadBytes, 0, payloadBytes.length);
+
+    BlockInfo blockInfo = new BlockInfo(offset, payloadBytes.length, encodedLength, blockLength,
+            ContainerFormat.getUtf8Length(block, blockLength), (int) checksum.getValue());
+    ContainerFormat.writeBlockHeader(outputStream, blockInfo);
+    outputStream.write(payloadBytes);
+    return blockInfo;
+  }
+
+  /**
+   * Reads the next block of symbols from the given reader and returns the number of symbols read.
+   * The block is filled completely unless the reader ends, except that a trailing high surrogate is
+   * pushed back to be read with the next block.
+   *
+   * @param reader the reader to read from
+   * @param block  the array to read the symbols into
+   * @return the number of symbols read, 0 if the reader has ended
+   * @throws IOException if reading fails
+   */
+  static int readBlock(PushbackReader reader, char[] block) throws IOException {
+    int blockLength = 0;
+    int charsRead;
+    while (blockLength < block.length
+            && (charsRead = reader.read(block, blockLength, block.length - blockLength)) != -1) {
+      blockLength += charsRead;
+    }
+
+    if (blockLength == block.length && Character.isHighSurrogate(block[blockLength - 1])) {
+      reader.unread(block[--blockLength]);
+    }
+    return blockLength;
+  }
+}
@@ -0,0 +1,208 @@
+package container;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import container.bean.BlockInfo;
+
+/**
+ * This class represents a ParallelContainerDecoder. It decodes the blocks of a container on a
+ * {@link ForkJoinPool}. Since every block is encoded independently and the index records the
+ * number of symbols and UTF-8 bytes of every block, the position of the output of every block is
+ * known before decoding, hence the workers write their output directly to its final place without
+ * any coordination.
+ */
+public class ParallelContainerDecoder {
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Constructs a {@link ParallelContainerDecoder} which decodes on the given pool.
+   *
+   * @param pool the pool to decode on
+   * @throws IllegalArgumentException if the given pool is null
+   */
+  public ParallelContainerDecoder(ForkJoinPool pool) throws IllegalArgumentException {
+    if (Objects.isNull(pool)) {
+      throw new IllegalArgumentException("pool cannot be null");
+    }
+    this.pool = pool;
+  }
+
+  /**
+   * Decodes all the blocks of the given container in parallel into a single array. It throws an
+   * {@link IllegalStateException} if a block is corrupted or cannot be decoded, or if the decoded
+   * message is too large for an array.
+   *
+   * @param reader the reader of the container
+   * @return the decoded message
+   * @throws IOException              if reading the container fails
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given reader is null
+   */
+  public char[] decode(ContainerReader reader)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(reader)) {
+      throw new IllegalArgumentException("reader cannot be null");
+    }
+
+    long[] symbolOffsets = new long[reader.getNumberOfBlocks() + 1];
+    for (int i = 0; i < reader.getNumberOfBlocks(); i++) {
+      symbolOffsets[i + 1] = symbolOffsets[i] + reader.getBlockInfo(i).getSymbolCount();
+    }
+    if (symbolOffsets[symbolOffsets.length - 1] > Integer.MAX_VALUE - 8) {
+      throw new IllegalStateException("decoded message is too large for an array");
+    }
+
+    char[] message = new char[(int) symbolOffsets[symbolOffsets.length - 1]];
+    this.invoke(reader, blockIndex -> {
+      String block = reader.decodeBlock(blockIndex);
+      block.getChars(0, block.length(), message, (int) symbolOffsets[blockIndex]);
+    });
+    return message;
+  }
+
+  /**
+   * Decodes all the blocks of the given container in parallel and writes the message to the given
+   * path encoded as UTF-8, replacing the file if it exists. Every block is written at the sum of
+   * the decoded lengths of the blocks before it, hence the blocks are written in any order. It
+   * throws an {@link IllegalStateException} if a block is corrupted or cannot be decoded, or if the
+   * length of a decoded block differs from the one in the index.
+   *
+   * @param reader the reader of the container
+   * @param output the path to write the message to
+   * @return the number of symbols written
+   * @throws IOException              if reading the container or writing the output fails
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given params are null
+   */
+  public long decode(ContainerReader reader, Path output)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(reader) || Objects.isNull(output)) {
+      throw new IllegalArgumentException("reader and output cannot be null");
+    }
+
+    long[] byteOffsets = new long[reader.getNumberOfBlocks() + 1];
+    long symbols = 0;
+    for (int i = 0; i < reader.getNumberOfBlocks(); i++) {
+      BlockInfo blockInfo = reader.getBlockInfo(i);
+      byteOffsets[i + 1] = byteOffsets[i] + blockInfo.getDecodedByteLength();
+      symbols += blockInfo.getSymbolCount();
+    }
+
+    try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      this.invoke(reader, blockIndex -> {
+        byte[] bytes = reader.decodeBlock(blockIndex).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length != reader.getBlockInfo(blockIndex).getDecodedByteLength()) {
+          throw new IllegalStateException(
+                  String.format("decoded length mismatch in block:'%d'", blockIndex));
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+          channel.write(buffer, byteOffsets[blockIndex] + buffer.position());
+        }
+      });
+    }
+    return symbols;
+  }
+
+  /**
+   * Runs the given action for every block of the given container on the pool and waits for all
+   * of them to finish.
+   *
+   * @param reader the reader of the container
+   * @param action the action to run for every block
+   * @throws IOException           if an action fails to read or write
+   * @throws IllegalStateException if an action fails to decode
+   */
+  private void invoke(ContainerReader reader, BlockAction action)
+          throws IOException, IllegalStateException {
+    try {
+      this.pool.invoke(new BlockTask(action, 0, reader.getNumberOfBlocks()));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } catch (IllegalStateException e) {
+      // the pool rethrows an exception of another worker wrapped in a copy of itself
+      while (e.getCause() instanceof IllegalStateException) {
+        e = (IllegalStateException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * This interface represents an action to run on a single block.
+   */
+  private interface BlockAction {
+
+    /**
+     * Runs the action on the block at the given index.
+     *
+     * @param blockIndex the index of the block
+     * @throws IOException if reading or writing fails
+     */
+    void run(int blockIndex) throws IOException;
+  }
+
+  /**
+   * This class represents a task which runs a {@link BlockAction} for a range of blocks, splitting
+   * the range in halves till a single block is left.
+   */
+  private static class BlockTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final BlockAction action;
+    private final int start;
+    private final int end;
+
+    /**
+     * Constructs a {@link BlockTask} for the given range of blocks.
+     *
+     * @param action the action to run for every block
+     * @param start  the index of the first block
+     * @param end    the index after the last block
+     */
+    private BlockTask(BlockAction action, int start, int end) {
+      this.action = action;
+      this.start = start;
+      this.end = end;
+    }
+
+    /**
+     * Runs the action for the range, splitting it in two halves run in parallel if it has more
+     * than one block.
+     *
+     * @throws UncheckedIOException if the action fails to read or write
+     */
+    @Override
+    protected void compute() throws UncheckedIOException {
+      if (this.end - this.start <= 1) {
+        try {
+          if (this.start < this.end) {
+            this.action.run(this.start);
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        return;
+      }
+
+      int middle = (this.start + this.end) >>> 1;
+      invokeAll(new BlockTask(this.action, this.start, middle),
+              new BlockTask(this.action, middle, this.end));
+    }
+  }
+}
@@ -0,0 +1,408 @@
+package container;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32C;
+
+import codingtable.CanonicalCodingTable;
+import container.bean.BlockInfo;
+import encoder.HuffmanEncoder;
+import util.Utils;
+
+/**
+ * This class represents a PipelinedContainerWriter. It writes exactly the same container as {@link
+ * ContainerWriter}, but the reading, the encoding and the writing of the blocks overlap instead of
+ * running one after the other. A reader thread reads the blocks of the input and hands every block
+ * to a pool of worker threads, which encode the blocks with the coding table of the whole file,
+ * and the calling thread writes the encoded blocks in the order they were read.
+ *
+ * <p>The reader queues the pending result of every block it hands out in a bounded queue, which
+ * the writer drains in order. Hence the reader blocks once the given number of blocks are waiting
+ * to be written, and no more than that many blocks, plus the one being read and the one being
+ * written, are held in memory at once, however slow the output is.
+ *
+ * <p>A compression can be cancelled by {@link PipelinedContainerWriter#cancel()} or by
+ * interrupting the calling thread. The pipeline then stops after the blocks it is already
+ * encoding, the partial container is deleted and a {@link CancellationException} is thrown.
+ *
+ * <p>The container is written to a temporary file in the directory of the output, which is moved
+ * to the output only once the container is complete. Hence a failed or cancelled compression
+ * leaves an existing output as it was.
+ */
+public class PipelinedContainerWriter {
+
+  private final HuffmanEncoder encoder;
+  private final List<Character> codingSymbols;
+  private final int blockSize;
+  private final int workers;
+  private final int queueCapacity;
+  private final Set<Pipeline> runningPipelines;
+
+  /**
+   * Constructs a {@link PipelinedContainerWriter} which encodes blocks of the default size on as
+   * many workers as there are processors, queueing up to twice as many blocks.
+   *
+   * @param encoder       the encoder to generate the coding table and encode with
+   * @param codingSymbols the coding symbols to encode with
+   * @throws IllegalArgumentException if the given params are invalid
+   */
+  public PipelinedContainerWriter(HuffmanEncoder encoder, List<Character> codingSymbols)
+          throws IllegalArgumentException {
+    this(encoder, codingSymbols, ContainerWriter.DEFAULT_BLOCK_SIZE,
+            Runtime.getRuntime().availableProcessors(),
+            2 * Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructs a {@link PipelinedContainerWriter} with the given params. It throws {@link
+   * IllegalArgumentException} if the encoder is null, the coding symbols are null or empty, the
+   * block size is less than 2 or the number of workers or the capacity of the queue is less than
+   * 1.
+   *
+   * @param encoder       the encoder to generate the coding table and encode with
+   * @param codingSymbols the coding symbols to encode with
+   * @param blockSize     the number of symbols in a block
+   * @param workers       the number of threads encoding the blocks
+   * @param queueCapacity the number of blocks which may wait to be written
+   * @throws IllegalArgumentException if the given params are invalid
+   */
+  public PipelinedContainerWriter(HuffmanEncoder encoder, List<Character> codingSymbols,
+                                  int blockSize, int workers, int queueCapacity)
+          throws IllegalArgumentException {
+
+    if (Objects.isNull(encoder)) {
+      throw new IllegalArgumentException("encoder cannot be null");
+    }
+    Utils.checkNullOrEmptyCollection(codingSymbols);
+    if (blockSize < 2) {
+      throw new IllegalArgumentException(String.format("Invalid block size:'%d'", blockSize));
+    }
+    if (workers < 1) {
+      throw new IllegalArgumentException(String.format("Invalid worker count:'%d'", workers));
+    }
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException(
+              String.format("Invalid queue capacity:'%d'", queueCapacity));
+    }
+    this.encoder = encoder;
+    this.codingSymbols = new ArrayList<>(codingSymbols);
+    this.blockSize = blockSize;
+    this.workers = workers;
+    this.queueCapacity = queueCapacity;
+    this.runningPipelines = ConcurrentHashMap.newKeySet();
+  }
+
+  /**
+   * Compresses the given UTF-8 encoded file into a container at the given output path, replacing
+   * the output if it exists. A malformed byte sequence in the input is read as the replacement
+   * character. The container is the same as the one written by {@link
+   * ContainerWriter#compress(Path, Path)} with the same params, and so are the failure
+   * conditions. The output is replaced only once the container is complete, and the partial
+   * container is deleted if the compression fails or is cancelled.
+   *
+   * @param input  the UTF-8 encoded file to compress
+   * @param output the path of the container to write
+   * @return the blocks written to the container
+   * @throws IOException              if reading the input or writing the output fails
+   * @throws IllegalStateException    if encoding a block fails
+   * @throws IllegalArgumentException if the given paths are null or the coding symbols do not
+   *                                  pass the sanity checks of {@link HuffmanEncoder}
+   * @throws CancellationException    if the compression is cancelled
+   */
+  public List<BlockInfo> compress(Path input, Path output)
+          throws IOException, IllegalStateException, IllegalArgumentException,
+          CancellationException {
+
+    if (Objects.isNull(input) || Objects.isNull(output)) {
+      throw new IllegalArgumentException("input and output cannot be null");
+    }
+
+    Path partialOutput = Files.createTempFile(output.toAbsolutePath().getParent(),
+            output.getFileName().toString(), ".partial");
+    Pipeline pipeline = new Pipeline();
+    this.runningPipelines.add(pipeline);
+    try {
+      List<BlockInfo> blocks = this.compress(input, partialOutput, pipeline);
+      Files.move(partialOutput, output, StandardCopyOption.REPLACE_EXISTING);
+      return blocks;
+    } finally {
+      this.runningPipelines.remove(pipeline);
+      pipeline.shutdown();
+      // the partial container is gone once it is moved to the output
+      Files.deleteIfExists(partialOutput);
+    }
+  }
+
+  /**
+   * Cancels all the compressions running on this writer. Every cancelled compression throws a
+   * {@link CancellationException} as soon as the blocks being encoded are done.
+   */
+  public void cancel() {
+    for (Pipeline pipeline : this.runningPipelines) {
+      pipeline.cancelled = true;
+    }
+  }
+
+  /**
+   * Compresses the given input into the given output through the given pipeline.
+   *
+   * @param input    the UTF-8 encoded file to compress
+   * @param output   the path of the container to write
+   * @param pipeline the pipeline to run the stages on
+   * @return the blocks written to the container
+   * @throws IOException           if reading the input or writing the output fails
+   * @throws IllegalStateException if encoding a block fails
+   * @throws CancellationException if the compression is cancelled
+   */
+  private List<BlockInfo> compress(Path input, Path output, Pipeline pipeline)
+          throws IOException, IllegalStateException, CancellationException {
+
+    pipeline.checkCancelled();
+    CanonicalCodingTable canonicalCodingTable = null;
+    byte[] serializedTable = new byte[0];
+    if (Files.size(input) > 0) {
+      canonicalCodingTable = this.encoder.generateCanonicalCodingTable(this.codingSymbols, input);
+      serializedTable = canonicalCodingTable.toByteArray();
+    }
+
+    List<BlockInfo> blocks = new ArrayList<>();
+    try (DataOutputStream outputStream =
+                 new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+
+      outputStream.writeInt(ContainerFormat.HEADER_MAGIC);
+      outputStream.writeByte(ContainerFormat.VERSION);
+      outputStream.writeInt(serializedTable.length);
+      outputStream.write(serializedTable);
+      long offset = ContainerFormat.HEADER_SIZE + serializedTable.length;
+
+      if (Objects.nonNull(canonicalCodingTable)) {
+        Map<Character, String> codingTable = canonicalCodingTable.getCodingTable();
+        pipeline.reader.execute(() -> this.readBlocks(input, codingTable, pipeline));
+
+        EncodedBlock encodedBlock;
+        while (Objects.nonNull(encodedBlock = pipeline.takeEncodedBlock())) {
+          BlockInfo blockInfo = encodedBlock.toBlockInfo(offset);
+          ContainerFormat.writeBlockHeader(outputStream, blockInfo);
+          outputStream.write(encodedBlock.payload);
+          blocks.add(blockInfo);
+          offset += ContainerFormat.BLOCK_HEADER_SIZE + blockInfo.getPayloadLength();
+        }
+      }
+
+      for (BlockInfo blockInfo : blocks) {
+        ContainerFormat.writeIndexEntry(outputStream, blockInfo);
+      }
+      outputStream.writeLong(offset);
+      outputStream.writeInt(blocks.size());
+      outputStream.writeInt(ContainerFormat.TRAILER_MAGIC);
+    }
+    return blocks;
+  }
+
+  /**
+   * Reads the blocks of the given input, hands every block to the workers of the given pipeline
+   * and queues the pending result of every block, followed by the end of the input. Any failure,
+   * be it to read the input or to hand a block to the workers, is queued in place of the next
+   * block, hence the writer never waits for a block which is not coming. It is run by the reader
+   * thread of the pipeline.
+   *
+   * @param input       the UTF-8 encoded file to read
+   * @param codingTable the coding table to encode with
+   * @param pipeline    the pipeline to hand the blocks to
+   */
+  private void readBlocks(Path input, Map<Character, String> codingTable, Pipeline pipeline) {
+    Future<EncodedBlock> endOfInput = CompletableFuture.completedFuture(null);
+    try (PushbackReader reader = new PushbackReader(Utils.newUtf8Reader(input))) {
+      char[] block = new char[this.blockSize];
+      int blockLength;
+      while (!pipeline.cancelled
+              && (blockLength = ContainerWriter.readBlock(reader, block)) > 0) {
+        char[] symbols = block;
+        int symbolCount = blockLength;
+        pipeline.pendingBlocks.put(pipeline.workers.submit(
+                () -> this.encodeBlock(codingTable, symbols, symbolCount)));
+        block = new char[this.blockSize];
+      }
+    } catch (InterruptedException e) {
+      // the pipeline is shutting down and nobody waits for the remaining blocks, the end is
+      // queued only if there is room for it
+      Thread.currentThread().interrupt();
+      pipeline.pendingBlocks.offer(CompletableFuture.failedFuture(e));
+      return;
+    } catch (Throwable e) {
+      // the writer waits for the end of the input whatever the failure, it is rethrown there
+      endOfInput = CompletableFuture.failedFuture(e);
+    }
+
+    try {
+      pipeline.pendingBlocks.put(endOfInput);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Encodes the given block. It is run by a worker thread of a pipeline.
+   *
+   * @param codingTable the coding table to encode with
+   * @param block       the symbols of the block
+   * @param blockLength the number of symbols in the block
+   * @return the encoded block
+   * @throws IOException if encoding the block fails
+   */
+  private EncodedBlock encodeBlock(Map<Character, String> codingTable, char[] block,
+                                   int blockLength) throws IOException {
+
+    ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    long encodedLength = this.encoder.encode(this.codingSymbols, codingTable,
+            new CharArrayReader(block, 0, blockLength), payload);
+    byte[] payloadBytes = payload.toByteArray();
+
+    CRC32C checksum = new CRC32C();
+    checksum.update(payloadBytes, 0, payloadBytes.length);
+    return new EncodedBlock(payloadBytes, encodedLength, blockLength,
+            ContainerFormat.getUtf8Length(block, blockLength), (int) checksum.getValue());
+  }
+
+  /**
+   * This class represents the threads and the queue of a single compression.
+   */
+  private class Pipeline {
+
+    private final ExecutorService reader;
+    private final ExecutorService workers;
+    private final BlockingQueue<Future<EncodedBlock>> pendingBlocks;
+    private volatile boolean cancelled;
+
+    /**
+     * Constructs a {@link Pipeline} with a reader thread, the workers and the queue of the
+     * enclosing writer.
+     */
+    private Pipeline() {
+      this.reader = Executors.newSingleThreadExecutor();
+      this.workers = Executors.newFixedThreadPool(PipelinedContainerWriter.this.workers);
+      this.pendingBlocks = new ArrayBlockingQueue<>(PipelinedContainerWriter.this.queueCapacity);
+    }
+
+    /**
+     * Waits for the next block in the order of the input and returns it once it is encoded, null
+     * at the end of the input.
+     *
+     * @return the next encoded block, null at the end of the input
+     * @throws IOException           if reading the input or encoding the block failed
+     * @throws IllegalStateException if encoding the block failed
+     * @throws CancellationException if the pipeline is cancelled or the thread is interrupted
+     */
+    private EncodedBlock takeEncodedBlock()
+            throws IOException, IllegalStateException, CancellationException {
+
+      try {
+        Future<EncodedBlock> pendingBlock = this.pendingBlocks.take();
+        this.checkCancelled();
+        return pendingBlock.get();
+      } catch (InterruptedException e) {
+        this.cancelled = true;
+        Thread.currentThread().interrupt();
+        throw new CancellationException("compression cancelled");
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof IOException) {
+          throw (IOException) e.getCause();
+        }
+        if (e.getCause() instanceof UncheckedIOException) {
+          throw ((UncheckedIOException) e.getCause()).getCause();
+        }
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+      }
+    }
+
+    /**
+     * Throws a {@link CancellationException} if the pipeline is cancelled or the thread is
+     * interrupted, marking the pipeline as cancelled in the latter case.
+     *
+     * @throws CancellationException if the pipeline is cancelled or the thread is interrupted
+     */
+    private void checkCancelled() throws CancellationException {
+      if (Thread.currentThread().isInterrupted()) {
+        this.cancelled = true;
+      }
+      if (this.cancelled) {
+        throw new CancellationException("compression cancelled");
+      }
+    }
+
+    /**
+     * Stops the reader and the workers, discarding the blocks which were not encoded yet.
+     */
+    private void shutdown() {
+      this.cancelled = true;
+      this.reader.shutdownNow();
+      this.workers.shutdownNow();
+    }
+  }
+
+  /**
+   * This class represents a block encoded by a worker, waiting for its offset in the container.
+   */
+  private static class EncodedBlock {
+
+    private final byte[] payload;
+    private final long encodedLength;
+    private final int symbolCount;
+    private final long decodedByteLength;
+    private final int checksum;
+
+    /**
+     * Constructs an {@link EncodedBlock} with the given params.
+     *
+     * @param payload           the packed coding symbols of the block
+     * @param encodedLength     the number of coding symbols of the block
+     * @param symbolCount       the number of symbols of the block
+     * @param decodedByteLength the length of the block in UTF-8 bytes
+     * @param checksum          the CRC32C checksum of the payload
+     */
+    private EncodedBlock(byte[] payload, long encodedLength, int symbolCount,
+                         long decodedByteLength, int checksum) {
+      this.payload = payload;
+      this.encodedLength = encodedLength;
+      this.symbolCount = symbolCount;
+      this.decodedByteLength = decodedByteLength;
+      this.checksum = checksum;
+    }
+
+    /**
+     * Returns the information about the block once written at the given offset.
+     *
+     * @param offset the position of the block in the container
+     * @return the information about the block
+     */
+    private BlockInfo toBlockInfo(long offset) {
+      return new BlockInfo(offset, this.payload.length, this.encodedLength, this.symbolCount,
+              this.decodedByteLength, this.checksum);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package container.bean;
+
+/**
+ * This class represents the information about a single block of a container. A block holds the
+ * packed coding symbols of a part of the original message and can be decoded independently of the
+ * other blocks of the container.
+ */
+public class BlockInfo {
+
+  private final long offset;
+  private final int payloadLength;
+  private final long encodedLength;
+  private final int symbolCount;
+  private final long decodedByteLength;
+  private final int checksum;
+
+  /**
+   * Constructs a BlockInfo object with the given params.
+   *
+   * @param offset            the position of the block header in the container
+   * @param payloadLength     the number of bytes of packed coding symbols in the block
+   * @param encodedLength     the number of coding symbols in the block
+   * @param symbolCount       the number of symbols of the original message in the block
+   * @param decodedByteLength the number of bytes of the decoded block when encoded as UTF-8
+   * @param checksum          the CRC32C checksum of the packed coding symbols
+   */
+  public BlockInfo(long offset, int payloadLength, long encodedLength, int symbolCount,
+                   long decodedByteLength, int checksum) {
+    this.offset = offset;
+    this.payloadLength = payloadLength;
+    this.encodedLength = encodedLength;
+    this.symbolCount = symbolCount;
+    this.decodedByteLength = decodedByteLength;
+    this.checksum = checksum;
+  }
+
+  /**
+   * Returns the position of the block header in the container.
+   *
+   * @return the position of the block header in the container
+   */
+  public long getOffset() {
+    return offset;
+  }
+
+  /**
+   * Returns the number of bytes of packed coding symbols in the block.
+   *
+   * @return the number of bytes of packed coding symbols in the block
+   */
+  public int getPayloadLength() {
+    return payloadLength;
+  }
+
+  /**
+   * Returns the number of coding symbols in the block.
+   *
+   * @return the number of coding symbols in the block
+   */
+  public long getEncodedLength() {
+    return encodedLength;
+  }
+
+  /**
+   * Returns the number of symbols of the original message in the block.
+   *
+   * @return the number of symbols of the original message in the block
+   */
+  public int getSymbolCount() {
+    return symbolCount;
+  }
+
+  /**
+   * Returns the number of bytes of the decoded block when encoded as UTF-8.
+   *
+   * @return the number of bytes of the decoded block when encoded as UTF-8
+   */
+  public long getDecodedByteLength() {
+    return decodedByteLength;
+  }
+
+  /**
+   * Returns the CRC32C checksum of the packed coding symbols.
+   *
+   * @return the CRC32C checksum of the packed coding symbols
+   */
+  public int getChecksum() {
+    return checksum;
+  }
+}
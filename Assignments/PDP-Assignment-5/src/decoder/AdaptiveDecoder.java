@@ -0,0 +1,60 @@
+package decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * This interface represents a Decoder for the messages encoded by an {@link
+ * encoder.AdaptiveEncoder}. It rebuilds the coding table of the encoder while decoding, hence no
+ * code has to be added to it. An adaptive decoder is stateful: every call continues the message
+ * decoded by the previous calls, and a code split between two calls is completed by the second
+ * one.
+ */
+public interface AdaptiveDecoder {
+
+  /**
+   * Decodes the given part of the encoded message and returns the symbols completed by it,
+   * continuing the message decoded thus far.
+   *
+   * @param encodedMessage the next part of the encoded message
+   * @return the symbols completed by the given part of the encoded message
+   * @throws IllegalStateException if the given part contains an invalid coding symbol
+   */
+  String decode(String encodedMessage) throws IllegalStateException;
+
+  /**
+   * Decodes the packed coding symbols read from the given inputStream and writes the decoded
+   * symbols to the given writer, continuing the message decoded thus far. Exactly
+   * <code>encodedLength</code> coding symbols are read, one bit each.
+   *
+   * @param packedMessage the stream to read the packed encoded message from
+   * @param encodedLength the number of coding symbols to read
+   * @param writer        the writer to write the decoded symbols to
+   * @return the number of decoded symbols written
+   * @throws IOException           if reading the packed message or writing the output fails
+   * @throws IllegalStateException if the stream has fewer coding symbols than encodedLength
+   */
+  long decode(InputStream packedMessage, long encodedLength, Writer writer)
+          throws IOException, IllegalStateException;
+
+  /**
+   * Returns true if the coding symbols decoded thus far end with a complete code.
+   *
+   * @return true if the coding symbols decoded thus far end with a complete code
+   */
+  boolean isAtSymbolBoundary();
+
+  /**
+   * Returns the current code of every symbol decoded thus far.
+   *
+   * @return the current code of every symbol decoded thus far
+   */
+  Map<Character, String> getCodingTable();
+
+  /**
+   * Resets the decoder to its initial state, as if no symbol had been decoded.
+   */
+  void reset();
+}
@@ -0,0 +1,207 @@
+package decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Objects;
+
+import codingtable.AdaptiveHuffmanTree;
+import util.BitReader;
+import util.Utils;
+
+/**
+ * This class represents an AdaptiveHuffmanDecoder. It implements {@link AdaptiveDecoder} interface
+ * using an {@link AdaptiveHuffmanTree} which is updated with every decoded symbol, exactly as the
+ * tree of the {@link encoder.AdaptiveHuffmanEncoder} was updated with every encoded symbol. The
+ * decoder remembers the node it reached and the bits of a new symbol read thus far, hence the
+ * encoded message can be decoded in parts split at any coding symbol.
+ */
+public class AdaptiveHuffmanDecoder implements AdaptiveDecoder {
+
+  private static final int WRITE_BUFFER_SIZE = 8192;
+
+  private final String codingSymbols;
+  private final AdaptiveHuffmanTree tree;
+  private int node;
+  private int symbolBitsPending;
+  private int symbolBits;
+
+  /**
+   * Constructs an {@link AdaptiveHuffmanDecoder} with the given coding symbols, the first one
+   * standing for a 0 bit. It throws {@link IllegalArgumentException} if the given string is null,
+   * empty or does not contain exactly 2 unique coding symbols.
+   *
+   * @param codingSymbols the two coding symbols
+   * @throws IllegalArgumentException if the given coding symbols are invalid
+   */
+  public AdaptiveHuffmanDecoder(String codingSymbols) throws IllegalArgumentException {
+    Utils.checkNullOrEmptyString(codingSymbols);
+    if (codingSymbols.length() != 2 || codingSymbols.charAt(0) == codingSymbols.charAt(1)) {
+      throw new IllegalArgumentException("adaptive coding needs exactly 2 unique coding symbols");
+    }
+
+    this.codingSymbols = codingSymbols;
+    this.tree = new AdaptiveHuffmanTree();
+    this.reset();
+  }
+
+  /**
+   * Decodes the given part of the encoded message and returns the symbols completed by it,
+   * continuing the message decoded thus far. It throws an {@link IllegalStateException} if the
+   * given part contains a symbol which is not a coding symbol, in which case the state of the
+   * decoder is undefined till it is reset.
+   *
+   * @param encodedMessage the next part of the encoded message
+   * @return the symbols completed by the given part of the encoded message
+   * @throws IllegalStateException    if the given part contains an invalid coding symbol
+   * @throws IllegalArgumentException if the given encodedMessage is null
+   */
+  @Override
+  public String decode(String encodedMessage)
+          throws IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(encodedMessage)) {
+      throw new IllegalArgumentException("encodedMessage cannot be null");
+    }
+
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < encodedMessage.length(); i++) {
+      int bit = this.codingSymbols.indexOf(encodedMessage.charAt(i));
+      if (bit < 0) {
+        throw new IllegalStateException("cannot decode given encodedSequence");
+      }
+      int symbol = this.consume(bit);
+      if (symbol >= 0) {
+        builder.append((char) symbol);
+      }
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Decodes the packed coding symbols read from the given inputStream and writes the decoded
+   * symbols to the given writer, continuing the message decoded thus far. The stream is read from
+   * the start of a byte, hence every packed part written by the encoder must be decoded by a
+   * separate call. Neither the stream nor the writer is closed.
+   *
+   * @param packedMessage the stream to read the packed encoded message from
+   * @param encodedLength the number of coding symbols to read
+   * @param writer        the writer to write the decoded symbols to
+   * @return the number of decoded symbols written
+   * @throws IOException              if reading the packed message or writing the output fails
+   * @throws IllegalStateException    if the stream has fewer coding symbols than encodedLength
+   * @throws IllegalArgumentException if the given stream or writer is null or the encodedLength is
+   *                                  negative
+   */
+  @Override
+  public long decode(InputStream packedMessage, long encodedLength, Writer writer)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(writer)) {
+      throw new IllegalArgumentException("writer cannot be null");
+    }
+    if (encodedLength < 0) {
+      throw new IllegalArgumentException(
+              String.format("Invalid encoded length:'%d'", encodedLength));
+    }
+
+    BitReader reader = new BitReader(packedMessage);
+    char[] buffer = new char[WRITE_BUFFER_SIZE];
+    int bufferPosition = 0;
+    long decodedSymbols = 0;
+
+    for (long i = 0; i < encodedLength; i++) {
+      int symbol = this.consume(reader.readBits(1));
+      if (symbol >= 0) {
+        if (bufferPosition == buffer.length) {
+          writer.write(buffer, 0, bufferPosition);
+          bufferPosition = 0;
+        }
+        buffer[bufferPosition++] = (char) symbol;
+        decodedSymbols++;
+      }
+    }
+    writer.write(buffer, 0, bufferPosition);
+    writer.flush();
+    return decodedSymbols;
+  }
+
+  /**
+   * Returns true if the coding symbols decoded thus far end with a complete code.
+   *
+   * @return true if the coding symbols decoded thus far end with a complete code
+   */
+  @Override
+  public boolean isAtSymbolBoundary() {
+    return this.node == this.tree.getRoot()
+            && this.symbolBitsPending == (this.tree.isLeaf(this.node)
+            ? AdaptiveHuffmanTree.SYMBOL_BITS : 0);
+  }
+
+  /**
+   * Returns the current code of every symbol decoded thus far.
+   *
+   * @return the current code of every symbol decoded thus far
+   */
+  @Override
+  public Map<Character, String> getCodingTable() {
+    return this.tree.getCodingTable(this.codingSymbols);
+  }
+
+  /**
+   * Resets the decoder to its initial state, as if no symbol had been decoded.
+   */
+  @Override
+  public void reset() {
+    this.tree.reset();
+    this.moveTo(this.tree.getRoot());
+  }
+
+  /**
+   * Consumes the given bit and returns the symbol completed by it, or -1 if no symbol is
+   * completed.
+   *
+   * @param bit the bit to consume
+   * @return the symbol completed by the given bit, or -1
+   */
+  private int consume(int bit) {
+    if (this.symbolBitsPending > 0) {
+      this.symbolBits = (this.symbolBits << 1) | bit;
+      this.symbolBitsPending--;
+      if (this.symbolBitsPending > 0) {
+        return -1;
+      }
+      return this.complete((char) this.symbolBits);
+    }
+
+    this.moveTo(this.tree.getChild(this.node, bit));
+    if (this.tree.isLeaf(this.node) && !this.tree.isEscape(this.node)) {
+      return this.complete(this.tree.getSymbol(this.node));
+    }
+    return -1;
+  }
+
+  /**
+   * Updates the tree with the given decoded symbol and moves back to the root.
+   *
+   * @param symbol the decoded symbol
+   * @return the given symbol
+   */
+  private int complete(char symbol) {
+    this.tree.update(symbol);
+    this.moveTo(this.tree.getRoot());
+    return symbol;
+  }
+
+  /**
+   * Moves to the given node, starting to read the bits of a new symbol if it is the escape leaf.
+   *
+   * @param node the node to move to
+   */
+  private void moveTo(int node) {
+    this.node = node;
+    this.symbolBits = 0;
+    this.symbolBitsPending = this.tree.isEscape(node) ? AdaptiveHuffmanTree.SYMBOL_BITS : 0;
+  }
+}
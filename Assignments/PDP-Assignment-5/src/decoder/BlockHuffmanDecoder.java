@@ -0,0 +1,145 @@
+package decoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Objects;
+
+import codingtable.BlockCodingTables;
+import codingtable.CanonicalCodingTable;
+import decoder.treeutil.FlatPrefixTree;
+import util.BitReader;
+import util.Utils;
+
+/**
+ * This class represents a BlockHuffmanDecoder. It decodes the messages encoded block by block by
+ * {@link encoder.BlockHuffmanEncoder}. The tables of a message are read from the {@link
+ * BlockCodingTables} header of the stream and every table is compiled into a {@link
+ * FlatPrefixTree} once, before the first coding symbol is read, hence a switch between tables only
+ * changes the tree the next block is decoded with. The decoder holds no state, so it can be used
+ * by many threads at once.
+ */
+public class BlockHuffmanDecoder {
+
+  private static final int WRITE_BUFFER_SIZE = 8192;
+
+  /**
+   * Decodes the message read from the given inputStream, as written by {@link
+   * encoder.BlockHuffmanEncoder#encode(List, String, java.io.OutputStream)}, and writes the
+   * decoded symbols to the given writer. Neither the stream nor the writer is closed. It throws an
+   * {@link IllegalStateException} if the header is malformed, the stream ends early, contains an
+   * index which does not belong to a coding symbol or leads to a node that does not exist.
+   *
+   * @param packedMessage the stream to read the encoded message from
+   * @param writer        the writer to write the decoded symbols to
+   * @return the number of decoded symbols written
+   * @throws IOException              if reading the stream or writing the output fails
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given stream or writer is null
+   */
+  public long decode(InputStream packedMessage, Writer writer)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(packedMessage)) {
+      throw new IllegalArgumentException("packedMessage cannot be null");
+    }
+    if (Objects.isNull(writer)) {
+      throw new IllegalArgumentException("writer cannot be null");
+    }
+
+    DataInputStream input = new DataInputStream(packedMessage);
+    BlockCodingTables blockCodingTables = BlockCodingTables.readFrom(input);
+    String codingSymbols = blockCodingTables.getCodingSymbols();
+    List<CanonicalCodingTable> tables = blockCodingTables.getTables();
+    FlatPrefixTree[] trees = new FlatPrefixTree[tables.size()];
+    for (int i = 0; i < trees.length; i++) {
+      DecoderImpl decoder = new DecoderImpl(codingSymbols);
+      decoder.addCodes(tables.get(i).getCodingTable());
+      trees[i] = decoder.compile().getCodingTree();
+    }
+
+    BitReader reader = new BitReader(input);
+    int radix = codingSymbols.length();
+    int bitsPerCodingSymbol = Utils.getBitsPerCodingSymbol(radix);
+    long remainingCodingSymbols = blockCodingTables.getEncodedLength();
+    char[] buffer = new char[WRITE_BUFFER_SIZE];
+    int bufferPosition = 0;
+    long decodedSymbols = 0;
+
+    for (int i = 0; i < blockCodingTables.getNumberOfSwitches(); i++) {
+      FlatPrefixTree tree = trees[blockCodingTables.getSwitchTable(i)];
+      long end = Math.min(blockCodingTables.getMessageLength(),
+              decodedSymbols + (long) blockCodingTables.getSwitchBlocks(i)
+                      * blockCodingTables.getBlockSize());
+
+      while (decodedSymbols < end) {
+        int state = 0;
+        int transition;
+        do {
+          if (remainingCodingSymbols-- == 0) {
+            throw new IllegalStateException("cannot decode given encodedSequence");
+          }
+          int codingSymbolIndex = reader.readBits(bitsPerCodingSymbol);
+          if (codingSymbolIndex >= radix) {
+            throw new IllegalStateException(
+                    String.format("Invalid coding symbol index:'%d'", codingSymbolIndex));
+          }
+          transition = tree.getTransition(state, codingSymbolIndex);
+          if (transition == FlatPrefixTree.NO_TRANSITION) {
+            throw new IllegalStateException("cannot decode given encodedSequence");
+          }
+          state = transition;
+        }
+        while (!FlatPrefixTree.isLeaf(transition));
+
+        if (bufferPosition == buffer.length) {
+          writer.write(buffer, 0, bufferPosition);
+          bufferPosition = 0;
+        }
+        buffer[bufferPosition++] = tree.getLeafSymbol(FlatPrefixTree.getLeafIndex(transition));
+        decodedSymbols++;
+      }
+    }
+
+    if (remainingCodingSymbols != 0) {
+      throw new IllegalStateException("cannot decode given encodedSequence");
+    }
+    writer.write(buffer, 0, bufferPosition);
+    writer.flush();
+    return decodedSymbols;
+  }
+
+  /**
+   * Decodes the given encoded message and returns the decoded message. The failure conditions are
+   * the same as that of {@link BlockHuffmanDecoder#decode(InputStream, Writer)}. A message which
+   * ends within its header is reported as malformed block coding tables, with the end of the
+   * stream as the cause.
+   *
+   * @param packedMessage the encoded message
+   * @return the decoded message
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given message is null
+   */
+  public String decode(byte[] packedMessage)
+          throws IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(packedMessage)) {
+      throw new IllegalArgumentException("packedMessage cannot be null");
+    }
+
+    StringWriter writer = new StringWriter();
+    try {
+      this.decode(new ByteArrayInputStream(packedMessage), writer);
+    } catch (EOFException e) {
+      throw new IllegalStateException("malformed block coding tables", e);
+    } catch (IOException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return writer.toString();
+  }
+}
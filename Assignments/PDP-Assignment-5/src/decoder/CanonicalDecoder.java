@@ -0,0 +1,240 @@
+package decoder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import codingtable.CanonicalCodingTable;
+import decoder.treeutil.PrefixTreeNode;
+import util.Utils;
+
+/**
+ * This class represents a {@link CanonicalDecoder}. It extends {@link DecoderImpl} and accepts the
+ * codes in the same way, but the codes added must form a canonical code as assigned by {@link
+ * CanonicalCodingTable}. Since a canonical code is fully described by the number of codes of each
+ * length, the encoded message is decoded sequentially by accumulating the value of the coding
+ * symbols read so far and comparing it with the first code of the current length, without
+ * walking the coding tree.
+ */
+public class CanonicalDecoder extends DecoderImpl {
+
+  private final int[] codingSymbolIndex;
+
+  private boolean isCompiled;
+  private char[] sortedSymbols;
+  private long[] firstCode;
+  private int[] codeCount;
+  private int[] symbolOffset;
+
+  /**
+   * Constructs a {@link CanonicalDecoder} with the given codingSymbols. The order of the symbols in
+   * the given codingSymbols string must be the one used to assign the canonical codes. It throws
+   * {@link IllegalArgumentException} if the given codingSymbols string is null, empty, contains
+   * duplicate symbols or has less than 2 symbols.
+   *
+   * @param codingSymbols the codingSymbols for this decoder
+   * @throws IllegalArgumentException if the given codingSymbols are invalid
+   */
+  public CanonicalDecoder(String codingSymbols) throws IllegalArgumentException {
+    super(codingSymbols);
+    if (codingSymbols.length() < 2) {
+      throw new IllegalArgumentException("coding symbols cannot be less than 2");
+    }
+    this.codingSymbolIndex = Utils.getCodingSymbolIndexArray(codingSymbols);
+    this.isCompiled = false;
+  }
+
+  /**
+   * Constructs a {@link CanonicalDecoder} holding all the codes of the given canonical coding
+   * table.
+   *
+   * @param canonicalCodingTable the canonical coding table to decode with
+   * @throws IllegalArgumentException if the given table is null
+   */
+  public CanonicalDecoder(CanonicalCodingTable canonicalCodingTable)
+          throws IllegalArgumentException {
+
+    this(getCodingSymbols(canonicalCodingTable));
+    for (Map.Entry<Character, String> entry
+            : canonicalCodingTable.getCodingTable().entrySet()) {
+      this.addCode(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * Adds the given symbol and the corresponding code to the coding tree. The conditions under
+   * which it fails are the same as that of {@link DecoderImpl#addCode(char, String)}. Whether the
+   * codes are canonical is checked on the next decode.
+   *
+   * @param symbol the symbol to be added
+   * @param code   the code for the given symbol
+   * @throws IllegalStateException    if the code cannot be added to the coding tree
+   * @throws IllegalArgumentException if the given code is null or empty
+   */
+  @Override
+  public void addCode(char symbol, String code)
+          throws IllegalStateException, IllegalArgumentException {
+
+    super.addCode(symbol, code);
+    this.isCompiled = false;
+  }
+
+  /**
+   * Marks the codes as changed after codes have been added by one of the addCodes methods.
+   * Whether the codes are canonical is checked on the next decode.
+   */
+  @Override
+  protected void codesAdded() {
+    this.isCompiled = false;
+  }
+
+  /**
+   * Takes a encoded message and returns the decoded message using the first code and offset of
+   * every code length. The conditions under which it fails and the messages of the exceptions are
+   * the same as that of {@link DecoderImpl#decode(String)}. Additionally it throws an {@link
+   * IllegalStateException} if the codes added thus far are not canonical.
+   *
+   * @param encodedMessage the message to be decoded
+   * @return the decoded string
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given encodedMessage is null or empty
+   */
+  @Override
+  public String decode(String encodedMessage)
+          throws IllegalStateException, IllegalArgumentException {
+
+    long startNanos = this.startTiming();
+    Utils.checkNullOrEmptyString(encodedMessage);
+    this.compileIfRequired();
+
+    int radix = this.codingSymbols.length();
+    int maxLength = this.firstCode.length - 1;
+    StringBuilder builder = new StringBuilder(encodedMessage.length());
+    long code = 0;
+    int length = 0;
+
+    for (int i = 0; i < encodedMessage.length(); i++) {
+      char codingSymbol = encodedMessage.charAt(i);
+      if (codingSymbol >= this.codingSymbolIndex.length
+              || this.codingSymbolIndex[codingSymbol] < 0 || length == maxLength) {
+        throw new IllegalStateException("cannot decode given encodedSequence");
+      }
+
+      code = code * radix + this.codingSymbolIndex[codingSymbol];
+      length++;
+
+      long indexInLength = code - this.firstCode[length];
+      if (indexInLength < this.codeCount[length]) {
+        builder.append(this.sortedSymbols[this.symbolOffset[length] + (int) indexInLength]);
+        code = 0;
+        length = 0;
+      }
+    }
+
+    if (length != 0) {
+      throw new IllegalStateException("cannot decode given encodedSequence");
+    }
+    return this.recordDecoding(startNanos, encodedMessage.length(), builder.toString());
+  }
+
+  /**
+   * Compiles the first code, code count and symbol offset of every code length if a code was
+   * added since the last compilation.
+   *
+   * @throws IllegalStateException if the codes are not canonical or too long to be decoded
+   */
+  private void compileIfRequired() throws IllegalStateException {
+    if (this.isCompiled) {
+      return;
+    }
+
+    Map<Character, String> codes = new HashMap<>();
+    this.collectCodes(this.root, new StringBuilder(), codes);
+    if (codes.isEmpty()) {
+      this.sortedSymbols = new char[0];
+      this.firstCode = new long[1];
+      this.codeCount = new int[1];
+      this.symbolOffset = new int[1];
+      this.isCompiled = true;
+      return;
+    }
+
+    CanonicalCodingTable canonicalCodingTable =
+            CanonicalCodingTable.fromCodingTable(this.codingSymbols, codes);
+    if (!canonicalCodingTable.getCodingTable().equals(codes)) {
+      throw new IllegalStateException("codes are not canonical");
+    }
+
+    Character[] symbols = codes.keySet().toArray(new Character[0]);
+    Arrays.sort(symbols, (symbol1, symbol2) -> {
+      int lengthDiff = Integer.compare(codes.get(symbol1).length(), codes.get(symbol2).length());
+      return lengthDiff != 0 ? lengthDiff : Character.compare(symbol1, symbol2);
+    });
+
+    int maxLength = codes.get(symbols[symbols.length - 1]).length();
+    this.sortedSymbols = new char[symbols.length];
+    this.firstCode = new long[maxLength + 1];
+    this.codeCount = new int[maxLength + 1];
+    this.symbolOffset = new int[maxLength + 1];
+
+    for (int i = 0; i < symbols.length; i++) {
+      this.sortedSymbols[i] = symbols[i];
+      this.codeCount[codes.get(symbols[i]).length()]++;
+    }
+
+    long code = 0;
+    int offset = 0;
+    try {
+      for (int length = 1; length <= maxLength; length++) {
+        this.firstCode[length] = code;
+        this.symbolOffset[length] = offset;
+        offset += this.codeCount[length];
+        code = Math.multiplyExact(code + this.codeCount[length], this.codingSymbols.length());
+      }
+    } catch (ArithmeticException e) {
+      throw new IllegalStateException("codes are too long for canonical decoding");
+    }
+    this.isCompiled = true;
+  }
+
+  /**
+   * Collects the code of every leaf reachable from the given node.
+   *
+   * @param node  the node to collect the codes from
+   * @param path  the path till the given node
+   * @param codes the map to collect the codes into
+   */
+  private void collectCodes(PrefixTreeNode<Character, Character> node, StringBuilder path,
+                            Map<Character, String> codes) {
+    if (node.isLeaf()) {
+      codes.put(node.getData(), path.toString());
+      return;
+    }
+
+    for (char codingSymbol : this.codingSymbols.toCharArray()) {
+      PrefixTreeNode<Character, Character> child = node.getChild(codingSymbol);
+      if (Objects.nonNull(child)) {
+        path.append(codingSymbol);
+        this.collectCodes(child, path, codes);
+        path.setLength(path.length() - 1);
+      }
+    }
+  }
+
+  /**
+   * Returns the coding symbols of the given table.
+   *
+   * @param canonicalCodingTable the table
+   * @return the coding symbols of the given table
+   * @throws IllegalArgumentException if the given table is null
+   */
+  private static String getCodingSymbols(CanonicalCodingTable canonicalCodingTable)
+          throws IllegalArgumentException {
+
+    if (Objects.isNull(canonicalCodingTable)) {
+      throw new IllegalArgumentException("canonicalCodingTable cannot be null");
+    }
+    return canonicalCodingTable.getCodingSymbols();
+  }
+}
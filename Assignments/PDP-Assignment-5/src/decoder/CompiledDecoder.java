@@ -0,0 +1,275 @@
+package decoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import decoder.treeutil.FlatPrefixTree;
+import util.BitReader;
+import util.MappedFileInputStream;
+import util.Utils;
+
+/**
+ * This class represents a {@link CompiledDecoder}. It implements {@link StreamingDecoder} interface
+ * using a {@link FlatPrefixTree} compiled from the coding tree of a {@link DecoderImpl} by {@link
+ * DecoderImpl#compile()}. Decoding walks the dense transition array of the flat tree instead of the
+ * maps of the group nodes, and yields exactly the same results with the same failure conditions as
+ * the decoder it was compiled from.
+ *
+ * <p>The coding tree of a {@link CompiledDecoder} is frozen, hence no code can be added to it. The
+ * decoder holds no other state, so it can be used by many threads at once.
+ */
+public class CompiledDecoder implements StreamingDecoder {
+
+  private static final int WRITE_BUFFER_SIZE = 8192;
+
+  private final String codingSymbols;
+  private final int[] codingSymbolIndex;
+  private final FlatPrefixTree codingTree;
+
+  /**
+   * Constructs a {@link CompiledDecoder} which decodes using the given flat coding tree.
+   *
+   * @param codingTree the flat coding tree to decode with
+   * @throws IllegalArgumentException if the given coding tree is null
+   */
+  public CompiledDecoder(FlatPrefixTree codingTree) throws IllegalArgumentException {
+    if (Objects.isNull(codingTree)) {
+      throw new IllegalArgumentException("codingTree cannot be null");
+    }
+    this.codingSymbols = codingTree.getCodingSymbols();
+    this.codingSymbolIndex = Utils.getCodingSymbolIndexArray(this.codingSymbols);
+    this.codingTree = codingTree;
+  }
+
+  /**
+   * Returns the flat coding tree of this decoder.
+   *
+   * @return the flat coding tree of this decoder
+   */
+  public FlatPrefixTree getCodingTree() {
+    return this.codingTree;
+  }
+
+  /**
+   * Throws exception since the coding tree of a compiled decoder is frozen.
+   *
+   * @param symbol the symbol to be added
+   * @param code   the code for the given symbol
+   * @throws IllegalStateException always, since no code can be added
+   */
+  @Override
+  public void addCode(char symbol, String code) throws IllegalStateException {
+    throw new IllegalStateException("cannot add code to a compiled decoder");
+  }
+
+  /**
+   * Takes a encoded message and returns the decoded message using the flat coding tree. The
+   * conditions under which it fails and the messages of the exceptions are the same as that of
+   * {@link DecoderImpl#decode(String)}.
+   *
+   * @param encodedMessage the message to be decoded
+   * @return the decoded string
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given encodedMessage is null or empty
+   */
+  @Override
+  public String decode(String encodedMessage)
+          throws IllegalStateException, IllegalArgumentException {
+
+    Utils.checkNullOrEmptyString(encodedMessage);
+
+    StringBuilder builder = new StringBuilder(encodedMessage.length());
+    int state = 0;
+    for (int i = 0; i < encodedMessage.length(); i++) {
+      char codingSymbol = encodedMessage.charAt(i);
+      if (codingSymbol >= this.codingSymbolIndex.length
+              || this.codingSymbolIndex[codingSymbol] < 0) {
+        throw new IllegalStateException("cannot decode given encodedSequence");
+      }
+
+      state = this.step(state, this.codingSymbolIndex[codingSymbol], builder);
+    }
+
+    if (state != 0) {
+      throw new IllegalStateException("cannot decode given encodedSequence");
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Decodes the given packed message using the flat coding tree and returns the decoded message.
+   * The failure conditions are the same as that of {@link DecoderImpl#decode(byte[], long)}.
+   *
+   * @param packedMessage the packed encoded message
+   * @param encodedLength the number of coding symbols in the packed message
+   * @return the decoded message
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given packedMessage is null or the encodedLength is
+   *                                  negative
+   */
+  @Override
+  public String decode(byte[] packedMessage, long encodedLength)
+          throws IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(packedMessage)) {
+      throw new IllegalArgumentException("packedMessage cannot be null");
+    }
+
+    StringWriter writer = new StringWriter();
+    try {
+      this.decode(new ByteArrayInputStream(packedMessage), encodedLength, writer);
+    } catch (IOException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return writer.toString();
+  }
+
+  /**
+   * Decodes the packed message read from the given inputStream using the flat coding tree and
+   * writes the decoded symbols to the given writer. The packing, the conditions under which it
+   * fails and the messages of the exceptions are the same as that of {@link
+   * DecoderImpl#decode(InputStream, long, Writer)}.
+   *
+   * @param packedMessage the stream to read the packed encoded message from
+   * @param encodedLength the number of coding symbols in the packed message
+   * @param writer        the writer to write the decoded symbols to
+   * @return the number of decoded symbols written
+   * @throws IOException              if reading the packed message or writing the output fails
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given stream or writer is null or the encodedLength is
+   *                                  negative
+   */
+  @Override
+  public long decode(InputStream packedMessage, long encodedLength, Writer writer)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(writer)) {
+      throw new IllegalArgumentException("writer cannot be null");
+    }
+    if (encodedLength < 0) {
+      throw new IllegalArgumentException(
+              String.format("Invalid encoded length:'%d'", encodedLength));
+    }
+
+    BitReader reader = new BitReader(packedMessage);
+    int radix = this.codingSymbols.length();
+    int bitsPerCodingSymbol = Utils.getBitsPerCodingSymbol(radix);
+    char[] buffer = new char[WRITE_BUFFER_SIZE];
+    int bufferPosition = 0;
+    long decodedSymbols = 0;
+
+    int state = 0;
+    for (long i = 0; i < encodedLength; i++) {
+      int codingSymbolIndex = reader.readBits(bitsPerCodingSymbol);
+      if (codingSymbolIndex >= radix) {
+        throw new IllegalStateException(
+                String.format("Invalid coding symbol index:'%d'", codingSymbolIndex));
+      }
+
+      int transition = this.codingTree.getTransition(state, codingSymbolIndex);
+      if (transition == FlatPrefixTree.NO_TRANSITION) {
+        throw new IllegalStateException("cannot decode given encodedSequence");
+      }
+
+      if (FlatPrefixTree.isLeaf(transition)) {
+        if (bufferPosition == buffer.length) {
+          writer.write(buffer, 0, bufferPosition);
+          bufferPosition = 0;
+        }
+        buffer[bufferPosition++] =
+                this.codingTree.getLeafSymbol(FlatPrefixTree.getLeafIndex(transition));
+        decodedSymbols++;
+        state = 0;
+      } else {
+        state = transition;
+      }
+    }
+
+    if (state != 0) {
+      throw new IllegalStateException("cannot decode given encodedSequence");
+    }
+    writer.write(buffer, 0, bufferPosition);
+    writer.flush();
+    return decodedSymbols;
+  }
+
+  /**
+   * Decodes the packed message stored in the given file using the flat coding tree and writes the
+   * decoded symbols to the given writer. The file is read through a {@link MappedFileInputStream}.
+   * The failure conditions are the same as that of {@link CompiledDecoder#decode(InputStream,
+   * long, Writer)}. The writer is not closed.
+   *
+   * @param packedFile    the file holding the packed encoded message
+   * @param encodedLength the number of coding symbols in the packed message
+   * @param writer        the writer to write the decoded symbols to
+   * @return the number of decoded symbols written
+   * @throws IOException              if reading the packed message or writing the output fails
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given file or writer is null or the encodedLength is
+   *                                  negative
+   */
+  @Override
+  public long decode(Path packedFile, long encodedLength, Writer writer)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    try (MappedFileInputStream inputStream = new MappedFileInputStream(packedFile)) {
+      return this.decode(inputStream, encodedLength, writer);
+    }
+  }
+
+  /**
+   * Returns the codes of the coding tree as a string, in the same format and order as that of
+   * {@link DecoderImpl#allCodes()}.
+   *
+   * @return the codes of the coding tree as a string
+   */
+  @Override
+  public String allCodes() {
+    List<String> allCodes = this.codingTree.getAllLeavesPath();
+    Collections.sort(allCodes);
+    return allCodes.stream().collect(Collectors.joining(System.lineSeparator()));
+  }
+
+  /**
+   * Returns true if the coding tree is complete, false otherwise. The meaning is the same as that
+   * of {@link DecoderImpl#isCodeComplete()}.
+   *
+   * @return true if the coding tree is complete, false otherwise
+   */
+  @Override
+  public boolean isCodeComplete() {
+    return this.codingTree.isTreeComplete();
+  }
+
+  /**
+   * Takes the transition from the given state for the given coding symbol, appends the symbol to
+   * the given builder if a leaf is reached and returns the next state.
+   *
+   * @param state             the current state
+   * @param codingSymbolIndex the index of the coding symbol
+   * @param builder           the builder to append the decoded symbol to
+   * @return the next state, 0 if a leaf is reached
+   * @throws IllegalStateException if there is no transition for the coding symbol
+   */
+  private int step(int state, int codingSymbolIndex, StringBuilder builder)
+          throws IllegalStateException {
+
+    int transition = this.codingTree.getTransition(state, codingSymbolIndex);
+    if (transition == FlatPrefixTree.NO_TRANSITION) {
+      throw new IllegalStateException("cannot decode given encodedSequence");
+    }
+    if (FlatPrefixTree.isLeaf(transition)) {
+      builder.append(this.codingTree.getLeafSymbol(FlatPrefixTree.getLeafIndex(transition)));
+      return 0;
+    }
+    return transition;
+  }
+}
@@ -1,31 +1,75 @@
 package decoder;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import codingtable.CanonicalCodingTable;
 import decoder.bean.DecodedData;
+import decoder.treeutil.FlatPrefixTree;
 import decoder.treeutil.GroupNode;
 import decoder.treeutil.PrefixTreeNode;
+import metrics.CodecMetrics;
+import metrics.MetricsListener;
+import util.BitReader;
+import util.KraftSum;
+import util.MappedFileInputStream;
 import util.Utils;
 
 /**
- * This class represents a {@link DecoderImpl}. It extends {@link Decoder} interface. It can be used
- * to decode message with "n" codingSymbols where n can be greater than equal to 1. It uses a Prefix
- * Coding Tree to decode the encodedSequences.
+ * This class represents a {@link DecoderImpl}. It extends {@link StreamingDecoder} interface. It
+ * can be used to decode message with "n" codingSymbols where n can be greater than equal to 1. It
+ * uses a Prefix Coding Tree to decode the encodedSequences, given either as a string of coding
+ * symbols or as packed bits.
+ *
+ * <p>The {@link CodecMetrics} of every decoded message and of every finished {@link
+ * DecodingSession} can be passed to a {@link MetricsListener}. No listener is set by default, in
+ * which case nothing is measured.
  */
-public class DecoderImpl implements Decoder {
+public class DecoderImpl implements StreamingDecoder {
+
+  private static final int WRITE_BUFFER_SIZE = 8192;
+
+  /**
+   * the coding symbols of this decoder, in the order of their index.
+   */
+  protected final String codingSymbols;
+
+  /**
+   * the root of the prefix coding tree.
+   */
+  protected final PrefixTreeNode<Character, Character> root;
 
   private final Set<Character> validCodingSymbols;
   private final Set<Character> symbolsInCodingTree;
-  private final PrefixTreeNode<Character, Character> root;
+  private final KraftSum kraftSum;
+  private long unfilledBranches;
+  private int maxCodeLength;
+  private boolean isFrozen;
+  private MetricsListener metricsListener;
 
   /**
    * Constructs a {@link DecoderImpl} with the given codingSymbols. The order of the symbols in the
-   * given codingSymbols string is not important and does not affect the decoding process. It throws
+   * given codingSymbols string does not affect the decoding of a string of coding symbols. While
+   * decoding packed bits the index of a coding symbol in the given string is the value stored for
+   * it, hence the order must be the same as the one used by the encoder. It throws
    * {@link IllegalArgumentException} if the given codingSymbols satisfies any of the below
    * mentioned conditions.
    * <ul>
@@ -41,9 +85,15 @@ public class DecoderImpl implements Decoder {
     Utils.checkNullOrEmptyString(codingSymbols);
     this.checkDuplicateCodingSymbols(codingSymbols);
 
+    this.codingSymbols = codingSymbols;
     this.symbolsInCodingTree = new HashSet<>();
     this.validCodingSymbols = this.getCodingSymbolsSet(codingSymbols);
     this.root = new GroupNode<>(validCodingSymbols);
+    this.kraftSum = new KraftSum(codingSymbols.length());
+    this.unfilledBranches = codingSymbols.length();
+    this.maxCodeLength = 0;
+    this.isFrozen = false;
+    this.metricsListener = null;
   }
 
   /**
@@ -55,6 +105,7 @@ public class DecoderImpl implements Decoder {
    * <li>if the symbol already exists in the coding tree</li>
    * <li>if the coding tree is complete</li>
    * <li>if the given code is a prefix of any code present in the coding tree</li>
+   * <li>if the decoder has been frozen by {@link DecoderImpl#freeze()}</li>
    * </ul>
    *
    * <p>It throws an {@link IllegalArgumentException} if the given code is null or empty.
@@ -68,14 +119,138 @@ public class DecoderImpl implements Decoder {
   public void addCode(char symbol, String code)
           throws IllegalStateException, IllegalArgumentException {
 
+    if (this.isFrozen) {
+      throw new IllegalStateException("cannot add code to a frozen decoder");
+    }
     Utils.checkNullOrEmptyString(code);
     this.checkInvalidSymbolsInCode(code);
     this.checkIfSymbolAlreadyExistsInCodingTree(symbol);
 
+    int newGroupNodes = code.length() - 1 - this.getGroupNodesOnPath(code);
     List<Character> path = Utils.convertStringToCharacterArray(code);
     this.root.addChild(path, symbol);
 
     this.symbolsInCodingTree.add(symbol);
+    this.kraftSum.add(code.length());
+    this.unfilledBranches += newGroupNodes * (this.codingSymbols.length() - 1L) - 1;
+    this.maxCodeLength = Math.max(this.maxCodeLength, code.length());
+  }
+
+  /**
+   * Adds all the symbols of the given coding table and their codes to the coding tree at once. The
+   * codes are validated before any of them is added, in time linear in the total length of the
+   * codes: if any code cannot be added, for the same reasons as {@link DecoderImpl#addCode(char,
+   * String)}, it throws an {@link IllegalStateException} whose message lists every such code, one
+   * per line, and the coding tree is left unchanged. Otherwise the coding tree is built one coding
+   * symbol at a time, without converting the codes to lists.
+   *
+   * @param codingTable the coding table holding the codes to be added
+   * @throws IllegalStateException    if any code cannot be added to the coding tree
+   * @throws IllegalArgumentException if the given coding table is null or empty
+   */
+  public void addCodes(Map<Character, String> codingTable)
+          throws IllegalStateException, IllegalArgumentException {
+
+    Utils.checkNullOrEmptyMap(codingTable);
+    char[] symbols = new char[codingTable.size()];
+    String[] codes = new String[codingTable.size()];
+    List<String> conflicts = new ArrayList<>();
+    int count = 0;
+    for (Map.Entry<Character, String> entry : codingTable.entrySet()) {
+      if (Objects.isNull(entry.getKey())) {
+        conflicts.add("Invalid symbol:'null'");
+        continue;
+      }
+      symbols[count] = entry.getKey();
+      codes[count] = entry.getValue();
+      count++;
+    }
+    this.addCodes(symbols, codes, count, conflicts);
+  }
+
+  /**
+   * Reads the codes from the given reader and adds them to the coding tree at once, as by {@link
+   * DecoderImpl#addCodes(Map)}. Every line holds a symbol x and its code yyy in the form x:yyy, as
+   * written by {@link DecoderImpl#writeCodes(Writer)} and returned by {@link
+   * DecoderImpl#allCodes()}. A line is read from its first char, hence the symbol may be a line
+   * separator itself. Empty lines are skipped and a line in any other form is reported with the
+   * codes which cannot be added.
+   *
+   * @param codes the reader to read the codes from
+   * @throws IOException              if reading from the reader fails
+   * @throws IllegalStateException    if a line is malformed or a code cannot be added
+   * @throws IllegalArgumentException if the given reader is null or holds no code
+   */
+  public void addCodes(Reader codes)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(codes)) {
+      throw new IllegalArgumentException("codes cannot be null");
+    }
+
+    Reader reader = new BufferedReader(codes);
+    StringBuilder symbols = new StringBuilder();
+    List<String> codeList = new ArrayList<>();
+    List<String> conflicts = new ArrayList<>();
+    StringBuilder line = new StringBuilder();
+    int next = reader.read();
+    while (next != -1) {
+      char symbol = (char) next;
+      next = reader.read();
+      boolean isCode = next == ':';
+      if (!isCode && this.isLineBreak(symbol)) {
+        continue;
+      }
+
+      line.setLength(0);
+      if (isCode) {
+        next = reader.read();
+      } else {
+        line.append(symbol);
+      }
+      while (next != -1 && !this.isLineBreak((char) next)) {
+        line.append((char) next);
+        next = reader.read();
+      }
+
+      if (isCode) {
+        symbols.append(symbol);
+        codeList.add(line.toString());
+      } else {
+        conflicts.add(String.format("Invalid line:'%s'", line));
+      }
+    }
+
+    if (symbols.length() == 0 && conflicts.isEmpty()) {
+      throw new IllegalArgumentException("codes cannot be empty");
+    }
+    this.addCodes(symbols.toString().toCharArray(), codeList.toArray(new String[0]),
+            symbols.length(), conflicts);
+  }
+
+  /**
+   * Reads a binary coding table, as written by {@link CanonicalCodingTable#writeTo(
+   * java.io.DataOutput)}, from the given input and adds its codes to the coding tree at once, as by
+   * {@link DecoderImpl#addCodes(Map)}. The coding symbols of the table must be the same as those
+   * of this decoder, in the same order.
+   *
+   * @param binaryTable the input to read the coding table from
+   * @throws IOException              if reading from the input fails
+   * @throws IllegalStateException    if the table is malformed or a code cannot be added
+   * @throws IllegalArgumentException if the given input is null or the coding symbols differ
+   */
+  public void addCodes(DataInput binaryTable)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(binaryTable)) {
+      throw new IllegalArgumentException("binaryTable cannot be null");
+    }
+    CanonicalCodingTable codingTable = CanonicalCodingTable.readFrom(binaryTable);
+    if (!this.codingSymbols.equals(codingTable.getCodingSymbols())) {
+      throw new IllegalArgumentException(
+              String.format("Invalid coding symbols:'%s'", codingTable.getCodingSymbols()));
+    }
+    this.addCodes(codingTable.getCodingTable());
   }
 
   /**
@@ -98,6 +273,7 @@ public class DecoderImpl implements Decoder {
   public String decode(String encodedMessage)
           throws IllegalStateException, IllegalArgumentException {
 
+    long startNanos = this.startTiming();
     Utils.checkNullOrEmptyString(encodedMessage);
 
     List<Character> unmodifiableEncodedSequence = Collections.unmodifiableList(
@@ -114,7 +290,134 @@ public class DecoderImpl implements Decoder {
       nextIndexToStartDecoding = decodedData.getNextIndexToStartDecoding();
       builder.append(decodedData.getData());
     }
-    return builder.toString();
+    return this.recordDecoding(startNanos, encodedMessage.length(), builder.toString());
+  }
+
+  /**
+   * Decodes the given packed message using the coding tree created thus far and returns the
+   * decoded message. The failure conditions are the same as that of {@link
+   * DecoderImpl#decode(InputStream, long, Writer)}.
+   *
+   * @param packedMessage the packed encoded message
+   * @param encodedLength the number of coding symbols in the packed message
+   * @return the decoded message
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given packedMessage is null or the encodedLength is
+   *                                  negative
+   */
+  @Override
+  public String decode(byte[] packedMessage, long encodedLength)
+          throws IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(packedMessage)) {
+      throw new IllegalArgumentException("packedMessage cannot be null");
+    }
+
+    StringWriter writer = new StringWriter();
+    try {
+      this.decode(new ByteArrayInputStream(packedMessage), encodedLength, writer);
+    } catch (IOException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return writer.toString();
+  }
+
+  /**
+   * Decodes the packed message read from the given inputStream using the coding tree created thus
+   * far and writes the decoded symbols to the given writer. Exactly <code>encodedLength</code>
+   * coding symbols are read from the stream, any padding bits after them are ignored. Neither the
+   * stream nor the writer is closed. It throws {@link IllegalStateException} if
+   * <ul>
+   * <li>if the stream has fewer coding symbols than the given encodedLength</li>
+   * <li>if the stream contains an index which does not belong to a coding symbol</li>
+   * <li>if the coding symbols lead to an traversal to a leaf that does not exist</li>
+   * <li>if the last coding symbol does not complete a code</li>
+   * </ul>
+   *
+   * @param packedMessage the stream to read the packed encoded message from
+   * @param encodedLength the number of coding symbols in the packed message
+   * @param writer        the writer to write the decoded symbols to
+   * @return the number of decoded symbols written
+   * @throws IOException              if reading the packed message or writing the output fails
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given stream or writer is null or the encodedLength is
+   *                                  negative
+   */
+  @Override
+  public long decode(InputStream packedMessage, long encodedLength, Writer writer)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    long startNanos = this.startTiming();
+    if (Objects.isNull(writer)) {
+      throw new IllegalArgumentException("writer cannot be null");
+    }
+    if (encodedLength < 0) {
+      throw new IllegalArgumentException(
+              String.format("Invalid encoded length:'%d'", encodedLength));
+    }
+
+    BitReader reader = new BitReader(packedMessage);
+    int bitsPerCodingSymbol = Utils.getBitsPerCodingSymbol(this.codingSymbols.length());
+    char[] buffer = new char[WRITE_BUFFER_SIZE];
+    int bufferPosition = 0;
+    long decodedSymbols = 0;
+
+    PrefixTreeNode<Character, Character> node = this.root;
+    for (long i = 0; i < encodedLength; i++) {
+      int codingSymbolIndex = reader.readBits(bitsPerCodingSymbol);
+      if (codingSymbolIndex >= this.codingSymbols.length()) {
+        throw new IllegalStateException(
+                String.format("Invalid coding symbol index:'%d'", codingSymbolIndex));
+      }
+
+      node = node.getChild(this.codingSymbols.charAt(codingSymbolIndex));
+      if (Objects.isNull(node)) {
+        throw new IllegalStateException("cannot decode given encodedSequence");
+      }
+
+      if (node.isLeaf()) {
+        if (bufferPosition == buffer.length) {
+          writer.write(buffer, 0, bufferPosition);
+          bufferPosition = 0;
+        }
+        buffer[bufferPosition++] = node.getData();
+        decodedSymbols++;
+        node = this.root;
+      }
+    }
+
+    if (node != this.root) {
+      throw new IllegalStateException("cannot decode given encodedSequence");
+    }
+    writer.write(buffer, 0, bufferPosition);
+    writer.flush();
+    this.recordDecoding(startNanos, encodedLength, decodedSymbols);
+    return decodedSymbols;
+  }
+
+  /**
+   * Decodes the packed message stored in the given file using the coding tree created thus far and
+   * writes the decoded symbols to the given writer. The file is read through a {@link
+   * MappedFileInputStream} and decoded by {@link DecoderImpl#decode(InputStream, long, Writer)},
+   * hence a subclass overriding that method decodes files in the same way. The failure conditions
+   * are the same as that of the same method. The writer is not closed.
+   *
+   * @param packedFile    the file holding the packed encoded message
+   * @param encodedLength the number of coding symbols in the packed message
+   * @param writer        the writer to write the decoded symbols to
+   * @return the number of decoded symbols written
+   * @throws IOException              if reading the packed message or writing the output fails
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given file or writer is null or the encodedLength is
+   *                                  negative
+   */
+  @Override
+  public long decode(Path packedFile, long encodedLength, Writer writer)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    try (MappedFileInputStream inputStream = new MappedFileInputStream(packedFile)) {
+      return this.decode(inputStream, encodedLength, writer);
+    }
   }
 
   /**
@@ -132,9 +435,49 @@ public class DecoderImpl implements Decoder {
    */
   @Override
   public String allCodes() {
-    List<String> allCodes = this.root.getAllLeavesPath("");
-    Collections.sort(allCodes);
-    return allCodes.stream().collect(Collectors.joining(System.lineSeparator()));
+    List<Character> symbols = new ArrayList<>();
+    List<String> codes = new ArrayList<>();
+    this.collectCodes(this.root, new StringBuilder(), symbols, codes);
+
+    // the index of each code is kept in the low half of its sort key
+    long[] sortKeys = new long[symbols.size()];
+    for (int i = 0; i < sortKeys.length; i++) {
+      sortKeys[i] = ((long) symbols.get(i) << Integer.SIZE) | i;
+    }
+    Arrays.sort(sortKeys);
+
+    StringBuilder allCodes = new StringBuilder();
+    for (long sortKey : sortKeys) {
+      if (allCodes.length() > 0) {
+        allCodes.append(System.lineSeparator());
+      }
+      allCodes.append((char) (sortKey >>> Integer.SIZE)).append(':')
+              .append(codes.get((int) sortKey));
+    }
+    return allCodes.toString();
+  }
+
+  /**
+   * Writes the codes entered thus far to the given writer, one line per symbol in the form x:yyy
+   * followed by the line separator. Every line is written as soon as its leaf is reached in a depth
+   * first walk of the coding tree, hence the codes come in the order of their coding symbols
+   * instead of the order of {@link DecoderImpl#allCodes()}, and no more than the code being written
+   * is held in memory. The written lines can be loaded back by {@link
+   * DecoderImpl#addCodes(Reader)}, which does not depend on their order.
+   *
+   * @param writer the writer to write the codes to
+   * @return the number of codes written
+   * @throws IOException              if writing to the writer fails
+   * @throws IllegalArgumentException if the given writer is null
+   */
+  public long writeCodes(Writer writer) throws IOException, IllegalArgumentException {
+    if (Objects.isNull(writer)) {
+      throw new IllegalArgumentException("writer cannot be null");
+    }
+
+    long codes = this.writeCodes(this.root, new StringBuilder(), writer);
+    writer.flush();
+    return codes;
   }
 
   /**
@@ -142,12 +485,419 @@ public class DecoderImpl implements Decoder {
    * complete if every valid encoded message can be successfully decoded. This condition is
    * fulfilled if the coding tree is full (i.e. every non-leaf node has exactly the same number of
    * children, equal to the number of coding symbols). Returns false in case coding tree is empty.
+   * The number of missing children is updated as codes are added, hence the tree is not walked.
    *
    * @return true if the code entered so far is complete, false otherwise
    */
   @Override
   public boolean isCodeComplete() {
-    return this.root.isTreeComplete();
+    return this.unfilledBranches == 0;
+  }
+
+  /**
+   * Returns the number of children missing from the non-leaf nodes of the coding tree, i.e. the
+   * number of codes which can still be added without growing the tree. It is 0 if and only if the
+   * code is complete.
+   *
+   * @return the number of children missing from the coding tree
+   */
+  public long getUnfilledBranches() {
+    return this.unfilledBranches;
+  }
+
+  /**
+   * Returns true if the Kraft-McMillan sum of the codes entered thus far leaves room for a code of
+   * the given length. It takes no time to walk the tree, hence a loader can reject a table which is
+   * over-full before adding its codes. A code of a length for which it returns false surely
+   * conflicts with the codes entered thus far, while a code for which it returns true may still be
+   * a prefix of them or have one of them as its prefix.
+   *
+   * @param codeLength the length of the code
+   * @return true if a code of the given length may be added
+   * @throws IllegalArgumentException if the given length is less than 1
+   */
+  public boolean canAddCode(int codeLength) throws IllegalArgumentException {
+    return this.kraftSum.canAdd(codeLength);
+  }
+
+  /**
+   * Compiles the coding tree created thus far into a {@link FlatPrefixTree} and returns a {@link
+   * CompiledDecoder} which decodes with it. The compiled decoder does not share any state with this
+   * decoder, hence codes added to this decoder later are not seen by it.
+   *
+   * @return the compiled decoder holding the codes entered thus far
+   */
+  public CompiledDecoder compile() {
+    return new CompiledDecoder(FlatPrefixTree.compile(this.root, this.codingSymbols));
+  }
+
+  /**
+   * Ends the building of the coding tree and returns the immutable {@link CompiledDecoder} holding
+   * the codes entered thus far. No code can be added to this decoder afterwards, hence the codes
+   * of this decoder and of the returned decoder stay the same. The returned decoder holds only
+   * final fields and arrays which are never written after its construction, hence it is safely
+   * published to any thread which gets a reference to it, and can be shared by many threads
+   * decoding at once without locks or copies, for e.g. through a {@link DecoderRegistry}. The
+   * decoder is frozen only once the compilation succeeds, hence a decoder which cannot be compiled
+   * is left as it was.
+   *
+   * @return the immutable decoder holding the codes entered thus far
+   * @throws IllegalStateException if the decoder cannot be compiled
+   */
+  public CompiledDecoder freeze() throws IllegalStateException {
+    CompiledDecoder compiledDecoder = this.compile();
+    this.isFrozen = true;
+    return compiledDecoder;
+  }
+
+  /**
+   * Sets the listener to pass the metrics of the messages decoded by this decoder to, replacing
+   * the previous one. Passing null stops the measuring, which then costs nothing. The listener
+   * should be set before the decoder is shared by many threads. The sessions created before the
+   * listener is set are not measured.
+   *
+   * @param metricsListener the listener to pass the metrics to, null to stop measuring
+   */
+  public void setMetricsListener(MetricsListener metricsListener) {
+    this.metricsListener = metricsListener;
+  }
+
+  /**
+   * Returns true if this decoder has been frozen by {@link DecoderImpl#freeze()}, false otherwise.
+   *
+   * @return true if this decoder has been frozen
+   */
+  public boolean isFrozen() {
+    return this.isFrozen;
+  }
+
+  /**
+   * Returns a new {@link DecodingSession} which decodes an encoded message arriving in chunks using
+   * the coding tree of this decoder, and passes every decoded symbol to the given listener.
+   *
+   * @param listener the listener to pass the decoded symbols to
+   * @return the new decoding session
+   * @throws IllegalArgumentException if the given listener is null
+   */
+  public DecodingSession newSession(SymbolListener listener) throws IllegalArgumentException {
+    return this.withMetrics(new DecodingSession(this.root, this.codingSymbols, listener));
+  }
+
+  /**
+   * Returns a new {@link DecodingSession} which decodes an encoded message arriving in chunks using
+   * the coding tree of this decoder, and puts every decoded symbol into the given buffer. Since a
+   * chunk of <code>n</code> coding symbols yields at most <code>n</code> symbols, a buffer with as
+   * many chars remaining as the coding symbols of the next chunk never overflows.
+   *
+   * @param output the buffer to put the decoded symbols into
+   * @return the new decoding session
+   * @throws IllegalArgumentException if the given buffer is null
+   */
+  public DecodingSession newSession(CharBuffer output) throws IllegalArgumentException {
+    if (Objects.isNull(output)) {
+      throw new IllegalArgumentException("output cannot be null");
+    }
+    return this.newSession(output::put);
+  }
+
+  /**
+   * Validates the first count symbols and codes of the given arrays and adds them to the coding
+   * tree if none of them fails. Every code is walked twice, first through the coding tree and
+   * through a staging trie of the codes before it, and then while it is added, hence the time taken
+   * is linear in the total length of the codes. The staging trie is a table of
+   * <code>states * radix</code> slots, each holding 0 if the slot is empty, the next state if it
+   * is greater than 0, and <code>-(index + 1)</code> of the code which ends at it otherwise.
+   *
+   * @param symbols   the symbols to be added
+   * @param codes     the codes of the symbols
+   * @param count     the number of symbols to be added
+   * @param conflicts the codes which already failed, to be reported along with the others
+   * @throws IllegalStateException if the decoder is frozen or any code cannot be added
+   */
+  private void addCodes(char[] symbols, String[] codes, int count, List<String> conflicts)
+          throws IllegalStateException {
+
+    if (this.isFrozen) {
+      throw new IllegalStateException("cannot add code to a frozen decoder");
+    }
+
+    int radix = this.codingSymbols.length();
+    int[] codingSymbolIndex = Utils.getCodingSymbolIndexArray(this.codingSymbols);
+    BitSet symbolsInBatch = new BitSet();
+    int[] trie = new int[radix * 16];
+    int states = 1;
+    for (int i = 0; i < count; i++) {
+      char symbol = symbols[i];
+      String code = codes[i];
+      if (Objects.isNull(code) || code.isEmpty()) {
+        conflicts.add(String.format("Invalid code for symbol:'%s'", symbol));
+        continue;
+      }
+      if (this.symbolsInCodingTree.contains(symbol) || symbolsInBatch.get(symbol)) {
+        conflicts.add(String.format("code for symbol:'%s' already exists", symbol));
+        continue;
+      }
+      String conflict = this.findConflict(symbol, code, codingSymbolIndex);
+      if (Objects.nonNull(conflict)) {
+        conflicts.add(conflict);
+        continue;
+      }
+
+      int state = 0;
+      for (int j = 0; j < code.length() && Objects.isNull(conflict); j++) {
+        int slot = state * radix + codingSymbolIndex[code.charAt(j)];
+        int next = trie[slot];
+        if (next < 0) {
+          conflict = String.format("code for symbol:'%s' conflicts with code for symbol:'%s'",
+                  symbol, symbols[-next - 1]);
+        } else if (j == code.length() - 1) {
+          if (next > 0) {
+            conflict = String.format("code for symbol:'%s' is a prefix of another code", symbol);
+          } else {
+            trie[slot] = -(i + 1);
+          }
+        } else if (next > 0) {
+          state = next;
+        } else {
+          if ((states + 1) * radix > trie.length) {
+            trie = Arrays.copyOf(trie, Math.max(trie.length * 2, (states + 1) * radix));
+          }
+          trie[slot] = states;
+          state = states++;
+        }
+      }
+      if (Objects.nonNull(conflict)) {
+        conflicts.add(conflict);
+        continue;
+      }
+      symbolsInBatch.set(symbol);
+    }
+
+    if (!conflicts.isEmpty()) {
+      throw new IllegalStateException(String.join(System.lineSeparator(), conflicts));
+    }
+
+    for (int i = 0; i < count; i++) {
+      String code = codes[i];
+      PrefixTreeNode<Character, Character> node = this.root;
+      for (int j = 0; j < code.length() - 1; j++) {
+        PrefixTreeNode<Character, Character> child = node.getChild(code.charAt(j));
+        if (Objects.isNull(child)) {
+          child = node.addGroupChild(code.charAt(j));
+          this.unfilledBranches += radix - 1;
+        }
+        node = child;
+      }
+      node.addLeafChild(code.charAt(code.length() - 1), symbols[i]);
+      this.symbolsInCodingTree.add(symbols[i]);
+      this.kraftSum.add(code.length());
+      this.unfilledBranches--;
+      this.maxCodeLength = Math.max(this.maxCodeLength, code.length());
+    }
+    this.codesAdded();
+  }
+
+  /**
+   * Returns the number of group nodes, other than the root, which already exist on the path of the
+   * given code, i.e. the number of its leading coding symbols which need no new node.
+   *
+   * @param code the code to walk
+   * @return the number of group nodes which already exist on the path of the code
+   */
+  private int getGroupNodesOnPath(String code) {
+    PrefixTreeNode<Character, Character> node = this.root;
+    int groupNodes = 0;
+    while (groupNodes < code.length() - 1) {
+      node = node.getChild(code.charAt(groupNodes));
+      if (Objects.isNull(node) || node.isLeaf()) {
+        break;
+      }
+      groupNodes++;
+    }
+    return groupNodes;
+  }
+
+  /**
+   * Returns the reason why the given code cannot be added to the coding tree, or null if it can.
+   * The code is walked through the coding tree until it leaves it, hence the time taken is linear
+   * in its length.
+   *
+   * @param symbol            the symbol of the code
+   * @param code              the code to check
+   * @param codingSymbolIndex the index of every coding symbol
+   * @return the reason why the code cannot be added, null if it can
+   */
+  private String findConflict(char symbol, String code, int[] codingSymbolIndex) {
+    PrefixTreeNode<Character, Character> node = this.root;
+    for (int j = 0; j < code.length(); j++) {
+      char codingSymbol = code.charAt(j);
+      if (codingSymbol >= codingSymbolIndex.length || codingSymbolIndex[codingSymbol] < 0) {
+        return String.format("Invalid coding symbol:'%s' in code for symbol:'%s'", codingSymbol,
+                symbol);
+      }
+      if (Objects.nonNull(node)) {
+        node = node.getChild(codingSymbol);
+        if (Objects.nonNull(node) && node.isLeaf()) {
+          return String.format("code for symbol:'%s' conflicts with code for symbol:'%s'", symbol,
+                  node.getData());
+        }
+      }
+    }
+    if (Objects.nonNull(node)) {
+      return String.format("code for symbol:'%s' is a prefix of another code", symbol);
+    }
+    return null;
+  }
+
+  /**
+   * Called after codes have been added to the coding tree by one of the addCodes methods. It does
+   * nothing by default, subclasses which derive state from the coding tree override it to reset
+   * that state.
+   */
+  protected void codesAdded() {
+    // nothing to reset
+  }
+
+  /**
+   * Collects the symbols of the leaves below the given node and their codes, in the order in which
+   * they are reached.
+   *
+   * @param node    the node to collect the codes below
+   * @param path    the code of the given node, restored before returning
+   * @param symbols the list to add the symbols to
+   * @param codes   the list to add the codes to
+   */
+  private void collectCodes(PrefixTreeNode<Character, Character> node, StringBuilder path,
+                            List<Character> symbols, List<String> codes) {
+
+    for (int i = 0; i < this.codingSymbols.length(); i++) {
+      char codingSymbol = this.codingSymbols.charAt(i);
+      PrefixTreeNode<Character, Character> child = node.getChild(codingSymbol);
+      if (Objects.isNull(child)) {
+        continue;
+      }
+      path.append(codingSymbol);
+      if (child.isLeaf()) {
+        symbols.add(child.getData());
+        codes.add(path.toString());
+      } else {
+        this.collectCodes(child, path, symbols, codes);
+      }
+      path.setLength(path.length() - 1);
+    }
+  }
+
+  /**
+   * Writes the codes of the leaves below the given node to the given writer, in the order in which
+   * they are reached, as by {@link DecoderImpl#writeCodes(Writer)}.
+   *
+   * @param node   the node to write the codes below
+   * @param path   the code of the given node, restored before returning
+   * @param writer the writer to write the codes to
+   * @return the number of codes written
+   * @throws IOException if writing to the writer fails
+   */
+  private long writeCodes(PrefixTreeNode<Character, Character> node, StringBuilder path,
+                          Writer writer) throws IOException {
+
+    long codes = 0;
+    for (int i = 0; i < this.codingSymbols.length(); i++) {
+      char codingSymbol = this.codingSymbols.charAt(i);
+      PrefixTreeNode<Character, Character> child = node.getChild(codingSymbol);
+      if (Objects.isNull(child)) {
+        continue;
+      }
+      path.append(codingSymbol);
+      if (child.isLeaf()) {
+        writer.write(child.getData());
+        writer.write(':');
+        writer.append(path);
+        writer.write(System.lineSeparator());
+        codes++;
+      } else {
+        codes += this.writeCodes(child, path, writer);
+      }
+      path.setLength(path.length() - 1);
+    }
+    return codes;
+  }
+
+  /**
+   * Returns true if the given char ends a line.
+   *
+   * @param symbol the char to check
+   * @return true if the given char ends a line
+   */
+  private boolean isLineBreak(char symbol) {
+    return symbol == '\n' || symbol == '\r';
+  }
+
+  /**
+   * Returns the current time in nanoseconds if a metrics listener is set, 0 otherwise. A decode
+   * method measures itself from this time and reports its metrics through one of the
+   * recordDecoding methods once it succeeds.
+   *
+   * @return the time to measure a call from
+   */
+  protected long startTiming() {
+    MetricsListener metricsListener = this.metricsListener;
+    return Objects.isNull(metricsListener) ? 0 : System.nanoTime();
+  }
+
+  /**
+   * Passes the metrics of a decoded message to the metrics listener, if any, and returns the
+   * message. The entropy is measured on the decoded message once the time is taken, hence the time
+   * does not include it. The listener is read once, hence one which is removed by another thread
+   * meanwhile is either passed the metrics or not called at all.
+   *
+   * @param startNanos        the time the decoding started at
+   * @param codingSymbolsRead the number of coding symbols of the encoded message
+   * @param decodedMessage    the decoded message
+   * @return the given decoded message
+   */
+  protected String recordDecoding(long startNanos, long codingSymbolsRead,
+                                  String decodedMessage) {
+
+    MetricsListener metricsListener = this.metricsListener;
+    if (Objects.nonNull(metricsListener)) {
+      long elapsedNanos = System.nanoTime() - startNanos;
+      metricsListener.onMetrics(new CodecMetrics(CodecMetrics.Operation.DECODE,
+              this.codingSymbols.length(), decodedMessage.length(), codingSymbolsRead,
+              CodecMetrics.getEntropy(decodedMessage), this.maxCodeLength, elapsedNanos));
+    }
+    return decodedMessage;
+  }
+
+  /**
+   * Passes the metrics of a message decoded to a stream to the metrics listener, if any. The
+   * entropy is unknown since the decoded symbols are not held at once.
+   *
+   * @param startNanos        the time the decoding started at
+   * @param codingSymbolsRead the number of coding symbols of the encoded message
+   * @param decodedSymbols    the number of decoded symbols
+   */
+  protected void recordDecoding(long startNanos, long codingSymbolsRead, long decodedSymbols) {
+    MetricsListener metricsListener = this.metricsListener;
+    if (Objects.nonNull(metricsListener)) {
+      metricsListener.onMetrics(new CodecMetrics(CodecMetrics.Operation.DECODE,
+              this.codingSymbols.length(), decodedSymbols, codingSymbolsRead, Double.NaN,
+              this.maxCodeLength, System.nanoTime() - startNanos));
+    }
+  }
+
+  /**
+   * Makes the given session report its metrics to the metrics listener, if any, once it is
+   * finished, and returns it.
+   *
+   * @param session the session to measure
+   * @return the given session
+   */
+  protected DecodingSession withMetrics(DecodingSession session) {
+    MetricsListener metricsListener = this.metricsListener;
+    if (Objects.nonNull(metricsListener)) {
+      session.setMetricsListener(metricsListener, this.maxCodeLength);
+    }
+    return session;
   }
 
   /**
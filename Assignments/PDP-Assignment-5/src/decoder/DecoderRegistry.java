@@ -0,0 +1,143 @@
+package decoder;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import util.Utils;
+
+/**
+ * This class represents a registry of frozen decoders keyed by the id of their coding table. Every
+ * decoder in the registry is an immutable {@link CompiledDecoder}, hence a decoder is built once
+ * and then shared by all the threads decoding messages coded with the same table, without locks or
+ * copies. The registry itself is safe to use from multiple threads.
+ */
+public class DecoderRegistry {
+
+  private final ConcurrentMap<String, CompiledDecoder> decoders;
+
+  /**
+   * Constructs an empty {@link DecoderRegistry}.
+   */
+  public DecoderRegistry() {
+    this.decoders = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Registers the given decoder under the given table id, replacing the decoder registered under
+   * the same id if any.
+   *
+   * @param tableId the id of the coding table of the decoder
+   * @param decoder the decoder to register
+   * @throws IllegalArgumentException if the given table id is null or empty or the decoder is null
+   */
+  public void register(String tableId, CompiledDecoder decoder) throws IllegalArgumentException {
+    Utils.checkNullOrEmptyString(tableId);
+    if (Objects.isNull(decoder)) {
+      throw new IllegalArgumentException("decoder cannot be null");
+    }
+    this.decoders.put(tableId, decoder);
+  }
+
+  /**
+   * Builds a decoder holding the codes of the given coding table, freezes it and registers it
+   * under the given table id, replacing the decoder registered under the same id if any. The
+   * conditions under which building the decoder fails are the same as that of {@link
+   * DecoderImpl#DecoderImpl(String)} and {@link DecoderImpl#addCodes(Map)}.
+   *
+   * @param tableId       the id of the coding table
+   * @param codingSymbols the coding symbols of the table, in the order of their index
+   * @param codingTable   the coding table
+   * @return the frozen decoder registered under the given table id
+   * @throws IllegalArgumentException if any of the given params is invalid
+   * @throws IllegalStateException    if a code cannot be added to the decoder
+   */
+  public CompiledDecoder register(String tableId, String codingSymbols,
+                                  Map<Character, String> codingTable)
+          throws IllegalArgumentException, IllegalStateException {
+
+    Utils.checkNullOrEmptyString(tableId);
+    Utils.checkNullOrEmptyMap(codingTable);
+
+    DecoderImpl decoder = new DecoderImpl(codingSymbols);
+    decoder.addCodes(codingTable);
+    CompiledDecoder frozenDecoder = decoder.freeze();
+    this.decoders.put(tableId, frozenDecoder);
+    return frozenDecoder;
+  }
+
+  /**
+   * Returns the decoder registered under the given table id, building and registering it with the
+   * given builder if there is none. The builder is called at most once for a table id even if many
+   * threads ask for the same id at once, while the threads asking for other ids are not blocked.
+   *
+   * @param tableId the id of the coding table
+   * @param builder the builder of the decoder, called if no decoder is registered under the id
+   * @return the decoder registered under the given table id
+   * @throws IllegalArgumentException if the given table id is null or empty, the builder is null or
+   *                                  it returns null
+   */
+  public CompiledDecoder getOrBuild(String tableId, Supplier<CompiledDecoder> builder)
+          throws IllegalArgumentException {
+
+    Utils.checkNullOrEmptyString(tableId);
+    if (Objects.isNull(builder)) {
+      throw new IllegalArgumentException("builder cannot be null");
+    }
+
+    CompiledDecoder decoder = this.decoders.computeIfAbsent(tableId, id -> builder.get());
+    if (Objects.isNull(decoder)) {
+      throw new IllegalArgumentException("decoder cannot be null");
+    }
+    return decoder;
+  }
+
+  /**
+   * Returns the decoder registered under the given table id. It throws an {@link
+   * IllegalArgumentException} if no decoder is registered under the id.
+   *
+   * @param tableId the id of the coding table
+   * @return the decoder registered under the given table id
+   * @throws IllegalArgumentException if the given table id is null, empty or not registered
+   */
+  public CompiledDecoder get(String tableId) throws IllegalArgumentException {
+    Utils.checkNullOrEmptyString(tableId);
+    CompiledDecoder decoder = this.decoders.get(tableId);
+    if (Objects.isNull(decoder)) {
+      throw new IllegalArgumentException(String.format("Invalid table id:'%s'", tableId));
+    }
+    return decoder;
+  }
+
+  /**
+   * Returns true if a decoder is registered under the given table id, false otherwise.
+   *
+   * @param tableId the id of the coding table
+   * @return true if a decoder is registered under the given table id
+   */
+  public boolean contains(String tableId) {
+    return Objects.nonNull(tableId) && this.decoders.containsKey(tableId);
+  }
+
+  /**
+   * Removes the decoder registered under the given table id, if any. The threads which already
+   * hold the decoder can keep using it.
+   *
+   * @param tableId the id of the coding table
+   * @return true if a decoder was removed, false otherwise
+   */
+  public boolean remove(String tableId) {
+    return Objects.nonNull(tableId) && Objects.nonNull(this.decoders.remove(tableId));
+  }
+
+  /**
+   * Returns the number of decoders in the registry.
+   *
+   * @return the number of decoders in the registry
+   */
+  public int size() {
+    return this.decoders.size();
+  }
+}
@@ -0,0 +1,299 @@
+package decoder;
+
+import java.util.Objects;
+
+import decoder.treeutil.PrefixTreeNode;
+import metrics.CodecMetrics;
+import metrics.MetricsListener;
+import util.Utils;
+
+/**
+ * This class represents a {@link DecodingSession}, the decoding of a single encoded message which
+ * arrives in chunks. Unlike {@link Decoder#decode(String)}, a chunk need not end at the end of a
+ * code: the position in the coding tree, as well as the bits of a packed coding symbol which spans
+ * two chunks, is kept until the next chunk arrives. Every symbol is passed to the {@link
+ * SymbolListener} of the session as soon as its code is complete, hence the message is decoded
+ * while it is being received without buffering it as a whole.
+ *
+ * <p>A session is created by {@link DecoderImpl#newSession(SymbolListener)} and walks the coding
+ * tree of that decoder, hence the codes of the decoder must not change while the session is in
+ * use. A chunk of <code>n</code> coding symbols yields at most <code>n</code> symbols. A session
+ * is not safe to use from multiple threads.
+ */
+public class DecodingSession {
+
+  private static final int NO_ESCAPE = -1;
+
+  private final PrefixTreeNode<Character, Character> root;
+  private final String codingSymbols;
+  private final int[] codingSymbolIndex;
+  private final int bitsPerCodingSymbol;
+  private final int escapeSymbol;
+  private final int escapeLength;
+  private final SymbolListener listener;
+
+  private PrefixTreeNode<Character, Character> node;
+  private int escapedDigits;
+  private long escapedValue;
+  private long pendingBits;
+  private int pendingBitCount;
+  private long encodedLength;
+  private long codingSymbolsRead;
+  private long decodedSymbols;
+  private MetricsListener metricsListener;
+  private int maxCodeLength;
+  private long startNanos;
+
+  /**
+   * Constructs a {@link DecodingSession} over the given coding tree.
+   *
+   * @param root          the root of the coding tree
+   * @param codingSymbols the coding symbols of the tree, in the order of their index
+   * @param listener      the listener to pass the decoded symbols to
+   * @throws IllegalArgumentException if the given listener is null
+   */
+  DecodingSession(PrefixTreeNode<Character, Character> root, String codingSymbols,
+                  SymbolListener listener) throws IllegalArgumentException {
+
+    this(root, codingSymbols, NO_ESCAPE, 0, listener);
+  }
+
+  /**
+   * Constructs a {@link DecodingSession} over the given coding tree, in which the code of the
+   * given escape symbol is followed by the value of an escaped symbol, as coded by {@link
+   * codingtable.HuffmanModel}.
+   *
+   * @param root          the root of the coding tree
+   * @param codingSymbols the coding symbols of the tree, in the order of their index
+   * @param escapeSymbol  the escape symbol, -1 if the code has none
+   * @param escapeLength  the number of coding symbols of an escaped value
+   * @param listener      the listener to pass the decoded symbols to
+   * @throws IllegalArgumentException if the given listener is null
+   */
+  DecodingSession(PrefixTreeNode<Character, Character> root, String codingSymbols,
+                  int escapeSymbol, int escapeLength, SymbolListener listener)
+          throws IllegalArgumentException {
+
+    if (Objects.isNull(listener)) {
+      throw new IllegalArgumentException("listener cannot be null");
+    }
+    this.root = root;
+    this.codingSymbols = codingSymbols;
+    this.codingSymbolIndex = Utils.getCodingSymbolIndexArray(codingSymbols);
+    this.bitsPerCodingSymbol = Utils.getBitsPerCodingSymbol(codingSymbols.length());
+    this.escapeSymbol = escapeSymbol;
+    this.escapeLength = escapeLength;
+    this.listener = listener;
+
+    this.node = root;
+    this.escapedDigits = 0;
+    this.escapedValue = 0;
+    this.pendingBits = 0;
+    this.pendingBitCount = 0;
+    this.encodedLength = Long.MAX_VALUE;
+    this.codingSymbolsRead = 0;
+    this.decodedSymbols = 0;
+    this.metricsListener = null;
+    this.maxCodeLength = 0;
+    this.startNanos = 0;
+  }
+
+  /**
+   * Makes the session pass its metrics to the given listener once it is finished. The session is
+   * measured from this call.
+   *
+   * @param metricsListener the listener to pass the metrics to
+   * @param maxCodeLength   the length of the longest code of the coding tree
+   */
+  void setMetricsListener(MetricsListener metricsListener, int maxCodeLength) {
+    this.metricsListener = metricsListener;
+    this.maxCodeLength = maxCodeLength;
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Sets the number of coding symbols of the packed message. The packed chunks are read up to this
+   * number of coding symbols and the padding bits after them are ignored. Without it, every bit of
+   * a packed chunk is read as part of a coding symbol. It throws an {@link
+   * IllegalArgumentException} if the given length is negative or less than the number of coding
+   * symbols read thus far.
+   *
+   * @param encodedLength the number of coding symbols of the packed message
+   * @throws IllegalArgumentException if the given length is invalid
+   */
+  public void setEncodedLength(long encodedLength) throws IllegalArgumentException {
+    if (encodedLength < this.codingSymbolsRead) {
+      throw new IllegalArgumentException(
+              String.format("Invalid encoded length:'%d'", encodedLength));
+    }
+    this.encodedLength = encodedLength;
+  }
+
+  /**
+   * Decodes the given chunk of coding symbols. The chunk may start and end anywhere within a code.
+   * It throws an {@link IllegalStateException} if the chunk contains symbols other than the coding
+   * symbols or leads to a node that does not exist. The symbols decoded before the failure have
+   * already been passed to the listener.
+   *
+   * @param encodedChunk the next chunk of coding symbols
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given chunk is null
+   */
+  public void decode(CharSequence encodedChunk)
+          throws IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(encodedChunk)) {
+      throw new IllegalArgumentException("encodedChunk cannot be null");
+    }
+
+    for (int i = 0; i < encodedChunk.length(); i++) {
+      char codingSymbol = encodedChunk.charAt(i);
+      if (codingSymbol >= this.codingSymbolIndex.length
+              || this.codingSymbolIndex[codingSymbol] < 0) {
+        throw new IllegalStateException("cannot decode given encodedSequence");
+      }
+      this.step(this.codingSymbolIndex[codingSymbol]);
+    }
+  }
+
+  /**
+   * Decodes the given chunk of packed coding symbols, packed as by {@link
+   * encoder.StreamingEncoder}. A coding symbol may span two chunks, its bits are kept until the
+   * next chunk arrives. The bits after the encoded length, if set, are ignored. It throws an {@link
+   * IllegalStateException} if the chunk contains an index which does not belong to a coding symbol
+   * or leads to a node that does not exist.
+   *
+   * @param packedChunk the array holding the next chunk of packed coding symbols
+   * @param offset      the offset of the chunk in the array
+   * @param length      the number of bytes of the chunk
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given array is null or the range is out of its bounds
+   */
+  public void decode(byte[] packedChunk, int offset, int length)
+          throws IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(packedChunk)) {
+      throw new IllegalArgumentException("packedChunk cannot be null");
+    }
+    if (offset < 0 || length < 0 || offset > packedChunk.length - length) {
+      throw new IllegalArgumentException(
+              String.format("Invalid range:'%d, %d'", offset, length));
+    }
+
+    int radix = this.codingSymbols.length();
+    int end = offset + length;
+    for (int i = offset; i < end && this.codingSymbolsRead < this.encodedLength; i++) {
+      this.pendingBits = (this.pendingBits << Byte.SIZE) | (packedChunk[i] & 0xFF);
+      this.pendingBitCount += Byte.SIZE;
+
+      while (this.pendingBitCount >= this.bitsPerCodingSymbol
+              && this.codingSymbolsRead < this.encodedLength) {
+        this.pendingBitCount -= this.bitsPerCodingSymbol;
+        int index = (int) (this.pendingBits >>> this.pendingBitCount)
+                & ((1 << this.bitsPerCodingSymbol) - 1);
+        if (index >= radix) {
+          throw new IllegalStateException(
+                  String.format("Invalid coding symbol index:'%d'", index));
+        }
+        this.step(index);
+      }
+      this.pendingBits &= (1L << this.pendingBitCount) - 1;
+    }
+  }
+
+  /**
+   * Returns true if the coding symbols read thus far end at the end of a code, i.e. the message
+   * received thus far can be decoded as a whole.
+   *
+   * @return true if the coding symbols read thus far end at the end of a code
+   */
+  public boolean isAtSymbolBoundary() {
+    return this.node == this.root && this.escapedDigits == 0;
+  }
+
+  /**
+   * Ends the session. It throws an {@link IllegalStateException} if the last coding symbol read did
+   * not complete a code, or if the encoded length is set and fewer coding symbols were read. The
+   * metrics of the session, if measured, are passed to the metrics listener.
+   *
+   * @throws IllegalStateException if the encoded message is incomplete
+   */
+  public void finish() throws IllegalStateException {
+    if (!this.isAtSymbolBoundary() || (this.encodedLength != Long.MAX_VALUE
+            && this.codingSymbolsRead < this.encodedLength)) {
+      throw new IllegalStateException("cannot decode given encodedSequence");
+    }
+    if (Objects.nonNull(this.metricsListener)) {
+      this.metricsListener.onMetrics(new CodecMetrics(CodecMetrics.Operation.DECODE,
+              this.codingSymbols.length(), this.decodedSymbols, this.codingSymbolsRead,
+              Double.NaN, this.maxCodeLength, System.nanoTime() - this.startNanos));
+    }
+  }
+
+  /**
+   * Returns the number of coding symbols read thus far.
+   *
+   * @return the number of coding symbols read thus far
+   */
+  public long getCodingSymbolsRead() {
+    return this.codingSymbolsRead;
+  }
+
+  /**
+   * Returns the number of symbols decoded thus far.
+   *
+   * @return the number of symbols decoded thus far
+   */
+  public long getDecodedSymbols() {
+    return this.decodedSymbols;
+  }
+
+  /**
+   * Moves the cursor by the given coding symbol and passes the decoded symbol to the listener if a
+   * code is complete.
+   *
+   * @param codingSymbolIndex the index of the coding symbol
+   * @throws IllegalStateException if the coding symbol leads to a node that does not exist or an
+   *                               escaped value is not a char
+   */
+  private void step(int codingSymbolIndex) throws IllegalStateException {
+    this.codingSymbolsRead++;
+    if (this.escapedDigits > 0) {
+      this.escapedValue = this.escapedValue * this.codingSymbols.length() + codingSymbolIndex;
+      if (--this.escapedDigits == 0) {
+        if (this.escapedValue > Character.MAX_VALUE) {
+          throw new IllegalStateException("cannot decode given encodedSequence");
+        }
+        this.emit((char) this.escapedValue);
+      }
+      return;
+    }
+
+    PrefixTreeNode<Character, Character> child =
+            this.node.getChild(this.codingSymbols.charAt(codingSymbolIndex));
+    if (Objects.isNull(child)) {
+      throw new IllegalStateException("cannot decode given encodedSequence");
+    }
+    this.node = child;
+    if (this.node.isLeaf()) {
+      char symbol = this.node.getData();
+      this.node = this.root;
+      if (symbol == this.escapeSymbol) {
+        this.escapedDigits = this.escapeLength;
+        this.escapedValue = 0;
+      } else {
+        this.emit(symbol);
+      }
+    }
+  }
+
+  /**
+   * Passes the given decoded symbol to the listener.
+   *
+   * @param symbol the decoded symbol
+   */
+  private void emit(char symbol) {
+    this.decodedSymbols++;
+    this.listener.onSymbol(symbol);
+  }
+}
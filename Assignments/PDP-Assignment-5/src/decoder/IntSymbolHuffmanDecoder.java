@@ -0,0 +1,236 @@
+package decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+import codingtable.IntCodingTable;
+import util.BitReader;
+import util.Utils;
+
+/**
+ * This class represents an IntSymbolHuffmanDecoder. It decodes the packed messages written by
+ * {@link encoder.IntSymbolHuffmanEncoder} back into int symbols, Unicode code points or raw bytes.
+ * Since the codes of an {@link IntCodingTable} are canonical, the decoder keeps only the first
+ * code, the number of codes and the offset of the symbols of every code length in primitive
+ * arrays, and decodes by accumulating the value of the coding symbols read so far, exactly as
+ * {@link CanonicalDecoder} does.
+ */
+public class IntSymbolHuffmanDecoder {
+
+  private static final int WRITE_BUFFER_SIZE = 8192;
+  private static final int BYTE_ALPHABET_SIZE = 256;
+
+  private final int radix;
+  private final int bitsPerCodingSymbol;
+  private final int[] sortedSymbols;
+  private final long[] firstCode;
+  private final int[] codeCount;
+  private final int[] symbolOffset;
+
+  /**
+   * Constructs an {@link IntSymbolHuffmanDecoder} for the given coding table. It throws an {@link
+   * IllegalArgumentException} if the given table is null and an {@link IllegalStateException} if
+   * the codes of the table are too long for their values to fit in a long.
+   *
+   * @param codingTable the coding table to decode with
+   * @throws IllegalArgumentException if the given table is null
+   * @throws IllegalStateException    if the codes are too long to be decoded
+   */
+  public IntSymbolHuffmanDecoder(IntCodingTable codingTable)
+          throws IllegalArgumentException, IllegalStateException {
+
+    if (Objects.isNull(codingTable)) {
+      throw new IllegalArgumentException("codingTable cannot be null");
+    }
+
+    this.radix = codingTable.getRadix();
+    this.bitsPerCodingSymbol = Utils.getBitsPerCodingSymbol(this.radix);
+    int maxLength = codingTable.getMaxCodeLength();
+    this.sortedSymbols = new int[codingTable.getNumberOfSymbols()];
+    this.firstCode = new long[maxLength + 1];
+    this.codeCount = new int[maxLength + 1];
+    this.symbolOffset = new int[maxLength + 1];
+
+    for (int symbol = 0; symbol < codingTable.getAlphabetSize(); symbol++) {
+      this.codeCount[codingTable.getCodeLength(symbol)]++;
+    }
+    this.codeCount[0] = 0;
+
+    long code = 0;
+    int offset = 0;
+    try {
+      for (int length = 1; length <= maxLength; length++) {
+        this.firstCode[length] = code;
+        this.symbolOffset[length] = offset;
+        offset += this.codeCount[length];
+        code = Math.multiplyExact(code + this.codeCount[length], this.radix);
+      }
+    } catch (ArithmeticException e) {
+      throw new IllegalStateException("codes are too long for canonical decoding");
+    }
+
+    int[] nextPosition = this.symbolOffset.clone();
+    for (int symbol = 0; symbol < codingTable.getAlphabetSize(); symbol++) {
+      int codeLength = codingTable.getCodeLength(symbol);
+      if (codeLength > 0) {
+        this.sortedSymbols[nextPosition[codeLength]++] = symbol;
+      }
+    }
+  }
+
+  /**
+   * Decodes the packed message read from the given inputStream and returns the decoded symbols.
+   *
+   * @param packedMessage the stream to read the packed encoded message from
+   * @param encodedLength the number of coding symbols in the packed message
+   * @return the decoded symbols
+   * @throws IOException              if reading the packed message fails
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given stream is null or the encodedLength is negative
+   */
+  public int[] decode(InputStream packedMessage, long encodedLength)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    int[][] symbols = {new int[WRITE_BUFFER_SIZE]};
+    int[] size = {0};
+    this.decode(packedMessage, encodedLength, symbol -> {
+      if (size[0] == symbols[0].length) {
+        symbols[0] = Arrays.copyOf(symbols[0], symbols[0].length * 2);
+      }
+      symbols[0][size[0]++] = symbol;
+    });
+    return Arrays.copyOf(symbols[0], size[0]);
+  }
+
+  /**
+   * Decodes the packed message read from the given inputStream and returns the string made of the
+   * decoded Unicode code points.
+   *
+   * @param packedMessage the stream to read the packed encoded message from
+   * @param encodedLength the number of coding symbols in the packed message
+   * @return the decoded message
+   * @throws IOException              if reading the packed message fails
+   * @throws IllegalStateException    if the decoding fails due to any reason, including a decoded
+   *                                  symbol which is not a code point
+   * @throws IllegalArgumentException if the given stream is null or the encodedLength is negative
+   */
+  public String decodeCodePoints(InputStream packedMessage, long encodedLength)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    StringBuilder builder = new StringBuilder();
+    this.decode(packedMessage, encodedLength, symbol -> {
+      if (!Character.isValidCodePoint(symbol)) {
+        throw new IllegalStateException(String.format("Invalid code point:'%d'", symbol));
+      }
+      builder.appendCodePoint(symbol);
+    });
+    return builder.toString();
+  }
+
+  /**
+   * Decodes the packed message read from the given inputStream and writes the decoded bytes to the
+   * given outputStream. Neither stream is closed.
+   *
+   * @param packedMessage the stream to read the packed encoded message from
+   * @param encodedLength the number of coding symbols in the packed message
+   * @param outputStream  the stream to write the decoded bytes to
+   * @return the number of decoded bytes written
+   * @throws IOException              if reading the packed message or writing the output fails
+   * @throws IllegalStateException    if the decoding fails due to any reason, including a decoded
+   *                                  symbol which is not a byte
+   * @throws IllegalArgumentException if any of the given streams is null or the encodedLength is
+   *                                  negative
+   */
+  public long decodeBytes(InputStream packedMessage, long encodedLength,
+                          OutputStream outputStream)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(outputStream)) {
+      throw new IllegalArgumentException("outputStream cannot be null");
+    }
+
+    byte[] buffer = new byte[WRITE_BUFFER_SIZE];
+    int[] bufferPosition = {0};
+    long decodedSymbols = this.decode(packedMessage, encodedLength, symbol -> {
+      if (symbol >= BYTE_ALPHABET_SIZE) {
+        throw new IllegalStateException(String.format("Invalid byte:'%d'", symbol));
+      }
+      if (bufferPosition[0] == buffer.length) {
+        outputStream.write(buffer, 0, bufferPosition[0]);
+        bufferPosition[0] = 0;
+      }
+      buffer[bufferPosition[0]++] = (byte) symbol;
+    });
+    outputStream.write(buffer, 0, bufferPosition[0]);
+    outputStream.flush();
+    return decodedSymbols;
+  }
+
+  /**
+   * Decodes the packed message read from the given inputStream and hands every decoded symbol to
+   * the given sink, in order.
+   *
+   * @param packedMessage the stream to read the packed encoded message from
+   * @param encodedLength the number of coding symbols in the packed message
+   * @param sink          the sink to hand the decoded symbols to
+   * @return the number of decoded symbols
+   * @throws IOException              if reading the packed message or the sink fails
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given stream is null or the encodedLength is negative
+   */
+  long decode(InputStream packedMessage, long encodedLength, SymbolSink sink)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (encodedLength < 0) {
+      throw new IllegalArgumentException(
+              String.format("Invalid encoded length:'%d'", encodedLength));
+    }
+
+    BitReader reader = new BitReader(packedMessage);
+    int maxLength = this.firstCode.length - 1;
+    long decodedSymbols = 0;
+    long code = 0;
+    int length = 0;
+
+    for (long i = 0; i < encodedLength; i++) {
+      int codingSymbolIndex = reader.readBits(this.bitsPerCodingSymbol);
+      if (codingSymbolIndex >= this.radix || length == maxLength) {
+        throw new IllegalStateException("cannot decode given encodedSequence");
+      }
+
+      code = code * this.radix + codingSymbolIndex;
+      length++;
+
+      long indexInLength = code - this.firstCode[length];
+      if (indexInLength < this.codeCount[length]) {
+        sink.accept(this.sortedSymbols[this.symbolOffset[length] + (int) indexInLength]);
+        decodedSymbols++;
+        code = 0;
+        length = 0;
+      }
+    }
+
+    if (length != 0) {
+      throw new IllegalStateException("cannot decode given encodedSequence");
+    }
+    return decodedSymbols;
+  }
+
+  /**
+   * This interface represents the receiver of the symbols decoded by {@link
+   * IntSymbolHuffmanDecoder}.
+   */
+  interface SymbolSink {
+
+    /**
+     * Accepts the next decoded symbol.
+     *
+     * @param symbol the decoded symbol
+     * @throws IOException if handling the symbol fails
+     */
+    void accept(int symbol) throws IOException;
+  }
+}
@@ -0,0 +1,481 @@
+package decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import decoder.treeutil.PrefixTreeNode;
+import util.BitReader;
+import util.Utils;
+
+/**
+ * This class represents a {@link LookupTableDecoder}. It extends {@link DecoderImpl} and accepts
+ * the codes in the same way, but decodes the encoded messages using flat lookup tables instead of
+ * walking the prefix coding tree one coding symbol at a time.
+ *
+ * <p>Every group node of the coding tree is a state of the decoder. For every state and for every
+ * combination of <code>k</code> coding symbols the tables hold the symbols decoded while consuming
+ * those <code>k</code> coding symbols and the state reached after them. Hence a single lookup
+ * consumes <code>k</code> coding symbols and decodes zero or more symbols, without allocating
+ * anything per decoded symbol. The tables are compiled from the coding tree on the first decode
+ * after a code is added.
+ *
+ * <p>Packed messages are decoded with the same tables. When the number of coding symbols is a power
+ * of two, the packed bits of <code>k</code> coding symbols are exactly the index of the table
+ * entry, hence they are read with a single read of the packed stream.
+ */
+public class LookupTableDecoder extends DecoderImpl {
+
+  private static final int MAX_ENTRIES_PER_STATE = 256;
+  private static final int MAX_LOOKUP_WIDTH = 8;
+  private static final long MAX_TABLE_SIZE = 1 << 26;
+  private static final int ERROR_STATE = -1;
+  private static final int WRITE_BUFFER_SIZE = 8192;
+
+  private final int maxLookupWidth;
+  private final int[] codingSymbolIndex;
+
+  private int lookupWidth;
+  private int entriesPerState;
+
+  private boolean isCompiled;
+  private int[] nextState;
+  private byte[] decodedCount;
+  private char[] decodedSymbols;
+  private int[] stepNextState;
+  private char[] stepDecodedSymbol;
+
+  /**
+   * Constructs a {@link LookupTableDecoder} with the given codingSymbols. The number of coding
+   * symbols consumed per lookup is chosen such that each state has at most 256 table entries. The
+   * conditions on the given codingSymbols are the same as that of {@link
+   * DecoderImpl#DecoderImpl(String)}.
+   *
+   * @param codingSymbols the codingSymbols for this decoder
+   * @throws IllegalArgumentException if the given codingSymbols are invalid
+   */
+  public LookupTableDecoder(String codingSymbols) throws IllegalArgumentException {
+    this(codingSymbols, getDefaultLookupWidth(codingSymbols));
+  }
+
+  /**
+   * Constructs a {@link LookupTableDecoder} with the given codingSymbols which consumes the given
+   * number of coding symbols per lookup. The size of the tables grows exponentially with the
+   * lookupWidth, hence it should be chosen such that the tables fit in the cache. If the tables of
+   * a coding tree would hold more than 2^26 decoded symbols, they are compiled for the largest
+   * smaller lookupWidth for which they do not.
+   *
+   * @param codingSymbols the codingSymbols for this decoder
+   * @param lookupWidth   the number of coding symbols consumed per lookup
+   * @throws IllegalArgumentException if the given codingSymbols are invalid or the lookupWidth is
+   *                                  not between 1 and 8 or leads to too many table entries
+   */
+  public LookupTableDecoder(String codingSymbols, int lookupWidth)
+          throws IllegalArgumentException {
+
+    super(codingSymbols);
+
+    if (lookupWidth < 1 || lookupWidth > MAX_LOOKUP_WIDTH) {
+      throw new IllegalArgumentException(String.format("Invalid lookup width:'%d'", lookupWidth));
+    }
+    long entries = 1;
+    for (int i = 0; i < lookupWidth; i++) {
+      entries *= codingSymbols.length();
+    }
+    if (entries > Integer.MAX_VALUE / MAX_LOOKUP_WIDTH) {
+      throw new IllegalArgumentException(String.format("Invalid lookup width:'%d'", lookupWidth));
+    }
+
+    this.maxLookupWidth = lookupWidth;
+    this.lookupWidth = lookupWidth;
+    this.entriesPerState = (int) entries;
+    this.codingSymbolIndex = Utils.getCodingSymbolIndexArray(codingSymbols);
+    this.isCompiled = false;
+  }
+
+  /**
+   * Adds the given symbol and the corresponding code to the coding tree. The conditions under
+   * which it fails are the same as that of {@link DecoderImpl#addCode(char, String)}. The lookup
+   * tables are recompiled on the next decode.
+   *
+   * @param symbol the symbol to be added
+   * @param code   the code for the given symbol
+   * @throws IllegalStateException    if the code cannot be added to the coding tree
+   * @throws IllegalArgumentException if the given code is null or empty
+   */
+  @Override
+  public void addCode(char symbol, String code)
+          throws IllegalStateException, IllegalArgumentException {
+
+    super.addCode(symbol, code);
+    this.isCompiled = false;
+  }
+
+  /**
+   * Marks the codes as changed after codes have been added by one of the addCodes methods.
+   * The lookup tables are recompiled on the next decode.
+   */
+  @Override
+  protected void codesAdded() {
+    this.isCompiled = false;
+  }
+
+  /**
+   * Takes a encoded message and returns the decoded message using the lookup tables compiled from
+   * the coding tree. The encoded message is consumed <code>k</code> coding symbols per lookup and
+   * the remaining coding symbols are consumed one per lookup. The conditions under which it fails
+   * and the messages of the exceptions are the same as that of {@link DecoderImpl#decode(String)}.
+   *
+   * @param encodedMessage the message to be decoded
+   * @return the decoded string
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given encodedMessage is null or empty
+   */
+  @Override
+  public String decode(String encodedMessage)
+          throws IllegalStateException, IllegalArgumentException {
+
+    long startNanos = this.startTiming();
+    Utils.checkNullOrEmptyString(encodedMessage);
+    this.compileIfRequired();
+
+    int radix = this.codingSymbols.length();
+    StringBuilder builder = new StringBuilder(encodedMessage.length());
+    int state = 0;
+    int index = 0;
+
+    int lastFullLookup = encodedMessage.length() - this.lookupWidth;
+    while (index <= lastFullLookup) {
+      int entry = 0;
+      for (int i = 0; i < this.lookupWidth; i++) {
+        entry = entry * radix + this.getCodingSymbolIndex(encodedMessage.charAt(index + i));
+      }
+      entry += state * this.entriesPerState;
+
+      state = this.nextState[entry];
+      if (state == ERROR_STATE) {
+        throw new IllegalStateException("cannot decode given encodedSequence");
+      }
+      builder.append(this.decodedSymbols, entry * this.lookupWidth, this.decodedCount[entry]);
+      index += this.lookupWidth;
+    }
+
+    while (index < encodedMessage.length()) {
+      int entry = state * radix + this.getCodingSymbolIndex(encodedMessage.charAt(index));
+      state = this.stepNextState[entry];
+      if (state == ERROR_STATE) {
+        throw new IllegalStateException("cannot decode given encodedSequence");
+      }
+      if (state == 0) {
+        builder.append(this.stepDecodedSymbol[entry]);
+      }
+      index++;
+    }
+
+    if (state != 0) {
+      throw new IllegalStateException("cannot decode given encodedSequence");
+    }
+    return this.recordDecoding(startNanos, encodedMessage.length(), builder.toString());
+  }
+
+  /**
+   * Decodes the packed message read from the given inputStream using the lookup tables compiled
+   * from the coding tree and writes the decoded symbols to the given writer. The packing, the
+   * conditions under which it fails and the messages of the exceptions are the same as that of
+   * {@link DecoderImpl#decode(InputStream, long, Writer)}.
+   *
+   * @param packedMessage the stream to read the packed encoded message from
+   * @param encodedLength the number of coding symbols in the packed message
+   * @param writer        the writer to write the decoded symbols to
+   * @return the number of decoded symbols written
+   * @throws IOException              if reading the packed message or writing the output fails
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given stream or writer is null or the encodedLength is
+   *                                  negative
+   */
+  @Override
+  public long decode(InputStream packedMessage, long encodedLength, Writer writer)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    long startNanos = this.startTiming();
+    if (Objects.isNull(writer)) {
+      throw new IllegalArgumentException("writer cannot be null");
+    }
+    if (encodedLength < 0) {
+      throw new IllegalArgumentException(
+              String.format("Invalid encoded length:'%d'", encodedLength));
+    }
+
+    BitReader reader = new BitReader(packedMessage);
+    this.compileIfRequired();
+
+    int radix = this.codingSymbols.length();
+    int bitsPerCodingSymbol = Utils.getBitsPerCodingSymbol(radix);
+    boolean isEntryPacked = (1 << bitsPerCodingSymbol) == radix
+            && bitsPerCodingSymbol * this.lookupWidth <= Integer.SIZE;
+    char[] buffer = new char[WRITE_BUFFER_SIZE];
+    int bufferPosition = 0;
+    long decodedSymbols = 0;
+    int state = 0;
+    long remaining = encodedLength;
+
+    while (remaining >= this.lookupWidth) {
+      int entry;
+      if (isEntryPacked) {
+        entry = reader.readBits(bitsPerCodingSymbol * this.lookupWidth);
+      } else {
+        entry = 0;
+        for (int i = 0; i < this.lookupWidth; i++) {
+          entry = entry * radix + this.readCodingSymbolIndex(reader, bitsPerCodingSymbol);
+        }
+      }
+      entry += state * this.entriesPerState;
+
+      state = this.nextState[entry];
+      if (state == ERROR_STATE) {
+        throw new IllegalStateException("cannot decode given encodedSequence");
+      }
+      if (bufferPosition + this.lookupWidth > buffer.length) {
+        writer.write(buffer, 0, bufferPosition);
+        bufferPosition = 0;
+      }
+      System.arraycopy(this.decodedSymbols, entry * this.lookupWidth, buffer, bufferPosition,
+              this.decodedCount[entry]);
+      bufferPosition += this.decodedCount[entry];
+      decodedSymbols += this.decodedCount[entry];
+      remaining -= this.lookupWidth;
+    }
+
+    for (; remaining > 0; remaining--) {
+      int entry = state * radix + this.readCodingSymbolIndex(reader, bitsPerCodingSymbol);
+      state = this.stepNextState[entry];
+      if (state == ERROR_STATE) {
+        throw new IllegalStateException("cannot decode given encodedSequence");
+      }
+      if (state == 0) {
+        if (bufferPosition == buffer.length) {
+          writer.write(buffer, 0, bufferPosition);
+          bufferPosition = 0;
+        }
+        buffer[bufferPosition++] = this.stepDecodedSymbol[entry];
+        decodedSymbols++;
+      }
+    }
+
+    if (state != 0) {
+      throw new IllegalStateException("cannot decode given encodedSequence");
+    }
+    writer.write(buffer, 0, bufferPosition);
+    writer.flush();
+    this.recordDecoding(startNanos, encodedLength, decodedSymbols);
+    return decodedSymbols;
+  }
+
+  /**
+   * Reads the index of the next coding symbol from the given reader.
+   *
+   * @param reader              the reader of the packed message
+   * @param bitsPerCodingSymbol the number of bits used for each coding symbol
+   * @return the index of the next coding symbol
+   * @throws IOException           if reading the packed message fails
+   * @throws IllegalStateException if the index does not belong to a coding symbol or the message
+   *                               ends
+   */
+  private int readCodingSymbolIndex(BitReader reader, int bitsPerCodingSymbol)
+          throws IOException, IllegalStateException {
+
+    int index = reader.readBits(bitsPerCodingSymbol);
+    if (index >= this.codingSymbols.length()) {
+      throw new IllegalStateException(String.format("Invalid coding symbol index:'%d'", index));
+    }
+    return index;
+  }
+
+  /**
+   * Returns the index of the given coding symbol.
+   *
+   * @param codingSymbol the coding symbol
+   * @return the index of the given coding symbol
+   * @throws IllegalStateException if the given symbol is not a coding symbol
+   */
+  private int getCodingSymbolIndex(char codingSymbol) throws IllegalStateException {
+    if (codingSymbol >= this.codingSymbolIndex.length
+            || this.codingSymbolIndex[codingSymbol] < 0) {
+      throw new IllegalStateException("cannot decode given encodedSequence");
+    }
+    return this.codingSymbolIndex[codingSymbol];
+  }
+
+  /**
+   * Compiles the lookup tables from the coding tree if a code was added since the last
+   * compilation.
+   */
+  private void compileIfRequired() {
+    if (this.isCompiled) {
+      return;
+    }
+
+    List<PrefixTreeNode<Character, Character>> states = this.getStates();
+    Map<PrefixTreeNode<Character, Character>, Integer> stateIds = new IdentityHashMap<>();
+    for (int i = 0; i < states.size(); i++) {
+      stateIds.put(states.get(i), i);
+    }
+
+    this.compileSingleStepTables(states, stateIds);
+    this.compileLookupTables(states.size());
+    this.isCompiled = true;
+  }
+
+  /**
+   * Returns the group nodes of the coding tree in breadth first order, starting with the root.
+   *
+   * @return the group nodes of the coding tree
+   */
+  private List<PrefixTreeNode<Character, Character>> getStates() {
+    List<PrefixTreeNode<Character, Character>> states = new ArrayList<>();
+    states.add(this.root);
+
+    for (int i = 0; i < states.size(); i++) {
+      PrefixTreeNode<Character, Character> node = states.get(i);
+      for (char codingSymbol : this.codingSymbols.toCharArray()) {
+        PrefixTreeNode<Character, Character> child = node.getChild(codingSymbol);
+        if (Objects.nonNull(child) && !child.isLeaf()) {
+          states.add(child);
+        }
+      }
+    }
+    return states;
+  }
+
+  /**
+   * Compiles the tables which consume a single coding symbol per lookup. A transition to a leaf is
+   * recorded as a transition to the root along with the symbol at the leaf.
+   *
+   * @param states   the group nodes of the coding tree
+   * @param stateIds the id of each group node
+   */
+  private void compileSingleStepTables(
+          List<PrefixTreeNode<Character, Character>> states,
+          Map<PrefixTreeNode<Character, Character>, Integer> stateIds) {
+
+    int radix = this.codingSymbols.length();
+    this.stepNextState = new int[states.size() * radix];
+    this.stepDecodedSymbol = new char[states.size() * radix];
+
+    for (int state = 0; state < states.size(); state++) {
+      for (int symbolIndex = 0; symbolIndex < radix; symbolIndex++) {
+        int entry = state * radix + symbolIndex;
+        PrefixTreeNode<Character, Character> child =
+                states.get(state).getChild(this.codingSymbols.charAt(symbolIndex));
+
+        if (Objects.isNull(child)) {
+          this.stepNextState[entry] = ERROR_STATE;
+        } else if (child.isLeaf()) {
+          this.stepNextState[entry] = 0;
+          this.stepDecodedSymbol[entry] = child.getData();
+        } else {
+          this.stepNextState[entry] = stateIds.get(child);
+        }
+      }
+    }
+  }
+
+  /**
+   * Compiles the tables which consume <code>k</code> coding symbols per lookup, by running every
+   * combination of <code>k</code> coding symbols through the single step tables from every state.
+   * The lookup width is reduced until the tables hold at most {@link #MAX_TABLE_SIZE} decoded
+   * symbols.
+   *
+   * @param numberOfStates the number of states of the decoder
+   * @throws IllegalStateException if the coding tree is too large for even a single coding symbol
+   *                               per lookup
+   */
+  private void compileLookupTables(int numberOfStates) throws IllegalStateException {
+    int radix = this.codingSymbols.length();
+    int lookupWidth = this.maxLookupWidth;
+    long entriesPerState = 1;
+    for (int i = 0; i < lookupWidth; i++) {
+      entriesPerState *= radix;
+    }
+    while (lookupWidth > 1 && numberOfStates * entriesPerState * lookupWidth > MAX_TABLE_SIZE) {
+      lookupWidth--;
+      entriesPerState /= radix;
+    }
+    if (numberOfStates * entriesPerState * lookupWidth > MAX_TABLE_SIZE) {
+      throw new IllegalStateException(
+              String.format("Invalid number of decoder states:'%d'", numberOfStates));
+    }
+
+    this.lookupWidth = lookupWidth;
+    this.entriesPerState = (int) entriesPerState;
+    int totalEntries = numberOfStates * this.entriesPerState;
+    this.nextState = new int[totalEntries];
+    this.decodedCount = new byte[totalEntries];
+    this.decodedSymbols = new char[totalEntries * this.lookupWidth];
+
+    int[] digits = new int[this.lookupWidth];
+    for (int state = 0; state < numberOfStates; state++) {
+      Arrays.fill(digits, 0);
+      for (int combination = 0; combination < this.entriesPerState; combination++) {
+        int entry = state * this.entriesPerState + combination;
+        int currentState = state;
+        int count = 0;
+
+        for (int i = 0; i < this.lookupWidth && currentState != ERROR_STATE; i++) {
+          int stepEntry = currentState * radix + digits[i];
+          currentState = this.stepNextState[stepEntry];
+          if (currentState == 0) {
+            this.decodedSymbols[entry * this.lookupWidth + count++] =
+                    this.stepDecodedSymbol[stepEntry];
+          }
+        }
+
+        this.nextState[entry] = currentState;
+        this.decodedCount[entry] = (byte) count;
+        incrementDigits(digits, radix);
+      }
+    }
+  }
+
+  /**
+   * Increments the given digits, the last digit being the least significant one.
+   *
+   * @param digits the digits to increment
+   * @param radix  the radix of the digits
+   */
+  private static void incrementDigits(int[] digits, int radix) {
+    for (int i = digits.length - 1; i >= 0; i--) {
+      digits[i]++;
+      if (digits[i] < radix) {
+        return;
+      }
+      digits[i] = 0;
+    }
+  }
+
+  /**
+   * Returns the largest number of coding symbols which can be consumed per lookup such that each
+   * state has at most 256 table entries.
+   *
+   * @param codingSymbols the coding symbols
+   * @return the default number of coding symbols consumed per lookup
+   */
+  private static int getDefaultLookupWidth(String codingSymbols) {
+    Utils.checkNullOrEmptyString(codingSymbols);
+
+    int lookupWidth = 1;
+    long entries = codingSymbols.length();
+    while (lookupWidth < MAX_LOOKUP_WIDTH
+            && entries * codingSymbols.length() <= MAX_ENTRIES_PER_STATE) {
+      entries *= codingSymbols.length();
+      lookupWidth++;
+    }
+    return lookupWidth;
+  }
+}
@@ -0,0 +1,316 @@
+package decoder;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Objects;
+
+import codingtable.HuffmanModel;
+import decoder.treeutil.PrefixTreeNode;
+import util.BitReader;
+import util.Utils;
+
+/**
+ * This class represents a {@link ModelDecoder}. It extends {@link DecoderImpl} and holds the codes
+ * of a pre-trained {@link HuffmanModel}, loaded once when the decoder is constructed. It decodes
+ * the messages encoded with the same model by {@link encoder.HuffmanEncoder#encode(HuffmanModel,
+ * String)}, resolving every code of the escape symbol by reading the value of the escaped symbol
+ * which follows it.
+ *
+ * <p>The codes of the decoder are those of the model, hence no code can be added to it. The
+ * decoder holds no other state, so it can be used by many threads at once.
+ */
+public class ModelDecoder extends DecoderImpl {
+
+  private static final int WRITE_BUFFER_SIZE = 8192;
+
+  private final char escapeSymbol;
+  private final int escapeLength;
+
+  /**
+   * Constructs a {@link ModelDecoder} holding all the codes of the given model.
+   *
+   * @param model the model to decode with
+   * @throws IllegalArgumentException if the given model is null
+   */
+  public ModelDecoder(HuffmanModel model) throws IllegalArgumentException {
+    super(getCodingSymbols(model));
+    super.addCodes(model.getCodingTable().getCodingTable());
+    this.escapeSymbol = model.getEscapeSymbol();
+    this.escapeLength = model.getEscapeLength();
+  }
+
+  /**
+   * Throws exception since the codes of the decoder are those of the model.
+   *
+   * @param symbol the symbol to be added
+   * @param code   the code for the given symbol
+   * @throws IllegalStateException always, since no code can be added
+   */
+  @Override
+  public void addCode(char symbol, String code) throws IllegalStateException {
+    throw new IllegalStateException("cannot add code to a model decoder");
+  }
+
+  /**
+   * Throws exception since the codes of the decoder are those of the model.
+   *
+   * @param codingTable the coding table holding the codes to be added
+   * @throws IllegalStateException always, since no code can be added
+   */
+  @Override
+  public void addCodes(Map<Character, String> codingTable) throws IllegalStateException {
+    throw new IllegalStateException("cannot add code to a model decoder");
+  }
+
+  /**
+   * Throws exception since the codes of the decoder are those of the model.
+   *
+   * @param codes the reader to read the codes from
+   * @throws IllegalStateException always, since no code can be added
+   */
+  @Override
+  public void addCodes(Reader codes) throws IllegalStateException {
+    throw new IllegalStateException("cannot add code to a model decoder");
+  }
+
+  /**
+   * Throws exception since the codes of the decoder are those of the model.
+   *
+   * @param binaryTable the input to read the coding table from
+   * @throws IllegalStateException always, since no code can be added
+   */
+  @Override
+  public void addCodes(DataInput binaryTable) throws IllegalStateException {
+    throw new IllegalStateException("cannot add code to a model decoder");
+  }
+
+  /**
+   * Throws exception since a compiled decoder cannot resolve the escaped symbols of the model. A
+   * {@link ModelDecoder} is immutable once constructed, hence it can be shared as it is.
+   *
+   * @return never returns
+   * @throws IllegalStateException always, since the decoder cannot be compiled
+   */
+  @Override
+  public CompiledDecoder compile() throws IllegalStateException {
+    throw new IllegalStateException("cannot compile a model decoder");
+  }
+
+  /**
+   * Throws exception since a {@link ModelDecoder} has no compiled form to freeze into. It is
+   * immutable once constructed, hence it can be shared as it is.
+   *
+   * @return never returns
+   * @throws IllegalStateException always, since the decoder cannot be frozen
+   */
+  @Override
+  public CompiledDecoder freeze() throws IllegalStateException {
+    throw new IllegalStateException("cannot freeze a model decoder");
+  }
+
+  /**
+   * Takes a encoded message and returns the decoded message. The conditions under which it fails
+   * and the messages of the exceptions are the same as that of {@link DecoderImpl#decode(String)},
+   * additionally it fails if the message ends within the value of an escaped symbol.
+   *
+   * @param encodedMessage the message to be decoded
+   * @return the decoded string
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given encodedMessage is null or empty
+   */
+  @Override
+  public String decode(String encodedMessage)
+          throws IllegalStateException, IllegalArgumentException {
+
+    long startNanos = this.startTiming();
+    Utils.checkNullOrEmptyString(encodedMessage);
+
+    int[] codingSymbolIndex = Utils.getCodingSymbolIndexArray(this.codingSymbols);
+    StringBuilder builder = new StringBuilder(encodedMessage.length());
+    Cursor cursor = new Cursor(this.root);
+    for (int i = 0; i < encodedMessage.length(); i++) {
+      char codingSymbol = encodedMessage.charAt(i);
+      if (codingSymbol >= codingSymbolIndex.length || codingSymbolIndex[codingSymbol] < 0) {
+        throw new IllegalStateException("cannot decode given encodedSequence");
+      }
+
+      int symbol = this.step(cursor, codingSymbolIndex[codingSymbol]);
+      if (symbol >= 0) {
+        builder.append((char) symbol);
+      }
+    }
+
+    this.checkCursorAtRoot(cursor);
+    return this.recordDecoding(startNanos, encodedMessage.length(), builder.toString());
+  }
+
+  /**
+   * Decodes the packed message read from the given inputStream and writes the decoded symbols to
+   * the given writer. The packing, the conditions under which it fails and the messages of the
+   * exceptions are the same as that of {@link DecoderImpl#decode(InputStream, long, Writer)},
+   * additionally it fails if the message ends within the value of an escaped symbol.
+   *
+   * @param packedMessage the stream to read the packed encoded message from
+   * @param encodedLength the number of coding symbols in the packed message
+   * @param writer        the writer to write the decoded symbols to
+   * @return the number of decoded symbols written
+   * @throws IOException              if reading the packed message or writing the output fails
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given stream or writer is null or the encodedLength is
+   *                                  negative
+   */
+  @Override
+  public long decode(InputStream packedMessage, long encodedLength, Writer writer)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    long startNanos = this.startTiming();
+    if (Objects.isNull(writer)) {
+      throw new IllegalArgumentException("writer cannot be null");
+    }
+    if (encodedLength < 0) {
+      throw new IllegalArgumentException(
+              String.format("Invalid encoded length:'%d'", encodedLength));
+    }
+
+    BitReader reader = new BitReader(packedMessage);
+    int radix = this.codingSymbols.length();
+    int bitsPerCodingSymbol = Utils.getBitsPerCodingSymbol(radix);
+    char[] buffer = new char[WRITE_BUFFER_SIZE];
+    int bufferPosition = 0;
+    long decodedSymbols = 0;
+
+    Cursor cursor = new Cursor(this.root);
+    for (long i = 0; i < encodedLength; i++) {
+      int codingSymbolIndex = reader.readBits(bitsPerCodingSymbol);
+      if (codingSymbolIndex >= radix) {
+        throw new IllegalStateException(
+                String.format("Invalid coding symbol index:'%d'", codingSymbolIndex));
+      }
+
+      int symbol = this.step(cursor, codingSymbolIndex);
+      if (symbol >= 0) {
+        if (bufferPosition == buffer.length) {
+          writer.write(buffer, 0, bufferPosition);
+          bufferPosition = 0;
+        }
+        buffer[bufferPosition++] = (char) symbol;
+        decodedSymbols++;
+      }
+    }
+
+    this.checkCursorAtRoot(cursor);
+    writer.write(buffer, 0, bufferPosition);
+    writer.flush();
+    this.recordDecoding(startNanos, encodedLength, decodedSymbols);
+    return decodedSymbols;
+  }
+
+  /**
+   * Returns a new {@link DecodingSession} which decodes a message encoded with the model of this
+   * decoder arriving in chunks, resolving the escaped symbols in the same way as {@link
+   * ModelDecoder#decode(String)}, and passes every decoded symbol to the given listener.
+   *
+   * @param listener the listener to pass the decoded symbols to
+   * @return the new decoding session
+   * @throws IllegalArgumentException if the given listener is null
+   */
+  @Override
+  public DecodingSession newSession(SymbolListener listener) throws IllegalArgumentException {
+    return this.withMetrics(new DecodingSession(this.root, this.codingSymbols, this.escapeSymbol,
+            this.escapeLength, listener));
+  }
+
+  /**
+   * Moves the given cursor by the given coding symbol and returns the symbol decoded by it, or -1
+   * if no symbol is complete yet. The code of the escape symbol starts the value of an escaped
+   * symbol instead of decoding a symbol.
+   *
+   * @param cursor            the position of the decoding
+   * @param codingSymbolIndex the index of the coding symbol
+   * @return the decoded symbol, -1 if no symbol is complete
+   * @throws IllegalStateException if the coding symbol leads to a node that does not exist or the
+   *                               escaped value is not a char
+   */
+  private int step(Cursor cursor, int codingSymbolIndex) throws IllegalStateException {
+    if (cursor.escapedDigits > 0) {
+      cursor.escapedValue = cursor.escapedValue * this.codingSymbols.length() + codingSymbolIndex;
+      if (--cursor.escapedDigits > 0) {
+        return -1;
+      }
+      if (cursor.escapedValue > Character.MAX_VALUE) {
+        throw new IllegalStateException("cannot decode given encodedSequence");
+      }
+      return (int) cursor.escapedValue;
+    }
+
+    cursor.node = cursor.node.getChild(this.codingSymbols.charAt(codingSymbolIndex));
+    if (Objects.isNull(cursor.node)) {
+      throw new IllegalStateException("cannot decode given encodedSequence");
+    }
+    if (!cursor.node.isLeaf()) {
+      return -1;
+    }
+
+    char symbol = cursor.node.getData();
+    cursor.node = this.root;
+    if (symbol == this.escapeSymbol) {
+      cursor.escapedDigits = this.escapeLength;
+      cursor.escapedValue = 0;
+      return -1;
+    }
+    return symbol;
+  }
+
+  /**
+   * Checks that the given cursor is at the root of the coding tree and not within the value of an
+   * escaped symbol, i.e. that the last coding symbol completed a symbol.
+   *
+   * @param cursor the position of the decoding
+   * @throws IllegalStateException if the last coding symbol did not complete a symbol
+   */
+  private void checkCursorAtRoot(Cursor cursor) throws IllegalStateException {
+    if (cursor.node != this.root || cursor.escapedDigits > 0) {
+      throw new IllegalStateException("cannot decode given encodedSequence");
+    }
+  }
+
+  /**
+   * Returns the coding symbols of the given model.
+   *
+   * @param model the model
+   * @return the coding symbols of the model
+   * @throws IllegalArgumentException if the given model is null
+   */
+  private static String getCodingSymbols(HuffmanModel model) throws IllegalArgumentException {
+    if (Objects.isNull(model)) {
+      throw new IllegalArgumentException("model cannot be null");
+    }
+    return model.getCodingSymbols();
+  }
+
+  /**
+   * This class represents the position of a decoding, the current node of the coding tree and the
+   * part of an escaped value read so far.
+   */
+  private static class Cursor {
+
+    private PrefixTreeNode<Character, Character> node;
+    private int escapedDigits;
+    private long escapedValue;
+
+    /**
+     * Constructs a {@link Cursor} at the given root of the coding tree.
+     *
+     * @param root the root of the coding tree
+     */
+    private Cursor(PrefixTreeNode<Character, Character> root) {
+      this.node = root;
+      this.escapedDigits = 0;
+      this.escapedValue = 0;
+    }
+  }
+}
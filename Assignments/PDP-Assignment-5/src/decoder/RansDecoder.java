@@ -0,0 +1,278 @@
+package decoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Objects;
+
+import codingtable.AnsFrequencyTable;
+import encoder.RansEncoder;
+
+/**
+ * This class represents a RansDecoder. It decodes the messages encoded by {@link RansEncoder} with
+ * a given {@link AnsFrequencyTable}. Instead of walking a tree one coding symbol at a time, a
+ * symbol is decoded with a single lookup: the low bits of a state name a slot, and a table built
+ * once per frequency table gives the symbol, the frequency and the offset of every slot.
+ *
+ * <p>The interleaved states of the encoded message are advanced together, one symbol each per
+ * iteration, so that the lookups and the arithmetic of different states do not depend on each
+ * other and can overlap in the processor. The coded stream is read and the decoded symbols are
+ * written through bounded buffers, hence the memory used does not depend on the lengths given by
+ * the header of a message. The decoder holds no state of its own beyond the tables, so it can be
+ * used by many threads at once.
+ */
+public class RansDecoder {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final int precisionBits;
+  private final char[] slotSymbols;
+  private final int[] slotFrequencies;
+  private final int[] slotOffsets;
+  private final double minBitsPerSymbol;
+  private final double maxBitsPerByte;
+
+  /**
+   * Constructs a {@link RansDecoder} for the messages encoded with the given frequency table.
+   *
+   * @param table the frequency table the messages are encoded with
+   * @throws IllegalArgumentException if the given table is null
+   */
+  public RansDecoder(AnsFrequencyTable table) throws IllegalArgumentException {
+    if (Objects.isNull(table)) {
+      throw new IllegalArgumentException("table cannot be null");
+    }
+
+    this.precisionBits = table.getPrecisionBits();
+    int slots = 1 << this.precisionBits;
+    this.slotSymbols = new char[slots];
+    this.slotFrequencies = new int[slots];
+    this.slotOffsets = new int[slots];
+    int maxFrequency = 0;
+    for (int index = 0; index < table.getNumberOfSymbols(); index++) {
+      int start = table.getCumulativeFrequency(index);
+      for (int slot = start; slot < start + table.getFrequency(index); slot++) {
+        this.slotSymbols[slot] = table.getSymbol(index);
+        this.slotFrequencies[slot] = table.getFrequency(index);
+        this.slotOffsets[slot] = slot - start;
+      }
+      maxFrequency = Math.max(maxFrequency, table.getFrequency(index));
+    }
+
+    // a symbol of frequency f takes log2(slots / f) bits of the states and a byte adds 8 bits to
+    // them, each give or take the rounding of the states, which is less than a factor of
+    // 1 - slots / LOWER_BOUND per step
+    double roundingBits = -Math.log1p(-(double) slots / RansEncoder.LOWER_BOUND) / Math.log(2);
+    this.minBitsPerSymbol = Math.log((double) slots / maxFrequency) / Math.log(2) - roundingBits;
+    this.maxBitsPerByte = Byte.SIZE + roundingBits;
+  }
+
+  /**
+   * Decodes the message read from the given inputStream, as written by {@link
+   * RansEncoder#encode(AnsFrequencyTable, String, java.io.OutputStream)}, and writes the decoded
+   * symbols to the given writer. Neither the stream nor the writer is closed, and no byte past the
+   * encoded message is read from the stream. It throws an {@link IllegalStateException} if the
+   * header is malformed, i.e. it gives more symbols than its coded stream can hold with the table
+   * of this decoder, and an {@link EOFException} if the stream ends early. The symbols are written
+   * as they are decoded, hence a message which was not encoded with the table of this decoder or
+   * was corrupted may have been written in part when it is found out, by an {@link
+   * IllegalStateException}, at the latest once the states do not end up where the encoder started
+   * them.
+   *
+   * @param encodedMessage the stream to read the encoded message from
+   * @param writer         the writer to write the decoded symbols to
+   * @return the number of decoded symbols written
+   * @throws IOException              if reading the stream or writing the output fails
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given stream or writer is null
+   */
+  public long decode(InputStream encodedMessage, Writer writer)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(encodedMessage)) {
+      throw new IllegalArgumentException("encodedMessage cannot be null");
+    }
+    if (Objects.isNull(writer)) {
+      throw new IllegalArgumentException("writer cannot be null");
+    }
+
+    DataInputStream input = new DataInputStream(encodedMessage);
+    int states = input.readUnsignedByte();
+    int messageLength = input.readInt();
+    int codedLength = input.readInt();
+    if (states < 1 || messageLength < 0 || codedLength < states * Integer.BYTES
+            || messageLength > this.getMaxMessageLength(states, codedLength)) {
+      throw new IllegalStateException("malformed encoded message");
+    }
+
+    this.decode(new CodedStream(input, codedLength), states, messageLength, writer);
+    writer.flush();
+    return messageLength;
+  }
+
+  /**
+   * Decodes the given encoded message and returns the decoded message. The failure conditions are
+   * the same as that of {@link RansDecoder#decode(InputStream, Writer)}.
+   *
+   * @param encodedMessage the encoded message
+   * @return the decoded message
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given message is null
+   */
+  public String decode(byte[] encodedMessage)
+          throws IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(encodedMessage)) {
+      throw new IllegalArgumentException("encodedMessage cannot be null");
+    }
+
+    StringWriter writer = new StringWriter();
+    try {
+      this.decode(new ByteArrayInputStream(encodedMessage), writer);
+    } catch (IOException e) {
+      throw new IllegalStateException("malformed encoded message", e);
+    }
+    return writer.toString();
+  }
+
+  /**
+   * Returns the largest number of symbols a coded stream of the given length can hold with the
+   * given number of interleaved states, {@link Long#MAX_VALUE} if it is not bounded, i.e. the table
+   * holds a symbol so frequent that it takes less than the rounding of the states.
+   *
+   * @param states      the number of interleaved states
+   * @param codedLength the length of the coded stream in bytes
+   * @return the largest number of symbols the coded stream can hold
+   */
+  private long getMaxMessageLength(int states, int codedLength) {
+    if (this.minBitsPerSymbol <= 0) {
+      return Long.MAX_VALUE;
+    }
+    // every state starts from the lower bound and ends below the lower bound times 2^8
+    double bits = (double) states * Byte.SIZE
+            + (double) (codedLength - states * Integer.BYTES) * this.maxBitsPerByte;
+    return (long) Math.ceil(bits / this.minBitsPerSymbol) + states;
+  }
+
+  /**
+   * Decodes the given number of symbols from the given coded stream with the given number of
+   * interleaved states and writes them to the given writer. The states are advanced together for
+   * as long as a whole round of symbols is left, and one at a time for the last round. The symbols
+   * are gathered in a buffer holding whole rounds, which is written out every time it is full.
+   *
+   * @param codedStream   the coded stream, starting with the final value of every state
+   * @param states        the number of interleaved states
+   * @param messageLength the number of symbols to decode
+   * @param writer        the writer to write the decoded symbols to
+   * @throws IOException           if reading the coded stream or writing the output fails
+   * @throws IllegalStateException if the decoding fails due to any reason
+   */
+  private void decode(CodedStream codedStream, int states, int messageLength, Writer writer)
+          throws IOException, IllegalStateException {
+
+    int[] state = new int[states];
+    for (int lane = 0; lane < states; lane++) {
+      for (int i = 0; i < Integer.BYTES; i++) {
+        state[lane] = (state[lane] << Byte.SIZE) | codedStream.read();
+      }
+      if (state[lane] < RansEncoder.LOWER_BOUND) {
+        throw new IllegalStateException("cannot decode given encodedSequence");
+      }
+    }
+
+    int mask = (1 << this.precisionBits) - 1;
+    char[] decoded = new char[Math.max(1, BUFFER_SIZE / states) * states];
+    int decodedLength = 0;
+    int i = 0;
+    while (i < messageLength) {
+      if (decodedLength == decoded.length) {
+        writer.write(decoded, 0, decodedLength);
+        decodedLength = 0;
+      }
+      int round = Math.min(states, messageLength - i);
+      for (int lane = 0; lane < round; lane++, i++) {
+        int x = state[lane];
+        int slot = x & mask;
+        decoded[decodedLength++] = this.slotSymbols[slot];
+        x = this.slotFrequencies[slot] * (x >>> this.precisionBits) + this.slotOffsets[slot];
+        while (x < RansEncoder.LOWER_BOUND) {
+          if (codedStream.isEmpty()) {
+            throw new IllegalStateException("cannot decode given encodedSequence");
+          }
+          x = (x << Byte.SIZE) | codedStream.read();
+        }
+        state[lane] = x;
+      }
+    }
+    writer.write(decoded, 0, decodedLength);
+
+    if (!codedStream.isEmpty()) {
+      throw new IllegalStateException("cannot decode given encodedSequence");
+    }
+    for (int x : state) {
+      if (x != RansEncoder.LOWER_BOUND) {
+        throw new IllegalStateException("cannot decode given encodedSequence");
+      }
+    }
+  }
+
+  /**
+   * This class represents the coded stream of a message, of a length given by its header, read
+   * from the underlying stream through a bounded buffer. Bytes past the coded stream are never
+   * read from the underlying stream.
+   */
+  private static class CodedStream {
+
+    private final InputStream inputStream;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private long remaining;
+
+    /**
+     * Constructs a {@link CodedStream} of the given length read from the given stream.
+     *
+     * @param inputStream the stream to read the coded stream from
+     * @param length      the length of the coded stream in bytes
+     */
+    private CodedStream(InputStream inputStream, int length) {
+      this.inputStream = inputStream;
+      this.buffer = new byte[Math.min(BUFFER_SIZE, length)];
+      this.remaining = length;
+    }
+
+    /**
+     * Returns true if every byte of the coded stream has been read, false otherwise.
+     *
+     * @return true if every byte of the coded stream has been read
+     */
+    private boolean isEmpty() {
+      return this.position == this.limit && this.remaining == 0;
+    }
+
+    /**
+     * Returns the next byte of the coded stream, between 0 and 255. The caller makes sure that the
+     * coded stream is not empty.
+     *
+     * @return the next byte of the coded stream
+     * @throws IOException if reading the underlying stream fails or it ends early
+     */
+    private int read() throws IOException {
+      if (this.position == this.limit) {
+        int bytesRead = this.inputStream.read(this.buffer, 0,
+                (int) Math.min(this.buffer.length, this.remaining));
+        if (bytesRead <= 0) {
+          throw new EOFException();
+        }
+        this.position = 0;
+        this.limit = bytesRead;
+        this.remaining -= bytesRead;
+      }
+      return this.buffer[this.position++] & 0xFF;
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Path;
+
+/**
+ * This interface represents a Decoder which can read an encoded message as packed bits, as written
+ * by an {@link encoder.StreamingEncoder}. Every coding symbol of the encoded message is expected to
+ * be stored as its index in the coding symbols of the decoder, using the minimum number of bits
+ * required to store such an index. Since the last byte of the packed message is padded, the number
+ * of coding symbols in the encoded message must be provided by the caller.
+ */
+public interface StreamingDecoder extends Decoder {
+
+  /**
+   * Decodes the given packed message using the coding tree created thus far and returns the
+   * decoded message.
+   *
+   * @param packedMessage the packed encoded message
+   * @param encodedLength the number of coding symbols in the packed message
+   * @return the decoded message
+   * @throws IllegalStateException if the decoding fails due to any reason
+   */
+  String decode(byte[] packedMessage, long encodedLength) throws IllegalStateException;
+
+  /**
+   * Decodes the packed message read from the given inputStream using the coding tree created thus
+   * far and writes the decoded symbols to the given writer. The input is read and the output is
+   * written through bounded buffers, so the memory used is constant irrespective of the size of
+   * the message.
+   *
+   * @param packedMessage the stream to read the packed encoded message from
+   * @param encodedLength the number of coding symbols in the packed message
+   * @param writer        the writer to write the decoded symbols to
+   * @return the number of decoded symbols written
+   * @throws IOException           if reading the packed message or writing the output fails
+   * @throws IllegalStateException if the decoding fails due to any reason
+   */
+  long decode(InputStream packedMessage, long encodedLength, Writer writer)
+          throws IOException, IllegalStateException;
+
+  /**
+   * Decodes the packed message stored in the given file using the coding tree created thus far and
+   * writes the decoded symbols to the given writer. The file is read through memory mapped windows,
+   * hence it is never held on the heap as a whole.
+   *
+   * @param packedFile    the file holding the packed encoded message
+   * @param encodedLength the number of coding symbols in the packed message
+   * @param writer        the writer to write the decoded symbols to
+   * @return the number of decoded symbols written
+   * @throws IOException           if reading the packed message or writing the output fails
+   * @throws IllegalStateException if the decoding fails due to any reason
+   */
+  long decode(Path packedFile, long encodedLength, Writer writer)
+          throws IOException, IllegalStateException;
+}
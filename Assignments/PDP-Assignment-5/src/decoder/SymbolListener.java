@@ -0,0 +1,15 @@
+package decoder;
+
+/**
+ * This interface represents the receiver of the symbols decoded by a {@link DecodingSession}. A
+ * symbol is passed to the listener as soon as its last coding symbol has been read.
+ */
+public interface SymbolListener {
+
+  /**
+   * Accepts the next decoded symbol.
+   *
+   * @param symbol the decoded symbol
+   */
+  void onSymbol(char symbol);
+}
@@ -0,0 +1,95 @@
+package decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Objects;
+
+import codingtable.TokenCodingTable;
+
+/**
+ * This class represents a TokenHuffmanDecoder. It decodes the packed messages written by {@link
+ * encoder.TokenHuffmanEncoder} with a given {@link TokenCodingTable}. The ids are decoded by an
+ * {@link IntSymbolHuffmanDecoder} and every decoded id is written as its whole token at once, so
+ * a word takes a single walk of the coding tree however many chars it has.
+ */
+public class TokenHuffmanDecoder {
+
+  private static final int WRITE_BUFFER_SIZE = 8192;
+
+  private final TokenCodingTable codingTable;
+  private final IntSymbolHuffmanDecoder decoder;
+
+  /**
+   * Constructs a {@link TokenHuffmanDecoder} for the given coding table. The failure conditions
+   * are the same as that of {@link IntSymbolHuffmanDecoder#IntSymbolHuffmanDecoder(
+   * codingtable.IntCodingTable)}.
+   *
+   * @param codingTable the coding table to decode with
+   * @throws IllegalArgumentException if the given table is null
+   * @throws IllegalStateException    if the codes are too long to be decoded
+   */
+  public TokenHuffmanDecoder(TokenCodingTable codingTable)
+          throws IllegalArgumentException, IllegalStateException {
+
+    if (Objects.isNull(codingTable)) {
+      throw new IllegalArgumentException("codingTable cannot be null");
+    }
+    this.codingTable = codingTable;
+    this.decoder = new IntSymbolHuffmanDecoder(codingTable.getCodingTable());
+  }
+
+  /**
+   * Decodes the packed message read from the given inputStream and writes the decoded tokens to
+   * the given writer. Neither the stream nor the writer is closed.
+   *
+   * @param packedMessage the stream to read the packed encoded message from
+   * @param encodedLength the number of coding symbols in the packed message
+   * @param writer        the writer to write the decoded tokens to
+   * @return the number of decoded tokens written
+   * @throws IOException              if reading the packed message or writing the output fails
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given stream or writer is null or the encodedLength is
+   *                                  negative
+   */
+  public long decode(InputStream packedMessage, long encodedLength, Writer writer)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(writer)) {
+      throw new IllegalArgumentException("writer cannot be null");
+    }
+
+    StringBuilder buffer = new StringBuilder(WRITE_BUFFER_SIZE);
+    long decodedTokens = this.decoder.decode(packedMessage, encodedLength, id -> {
+      buffer.append(this.codingTable.getToken(id));
+      if (buffer.length() >= WRITE_BUFFER_SIZE) {
+        writer.append(buffer);
+        buffer.setLength(0);
+      }
+    });
+    writer.append(buffer);
+    writer.flush();
+    return decodedTokens;
+  }
+
+  /**
+   * Decodes the packed message read from the given inputStream and returns the decoded message.
+   * The failure conditions are the same as that of {@link TokenHuffmanDecoder#decode(InputStream,
+   * long, Writer)}.
+   *
+   * @param packedMessage the stream to read the packed encoded message from
+   * @param encodedLength the number of coding symbols in the packed message
+   * @return the decoded message
+   * @throws IOException              if reading the packed message fails
+   * @throws IllegalStateException    if the decoding fails due to any reason
+   * @throws IllegalArgumentException if the given stream is null or the encodedLength is negative
+   */
+  public String decode(InputStream packedMessage, long encodedLength)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    StringWriter writer = new StringWriter();
+    this.decode(packedMessage, encodedLength, writer);
+    return writer.toString();
+  }
+}
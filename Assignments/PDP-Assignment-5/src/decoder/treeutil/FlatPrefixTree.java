@@ -0,0 +1,224 @@
+package decoder.treeutil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import util.Utils;
+
+/**
+ * This class represents a frozen prefix coding tree stored in flat primitive arrays. Every group
+ * node of a {@link PrefixTreeNode} tree is a state, numbered in breadth first order starting with
+ * the root as state 0. The transition taken from a state for the coding symbol at a given index is
+ * stored at <code>state * radix + symbolIndex</code> of a single int array, and the symbols of the
+ * leaves are stored in a separate char array.
+ *
+ * <p>A transition is either the number of the next state, {@link FlatPrefixTree#NO_TRANSITION} if
+ * the group node has no child for the coding symbol, or a leaf encoded as a negative number which
+ * is turned into the index of the leaf by {@link FlatPrefixTree#getLeafIndex(int)}. Compared to a
+ * tree of {@link GroupNode} objects, each holding a map of children, the flat tree takes 4 bytes
+ * per child and 2 bytes per leaf, and can be shared freely since it cannot be modified.
+ */
+public class FlatPrefixTree {
+
+  /**
+   * the transition stored for a coding symbol which does not lead to any node.
+   */
+  public static final int NO_TRANSITION = -1;
+
+  private final String codingSymbols;
+  private final int[] transitions;
+  private final char[] leafSymbols;
+
+  /**
+   * Constructs a {@link FlatPrefixTree} with the given arrays.
+   *
+   * @param codingSymbols the coding symbols, in the order of their index
+   * @param transitions   the transition of every state for every coding symbol
+   * @param leafSymbols   the symbol of every leaf
+   */
+  private FlatPrefixTree(String codingSymbols, int[] transitions, char[] leafSymbols) {
+    this.codingSymbols = codingSymbols;
+    this.transitions = transitions;
+    this.leafSymbols = leafSymbols;
+  }
+
+  /**
+   * Compiles the prefix coding tree rooted at the given node into a {@link FlatPrefixTree}. The
+   * children of a group node are looked up by the given coding symbols, hence children reached by
+   * any other path symbol are not part of the flat tree. It throws an {@link
+   * IllegalArgumentException} if the given root is null or a leaf, or the coding symbols are null
+   * or empty.
+   *
+   * @param root          the root of the tree to compile
+   * @param codingSymbols the coding symbols, in the order of their index
+   * @return the flat tree holding the same codes as the given tree
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  public static FlatPrefixTree compile(PrefixTreeNode<Character, Character> root,
+                                       String codingSymbols)
+          throws IllegalArgumentException {
+
+    Utils.checkNullOrEmptyString(codingSymbols);
+    if (Objects.isNull(root) || root.isLeaf()) {
+      throw new IllegalArgumentException("root cannot be null or a leaf");
+    }
+
+    int radix = codingSymbols.length();
+    List<PrefixTreeNode<Character, Character>> states = new ArrayList<>();
+    int[] transitions = new int[radix];
+    StringBuilder leafSymbols = new StringBuilder();
+    states.add(root);
+
+    for (int state = 0; state < states.size(); state++) {
+      PrefixTreeNode<Character, Character> node = states.get(state);
+      if ((state + 1) * radix > transitions.length) {
+        transitions = Arrays.copyOf(transitions, transitions.length * 2);
+      }
+
+      for (int symbolIndex = 0; symbolIndex < radix; symbolIndex++) {
+        PrefixTreeNode<Character, Character> child =
+                node.getChild(codingSymbols.charAt(symbolIndex));
+        int entry = state * radix + symbolIndex;
+
+        if (Objects.isNull(child)) {
+          transitions[entry] = NO_TRANSITION;
+        } else if (child.isLeaf()) {
+          transitions[entry] = -2 - leafSymbols.length();
+          leafSymbols.append(child.getData());
+        } else {
+          transitions[entry] = states.size();
+          states.add(child);
+        }
+      }
+    }
+
+    return new FlatPrefixTree(codingSymbols, Arrays.copyOf(transitions, states.size() * radix),
+            leafSymbols.toString().toCharArray());
+  }
+
+  /**
+   * Returns the coding symbols of this tree, in the order of their index.
+   *
+   * @return the coding symbols of this tree
+   */
+  public String getCodingSymbols() {
+    return this.codingSymbols;
+  }
+
+  /**
+   * Returns the number of states, i.e. group nodes, of this tree.
+   *
+   * @return the number of states of this tree
+   */
+  public int getNumberOfStates() {
+    return this.transitions.length / this.codingSymbols.length();
+  }
+
+  /**
+   * Returns the number of leaves of this tree.
+   *
+   * @return the number of leaves of this tree
+   */
+  public int getNumberOfLeaves() {
+    return this.leafSymbols.length;
+  }
+
+  /**
+   * Returns the transition taken from the given state for the coding symbol at the given index.
+   *
+   * @param state       the state
+   * @param symbolIndex the index of the coding symbol
+   * @return the next state, a leaf or {@link FlatPrefixTree#NO_TRANSITION}
+   */
+  public int getTransition(int state, int symbolIndex) {
+    return this.transitions[state * this.codingSymbols.length() + symbolIndex];
+  }
+
+  /**
+   * Returns true if the given transition leads to a leaf.
+   *
+   * @param transition the transition
+   * @return true if the given transition leads to a leaf
+   */
+  public static boolean isLeaf(int transition) {
+    return transition < NO_TRANSITION;
+  }
+
+  /**
+   * Returns the index of the leaf the given transition leads to. The transition is expected to
+   * lead to a leaf.
+   *
+   * @param transition the transition leading to a leaf
+   * @return the index of the leaf
+   */
+  public static int getLeafIndex(int transition) {
+    return -2 - transition;
+  }
+
+  /**
+   * Returns the symbol stored at the leaf with the given index.
+   *
+   * @param leafIndex the index of the leaf
+   * @return the symbol stored at the leaf
+   */
+  public char getLeafSymbol(int leafIndex) {
+    return this.leafSymbols[leafIndex];
+  }
+
+  /**
+   * Returns true if the tree is complete, i.e. it has at least one leaf and every state has a
+   * transition for every coding symbol.
+   *
+   * @return true if the tree is complete, false otherwise
+   */
+  public boolean isTreeComplete() {
+    if (this.leafSymbols.length == 0) {
+      return false;
+    }
+    for (int transition : this.transitions) {
+      if (transition == NO_TRANSITION) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the path to every leaf of this tree in the form "data:path", the same form as
+   * that of {@link PrefixTreeNode#getAllLeavesPath(String)}. The children of every state are
+   * visited in the order of the coding symbols.
+   *
+   * @return the path to every leaf of this tree
+   */
+  public List<String> getAllLeavesPath() {
+    List<String> allCodes = new ArrayList<>(this.leafSymbols.length);
+    this.collectLeavesPath(0, new StringBuilder(), allCodes);
+    return allCodes;
+  }
+
+  /**
+   * Collects the path to every leaf reachable from the given state.
+   *
+   * @param state    the state to collect the leaves of
+   * @param path     the path till the given state
+   * @param allCodes the list to collect the paths into
+   */
+  private void collectLeavesPath(int state, StringBuilder path, List<String> allCodes) {
+    for (int symbolIndex = 0; symbolIndex < this.codingSymbols.length(); symbolIndex++) {
+      int transition = this.getTransition(state, symbolIndex);
+      if (transition == NO_TRANSITION) {
+        continue;
+      }
+
+      path.append(this.codingSymbols.charAt(symbolIndex));
+      if (isLeaf(transition)) {
+        allCodes.add(String.format("%s:%s", this.leafSymbols[getLeafIndex(transition)], path));
+      } else {
+        this.collectLeavesPath(transition, path, allCodes);
+      }
+      path.setLength(path.length() - 1);
+    }
+  }
+}
@@ -65,6 +65,34 @@ public class GroupNode<P, T> implements PrefixTreeNode<P, T> {
     }
   }
 
+  /**
+   * Adds an empty group node as the child of this node at the given path symbol and returns it.
+   *
+   * @param path the path symbol of the new child
+   * @return the new group node
+   * @throws IllegalStateException if a child already exists at the given path symbol
+   */
+  @Override
+  public PrefixTreeNode<P, T> addGroupChild(P path) throws IllegalStateException {
+    checkIfChildrenAlreadyExists(path);
+    PrefixTreeNode<P, T> groupNode = new GroupNode<>(validCodingSymbols);
+    this.children.put(path, groupNode);
+    return groupNode;
+  }
+
+  /**
+   * Adds a leaf node holding the given data as the child of this node at the given path symbol.
+   *
+   * @param path the path symbol of the new child
+   * @param data the data to be stored
+   * @throws IllegalStateException if a child already exists at the given path symbol
+   */
+  @Override
+  public void addLeafChild(P path, T data) throws IllegalStateException {
+    checkIfChildrenAlreadyExists(path);
+    this.children.put(path, new LeafNode<>(data));
+  }
+
   /**
    * Decodes a part of the given sequence from the given startIndex and returns the {@link
    * DecodedData}. It uses the given encodedSequence from the given startIndex as the traversal path
@@ -135,6 +163,39 @@ public class GroupNode<P, T> implements PrefixTreeNode<P, T> {
     return isTreeComplete;
   }
 
+  /**
+   * Returns the child reached from this node using the given path symbol, or null if there is no
+   * such child.
+   *
+   * @param path the path symbol to follow
+   * @return the child at the given path symbol or null if there is no such child
+   */
+  @Override
+  public PrefixTreeNode<P, T> getChild(P path) {
+    return this.children.get(path);
+  }
+
+  /**
+   * Returns false since this node is a group node.
+   *
+   * @return false since this node is a group node
+   */
+  @Override
+  public boolean isLeaf() {
+    return false;
+  }
+
+  /**
+   * Throws exception if this method is invoked. A group node does not store any data.
+   *
+   * @return nothing since this method always throws
+   * @throws IllegalStateException if this method is invoked
+   */
+  @Override
+  public T getData() throws IllegalStateException {
+    throw new IllegalStateException("groupNode does not store data");
+  }
+
   /**
    * Check if a children exists at the given path.
    *
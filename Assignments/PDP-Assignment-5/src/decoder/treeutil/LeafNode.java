@@ -38,6 +38,32 @@ public class LeafNode<P, T> implements PrefixTreeNode<P, T> {
     throw new IllegalStateException("children cannot be added to leafNode");
   }
 
+  /**
+   * Throws exception if this method is invoked. In this tree a leaf node is not allowed to add
+   * children to itself.
+   *
+   * @param path the path symbol of the new child
+   * @return nothing since this method always throws
+   * @throws IllegalStateException if this method is invoked
+   */
+  @Override
+  public PrefixTreeNode<P, T> addGroupChild(P path) throws IllegalStateException {
+    throw new IllegalStateException("children cannot be added to leafNode");
+  }
+
+  /**
+   * Throws exception if this method is invoked. In this tree a leaf node is not allowed to add
+   * children to itself.
+   *
+   * @param path the path symbol of the new child
+   * @param data the data to be stored
+   * @throws IllegalStateException if this method is invoked
+   */
+  @Override
+  public void addLeafChild(P path, T data) throws IllegalStateException {
+    throw new IllegalStateException("children cannot be added to leafNode");
+  }
+
   /**
    * Returns the data at this node encapsulated in {@link DecodedData} object.
    *
@@ -71,4 +97,36 @@ public class LeafNode<P, T> implements PrefixTreeNode<P, T> {
   public boolean isTreeComplete() {
     return true;
   }
+
+  /**
+   * Throws exception if this method is invoked. In this tree a leaf node does not have children.
+   *
+   * @param path the path symbol to follow
+   * @return nothing since this method always throws
+   * @throws IllegalStateException if this method is invoked
+   */
+  @Override
+  public PrefixTreeNode<P, T> getChild(P path) throws IllegalStateException {
+    throw new IllegalStateException("leafNode does not have children");
+  }
+
+  /**
+   * Returns true since this node is a leaf node.
+   *
+   * @return true since this node is a leaf node
+   */
+  @Override
+  public boolean isLeaf() {
+    return true;
+  }
+
+  /**
+   * Returns the data stored at this node.
+   *
+   * @return the data stored at this node
+   */
+  @Override
+  public T getData() {
+    return this.data;
+  }
 }
@@ -25,6 +25,29 @@ public interface PrefixTreeNode<P, T> {
    */
   void addChild(List<P> pathSequence, T data) throws IllegalStateException;
 
+  /**
+   * Adds an empty group node as the child of this node at the given path symbol and returns it.
+   * Unlike {@link PrefixTreeNode#addChild(List, Object)} it moves a single path symbol at a time,
+   * hence a tree can be built without copying the path. It throws an {@link IllegalStateException}
+   * if a child already exists at the given path symbol or this node is a leaf node.
+   *
+   * @param path the path symbol of the new child
+   * @return the new group node
+   * @throws IllegalStateException if the child cannot be added
+   */
+  PrefixTreeNode<P, T> addGroupChild(P path) throws IllegalStateException;
+
+  /**
+   * Adds a leaf node holding the given data as the child of this node at the given path symbol. It
+   * throws an {@link IllegalStateException} if a child already exists at the given path symbol or
+   * this node is a leaf node.
+   *
+   * @param path the path symbol of the new child
+   * @param data the data to be stored
+   * @throws IllegalStateException if the child cannot be added
+   */
+  void addLeafChild(P path, T data) throws IllegalStateException;
+
   /**
    * Decodes a part of the given encodedSequence from the given startIndex and returns the {@link
    * DecodedData}. It uses the given encodedSequence from the given startIndex as the traversal path
@@ -56,4 +79,31 @@ public interface PrefixTreeNode<P, T> {
    * @return true if the tree is complete, false otherwise
    */
   boolean isTreeComplete();
-}
\ No newline at end of file
+
+  /**
+   * Returns the child reached from this node using the given path symbol, or null if there is no
+   * such child. This allows the tree to be traversed one path symbol at a time. It throws an {@link
+   * IllegalStateException} if invoked on a leaf node.
+   *
+   * @param path the path symbol to follow
+   * @return the child at the given path symbol or null if there is no such child
+   * @throws IllegalStateException if this node cannot have children
+   */
+  PrefixTreeNode<P, T> getChild(P path) throws IllegalStateException;
+
+  /**
+   * Returns true if this node is a leaf node, false otherwise.
+   *
+   * @return true if this node is a leaf node, false otherwise
+   */
+  boolean isLeaf();
+
+  /**
+   * Returns the data stored at this node. It throws an {@link IllegalStateException} if invoked on
+   * a node which does not store data.
+   *
+   * @return the data stored at this node
+   * @throws IllegalStateException if this node does not store data
+   */
+  T getData() throws IllegalStateException;
+}
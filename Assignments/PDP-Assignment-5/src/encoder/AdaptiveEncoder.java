@@ -0,0 +1,51 @@
+package encoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.Map;
+
+/**
+ * This interface represents an Encoder which does not need the whole message up front. The coding
+ * table is updated as the symbols are encoded, hence the message is encoded in one pass and the
+ * table is never transmitted, an {@link decoder.AdaptiveDecoder} rebuilding the same table while
+ * decoding. An adaptive encoder is stateful: every call continues the message encoded by the
+ * previous calls, till the encoder is reset.
+ */
+public interface AdaptiveEncoder {
+
+  /**
+   * Encodes the given part of the message and returns its encoded form, continuing the message
+   * encoded thus far.
+   *
+   * @param message the next part of the message
+   * @return the encoded form of the given part of the message
+   */
+  String encode(String message);
+
+  /**
+   * Encodes the message read from the given reader and writes the packed coding symbols to the
+   * given outputStream, continuing the message encoded thus far. Every coding symbol is written as
+   * a single bit. The outputStream is flushed after every read from the reader, hence the encoded
+   * form of the symbols read is sent as soon as they arrive, except for the last incomplete byte.
+   * The last byte is padded with zero bits once the reader ends.
+   *
+   * @param message      the reader to read the message from
+   * @param outputStream the stream to write the packed coding symbols to
+   * @return the number of coding symbols written
+   * @throws IOException if reading the message or writing to the outputStream fails
+   */
+  long encode(Reader message, OutputStream outputStream) throws IOException;
+
+  /**
+   * Returns the current code of every symbol encoded thus far.
+   *
+   * @return the current code of every symbol encoded thus far
+   */
+  Map<Character, String> getCodingTable();
+
+  /**
+   * Resets the encoder to its initial state, as if no symbol had been encoded.
+   */
+  void reset();
+}
@@ -0,0 +1,135 @@
+package encoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import codingtable.AdaptiveHuffmanTree;
+import util.BitWriter;
+import util.Utils;
+
+/**
+ * This class represents an AdaptiveHuffmanEncoder. It implements {@link AdaptiveEncoder} interface
+ * using an {@link AdaptiveHuffmanTree}, hence the code of a symbol is its current Huffman code for
+ * the symbols encoded thus far. The first occurrence of a symbol is encoded as the code of the
+ * escape leaf followed by the 16 bits of the symbol, most significant bit first. Adaptive coding
+ * supports exactly two coding symbols, the first one standing for a 0 bit.
+ */
+public class AdaptiveHuffmanEncoder implements AdaptiveEncoder {
+
+  private static final int READ_BUFFER_SIZE = 8192;
+
+  private final String codingSymbols;
+  private final AdaptiveHuffmanTree tree;
+
+  /**
+   * Constructs an {@link AdaptiveHuffmanEncoder} with the given coding symbols. It throws {@link
+   * IllegalArgumentException} if the given list is null or empty, contains a null coding symbol or
+   * does not contain exactly 2 unique coding symbols.
+   *
+   * @param codingSymbols the two coding symbols
+   * @throws IllegalArgumentException if the given coding symbols are invalid
+   */
+  public AdaptiveHuffmanEncoder(List<Character> codingSymbols) throws IllegalArgumentException {
+    Utils.checkNullOrEmptyCollection(codingSymbols);
+    if (codingSymbols.stream().anyMatch(Objects::isNull)) {
+      throw new IllegalArgumentException("coding symbol cannot be null");
+    }
+    if (codingSymbols.size() != 2 || codingSymbols.get(0).equals(codingSymbols.get(1))) {
+      throw new IllegalArgumentException("adaptive coding needs exactly 2 unique coding symbols");
+    }
+
+    this.codingSymbols = "" + codingSymbols.get(0) + codingSymbols.get(1);
+    this.tree = new AdaptiveHuffmanTree();
+  }
+
+  /**
+   * Encodes the given part of the message and returns its encoded form, continuing the message
+   * encoded thus far. An empty part results in an empty encoded form.
+   *
+   * @param message the next part of the message
+   * @return the encoded form of the given part of the message
+   * @throws IllegalArgumentException if the given message is null
+   */
+  @Override
+  public String encode(String message) throws IllegalArgumentException {
+    if (Objects.isNull(message)) {
+      throw new IllegalArgumentException("message cannot be null");
+    }
+
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < message.length(); i++) {
+      char symbol = message.charAt(i);
+      for (int bit : this.tree.getCode(symbol)) {
+        builder.append(this.codingSymbols.charAt(bit));
+      }
+      if (!this.tree.contains(symbol)) {
+        for (int bit = AdaptiveHuffmanTree.SYMBOL_BITS - 1; bit >= 0; bit--) {
+          builder.append(this.codingSymbols.charAt((symbol >>> bit) & 1));
+        }
+      }
+      this.tree.update(symbol);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Encodes the message read from the given reader and writes the packed coding symbols to the
+   * given outputStream, continuing the message encoded thus far. The complete bytes are handed
+   * over to the outputStream after every read from the reader. The reader is not closed.
+   *
+   * @param message      the reader to read the message from
+   * @param outputStream the stream to write the packed coding symbols to
+   * @return the number of coding symbols written
+   * @throws IOException              if reading the message or writing to the outputStream fails
+   * @throws IllegalArgumentException if the given reader or outputStream is null
+   */
+  @Override
+  public long encode(Reader message, OutputStream outputStream)
+          throws IOException, IllegalArgumentException {
+
+    if (Objects.isNull(message)) {
+      throw new IllegalArgumentException("message reader cannot be null");
+    }
+    BitWriter writer = new BitWriter(outputStream);
+
+    char[] buffer = new char[READ_BUFFER_SIZE];
+    int charsRead;
+    while ((charsRead = message.read(buffer, 0, buffer.length)) != -1) {
+      for (int i = 0; i < charsRead; i++) {
+        char symbol = buffer[i];
+        for (int bit : this.tree.getCode(symbol)) {
+          writer.writeBits(bit, 1);
+        }
+        if (!this.tree.contains(symbol)) {
+          writer.writeBits(symbol, AdaptiveHuffmanTree.SYMBOL_BITS);
+        }
+        this.tree.update(symbol);
+      }
+      writer.flushCompleteBytes();
+    }
+    writer.flush();
+    return writer.getBitsWritten();
+  }
+
+  /**
+   * Returns the current code of every symbol encoded thus far.
+   *
+   * @return the current code of every symbol encoded thus far
+   */
+  @Override
+  public Map<Character, String> getCodingTable() {
+    return this.tree.getCodingTable(this.codingSymbols);
+  }
+
+  /**
+   * Resets the encoder to its initial state, as if no symbol had been encoded.
+   */
+  @Override
+  public void reset() {
+    this.tree.reset();
+  }
+}
@@ -0,0 +1,300 @@
+package encoder;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import codingtable.BlockCodingTables;
+import codingtable.CanonicalCodingTable;
+import codingtable.PackedCodingTable;
+import util.BitWriter;
+import util.Utils;
+
+/**
+ * This class represents a BlockHuffmanEncoder. It encodes a message whose distribution of symbols
+ * changes from one part to another, for e.g. the sections of a log file, with a small set of
+ * coding tables instead of a single one. The message is split into blocks of a fixed number of
+ * symbols and the tables are clustered in the same way as bzip2 does: every table starts as the
+ * Huffman code of a contiguous part of the message, then every block is assigned to the table which
+ * codes it in the fewest coding symbols and every table is rebuilt from the blocks assigned to it,
+ * a fixed number of times. The tables which end up with no block are dropped.
+ *
+ * <p>A block keeps the table of the block before it if coding it with that table takes at most a
+ * given fraction more coding symbols than with its best table, so that a distribution which
+ * barely changes does not switch tables back and forth. The tables and the switches between them
+ * are recorded in a {@link BlockCodingTables} header written before the packed coding symbols.
+ * Every table has a code for every symbol of the message, hence any block can be coded with any
+ * table.
+ */
+public class BlockHuffmanEncoder {
+
+  private static final int DEFAULT_BLOCK_SIZE = 1024;
+  private static final int DEFAULT_MAX_TABLES = 6;
+  private static final double DEFAULT_SWITCH_TOLERANCE = 0.02;
+  private static final int ITERATIONS = 4;
+
+  private final HuffmanEncoder encoder;
+  private final int blockSize;
+  private final int maxTables;
+  private final double switchTolerance;
+
+  /**
+   * Constructs a {@link BlockHuffmanEncoder} which builds its tables with the given encoder from
+   * blocks of 1024 symbols, using up to 6 tables and switching tables only to save more than 2% of
+   * the coding symbols of a block.
+   *
+   * @param encoder the encoder generating the coding tables
+   * @throws IllegalArgumentException if the given encoder is null
+   */
+  public BlockHuffmanEncoder(HuffmanEncoder encoder) throws IllegalArgumentException {
+    this(encoder, DEFAULT_BLOCK_SIZE, DEFAULT_MAX_TABLES, DEFAULT_SWITCH_TOLERANCE);
+  }
+
+  /**
+   * Constructs a {@link BlockHuffmanEncoder} with the given params. It throws an {@link
+   * IllegalArgumentException} if the given encoder is null, the block size or the maximum number
+   * of tables is less than 1 or the tolerance is negative or not a number.
+   *
+   * @param encoder         the encoder generating the coding tables
+   * @param blockSize       the number of symbols of a block
+   * @param maxTables       the maximum number of tables
+   * @param switchTolerance the fraction by which coding a block with the table of the block before
+   *                        it may take more coding symbols than with its best table
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  public BlockHuffmanEncoder(HuffmanEncoder encoder, int blockSize, int maxTables,
+                             double switchTolerance) throws IllegalArgumentException {
+
+    if (Objects.isNull(encoder)) {
+      throw new IllegalArgumentException("encoder cannot be null");
+    }
+    if (blockSize < 1) {
+      throw new IllegalArgumentException(String.format("Invalid block size:'%d'", blockSize));
+    }
+    if (maxTables < 1) {
+      throw new IllegalArgumentException(String.format("Invalid table count:'%d'", maxTables));
+    }
+    if (!(switchTolerance >= 0)) {
+      throw new IllegalArgumentException(
+              String.format("Invalid tolerance:'%s'", switchTolerance));
+    }
+
+    this.encoder = encoder;
+    this.blockSize = blockSize;
+    this.maxTables = maxTables;
+    this.switchTolerance = switchTolerance;
+  }
+
+  /**
+   * Returns the coding tables of the given message and the switches between them, clustered as
+   * described in {@link BlockHuffmanEncoder}. The sanity checks of the params are the same as that
+   * of {@link HuffmanEncoder#generateCodingTable(List, String)}.
+   *
+   * @param codingSymbols the valid list of coding symbols
+   * @param message       the message to generate the coding tables for
+   * @return the coding tables of the message
+   * @throws IllegalArgumentException if the given params does not pass any of the sanity checks
+   */
+  public BlockCodingTables generateCodingTables(List<Character> codingSymbols, String message)
+          throws IllegalArgumentException {
+
+    Utils.checkNullOrEmptyString(message);
+    this.encoder.sanityCheckCodingSymbols(codingSymbols);
+
+    int[] frequencies = this.encoder.getFrequencies(message);
+    int[] alphabetIndex = new int[frequencies.length];
+    Arrays.fill(alphabetIndex, -1);
+    StringBuilder alphabet = new StringBuilder();
+    for (int symbol = 0; symbol < frequencies.length; symbol++) {
+      if (frequencies[symbol] > 0) {
+        alphabetIndex[symbol] = alphabet.length();
+        alphabet.append((char) symbol);
+      }
+    }
+
+    int blocks = (message.length() + this.blockSize - 1) / this.blockSize;
+    int[][] histograms = new int[blocks][alphabet.length()];
+    for (int i = 0; i < message.length(); i++) {
+      histograms[i / this.blockSize][alphabetIndex[message.charAt(i)]]++;
+    }
+
+    int tables = Math.min(this.maxTables, blocks);
+    int[] assignment = new int[blocks];
+    for (int block = 0; block < blocks; block++) {
+      assignment[block] = (int) ((long) block * tables / blocks);
+    }
+
+    int[][] codeLengths = null;
+    long encodedLength = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      codeLengths = this.getCodeLengths(codingSymbols, alphabet, histograms, assignment, tables,
+              frequencies.length);
+      encodedLength = this.assignTables(histograms, codeLengths, assignment);
+    }
+
+    // the tables are renumbered in the order of their first use, dropping the unused ones
+    int[] tableIndex = new int[tables];
+    Arrays.fill(tableIndex, -1);
+    String codingSymbolString = HuffmanEncoder.getCodingSymbolString(codingSymbols);
+    List<CanonicalCodingTable> usedTables = new ArrayList<>();
+    List<Integer> switchTables = new ArrayList<>();
+    List<Integer> switchBlocks = new ArrayList<>();
+    for (int block = 0; block < blocks; block++) {
+      int table = assignment[block];
+      if (tableIndex[table] < 0) {
+        tableIndex[table] = usedTables.size();
+        Map<Character, Integer> tableCodeLengths = new HashMap<>();
+        for (int symbol = 0; symbol < alphabet.length(); symbol++) {
+          tableCodeLengths.put(alphabet.charAt(symbol), codeLengths[table][symbol]);
+        }
+        usedTables.add(new CanonicalCodingTable(codingSymbolString, tableCodeLengths));
+      }
+
+      if (block > 0 && assignment[block - 1] == table) {
+        switchBlocks.set(switchBlocks.size() - 1, switchBlocks.get(switchBlocks.size() - 1) + 1);
+      } else {
+        switchTables.add(tableIndex[table]);
+        switchBlocks.add(1);
+      }
+    }
+
+    return new BlockCodingTables(this.blockSize, message.length(), encodedLength, usedTables,
+            switchTables.stream().mapToInt(Integer::intValue).toArray(),
+            switchBlocks.stream().mapToInt(Integer::intValue).toArray());
+  }
+
+  /**
+   * Encodes the given message block by block and writes the {@link BlockCodingTables} of the
+   * message followed by the packed coding symbols to the given outputStream. Every coding symbol
+   * is written as its index in the given codingSymbols using {@link
+   * Utils#getBitsPerCodingSymbol(int)} bits, and the last byte is padded with zero bits. The
+   * outputStream is flushed but not closed.
+   *
+   * @param codingSymbols the valid list of coding symbols
+   * @param message       the message to encode
+   * @param outputStream  the stream to write the encoded message to
+   * @return the number of coding symbols written
+   * @throws IOException              if writing to the outputStream fails
+   * @throws IllegalArgumentException if the given params does not pass any of the sanity checks
+   */
+  public long encode(List<Character> codingSymbols, String message, OutputStream outputStream)
+          throws IOException, IllegalArgumentException {
+
+    if (Objects.isNull(outputStream)) {
+      throw new IllegalArgumentException("outputStream cannot be null");
+    }
+    BlockCodingTables blockCodingTables = this.generateCodingTables(codingSymbols, message);
+
+    DataOutputStream output = new DataOutputStream(outputStream);
+    blockCodingTables.writeTo(output);
+    output.flush();
+
+    List<PackedCodingTable> packedTables = new ArrayList<>();
+    for (CanonicalCodingTable table : blockCodingTables.getTables()) {
+      packedTables.add(PackedCodingTable.compile(blockCodingTables.getCodingSymbols(),
+              table.getCodingTable()));
+    }
+
+    BitWriter writer = new BitWriter(outputStream);
+    int bitsPerCodingSymbol = Utils.getBitsPerCodingSymbol(codingSymbols.size());
+    int position = 0;
+    for (int i = 0; i < blockCodingTables.getNumberOfSwitches(); i++) {
+      PackedCodingTable packedTable = packedTables.get(blockCodingTables.getSwitchTable(i));
+      int end = (int) Math.min(message.length(),
+              position + (long) blockCodingTables.getSwitchBlocks(i) * this.blockSize);
+      packedTable.writeCodes(writer, message, position, end);
+      position = end;
+    }
+    writer.flush();
+    return writer.getBitsWritten() / bitsPerCodingSymbol;
+  }
+
+  /**
+   * Returns the code length of every symbol of the alphabet in every table, each table being the
+   * Huffman code of the blocks assigned to it. Every symbol is counted once more than it appears,
+   * so that every table has a code for every symbol of the alphabet.
+   *
+   * @param codingSymbols the coding symbols
+   * @param alphabet      the symbols of the message
+   * @param histograms    the frequency of every symbol of the alphabet in every block
+   * @param assignment    the table of every block
+   * @param tables        the number of tables
+   * @param histogramSize the size of a histogram indexed by the symbols of the message
+   * @return the code length of every symbol in every table
+   */
+  private int[][] getCodeLengths(List<Character> codingSymbols, CharSequence alphabet,
+                                 int[][] histograms, int[] assignment, int tables,
+                                 int histogramSize) {
+
+    long[][] tableFrequencies = new long[tables][alphabet.length()];
+    for (long[] frequencies : tableFrequencies) {
+      Arrays.fill(frequencies, 1);
+    }
+    for (int block = 0; block < histograms.length; block++) {
+      long[] frequencies = tableFrequencies[assignment[block]];
+      for (int symbol = 0; symbol < alphabet.length(); symbol++) {
+        frequencies[symbol] += histograms[block][symbol];
+      }
+    }
+
+    int[][] codeLengths = new int[tables][alphabet.length()];
+    long[] frequencies = new long[histogramSize];
+    for (int table = 0; table < tables; table++) {
+      for (int symbol = 0; symbol < alphabet.length(); symbol++) {
+        frequencies[alphabet.charAt(symbol)] = tableFrequencies[table][symbol];
+      }
+      Map<Character, String> codingTable =
+              this.encoder.generateCodingTable(codingSymbols, frequencies);
+      for (int symbol = 0; symbol < alphabet.length(); symbol++) {
+        codeLengths[table][symbol] = codingTable.get(alphabet.charAt(symbol)).length();
+      }
+    }
+    return codeLengths;
+  }
+
+  /**
+   * Assigns every block to the table which codes it in the fewest coding symbols, unless the table
+   * of the block before it is within the switch tolerance, and returns the number of coding
+   * symbols of the whole message.
+   *
+   * @param histograms  the frequency of every symbol of the alphabet in every block
+   * @param codeLengths the code length of every symbol in every table
+   * @param assignment  the array to store the table of every block in
+   * @return the number of coding symbols of the message coded with the assigned tables
+   */
+  private long assignTables(int[][] histograms, int[][] codeLengths, int[] assignment) {
+    long encodedLength = 0;
+    long[] costs = new long[codeLengths.length];
+    for (int block = 0; block < histograms.length; block++) {
+      Arrays.fill(costs, 0);
+      for (int symbol = 0; symbol < histograms[block].length; symbol++) {
+        int frequency = histograms[block][symbol];
+        if (frequency > 0) {
+          for (int table = 0; table < codeLengths.length; table++) {
+            costs[table] += (long) frequency * codeLengths[table][symbol];
+          }
+        }
+      }
+
+      int bestTable = 0;
+      for (int table = 1; table < costs.length; table++) {
+        if (costs[table] < costs[bestTable]) {
+          bestTable = table;
+        }
+      }
+      if (block > 0
+              && costs[assignment[block - 1]] <= costs[bestTable] * (1 + this.switchTolerance)) {
+        bestTable = assignment[block - 1];
+      }
+      assignment[block] = bestTable;
+      encodedLength += costs[bestTable];
+    }
+    return encodedLength;
+  }
+}
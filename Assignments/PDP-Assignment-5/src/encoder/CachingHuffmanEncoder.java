@@ -0,0 +1,356 @@
+package encoder;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import util.Utils;
+
+/**
+ * This class represents a CachingHuffmanEncoder. It implements {@link Encoder} interface by
+ * wrapping a {@link HuffmanEncoder} and caching the coding tables it generates, so that messages
+ * with nearly the same distribution of symbols share a coding table instead of rebuilding the
+ * Huffman tree for every message.
+ *
+ * <p>The cache is keyed by a fingerprint of the histogram of the message: every symbol of the
+ * message is quantized to the length in bits of its ideal code, <code>log2(n / f)</code> rounded
+ * to the nearest integer for a message of <code>n</code> symbols in which the symbol appears
+ * <code>f</code> times, and the fingerprint is the hash of the coding symbols along with every
+ * symbol and its quantized length. A cached table is reused only if it has a code for every symbol
+ * of the message and the length of the encoded message is within the tolerance of the length of
+ * the Huffman code of the message. No tree is built to know that length: every cached table keeps
+ * the redundancy per symbol of the Huffman code of the message it was generated for, the amount by
+ * which that code is longer than the entropy of the message, and the length of the Huffman code of
+ * a new message is estimated as its entropy plus the same redundancy per symbol. The estimate is
+ * exact for a message with the same distribution of symbols, and close for the messages sharing a
+ * fingerprint, whose distributions are nearly the same. Hence a cache hit builds no tree: it sorts
+ * the symbols of the message to count them and takes time proportional to the number of distinct
+ * symbols otherwise.
+ *
+ * <p>The cache holds a bounded number of tables and evicts the least recently used one when full.
+ * It is safe to use the encoder from multiple threads.
+ */
+public class CachingHuffmanEncoder implements Encoder {
+
+  private static final int DEFAULT_MAX_SIZE = 256;
+  private static final double DEFAULT_TOLERANCE = 0.05;
+  private static final double ROUNDING_ERROR = 1e-9;
+
+  private final HuffmanEncoder encoder;
+  private final double tolerance;
+  private final Map<Long, CachedTable> cache;
+  private long hits;
+  private long misses;
+
+  /**
+   * Constructs a {@link CachingHuffmanEncoder} wrapping the given encoder, which caches up to 256
+   * coding tables and reuses a table if the encoded message is at most 5% longer than with the
+   * Huffman code of the message.
+   *
+   * @param encoder the encoder generating the coding tables
+   * @throws IllegalArgumentException if the given encoder is null
+   */
+  public CachingHuffmanEncoder(HuffmanEncoder encoder) throws IllegalArgumentException {
+    this(encoder, DEFAULT_MAX_SIZE, DEFAULT_TOLERANCE);
+  }
+
+  /**
+   * Constructs a {@link CachingHuffmanEncoder} wrapping the given encoder. It throws an {@link
+   * IllegalArgumentException} if the given encoder is null, the maximum size is less than 1 or the
+   * tolerance is negative or not a number.
+   *
+   * @param encoder   the encoder generating the coding tables
+   * @param maxSize   the maximum number of coding tables in the cache
+   * @param tolerance the fraction by which an encoded message may be longer than with the Huffman
+   *                  code of the message when a cached table is reused
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  public CachingHuffmanEncoder(HuffmanEncoder encoder, int maxSize, double tolerance)
+          throws IllegalArgumentException {
+
+    if (Objects.isNull(encoder)) {
+      throw new IllegalArgumentException("encoder cannot be null");
+    }
+    if (maxSize < 1) {
+      throw new IllegalArgumentException(String.format("Invalid cache size:'%d'", maxSize));
+    }
+    if (!(tolerance >= 0)) {
+      throw new IllegalArgumentException(String.format("Invalid tolerance:'%s'", tolerance));
+    }
+
+    this.encoder = encoder;
+    this.tolerance = tolerance;
+    this.cache = new LinkedHashMap<Long, CachedTable>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, CachedTable> eldest) {
+        return this.size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * Given a message and coding Symbols, returns a coding table for each symbol in message. A
+   * cached table is returned if one with the same fingerprint covers every symbol of the message
+   * within the tolerance, otherwise the table generated by the wrapped encoder is returned and
+   * cached. The sanity checks and the exceptions are the same as that of {@link
+   * HuffmanEncoder#generateCodingTable(List, String)}.
+   *
+   * @param codingSymbols the valid list of coding symbols
+   * @param message       the message to generate coding table for
+   * @return an unmodifiable coding table containing code for each symbol in message
+   * @throws IllegalArgumentException if the given params does not pass any of the sanity checks
+   * @throws ArithmeticException      if the sum of the frequencies overflows
+   */
+  @Override
+  public Map<Character, String> generateCodingTable(List<Character> codingSymbols, String message)
+          throws IllegalArgumentException, ArithmeticException {
+
+    Utils.checkNullOrEmptyString(message);
+    this.encoder.sanityCheckCodingSymbols(codingSymbols);
+    String codingSymbolString = HuffmanEncoder.getCodingSymbolString(codingSymbols);
+
+    Histogram histogram = new Histogram(message);
+    long fingerprint = getFingerprint(codingSymbolString, histogram, message.length());
+    double entropy = getEntropy(histogram, message.length(), codingSymbols.size());
+
+    CachedTable cachedTable;
+    synchronized (this.cache) {
+      cachedTable = this.cache.get(fingerprint);
+    }
+    if (Objects.nonNull(cachedTable) && cachedTable.codingSymbols.equals(codingSymbolString)
+            && this.isReusable(cachedTable, histogram, message.length(), entropy)) {
+      synchronized (this.cache) {
+        this.hits++;
+      }
+      return cachedTable.codingTable;
+    }
+    synchronized (this.cache) {
+      this.misses++;
+    }
+
+    Map<Character, String> codingTable =
+            this.encoder.generateCodingTable(codingSymbols, histogram.toFrequencies());
+    double redundancy =
+            (getEncodedLength(codingTable, histogram) - entropy) / message.length();
+
+    synchronized (this.cache) {
+      this.cache.put(fingerprint, new CachedTable(codingSymbolString, codingTable, redundancy));
+    }
+    return codingTable;
+  }
+
+  /**
+   * Given a coding table and a message, returns the encoded form of the message using the wrapped
+   * encoder.
+   *
+   * @param codingTable the coding table for the message
+   * @param message     the message to encode
+   * @return the encoded form of the message
+   * @throws IllegalStateException    if the encoding fails for any reason
+   * @throws IllegalArgumentException if the given params are null or empty
+   */
+  @Override
+  public String encode(Map<Character, String> codingTable, String message)
+          throws IllegalStateException, IllegalArgumentException {
+
+    return this.encoder.encode(codingTable, message);
+  }
+
+  /**
+   * Returns the number of times a cached coding table was reused.
+   *
+   * @return the number of cache hits
+   */
+  public long getHits() {
+    synchronized (this.cache) {
+      return this.hits;
+    }
+  }
+
+  /**
+   * Returns the number of times a coding table had to be generated.
+   *
+   * @return the number of cache misses
+   */
+  public long getMisses() {
+    synchronized (this.cache) {
+      return this.misses;
+    }
+  }
+
+  /**
+   * Returns the number of coding tables in the cache.
+   *
+   * @return the number of coding tables in the cache
+   */
+  public int getSize() {
+    synchronized (this.cache) {
+      return this.cache.size();
+    }
+  }
+
+  /**
+   * Removes all the coding tables from the cache. The hit and miss counters are not reset.
+   */
+  public void clear() {
+    synchronized (this.cache) {
+      this.cache.clear();
+    }
+  }
+
+  /**
+   * Returns true if the given cached table has a code for every symbol with a non zero frequency
+   * and the length of the message encoded with it is within the tolerance of the estimated length
+   * of the Huffman code of the message, its entropy plus the redundancy of the cached table for
+   * every symbol.
+   *
+   * @param cachedTable   the cached table
+   * @param histogram     the histogram of the message
+   * @param messageLength the length of the message
+   * @param entropy       the entropy of the message in coding symbols
+   * @return true if the coding table can be reused for the message
+   */
+  private boolean isReusable(CachedTable cachedTable, Histogram histogram, int messageLength,
+                             double entropy) {
+    long encodedLength = getEncodedLength(cachedTable.codingTable, histogram);
+    if (encodedLength < 0) {
+      return false;
+    }
+
+    double huffmanLength = entropy + cachedTable.redundancy * messageLength;
+    // the estimate of an identical distribution may be off by a rounding error
+    return encodedLength <= huffmanLength * (1 + this.tolerance) * (1 + ROUNDING_ERROR);
+  }
+
+  /**
+   * Returns the length of the message with the given histogram encoded with the given coding
+   * table, -1 if the table has no code for a symbol of the message.
+   *
+   * @param codingTable the coding table
+   * @param histogram   the histogram of the message
+   * @return the length of the encoded message, -1 if a symbol has no code
+   */
+  private static long getEncodedLength(Map<Character, String> codingTable, Histogram histogram) {
+    long encodedLength = 0;
+    for (int i = 0; i < histogram.size; i++) {
+      String code = codingTable.get(histogram.symbols[i]);
+      if (Objects.isNull(code)) {
+        return -1;
+      }
+      encodedLength += (long) histogram.frequencies[i] * code.length();
+    }
+    return encodedLength;
+  }
+
+  /**
+   * Returns the entropy of the message with the given histogram in coding symbols, the length
+   * below which no code with the given number of coding symbols can encode the message.
+   *
+   * @param histogram     the histogram of the message
+   * @param messageLength the length of the message
+   * @param radix         the number of coding symbols
+   * @return the entropy of the message in coding symbols
+   */
+  private static double getEntropy(Histogram histogram, int messageLength, int radix) {
+    double entropy = 0;
+    for (int i = 0; i < histogram.size; i++) {
+      int frequency = histogram.frequencies[i];
+      entropy += frequency * Math.log((double) messageLength / frequency);
+    }
+    return entropy / Math.log(radix);
+  }
+
+  /**
+   * Returns the fingerprint of the given histogram, the hash of the coding symbols along with
+   * every symbol and the rounded length in bits of its ideal code.
+   *
+   * @param codingSymbols the coding symbols
+   * @param histogram     the histogram of the message
+   * @param messageLength the length of the message
+   * @return the fingerprint of the histogram
+   */
+  private static long getFingerprint(String codingSymbols, Histogram histogram,
+                                     int messageLength) {
+    long fingerprint = codingSymbols.hashCode();
+    for (int i = 0; i < histogram.size; i++) {
+      long quantizedLength = Math.round(
+              Math.log((double) messageLength / histogram.frequencies[i]) / Math.log(2));
+      fingerprint = 31 * fingerprint + histogram.symbols[i];
+      fingerprint = 31 * fingerprint + quantizedLength;
+    }
+    return fingerprint;
+  }
+
+  /**
+   * This class represents the histogram of a message, its distinct symbols in increasing order
+   * along with their frequencies. It is built by sorting the symbols of the message, so that its
+   * size is that of the message however large the symbols are, unlike an array indexed by the
+   * symbol.
+   */
+  private static class Histogram {
+
+    private final char[] symbols;
+    private final int[] frequencies;
+    private int size;
+
+    /**
+     * Constructs the {@link Histogram} of the given message.
+     *
+     * @param message the message
+     */
+    private Histogram(String message) {
+      this.symbols = message.toCharArray();
+      Arrays.sort(this.symbols);
+      this.frequencies = new int[this.symbols.length];
+      for (int i = 0; i < this.symbols.length; i++) {
+        if (this.size > 0 && this.symbols[this.size - 1] == this.symbols[i]) {
+          this.frequencies[this.size - 1]++;
+        } else {
+          this.symbols[this.size] = this.symbols[i];
+          this.frequencies[this.size++] = 1;
+        }
+      }
+    }
+
+    /**
+     * Returns the frequency of every symbol of the histogram, indexed by the symbol.
+     *
+     * @return the frequency of every symbol, indexed by the symbol
+     */
+    private long[] toFrequencies() {
+      long[] indexedFrequencies = new long[this.symbols[this.size - 1] + 1];
+      for (int i = 0; i < this.size; i++) {
+        indexedFrequencies[this.symbols[i]] = this.frequencies[i];
+      }
+      return indexedFrequencies;
+    }
+  }
+
+  /**
+   * This class represents a coding table in the cache along with the coding symbols it was
+   * generated for and its redundancy per symbol for the message it was generated for.
+   */
+  private static class CachedTable {
+
+    private final String codingSymbols;
+    private final Map<Character, String> codingTable;
+    private final double redundancy;
+
+    /**
+     * Constructs a {@link CachedTable} with the given params.
+     *
+     * @param codingSymbols the coding symbols of the table
+     * @param codingTable   the coding table
+     * @param redundancy    the length of the message encoded with the table minus its entropy,
+     *                      divided by the length of the message
+     */
+    private CachedTable(String codingSymbols, Map<Character, String> codingTable,
+                        double redundancy) {
+      this.codingSymbols = codingSymbols;
+      this.codingTable = codingTable;
+      this.redundancy = redundancy;
+    }
+  }
+}
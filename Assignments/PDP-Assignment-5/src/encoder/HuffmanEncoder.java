@@ -1,25 +1,81 @@
 package encoder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.PriorityQueue;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
 
-import encoder.bean.Pair;
+import codingtable.CanonicalCodingTable;
+import codingtable.HuffmanModel;
+import codingtable.PackedCodingTable;
+import encoder.treeutil.HuffmanTree;
+import encoder.treeutil.PackageMerge;
+import metrics.CodecMetrics;
+import metrics.MetricsListener;
+import util.BitWriter;
+import util.FileChannelOutputStream;
 import util.Utils;
 
 /**
- * This class represents a HuffmanEncoder. It implements {@link Encoder} interface. This class as
- * the name suggests generates a Coding table for a given message using the Huffman coding
- * Algorithm. This class is also useful for encoding the message given a coding table.
+ * This class represents a HuffmanEncoder. It implements {@link StreamingEncoder} interface. This
+ * class as the name suggests generates a Coding table for a given message using the Huffman coding
+ * Algorithm. This class is also useful for encoding the message given a coding table, either as a
+ * string of coding symbols or as packed bits written to a stream.
+ *
+ * <p>The {@link CodecMetrics} of every table generated from a message and of every message encoded
+ * with a coding table can be passed to a {@link MetricsListener}. No listener is set by default,
+ * in which case nothing is measured.
  */
-public class HuffmanEncoder implements Encoder {
+public class HuffmanEncoder implements StreamingEncoder {
+
+  private static final int READ_BUFFER_SIZE = 8192;
+  private static final int SMALL_ALPHABET_SIZE = 256;
+
+  private final ForkJoinPool pool;
+  private MetricsListener metricsListener;
+
+  /**
+   * Constructs a {@link HuffmanEncoder} which generates the coding tables in parallel on the common
+   * {@link ForkJoinPool}.
+   */
+  public HuffmanEncoder() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs a {@link HuffmanEncoder} which generates the coding tables in parallel on the given
+   * {@link ForkJoinPool}.
+   *
+   * @param pool the pool to count the frequencies on
+   * @throws IllegalArgumentException if the given pool is null
+   */
+  public HuffmanEncoder(ForkJoinPool pool) throws IllegalArgumentException {
+    if (Objects.isNull(pool)) {
+      throw new IllegalArgumentException("pool cannot be null");
+    }
+    this.pool = pool;
+    this.metricsListener = null;
+  }
+
+  /**
+   * Sets the listener to pass the metrics of the calls made to this encoder to, replacing the
+   * previous one. Passing null stops the measuring, which then costs nothing. The listener should
+   * be set before the encoder is shared by many threads.
+   *
+   * @param metricsListener the listener to pass the metrics to, null to stop measuring
+   */
+  public void setMetricsListener(MetricsListener metricsListener) {
+    this.metricsListener = metricsListener;
+  }
 
   /**
    * Given a message and coding Symbols, returns the coding table for each symbol in message. It
@@ -46,34 +102,189 @@ public class HuffmanEncoder implements Encoder {
   public Map<Character, String> generateCodingTable(List<Character> codingSymbols, String message)
           throws IllegalArgumentException, ArithmeticException {
 
+    MetricsListener metricsListener = this.metricsListener;
+    long startNanos = startTiming(metricsListener);
     sanityCheckBeforeGeneratingCodingTable(codingSymbols, message);
 
-    Map<Character, StringBuilder> codingTable = new HashMap<>();
+    long[] frequencies = Arrays.stream(getFrequencies(message)).asLongStream().toArray();
+    Map<Character, String> codingTable = this.generateCodingTable(codingSymbols, frequencies);
+
+    if (Objects.nonNull(metricsListener)) {
+      long elapsedNanos = System.nanoTime() - startNanos;
+      long encodedLength = 0;
+      for (Map.Entry<Character, String> entry : codingTable.entrySet()) {
+        encodedLength += frequencies[entry.getKey()] * entry.getValue().length();
+      }
+      reportMetrics(metricsListener, CodecMetrics.Operation.BUILD_TABLE, codingSymbols.size(),
+              codingTable, message, message.length(), encodedLength, elapsedNanos);
+    }
+    return codingTable;
+  }
+
+  /**
+   * Returns the coding table of the Huffman code for the given frequencies. The coding symbols are
+   * expected to have passed the sanity checks already. Wrapping encoders such as {@link
+   * CachingHuffmanEncoder} generate their tables through it.
+   *
+   * @param codingSymbols the valid list of coding symbols
+   * @param frequencies   the frequency of every character, indexed by the character
+   * @return an unmodifiable coding table containing code for each character with a non zero
+   *         frequency
+   * @throws ArithmeticException if the sum of the frequencies overflows
+   */
+  protected Map<Character, String> generateCodingTable(List<Character> codingSymbols,
+                                                       long[] frequencies)
+          throws ArithmeticException {
+
+    HuffmanTree huffmanTree = HuffmanTree.fromFrequencies(frequencies, codingSymbols.size());
+    return getCodingTable(huffmanTree, codingSymbols);
+  }
+
+  /**
+   * Given a message and coding Symbols, returns the coding table for each symbol in message. The
+   * frequencies of the symbols are counted in parallel on the pool of this encoder, which pays off
+   * for very large messages. The returned table is exactly the same as the one returned by {@link
+   * HuffmanEncoder#generateCodingTable(List, String)} for the same message and the sanity checks
+   * are the same as well.
+   *
+   * @param codingSymbols the valid list of coding symbols
+   * @param message       the message to generate coding table for
+   * @return an unmodifiable coding table containing code for each symbol in message
+   * @throws IllegalArgumentException if the given params does not pass any of the sanity checks
+   */
+  public Map<Character, String> generateCodingTableInParallel(List<Character> codingSymbols,
+                                                              CharSequence message)
+          throws IllegalArgumentException {
+
+    if (Objects.isNull(message) || message.length() == 0) {
+      throw new IllegalArgumentException(String.format("Invalid string:'%s'", message));
+    }
+    sanityCheckCodingSymbols(codingSymbols);
 
-    PriorityQueue<Pair<String, Integer>> priorityQueue = getPriorityQueueForMessage(message);
-    while (!priorityQueue.isEmpty()) {
-      StringBuilder builder = new StringBuilder();
-      int frequencyCount = 0;
+    long[] frequencies = new ParallelFrequencyCounter(this.pool).count(message);
+    return getCodingTable(HuffmanTree.fromFrequencies(frequencies, codingSymbols.size()),
+            codingSymbols);
+  }
 
-      for (int i = 0; i < codingSymbols.size() && !priorityQueue.isEmpty(); i++) {
-        Pair<String, Integer> pair = priorityQueue.poll();
-        String symbols = pair.getFirst();
+  /**
+   * Given a UTF-8 encoded file and coding Symbols, returns the coding table for each symbol in the
+   * file. The frequencies of the symbols are counted in parallel on the pool of this encoder by
+   * mapping chunks of the file into memory, hence the file is never loaded as a whole. The
+   * returned table is exactly the same as the one returned by {@link
+   * HuffmanEncoder#generateCodingTable(List, String)} for the text of the file as read by a {@link
+   * java.io.Reader}.
+   *
+   * @param codingSymbols the valid list of coding symbols
+   * @param file          the UTF-8 encoded file to generate coding table for
+   * @return an unmodifiable coding table containing code for each symbol in the file
+   * @throws IOException              if reading the file fails
+   * @throws IllegalArgumentException if the given params does not pass any of the sanity checks
+   *                                  or the file is empty
+   */
+  public Map<Character, String> generateCodingTableInParallel(List<Character> codingSymbols,
+                                                              Path file)
+          throws IOException, IllegalArgumentException {
 
-        Character codingSymbol = codingSymbols.get(i);
-        codingTable = updateCodingTable(codingTable, codingSymbol, symbols);
+    sanityCheckCodingSymbols(codingSymbols);
 
-        frequencyCount = Math.addExact(frequencyCount, pair.getSecond());
-        builder.append(symbols);
-      }
+    long[] frequencies = new ParallelFrequencyCounter(this.pool).count(file);
+    if (Arrays.stream(frequencies).allMatch(frequency -> frequency == 0)) {
+      throw new IllegalArgumentException(String.format("Invalid file:'%s'", file));
+    }
+    return getCodingTable(HuffmanTree.fromFrequencies(frequencies, codingSymbols.size()),
+            codingSymbols);
+  }
+
+  /**
+   * Given a message and coding Symbols, returns the canonical coding table for the message. The
+   * code lengths of the canonical table are the same as that of the table returned by {@link
+   * HuffmanEncoder#generateCodingTable(List, String)}, hence the encoded message has the same
+   * length, but the codes are reassigned such that they can be rebuilt from the code lengths
+   * alone. The sanity checks are the same as that of {@link HuffmanEncoder#generateCodingTable(List,
+   * String)}.
+   *
+   * @param codingSymbols the valid list of coding symbols
+   * @param message       the message to generate coding table for
+   * @return the canonical coding table containing code for each symbol in message
+   * @throws IllegalArgumentException if the given params does not pass any of the sanity checks
+   * @throws ArithmeticException      if the frequency of a character in the given message is
+   *                                  greater than {@link Integer#MAX_VALUE}
+   */
+  public CanonicalCodingTable generateCanonicalCodingTable(List<Character> codingSymbols,
+                                                           String message)
+          throws IllegalArgumentException, ArithmeticException {
+
+    Map<Character, String> codingTable = this.generateCodingTable(codingSymbols, message);
+    return CanonicalCodingTable.fromCodingTable(getCodingSymbolString(codingSymbols), codingTable);
+  }
+
+  /**
+   * Given a UTF-8 encoded file and coding Symbols, returns the canonical coding table for the file.
+   * The code lengths are the same as that of the table returned by {@link
+   * HuffmanEncoder#generateCodingTableInParallel(List, Path)} and the sanity checks are the same as
+   * that of the same method.
+   *
+   * @param codingSymbols the valid list of coding symbols
+   * @param file          the UTF-8 encoded file to generate coding table for
+   * @return the canonical coding table containing code for each symbol in the file
+   * @throws IOException              if reading the file fails
+   * @throws IllegalArgumentException if the given params does not pass any of the sanity checks
+   *                                  or the file is empty
+   */
+  public CanonicalCodingTable generateCanonicalCodingTable(List<Character> codingSymbols,
+                                                           Path file)
+          throws IOException, IllegalArgumentException {
+
+    Map<Character, String> codingTable = this.generateCodingTableInParallel(codingSymbols, file);
+    return CanonicalCodingTable.fromCodingTable(getCodingSymbolString(codingSymbols), codingTable);
+  }
+
+  /**
+   * Given a message, coding Symbols and a maximum code length, returns the canonical coding table
+   * for the message whose codes are not longer than the given maximum. The code lengths are
+   * computed by {@link PackageMerge}, hence the encoded message is as short as possible under the
+   * limit, and is as short as with {@link HuffmanEncoder#generateCodingTable(List, String)} when
+   * the limit is not binding. A bounded code length bounds the size of the tables and the depth of
+   * the coding tree of a decoder. The sanity checks are the same as that of {@link
+   * HuffmanEncoder#generateCodingTable(List, String)}, additionally it throws an {@link
+   * IllegalArgumentException} if the symbols of the message cannot be coded within the given
+   * maximum code length.
+   *
+   * @param codingSymbols the valid list of coding symbols
+   * @param message       the message to generate coding table for
+   * @param maxCodeLength the maximum length of a code
+   * @return the canonical coding table containing code for each symbol in message
+   * @throws IllegalArgumentException if the given params does not pass any of the sanity checks
+   * @throws ArithmeticException      if the frequency of a character in the given message is
+   *                                  greater than {@link Integer#MAX_VALUE}
+   */
+  public CanonicalCodingTable generateLengthLimitedCodingTable(List<Character> codingSymbols,
+                                                               String message,
+                                                               int maxCodeLength)
+          throws IllegalArgumentException, ArithmeticException {
 
-      Pair<String, Integer> newPair = new Pair<>(builder.toString(), frequencyCount);
-      priorityQueue.add(newPair);
+    sanityCheckBeforeGeneratingCodingTable(codingSymbols, message);
+    String codingSymbolString = getCodingSymbolString(codingSymbols);
 
-      if (priorityQueue.size() < 2) {
-        break;
+    int[] histogram = this.getFrequencies(message);
+    int numberOfSymbols = (int) Arrays.stream(histogram).filter(frequency -> frequency > 0).count();
+    char[] symbols = new char[numberOfSymbols];
+    long[] frequencies = new long[numberOfSymbols];
+    int index = 0;
+    for (int symbol = 0; symbol < histogram.length; symbol++) {
+      if (histogram[symbol] > 0) {
+        symbols[index] = (char) symbol;
+        frequencies[index++] = histogram[symbol];
       }
     }
-    return getCharacterStringMap(codingTable);
+
+    PackageMerge packageMerge =
+            new PackageMerge(frequencies, codingSymbols.size(), maxCodeLength);
+    Map<Character, Integer> codeLengths = new HashMap<>(numberOfSymbols * 2);
+    for (int i = 0; i < numberOfSymbols; i++) {
+      codeLengths.put(symbols[i], packageMerge.getCodeLength(i));
+    }
+    return new CanonicalCodingTable(codingSymbolString, codeLengths);
   }
 
   /**
@@ -93,137 +304,384 @@ public class HuffmanEncoder implements Encoder {
   public String encode(Map<Character, String> codingTable, String message)
           throws IllegalStateException, IllegalArgumentException {
 
+    MetricsListener metricsListener = this.metricsListener;
+    long startNanos = startTiming(metricsListener);
     Utils.checkNullOrEmptyString(message);
     Utils.checkNullOrEmptyMap(codingTable);
 
-    StringBuilder builder = new StringBuilder();
-    for (char symbol : message.toCharArray()) {
-      String code = codingTable.get(symbol);
+    // the codes are looked up by indexing an array rather than by boxing every symbol
+    char maxSymbol = 0;
+    for (Character symbol : codingTable.keySet()) {
+      maxSymbol = (char) Math.max(maxSymbol, symbol);
+    }
+    String[] codes = new String[maxSymbol + 1];
+    for (Map.Entry<Character, String> entry : codingTable.entrySet()) {
+      codes[entry.getKey()] = entry.getValue();
+    }
+
+    StringBuilder builder = new StringBuilder(message.length());
+    for (int i = 0; i < message.length(); i++) {
+      char symbol = message.charAt(i);
+      String code = symbol < codes.length ? codes[symbol] : null;
       if (Objects.isNull(code) || code.isEmpty()) {
         throw new IllegalStateException(
                 String.format("invalid coding symbol for symbol:'%s'", symbol));
       }
       builder.append(code);
     }
+
+    if (Objects.nonNull(metricsListener)) {
+      // the coding symbols are not given, and the codes need not use all of them
+      long elapsedNanos = System.nanoTime() - startNanos;
+      reportMetrics(metricsListener, CodecMetrics.Operation.ENCODE, CodecMetrics.UNKNOWN_RADIX,
+              codingTable, message, message.length(), builder.length(), elapsedNanos);
+    }
     return builder.toString();
   }
 
   /**
-   * Performs various sanity checks on the given params. Throws {@link IllegalArgumentException} if
-   * any of the sanity checks fails.
+   * Encodes the given message using the given coding table and writes the packed coding symbols to
+   * the given outputStream. Every coding symbol is written as its index in the given codingSymbols
+   * using {@link Utils#getBitsPerCodingSymbol(int)} bits. The last byte is padded with zero bits
+   * and the outputStream is flushed but not closed. It throws an {@link IllegalStateException} if
+   * the given message contains a symbol whose code is not present or if the code is empty in the
+   * given codingTable, or if a code contains a symbol which is not a coding symbol. It throws an
+   * {@link IllegalArgumentException} if any of the given params is null or empty.
    *
-   * @param codingSymbols the list of coding symbols to check
-   * @param message       the message to check
-   * @throws IllegalArgumentException if any of the sanity check fails
+   * @param codingSymbols the coding symbols used in the coding table, in the order of their index
+   * @param codingTable   the coding table for the message
+   * @param message       the message to encode
+   * @param outputStream  the stream to write the packed coding symbols to
+   * @return the number of coding symbols written
+   * @throws IOException              if writing to the outputStream fails
+   * @throws IllegalStateException    if the encoding fails for any reason
+   * @throws IllegalArgumentException if the given params are invalid
    */
-  private void sanityCheckBeforeGeneratingCodingTable(List<Character> codingSymbols, String message)
-          throws IllegalArgumentException {
+  @Override
+  public long encode(List<Character> codingSymbols, Map<Character, String> codingTable,
+                     String message, OutputStream outputStream)
+          throws IOException, IllegalStateException, IllegalArgumentException {
 
+    MetricsListener metricsListener = this.metricsListener;
+    long startNanos = startTiming(metricsListener);
     Utils.checkNullOrEmptyString(message);
-    Utils.checkNullOrEmptyCollection(codingSymbols);
+    PackedCodingTable packedCodingTable = getPackedCodingTable(codingSymbols, codingTable);
+    BitWriter writer = new BitWriter(outputStream);
+    int bitsPerCodingSymbol = packedCodingTable.getBitsPerCodingSymbol();
 
-    if (codingSymbols.size() < 2) {
-      throw new IllegalArgumentException("coding symbols cannot be less than 2");
+    packedCodingTable.writeCodes(writer, message, 0, message.length());
+    writer.flush();
+
+    long encodedLength = writer.getBitsWritten() / bitsPerCodingSymbol;
+    if (Objects.nonNull(metricsListener)) {
+      reportMetrics(metricsListener, CodecMetrics.Operation.ENCODE, codingSymbols.size(),
+              codingTable, message, message.length(), encodedLength,
+              System.nanoTime() - startNanos);
     }
+    return encodedLength;
+  }
 
-    Set<Character> codingSymbolSet = new HashSet<>(codingSymbols);
-    if (codingSymbols.size() != codingSymbolSet.size()) {
-      throw new IllegalArgumentException("duplicate coding symbols are not allowed");
+  /**
+   * Encodes the message read from the given reader using the given coding table and writes the
+   * packed coding symbols to the given outputStream. The message is read in chunks of fixed size
+   * hence the memory used is constant irrespective of the size of the message. The packing and the
+   * failure conditions are the same as that of {@link HuffmanEncoder#encode(List, Map, String,
+   * OutputStream)}, except that an empty message is allowed and results in no output. The reader
+   * is not closed.
+   *
+   * @param codingSymbols the coding symbols used in the coding table, in the order of their index
+   * @param codingTable   the coding table for the message
+   * @param message       the reader to read the message from
+   * @param outputStream  the stream to write the packed coding symbols to
+   * @return the number of coding symbols written
+   * @throws IOException              if reading the message or writing to the outputStream fails
+   * @throws IllegalStateException    if the encoding fails for any reason
+   * @throws IllegalArgumentException if the given params are invalid
+   */
+  @Override
+  public long encode(List<Character> codingSymbols, Map<Character, String> codingTable,
+                     Reader message, OutputStream outputStream)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(message)) {
+      throw new IllegalArgumentException("message reader cannot be null");
+    }
+    PackedCodingTable packedCodingTable = getPackedCodingTable(codingSymbols, codingTable);
+    BitWriter writer = new BitWriter(outputStream);
+    int bitsPerCodingSymbol = packedCodingTable.getBitsPerCodingSymbol();
+
+    MetricsListener metricsListener = this.metricsListener;
+    long startNanos = startTiming(metricsListener);
+    char[] buffer = new char[READ_BUFFER_SIZE];
+    long symbols = 0;
+    int charsRead;
+    while ((charsRead = message.read(buffer, 0, buffer.length)) != -1) {
+      packedCodingTable.writeCodes(writer, buffer, 0, charsRead);
+      symbols += charsRead;
     }
+    writer.flush();
+
+    long encodedLength = writer.getBitsWritten() / bitsPerCodingSymbol;
+    if (Objects.nonNull(metricsListener)) {
+      reportMetrics(metricsListener, CodecMetrics.Operation.ENCODE, codingSymbols.size(),
+              codingTable, null, symbols, encodedLength, System.nanoTime() - startNanos);
+    }
+    return encodedLength;
   }
 
   /**
-   * Updates the code for the given symbols in the coding table.
+   * Encodes the message read from the given reader using the given coding table and writes the
+   * packed coding symbols to the given file through a {@link FileChannelOutputStream}, replacing
+   * the file if it exists. The packing and the failure conditions are the same as that of {@link
+   * HuffmanEncoder#encode(List, Map, Reader, OutputStream)}. The reader is not closed.
    *
-   * @param codingTable  the coding table
-   * @param codingSymbol the coding symbol to be append
-   * @param symbols      the symbols whose code in the coding table needs to be updated
-   * @return the updated coding table
-   * @throws IllegalArgumentException if the codingSymbol to append is null
+   * @param codingSymbols the coding symbols used in the coding table, in the order of their index
+   * @param codingTable   the coding table for the message
+   * @param message       the reader to read the message from
+   * @param packedFile    the file to write the packed coding symbols to
+   * @return the number of coding symbols written
+   * @throws IOException              if reading the message or writing to the file fails
+   * @throws IllegalStateException    if the encoding fails for any reason
+   * @throws IllegalArgumentException if the given params are invalid
    */
-  private Map<Character, StringBuilder> updateCodingTable(
-          Map<Character, StringBuilder> codingTable,
-          Character codingSymbol,
-          String symbols) throws IllegalArgumentException {
+  @Override
+  public long encode(List<Character> codingSymbols, Map<Character, String> codingTable,
+                     Reader message, Path packedFile)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    try (FileChannelOutputStream outputStream = new FileChannelOutputStream(packedFile)) {
+      return this.encode(codingSymbols, codingTable, message, outputStream);
+    }
+  }
 
-    if (Objects.isNull(codingSymbol)) {
-      throw new IllegalArgumentException("coding symbol cannot be null");
+  /**
+   * Encodes the given message using the given pre-trained model and returns the encoded message.
+   * Every symbol is coded as returned by {@link HuffmanModel#getCode(char)}, hence a symbol which
+   * was not seen in training is escaped and the message can always be encoded.
+   *
+   * @param model   the model to encode the message with
+   * @param message the message to encode
+   * @return the encoded message
+   * @throws IllegalArgumentException if the given model is null or the message is null or empty
+   */
+  public String encode(HuffmanModel model, String message) throws IllegalArgumentException {
+    if (Objects.isNull(model)) {
+      throw new IllegalArgumentException("model cannot be null");
     }
+    Utils.checkNullOrEmptyString(message);
 
-    for (char symbol : symbols.toCharArray()) {
-      StringBuilder gx = codingTable.getOrDefault(symbol, new StringBuilder());
-      gx.append(codingSymbol);
-      codingTable.put(symbol, gx);
+    StringBuilder builder = new StringBuilder(message.length() * 2);
+    for (int i = 0; i < message.length(); i++) {
+      builder.append(model.getCode(message.charAt(i)));
     }
-    return codingTable;
+    return builder.toString();
   }
 
   /**
-   * Converts given coding table of (Character,StringBuilder) to coding table of
-   * (Character,String).
+   * Encodes the message read from the given reader using the given pre-trained model and writes
+   * the packed coding symbols to the given outputStream. The coding symbols are packed in the same
+   * way as by {@link HuffmanEncoder#encode(List, Map, Reader, OutputStream)} using the coding
+   * symbols of the model, and an empty message results in no output. Neither the reader nor the
+   * outputStream is closed.
    *
-   * @param codingTable the coding table to convert
-   * @return the coding table of (Character,String)
+   * @param model        the model to encode the message with
+   * @param message      the reader to read the message from
+   * @param outputStream the stream to write the packed coding symbols to
+   * @return the number of coding symbols written
+   * @throws IOException              if reading the message or writing to the outputStream fails
+   * @throws IllegalArgumentException if any of the given params is null
    */
-  private Map<Character, String> getCharacterStringMap(Map<Character, StringBuilder> codingTable) {
-    Map<Character, String> finalCodingTable = new HashMap<>(codingTable.size());
-    for (Map.Entry<Character, StringBuilder> entry : codingTable.entrySet()) {
-      finalCodingTable.put(entry.getKey(), entry.getValue().reverse().toString());
+  public long encode(HuffmanModel model, Reader message, OutputStream outputStream)
+          throws IOException, IllegalArgumentException {
+
+    if (Objects.isNull(model)) {
+      throw new IllegalArgumentException("model cannot be null");
+    }
+    if (Objects.isNull(message)) {
+      throw new IllegalArgumentException("message reader cannot be null");
+    }
+    int[] codingSymbolIndex = Utils.getCodingSymbolIndexArray(model.getCodingSymbols());
+    BitWriter writer = new BitWriter(outputStream);
+    int bitsPerCodingSymbol = Utils.getBitsPerCodingSymbol(model.getCodingSymbols().length());
+
+    char[] buffer = new char[READ_BUFFER_SIZE];
+    int charsRead;
+    while ((charsRead = message.read(buffer, 0, buffer.length)) != -1) {
+      for (int i = 0; i < charsRead; i++) {
+        String code = model.getCode(buffer[i]);
+        for (int j = 0; j < code.length(); j++) {
+          writer.writeBits(codingSymbolIndex[code.charAt(j)], bitsPerCodingSymbol);
+        }
+      }
     }
-    return Collections.unmodifiableMap(finalCodingTable);
+    writer.flush();
+    return writer.getBitsWritten() / bitsPerCodingSymbol;
   }
 
   /**
-   * Returns a priority Queue of the individual character of given message. The order of data in the
-   * queue depends upon the frequency of the character in the given message. The character will
-   * lower frequency will be placed before the character with higher frequency. If the frequency of
-   * two characters is same then the character which is lexicographically earlier will be placed
-   * first.
+   * Returns the given coding symbols as a string, in the order of their index.
    *
-   * @param message the message
-   * @return a priority Queue of the individual character of given message
+   * @param codingSymbols the coding symbols
+   * @return the coding symbols as a string
+   * @throws IllegalArgumentException if any coding symbol is null
    */
-  private PriorityQueue<Pair<String, Integer>> getPriorityQueueForMessage(String message) {
-    List<Pair<String, Integer>> frequencyPairs = getFrequencyPairs(message);
+  static String getCodingSymbolString(List<Character> codingSymbols)
+          throws IllegalArgumentException {
 
-    PriorityQueue<Pair<String, Integer>> priorityQueue =
-            new PriorityQueue<>(getFrequencyPairComparator());
+    StringBuilder codingSymbolString = new StringBuilder(codingSymbols.size());
+    for (Character codingSymbol : codingSymbols) {
+      if (Objects.isNull(codingSymbol)) {
+        throw new IllegalArgumentException("coding symbol cannot be null");
+      }
+      codingSymbolString.append(codingSymbol);
+    }
+    return codingSymbolString.toString();
+  }
 
-    priorityQueue.addAll(frequencyPairs);
+  /**
+   * Compiles the given coding table into a {@link PackedCodingTable} after checking the given
+   * coding symbols.
+   *
+   * @param codingSymbols the coding symbols used in the coding table
+   * @param codingTable   the coding table to compile
+   * @return the compiled coding table
+   * @throws IllegalArgumentException if the given params are null, empty or contain duplicate
+   *                                  coding symbols
+   * @throws IllegalStateException    if a code contains a symbol which is not a coding symbol
+   */
+  private PackedCodingTable getPackedCodingTable(List<Character> codingSymbols,
+                                                 Map<Character, String> codingTable)
+          throws IllegalArgumentException, IllegalStateException {
 
-    return priorityQueue;
+    sanityCheckCodingSymbols(codingSymbols);
+    return PackedCodingTable.compile(getCodingSymbolString(codingSymbols), codingTable);
   }
 
   /**
-   * Returns a list of Pair of character and its corresponding frequency in the given message.
+   * Returns the current time in nanoseconds if the given metrics listener is not null, 0
+   * otherwise. Every call reads the listener of this encoder once, before this method, and passes
+   * that local on, hence setting the listener while a call runs cannot make it report a call that
+   * was not timed or fail on a listener which has just been removed.
    *
-   * @param message the message to generate frequency map
-   * @return a list of Pair of character and its corresponding frequency in the given message
+   * @param metricsListener the metrics listener read at the start of the call
+   * @return the time to measure a call from
    */
-  private List<Pair<String, Integer>> getFrequencyPairs(String message) {
-    return Utils.convertStringToCharacterArray(message).stream()
-            .map(String::valueOf)
-            .collect(Collectors.toMap(character -> character, character -> 1, Integer::sum))
-            .entrySet().stream()
-            .map(e -> new Pair<>(e.getKey(), e.getValue()))
-            .collect(Collectors.toList());
+  private static long startTiming(MetricsListener metricsListener) {
+    return Objects.isNull(metricsListener) ? 0 : System.nanoTime();
   }
 
   /**
-   * Returns a comparator for comparing Pair of String and Integer. Comparison is made on basis of
-   * the Integer value in the given pairs. If both the pairs have same integer value then the string
-   * in the given pairs are compared lexicographically.
+   * Passes the metrics of a call to the given metrics listener. The entropy is measured on the
+   * given message if it is not null. The time of the call is taken by the caller before any of the
+   * metrics are computed, hence it does not include them.
    *
-   * @return a comparator for comparing Pair of String and Integer
+   * @param metricsListener the metrics listener read at the start of the call
+   * @param operation       the kind of call
+   * @param radix           the number of coding symbols, {@link CodecMetrics#UNKNOWN_RADIX} if
+   *                        unknown
+   * @param codingTable     the coding table of the call
+   * @param message         the message of the call, null if it is not held at once
+   * @param symbols         the number of symbols of the message
+   * @param codingSymbols   the number of coding symbols of the encoded message
+   * @param elapsedNanos    the time taken by the call
    */
-  private Comparator<Pair<String, Integer>> getFrequencyPairComparator() {
-    return (pair1, pair2) -> {
-      int frequencyDiff = pair1.getSecond() - pair2.getSecond();
-      if (frequencyDiff == 0) {
-        return pair1.getFirst().compareTo(pair2.getFirst());
-      } else {
-        return frequencyDiff;
+  private static void reportMetrics(MetricsListener metricsListener,
+                                    CodecMetrics.Operation operation, int radix,
+                                    Map<Character, String> codingTable, String message,
+                                    long symbols, long codingSymbols, long elapsedNanos) {
+
+    int maxCodeLength = 0;
+    for (String code : codingTable.values()) {
+      maxCodeLength = Math.max(maxCodeLength, code.length());
+    }
+    double entropy = Objects.isNull(message) ? Double.NaN : CodecMetrics.getEntropy(message);
+    metricsListener.onMetrics(new CodecMetrics(operation, radix, symbols, codingSymbols,
+            entropy, maxCodeLength, elapsedNanos));
+  }
+
+  /**
+   * Performs various sanity checks on the given params. Throws {@link IllegalArgumentException} if
+   * any of the sanity checks fails.
+   *
+   * @param codingSymbols the list of coding symbols to check
+   * @param message       the message to check
+   * @throws IllegalArgumentException if any of the sanity check fails
+   */
+  private void sanityCheckBeforeGeneratingCodingTable(List<Character> codingSymbols, String message)
+          throws IllegalArgumentException {
+
+    Utils.checkNullOrEmptyString(message);
+    sanityCheckCodingSymbols(codingSymbols);
+  }
+
+  /**
+   * Checks that the given list of coding symbols is not null or empty, contains at least 2 coding
+   * symbols and does not contain duplicate coding symbols.
+   *
+   * @param codingSymbols the list of coding symbols to check
+   * @throws IllegalArgumentException if any of the sanity check fails
+   */
+  void sanityCheckCodingSymbols(List<Character> codingSymbols)
+          throws IllegalArgumentException {
+
+    Utils.checkNullOrEmptyCollection(codingSymbols);
+
+    if (codingSymbols.size() < 2) {
+      throw new IllegalArgumentException("coding symbols cannot be less than 2");
+    }
+
+    Set<Character> codingSymbolSet = new HashSet<>(codingSymbols);
+    if (codingSymbols.size() != codingSymbolSet.size()) {
+      throw new IllegalArgumentException("duplicate coding symbols are not allowed");
+    }
+  }
+
+  /**
+   * Returns the frequency of every character of the given message, indexed by the character. The
+   * characters are counted in a small array as long as they are below 256 and the array covering
+   * all the characters is only allocated when a larger character is found.
+   *
+   * @param message the message to count the characters of
+   * @return the frequency of every character of the given message
+   */
+  int[] getFrequencies(String message) {
+    int[] frequencies = new int[SMALL_ALPHABET_SIZE];
+    for (int i = 0; i < message.length(); i++) {
+      char symbol = message.charAt(i);
+      if (symbol >= frequencies.length) {
+        frequencies = Arrays.copyOf(frequencies, Character.MAX_VALUE + 1);
       }
-    };
+      frequencies[symbol]++;
+    }
+    return frequencies;
+  }
+
+  /**
+   * Returns the coding table of the symbols in the given Huffman tree, where the code of a symbol
+   * is made of the coding symbols on the path from the root to its leaf.
+   *
+   * @param huffmanTree   the Huffman tree
+   * @param codingSymbols the list of coding symbols
+   * @return an unmodifiable coding table containing code for each symbol in the tree
+   * @throws IllegalArgumentException if a coding symbol used by a code is null
+   */
+  private Map<Character, String> getCodingTable(HuffmanTree huffmanTree,
+                                                List<Character> codingSymbols)
+          throws IllegalArgumentException {
+
+    Map<Character, String> codingTable = new HashMap<>(huffmanTree.getNumberOfSymbols() * 2);
+    for (int leaf = 0; leaf < huffmanTree.getNumberOfSymbols(); leaf++) {
+      int[] code = huffmanTree.getCode(leaf);
+      char[] codeSymbols = new char[code.length];
+      for (int i = 0; i < code.length; i++) {
+        Character codingSymbol = codingSymbols.get(code[i]);
+        if (Objects.isNull(codingSymbol)) {
+          throw new IllegalArgumentException("coding symbol cannot be null");
+        }
+        codeSymbols[i] = codingSymbol;
+      }
+      codingTable.put((char) huffmanTree.getSymbol(leaf), new String(codeSymbols));
+    }
+    return Collections.unmodifiableMap(codingTable);
   }
 }
@@ -0,0 +1,291 @@
+package encoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+import codingtable.IntCodingTable;
+import encoder.treeutil.HuffmanTree;
+import util.BitWriter;
+import util.Utils;
+
+/**
+ * This class represents an IntSymbolHuffmanEncoder. It generates Huffman codes for symbols which
+ * are non negative ints instead of characters, and encodes them as packed bits. Two alphabets are
+ * supported out of the box: the Unicode code points of a string, where a supplementary character
+ * is a single symbol rather than a pair of surrogates, and the raw bytes of a stream, which allows
+ * compressing arbitrary binary files. The frequencies and codes are held in primitive arrays
+ * indexed by the symbol, hence the symbols are bounded by {@link Character#MAX_CODE_POINT}, which
+ * keeps those arrays at a few megabytes at most.
+ *
+ * <p>Every coding symbol is written as its index using the minimum number of bits required to
+ * store such an index, exactly as by {@link StreamingEncoder}, hence the packed message can be
+ * decoded by {@link decoder.IntSymbolHuffmanDecoder}.
+ */
+public class IntSymbolHuffmanEncoder {
+
+  private static final int READ_BUFFER_SIZE = 8192;
+  private static final int BYTE_ALPHABET_SIZE = 256;
+  private static final int MAX_SYMBOL = Character.MAX_CODE_POINT;
+
+  /**
+   * Returns the canonical Huffman coding table of the given symbols. It throws {@link
+   * IllegalArgumentException} if the given array is null or empty, contains a negative symbol or a
+   * symbol larger than {@link Character#MAX_CODE_POINT} or if the radix is less than 2.
+   *
+   * @param radix   the number of coding symbols
+   * @param symbols the symbols of the message
+   * @return the canonical Huffman coding table of the given symbols
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  public IntCodingTable generateCodingTable(int radix, int[] symbols)
+          throws IllegalArgumentException {
+
+    if (Objects.isNull(symbols) || symbols.length == 0) {
+      throw new IllegalArgumentException("symbols cannot be null or empty");
+    }
+
+    long[] frequencies = new long[BYTE_ALPHABET_SIZE];
+    for (int symbol : symbols) {
+      frequencies = countSymbol(frequencies, symbol);
+    }
+    return getCodingTable(frequencies, radix);
+  }
+
+  /**
+   * Returns the canonical Huffman coding table of the Unicode code points of the given message. A
+   * supplementary character is counted as a single code point, whereas an unpaired surrogate is
+   * counted as a code point of its own.
+   *
+   * @param radix   the number of coding symbols
+   * @param message the message
+   * @return the canonical Huffman coding table of the code points of the given message
+   * @throws IllegalArgumentException if the given message is null or empty or the radix is less
+   *                                  than 2
+   */
+  public IntCodingTable generateCodePointCodingTable(int radix, String message)
+          throws IllegalArgumentException {
+
+    Utils.checkNullOrEmptyString(message);
+    long[] frequencies = new long[BYTE_ALPHABET_SIZE];
+    for (int i = 0; i < message.length(); ) {
+      int codePoint = message.codePointAt(i);
+      frequencies = countSymbol(frequencies, codePoint);
+      i += Character.charCount(codePoint);
+    }
+    return getCodingTable(frequencies, radix);
+  }
+
+  /**
+   * Returns the canonical Huffman coding table of the bytes read from the given stream. The stream
+   * is read till its end and is not closed.
+   *
+   * @param radix       the number of coding symbols
+   * @param inputStream the stream to read the bytes from
+   * @return the canonical Huffman coding table of the bytes read
+   * @throws IOException              if reading from the stream fails
+   * @throws IllegalArgumentException if the given stream is null or empty or the radix is less
+   *                                  than 2
+   */
+  public IntCodingTable generateByteCodingTable(int radix, InputStream inputStream)
+          throws IOException, IllegalArgumentException {
+
+    if (Objects.isNull(inputStream)) {
+      throw new IllegalArgumentException("inputStream cannot be null");
+    }
+
+    long[] frequencies = new long[BYTE_ALPHABET_SIZE];
+    byte[] buffer = new byte[READ_BUFFER_SIZE];
+    int bytesRead;
+    while ((bytesRead = inputStream.read(buffer, 0, buffer.length)) != -1) {
+      for (int i = 0; i < bytesRead; i++) {
+        frequencies[buffer[i] & 0xFF]++;
+      }
+    }
+    if (Arrays.stream(frequencies).allMatch(frequency -> frequency == 0)) {
+      throw new IllegalArgumentException("symbols cannot be null or empty");
+    }
+    return getCodingTable(frequencies, radix);
+  }
+
+  /**
+   * Encodes the given symbols using the given coding table and writes the packed coding symbols
+   * to the given outputStream. The outputStream is flushed but not closed.
+   *
+   * @param codingTable  the coding table to encode with
+   * @param symbols      the symbols to encode
+   * @param outputStream the stream to write the packed coding symbols to
+   * @return the number of coding symbols written
+   * @throws IOException              if writing to the outputStream fails
+   * @throws IllegalStateException    if a symbol does not have a code
+   * @throws IllegalArgumentException if any of the given params is null
+   */
+  public long encode(IntCodingTable codingTable, int[] symbols, OutputStream outputStream)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(symbols)) {
+      throw new IllegalArgumentException("symbols cannot be null");
+    }
+    BitWriter writer = getBitWriter(codingTable, outputStream);
+    int bitsPerCodingSymbol = Utils.getBitsPerCodingSymbol(codingTable.getRadix());
+
+    for (int symbol : symbols) {
+      writePackedCode(writer, codingTable, bitsPerCodingSymbol, symbol);
+    }
+    writer.flush();
+    return writer.getBitsWritten() / bitsPerCodingSymbol;
+  }
+
+  /**
+   * Encodes the Unicode code points of the given message using the given coding table and writes
+   * the packed coding symbols to the given outputStream. The outputStream is flushed but not
+   * closed.
+   *
+   * @param codingTable  the coding table to encode with
+   * @param message      the message to encode
+   * @param outputStream the stream to write the packed coding symbols to
+   * @return the number of coding symbols written
+   * @throws IOException              if writing to the outputStream fails
+   * @throws IllegalStateException    if a code point does not have a code
+   * @throws IllegalArgumentException if any of the given params is null or the message is empty
+   */
+  public long encodeCodePoints(IntCodingTable codingTable, String message,
+                               OutputStream outputStream)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    Utils.checkNullOrEmptyString(message);
+    BitWriter writer = getBitWriter(codingTable, outputStream);
+    int bitsPerCodingSymbol = Utils.getBitsPerCodingSymbol(codingTable.getRadix());
+
+    for (int i = 0; i < message.length(); ) {
+      int codePoint = message.codePointAt(i);
+      writePackedCode(writer, codingTable, bitsPerCodingSymbol, codePoint);
+      i += Character.charCount(codePoint);
+    }
+    writer.flush();
+    return writer.getBitsWritten() / bitsPerCodingSymbol;
+  }
+
+  /**
+   * Encodes the bytes read from the given inputStream using the given coding table and writes the
+   * packed coding symbols to the given outputStream. The inputStream is read till its end and
+   * neither stream is closed.
+   *
+   * @param codingTable  the coding table to encode with
+   * @param inputStream  the stream to read the bytes from
+   * @param outputStream the stream to write the packed coding symbols to
+   * @return the number of coding symbols written
+   * @throws IOException              if reading or writing fails
+   * @throws IllegalStateException    if a byte does not have a code
+   * @throws IllegalArgumentException if any of the given params is null
+   */
+  public long encodeBytes(IntCodingTable codingTable, InputStream inputStream,
+                          OutputStream outputStream)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(inputStream)) {
+      throw new IllegalArgumentException("inputStream cannot be null");
+    }
+    BitWriter writer = getBitWriter(codingTable, outputStream);
+    int bitsPerCodingSymbol = Utils.getBitsPerCodingSymbol(codingTable.getRadix());
+
+    byte[] buffer = new byte[READ_BUFFER_SIZE];
+    int bytesRead;
+    while ((bytesRead = inputStream.read(buffer, 0, buffer.length)) != -1) {
+      for (int i = 0; i < bytesRead; i++) {
+        writePackedCode(writer, codingTable, bitsPerCodingSymbol, buffer[i] & 0xFF);
+      }
+    }
+    writer.flush();
+    return writer.getBitsWritten() / bitsPerCodingSymbol;
+  }
+
+  /**
+   * Increments the frequency of the given symbol and returns the array of frequencies, which is
+   * grown to double its size, or to the largest symbol allowed, if it cannot hold the symbol.
+   *
+   * @param frequencies the frequency of every symbol, indexed by the symbol
+   * @param symbol      the symbol to count
+   * @return the array of frequencies holding the given symbol
+   * @throws IllegalArgumentException if the given symbol is negative or larger than {@link
+   *                                  Character#MAX_CODE_POINT}
+   */
+  private static long[] countSymbol(long[] frequencies, int symbol)
+          throws IllegalArgumentException {
+
+    if (symbol < 0 || symbol > MAX_SYMBOL) {
+      throw new IllegalArgumentException(String.format("Invalid symbol:'%d'", symbol));
+    }
+    if (symbol >= frequencies.length) {
+      int size = Math.max(2 * frequencies.length, symbol + 1);
+      frequencies = Arrays.copyOf(frequencies, Math.min(size, MAX_SYMBOL + 1));
+    }
+    frequencies[symbol]++;
+    return frequencies;
+  }
+
+  /**
+   * Returns the canonical coding table with the code lengths of the Huffman tree of the given
+   * frequencies. The alphabet of the table ends at the largest symbol with a non zero frequency.
+   *
+   * @param frequencies the frequency of every symbol, indexed by the symbol
+   * @param radix       the number of coding symbols
+   * @return the canonical coding table
+   * @throws IllegalArgumentException if the radix is less than 2
+   */
+  private static IntCodingTable getCodingTable(long[] frequencies, int radix)
+          throws IllegalArgumentException {
+
+    HuffmanTree huffmanTree = HuffmanTree.fromFrequencies(frequencies, radix);
+    int alphabetSize = huffmanTree.getSymbol(huffmanTree.getNumberOfSymbols() - 1) + 1;
+    int[] codeLengths = new int[alphabetSize];
+    for (int leaf = 0; leaf < huffmanTree.getNumberOfSymbols(); leaf++) {
+      codeLengths[huffmanTree.getSymbol(leaf)] = huffmanTree.getCodeLength(leaf);
+    }
+    return new IntCodingTable(radix, codeLengths);
+  }
+
+  /**
+   * Returns a {@link BitWriter} writing to the given outputStream, after checking the given coding
+   * table.
+   *
+   * @param codingTable  the coding table to encode with
+   * @param outputStream the stream to write to
+   * @return the writer writing to the given stream
+   * @throws IllegalArgumentException if any of the given params is null
+   */
+  private static BitWriter getBitWriter(IntCodingTable codingTable, OutputStream outputStream)
+          throws IllegalArgumentException {
+
+    if (Objects.isNull(codingTable)) {
+      throw new IllegalArgumentException("codingTable cannot be null");
+    }
+    return new BitWriter(outputStream);
+  }
+
+  /**
+   * Writes the packed code of the given symbol using the given writer.
+   *
+   * @param writer              the writer to write the code to
+   * @param codingTable         the coding table to encode with
+   * @param bitsPerCodingSymbol the number of bits used for each coding symbol
+   * @param symbol              the symbol to write the code of
+   * @throws IOException           if the writer fails
+   * @throws IllegalStateException if the code for the given symbol is not present
+   */
+  private static void writePackedCode(BitWriter writer, IntCodingTable codingTable,
+                                      int bitsPerCodingSymbol, int symbol)
+          throws IOException, IllegalStateException {
+
+    int codeLength = codingTable.getCodeLength(symbol);
+    if (codeLength == 0) {
+      throw new IllegalStateException(
+              String.format("invalid coding symbol for symbol:'%d'", symbol));
+    }
+    for (int i = 0; i < codeLength; i++) {
+      writer.writeBits(codingTable.getCodingSymbolIndex(symbol, i), bitsPerCodingSymbol);
+    }
+  }
+}
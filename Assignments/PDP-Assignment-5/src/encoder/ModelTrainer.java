@@ -0,0 +1,154 @@
+package encoder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import codingtable.CanonicalCodingTable;
+import codingtable.HuffmanModel;
+import util.Utils;
+
+/**
+ * This class represents a ModelTrainer. It counts the frequencies of the symbols of a training
+ * corpus and builds a {@link HuffmanModel} from them, which can be stored once and then used to
+ * encode and decode any number of messages without counting the frequencies of each message.
+ *
+ * <p>The escape symbol of the model is the largest char which does not occur in the corpus and it
+ * is given a frequency of one, hence it gets one of the longest codes. Symbols which occur in the
+ * messages but not in the corpus are expected to be rare, otherwise the corpus does not represent
+ * the messages well.
+ */
+public class ModelTrainer {
+
+  private static final int READ_BUFFER_SIZE = 8192;
+
+  private final HuffmanEncoder encoder;
+  private final long[] frequencies;
+  private long corpusLength;
+
+  /**
+   * Constructs a {@link ModelTrainer} with an empty corpus.
+   */
+  public ModelTrainer() {
+    this.encoder = new HuffmanEncoder();
+    this.frequencies = new long[Character.MAX_VALUE + 1];
+    this.corpusLength = 0;
+  }
+
+  /**
+   * Adds the symbols of the given text to the corpus.
+   *
+   * @param text the text to add
+   * @throws IllegalArgumentException if the given text is null
+   */
+  public void addText(CharSequence text) throws IllegalArgumentException {
+    if (Objects.isNull(text)) {
+      throw new IllegalArgumentException("text cannot be null");
+    }
+    for (int i = 0; i < text.length(); i++) {
+      this.frequencies[text.charAt(i)]++;
+    }
+    this.corpusLength += text.length();
+  }
+
+  /**
+   * Adds the symbols of the given UTF-8 encoded file to the corpus. The file is read in chunks of
+   * fixed size and a malformed byte sequence is read as the replacement character, the same as
+   * when the frequencies of a file are counted for encoding.
+   *
+   * @param file the UTF-8 encoded file to add
+   * @throws IOException              if reading the file fails
+   * @throws IllegalArgumentException if the given file is null
+   */
+  public void addFile(Path file) throws IOException, IllegalArgumentException {
+    if (Objects.isNull(file)) {
+      throw new IllegalArgumentException("file cannot be null");
+    }
+
+    try (Reader reader = Utils.newUtf8Reader(file)) {
+      char[] buffer = new char[READ_BUFFER_SIZE];
+      int charsRead;
+      while ((charsRead = reader.read(buffer, 0, buffer.length)) != -1) {
+        for (int i = 0; i < charsRead; i++) {
+          this.frequencies[buffer[i]]++;
+        }
+        this.corpusLength += charsRead;
+      }
+    }
+  }
+
+  /**
+   * Adds every regular file in the given directory and its sub directories to the corpus, in the
+   * order of their path. Every file is read as UTF-8, hence a file in another encoding adds
+   * replacement characters for its malformed byte sequences instead of failing the walk.
+   *
+   * @param directory the directory holding the corpus
+   * @throws IOException              if listing the directory or reading a file fails
+   * @throws IllegalArgumentException if the given directory is null or not a directory
+   */
+  public void addDirectory(Path directory) throws IOException, IllegalArgumentException {
+    if (Objects.isNull(directory) || !Files.isDirectory(directory)) {
+      throw new IllegalArgumentException(String.format("Invalid directory:'%s'", directory));
+    }
+
+    List<Path> files;
+    try (Stream<Path> paths = Files.walk(directory)) {
+      files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+    }
+    for (Path file : files) {
+      this.addFile(file);
+    }
+  }
+
+  /**
+   * Returns the number of symbols added to the corpus thus far.
+   *
+   * @return the length of the corpus
+   */
+  public long getCorpusLength() {
+    return this.corpusLength;
+  }
+
+  /**
+   * Builds the model of the corpus added thus far for the given coding symbols. It throws an
+   * {@link IllegalArgumentException} if the corpus is empty or the coding symbols do not pass the
+   * sanity checks of {@link HuffmanEncoder#generateCodingTable(List, String)}, and an {@link
+   * IllegalStateException} if every char occurs in the corpus, since no char is left for the
+   * escape symbol.
+   *
+   * @param codingSymbols the valid list of coding symbols
+   * @return the model of the corpus
+   * @throws IllegalArgumentException if the corpus is empty or the coding symbols are invalid
+   * @throws IllegalStateException    if no char is left for the escape symbol
+   */
+  public HuffmanModel train(List<Character> codingSymbols)
+          throws IllegalArgumentException, IllegalStateException {
+
+    this.encoder.sanityCheckCodingSymbols(codingSymbols);
+    if (this.corpusLength == 0) {
+      throw new IllegalArgumentException("corpus cannot be empty");
+    }
+
+    int escapeSymbol = Character.MAX_VALUE;
+    while (escapeSymbol >= 0 && this.frequencies[escapeSymbol] > 0) {
+      escapeSymbol--;
+    }
+    if (escapeSymbol < 0) {
+      throw new IllegalStateException("no symbol is left for the escape symbol");
+    }
+
+    long[] frequencies = this.frequencies.clone();
+    frequencies[escapeSymbol] = 1;
+    Map<Character, String> codingTable = this.encoder.generateCodingTable(codingSymbols,
+            frequencies);
+    return new HuffmanModel(CanonicalCodingTable.fromCodingTable(
+            HuffmanEncoder.getCodingSymbolString(codingSymbols), codingTable),
+            (char) escapeSymbol);
+  }
+}
@@ -0,0 +1,315 @@
+package encoder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class represents a ParallelFrequencyCounter. It counts the frequency of every character of
+ * a message on a {@link ForkJoinPool}. The message is split in chunks, every chunk is counted in a
+ * primitive histogram of its own and the histograms are added up while joining the tasks. Hence the
+ * workers never share a counter and the counting scales with the number of workers.
+ *
+ * <p>A histogram starts with one slot per character below 256 and only grows to cover all the
+ * characters when a larger character is found in its chunk, so counting ASCII text does not pay
+ * for the full character range in every chunk.
+ */
+public class ParallelFrequencyCounter {
+
+  private static final int SMALL_ALPHABET_SIZE = 256;
+  private static final int FULL_ALPHABET_SIZE = Character.MAX_VALUE + 1;
+  private static final int MIN_CHUNK_SIZE = 1 << 16;
+  private static final int CHUNKS_PER_WORKER = 4;
+  private static final int DECODE_BUFFER_SIZE = 1 << 15;
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Constructs a {@link ParallelFrequencyCounter} which counts on the given pool.
+   *
+   * @param pool the pool to count on
+   * @throws IllegalArgumentException if the given pool is null
+   */
+  public ParallelFrequencyCounter(ForkJoinPool pool) throws IllegalArgumentException {
+    if (Objects.isNull(pool)) {
+      throw new IllegalArgumentException("pool cannot be null");
+    }
+    this.pool = pool;
+  }
+
+  /**
+   * Returns the frequency of every character of the given message, indexed by the character. The
+   * returned array covers at least the characters below 256 and covers all the characters if the
+   * message contains a larger character.
+   *
+   * @param message the message to count the characters of
+   * @return the frequency of every character of the given message
+   * @throws IllegalArgumentException if the given message is null
+   */
+  public long[] count(CharSequence message) throws IllegalArgumentException {
+    if (Objects.isNull(message)) {
+      throw new IllegalArgumentException("message cannot be null");
+    }
+    int chunkSize = (int) this.getChunkSize(message.length());
+    return this.pool.invoke(new CharSequenceCountTask(message, 0, message.length(), chunkSize));
+  }
+
+  /**
+   * Returns the frequency of every character of the given UTF-8 encoded file, indexed by the
+   * character. The characters are the ones a {@link java.io.Reader} decoding the file would
+   * return, a supplementary character being counted as its two surrogates and a malformed byte
+   * sequence as the replacement character. The file is read through memory mapped regions, one per
+   * chunk, and is split only before a byte which starts a character.
+   *
+   * @param file the UTF-8 encoded file to count the characters of
+   * @return the frequency of every character of the given file
+   * @throws IOException              if reading the file fails
+   * @throws IllegalArgumentException if the given file is null
+   */
+  public long[] count(Path file) throws IOException, IllegalArgumentException {
+    if (Objects.isNull(file)) {
+      throw new IllegalArgumentException("file cannot be null");
+    }
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long chunkSize = this.getChunkSize(channel.size());
+      return this.pool.invoke(new FileCountTask(channel, 0, channel.size(), chunkSize));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Returns the size of the chunks such that every worker of the pool gets a few chunks.
+   *
+   * @param length the length of the message
+   * @return the size of the chunks
+   */
+  private long getChunkSize(long length) {
+    long chunks = (long) this.pool.getParallelism() * CHUNKS_PER_WORKER;
+    return Math.min(Integer.MAX_VALUE, Math.max(MIN_CHUNK_SIZE, length / chunks + 1));
+  }
+
+  /**
+   * Adds the counts of the second histogram to the first one and returns the sum, growing the
+   * first histogram if the second one is larger.
+   *
+   * @param histogram1 the first histogram
+   * @param histogram2 the second histogram
+   * @return the sum of the given histograms
+   */
+  private static long[] add(long[] histogram1, long[] histogram2) {
+    if (histogram1.length < histogram2.length) {
+      long[] temp = histogram1;
+      histogram1 = histogram2;
+      histogram2 = temp;
+    }
+    for (int i = 0; i < histogram2.length; i++) {
+      histogram1[i] += histogram2[i];
+    }
+    return histogram1;
+  }
+
+  /**
+   * Adds the characters of the given buffer to the given histogram and returns the histogram,
+   * growing it to cover all the characters if required.
+   *
+   * @param histogram the histogram to add to
+   * @param buffer    the characters to count
+   * @return the histogram containing the counts of the characters
+   */
+  private static long[] countInto(long[] histogram, CharBuffer buffer) {
+    while (buffer.hasRemaining()) {
+      char symbol = buffer.get();
+      if (symbol >= histogram.length) {
+        histogram = Arrays.copyOf(histogram, FULL_ALPHABET_SIZE);
+      }
+      histogram[symbol]++;
+    }
+    return histogram;
+  }
+
+  /**
+   * This class represents a task which counts the characters of a range of a {@link
+   * CharSequence}.
+   */
+  private static class CharSequenceCountTask extends RecursiveTask<long[]> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final CharSequence message;
+    private final int start;
+    private final int end;
+    private final int chunkSize;
+
+    /**
+     * Constructs a {@link CharSequenceCountTask} for the given range of the message.
+     *
+     * @param message   the message
+     * @param start     the index of the first character to count
+     * @param end       the index after the last character to count
+     * @param chunkSize the largest range counted without splitting
+     */
+    private CharSequenceCountTask(CharSequence message, int start, int end, int chunkSize) {
+      this.message = message;
+      this.start = start;
+      this.end = end;
+      this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Counts the characters of the range, splitting it in two halves counted in parallel if it is
+     * larger than the chunk size.
+     *
+     * @return the histogram of the characters in the range
+     */
+    @Override
+    protected long[] compute() {
+      if (this.end - this.start <= this.chunkSize) {
+        int[] histogram = new int[SMALL_ALPHABET_SIZE];
+        for (int i = this.start; i < this.end; i++) {
+          char symbol = this.message.charAt(i);
+          if (symbol >= histogram.length) {
+            histogram = Arrays.copyOf(histogram, FULL_ALPHABET_SIZE);
+          }
+          histogram[symbol]++;
+        }
+        return Arrays.stream(histogram).asLongStream().toArray();
+      }
+
+      int middle = (this.start + this.end) >>> 1;
+      CharSequenceCountTask left =
+              new CharSequenceCountTask(this.message, this.start, middle, this.chunkSize);
+      left.fork();
+      long[] right =
+              new CharSequenceCountTask(this.message, middle, this.end, this.chunkSize).compute();
+      return add(left.join(), right);
+    }
+  }
+
+  /**
+   * This class represents a task which counts the characters of a range of bytes of a UTF-8
+   * encoded file. The range is moved forward to the next byte which starts a character on both
+   * ends, so every character is counted by exactly one task.
+   */
+  private static class FileCountTask extends RecursiveTask<long[]> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final FileChannel channel;
+    private final long start;
+    private final long end;
+    private final long chunkSize;
+
+    /**
+     * Constructs a {@link FileCountTask} for the given range of the file.
+     *
+     * @param channel   the channel of the file
+     * @param start     the position of the first byte of the range
+     * @param end       the position after the last byte of the range
+     * @param chunkSize the largest range counted without splitting
+     */
+    private FileCountTask(FileChannel channel, long start, long end, long chunkSize) {
+      this.channel = channel;
+      this.start = start;
+      this.end = end;
+      this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Counts the characters of the range, splitting it in two halves counted in parallel if it is
+     * larger than the chunk size.
+     *
+     * @return the histogram of the characters in the range
+     * @throws UncheckedIOException if reading the file fails
+     */
+    @Override
+    protected long[] compute() throws UncheckedIOException {
+      try {
+        if (this.end - this.start <= this.chunkSize) {
+          return this.countRange(this.alignToCharacter(this.start),
+                  this.alignToCharacter(this.end));
+        }
+
+        long middle = (this.start + this.end) >>> 1;
+        FileCountTask left = new FileCountTask(this.channel, this.start, middle, this.chunkSize);
+        left.fork();
+        long[] right = new FileCountTask(this.channel, middle, this.end, this.chunkSize).compute();
+        return add(left.join(), right);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    /**
+     * Returns the position of the first byte at or after the given position which is not a
+     * continuation byte of a UTF-8 encoded character.
+     *
+     * @param position the position to start from
+     * @return the position of the first byte which starts a character
+     * @throws IOException if reading the file fails
+     */
+    private long alignToCharacter(long position) throws IOException {
+      ByteBuffer buffer = ByteBuffer.allocate(1);
+      while (position > 0 && position < this.channel.size()) {
+        buffer.clear();
+        this.channel.read(buffer, position);
+        if ((buffer.get(0) & 0xC0) != 0x80) {
+          break;
+        }
+        position++;
+      }
+      return position;
+    }
+
+    /**
+     * Decodes and counts the characters in the given range of bytes.
+     *
+     * @param from the position of the first byte
+     * @param to   the position after the last byte
+     * @return the histogram of the characters in the range
+     * @throws IOException if reading the file fails
+     */
+    private long[] countRange(long from, long to) throws IOException {
+      long[] histogram = new long[SMALL_ALPHABET_SIZE];
+      if (from >= to) {
+        return histogram;
+      }
+
+      MappedByteBuffer input = this.channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+      CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+              .onMalformedInput(CodingErrorAction.REPLACE)
+              .onUnmappableCharacter(CodingErrorAction.REPLACE);
+      CharBuffer output = CharBuffer.allocate(DECODE_BUFFER_SIZE);
+
+      CoderResult result;
+      do {
+        result = decoder.decode(input, output, true);
+        output.flip();
+        histogram = countInto(histogram, output);
+        output.clear();
+      } while (result.isOverflow());
+
+      do {
+        result = decoder.flush(output);
+        output.flip();
+        histogram = countInto(histogram, output);
+        output.clear();
+      } while (result.isOverflow());
+      return histogram;
+    }
+  }
+}
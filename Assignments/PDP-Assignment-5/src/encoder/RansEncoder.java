@@ -0,0 +1,228 @@
+package encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+import codingtable.AnsFrequencyTable;
+import util.Utils;
+
+/**
+ * This class represents a RansEncoder, an entropy coder based on range asymmetric numeral systems
+ * (rANS) instead of a prefix code. A symbol of quantized frequency f out of
+ * <code>2^precisionBits</code> is coded in about <code>precisionBits - log2(f)</code> bits, so a
+ * symbol taking 95% of a message costs a small fraction of a bit where a Huffman code cannot spend
+ * less than a whole bit on it.
+ *
+ * <p>The frequencies are counted by the same front end as that of {@link HuffmanEncoder} and
+ * quantized into an {@link AnsFrequencyTable}. The message is coded by a number of interleaved
+ * 32 bit states, the i-th symbol being coded by the state <code>i % states</code>, and all the
+ * states share a single stream of bytes. Since every state only depends on the symbols it codes,
+ * the decoder can advance all of them in one iteration without waiting on each other.
+ *
+ * <p>The encoded message is the number of states as a byte, the number of symbols and the number
+ * of bytes of the coded stream as ints, and then the coded stream, which starts with the final
+ * value of every state. The frequency table is not part of it.
+ */
+public class RansEncoder {
+
+  /**
+   * the lower bound of a normalized state. A state always lies in <code>[LOWER_BOUND, LOWER_BOUND
+   * * 256)</code> between two symbols, and the decoder checks that every state ends up at it.
+   */
+  public static final int LOWER_BOUND = 1 << 23;
+
+  private static final int DEFAULT_STATES = 4;
+  private static final int DEFAULT_PRECISION_BITS = 12;
+  private static final int MAX_STATES = 32;
+
+  private final HuffmanEncoder encoder;
+  private final int states;
+  private final int precisionBits;
+
+  /**
+   * Constructs a {@link RansEncoder} which counts the frequencies with the given encoder, codes
+   * with 4 interleaved states and quantizes the frequencies to 12 bits, or more if the message has
+   * more than 4096 distinct symbols.
+   *
+   * @param encoder the encoder counting the frequencies
+   * @throws IllegalArgumentException if the given encoder is null
+   */
+  public RansEncoder(HuffmanEncoder encoder) throws IllegalArgumentException {
+    this(encoder, DEFAULT_STATES, DEFAULT_PRECISION_BITS);
+  }
+
+  /**
+   * Constructs a {@link RansEncoder} with the given params. It throws an {@link
+   * IllegalArgumentException} if the given encoder is null, the number of states is less than 1 or
+   * more than 32 or the precision is less than 1 or more than {@link
+   * AnsFrequencyTable#MAX_PRECISION_BITS}.
+   *
+   * @param encoder       the encoder counting the frequencies
+   * @param states        the number of interleaved states
+   * @param precisionBits the least number of bits to quantize the frequencies to
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  public RansEncoder(HuffmanEncoder encoder, int states, int precisionBits)
+          throws IllegalArgumentException {
+
+    if (Objects.isNull(encoder)) {
+      throw new IllegalArgumentException("encoder cannot be null");
+    }
+    if (states < 1 || states > MAX_STATES) {
+      throw new IllegalArgumentException(String.format("Invalid state count:'%d'", states));
+    }
+    if (precisionBits < 1 || precisionBits > AnsFrequencyTable.MAX_PRECISION_BITS) {
+      throw new IllegalArgumentException(String.format("Invalid precision:'%d'", precisionBits));
+    }
+
+    this.encoder = encoder;
+    this.states = states;
+    this.precisionBits = precisionBits;
+  }
+
+  /**
+   * Returns the frequency table of the given message. The precision is that of this encoder,
+   * raised as far as needed to give every distinct symbol of the message a frequency of its own.
+   *
+   * @param message the message to generate the frequency table for
+   * @return the frequency table of the message
+   * @throws IllegalArgumentException if the given message is null or empty
+   */
+  public AnsFrequencyTable generateFrequencyTable(String message)
+          throws IllegalArgumentException {
+
+    Utils.checkNullOrEmptyString(message);
+    long[] frequencies = Arrays.stream(this.encoder.getFrequencies(message))
+            .asLongStream().toArray();
+    long numberOfSymbols = Arrays.stream(frequencies).filter(frequency -> frequency > 0).count();
+    int precision = Math.max(this.precisionBits,
+            Long.SIZE - Long.numberOfLeadingZeros(numberOfSymbols - 1));
+    return AnsFrequencyTable.fromFrequencies(frequencies, precision);
+  }
+
+  /**
+   * Encodes the given message with the given frequency table and writes the encoded message to
+   * the given outputStream. The outputStream is flushed but not closed. It throws an {@link
+   * IllegalArgumentException} if any param is null, the message is empty or holds a symbol which
+   * is not in the table.
+   *
+   * @param table        the frequency table to code with
+   * @param message      the message to encode
+   * @param outputStream the stream to write the encoded message to
+   * @return the number of bytes of the coded stream
+   * @throws IOException              if writing to the outputStream fails
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  public long encode(AnsFrequencyTable table, String message, OutputStream outputStream)
+          throws IOException, IllegalArgumentException {
+
+    if (Objects.isNull(outputStream)) {
+      throw new IllegalArgumentException("outputStream cannot be null");
+    }
+    byte[] codedStream = this.code(table, message);
+
+    DataOutputStream output = new DataOutputStream(outputStream);
+    output.writeByte(this.states);
+    output.writeInt(message.length());
+    output.writeInt(codedStream.length);
+    output.write(codedStream);
+    output.flush();
+    return codedStream.length;
+  }
+
+  /**
+   * Encodes the given message with the given frequency table and returns the encoded message. The
+   * failure conditions are the same as that of {@link RansEncoder#encode(AnsFrequencyTable,
+   * String, OutputStream)}.
+   *
+   * @param table   the frequency table to code with
+   * @param message the message to encode
+   * @return the encoded message
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  public byte[] encode(AnsFrequencyTable table, String message) throws IllegalArgumentException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try {
+      this.encode(table, message, outputStream);
+    } catch (IOException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return outputStream.toByteArray();
+  }
+
+  /**
+   * Returns the coded stream of the given message. The symbols are coded from the last to the
+   * first, since the decoder pops them in the reverse order they were pushed, and the bytes are
+   * written from the end of the buffer towards its start for the same reason.
+   *
+   * @param table   the frequency table to code with
+   * @param message the message to encode
+   * @return the coded stream of the message
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  private byte[] code(AnsFrequencyTable table, String message) throws IllegalArgumentException {
+    if (Objects.isNull(table)) {
+      throw new IllegalArgumentException("table cannot be null");
+    }
+    Utils.checkNullOrEmptyString(message);
+
+    int precision = table.getPrecisionBits();
+    long renormalizationBound = (long) (LOWER_BOUND >>> precision) << Byte.SIZE;
+    long[] state = new long[this.states];
+    Arrays.fill(state, LOWER_BOUND);
+    byte[] buffer = new byte[Math.max(64, message.length() / 2)];
+    int position = buffer.length;
+
+    for (int i = message.length() - 1; i >= 0; i--) {
+      int index = table.getSymbolIndex(message.charAt(i));
+      if (index < 0) {
+        throw new IllegalArgumentException(
+                String.format("Invalid symbol:'%s'", message.charAt(i)));
+      }
+      int frequency = table.getFrequency(index);
+      int lane = i % this.states;
+      long x = state[lane];
+
+      long maxState = renormalizationBound * frequency;
+      while (x >= maxState) {
+        if (position == 0) {
+          buffer = grow(buffer);
+          position = buffer.length / 2;
+        }
+        buffer[--position] = (byte) x;
+        x >>>= Byte.SIZE;
+      }
+      state[lane] = ((x / frequency) << precision) + x % frequency
+              + table.getCumulativeFrequency(index);
+    }
+
+    // the first state is written last so that the decoder reads it first
+    for (int lane = this.states - 1; lane >= 0; lane--) {
+      for (int i = 0; i < Integer.BYTES; i++) {
+        if (position == 0) {
+          buffer = grow(buffer);
+          position = buffer.length / 2;
+        }
+        buffer[--position] = (byte) (state[lane] >>> (i * Byte.SIZE));
+      }
+    }
+    return Arrays.copyOfRange(buffer, position, buffer.length);
+  }
+
+  /**
+   * Returns a buffer twice the size of the given full buffer, holding its bytes in its second
+   * half.
+   *
+   * @param buffer the full buffer
+   * @return the grown buffer
+   */
+  private static byte[] grow(byte[] buffer) {
+    byte[] grown = new byte[buffer.length * 2];
+    System.arraycopy(buffer, 0, grown, buffer.length, buffer.length);
+    return grown;
+  }
+}
@@ -0,0 +1,66 @@
+package encoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This interface represents an Encoder which can write the encoded message as packed bits to an
+ * {@link OutputStream}. Every coding symbol of the encoded message is written as its index in the
+ * given list of coding symbols, using the minimum number of bits required to store such an index.
+ * Hence a binary code takes exactly one bit per coding symbol. The last byte is padded with zero
+ * bits, hence the number of coding symbols written is returned to the caller so that it can be
+ * passed on to the decoder.
+ */
+public interface StreamingEncoder extends Encoder {
+
+  /**
+   * Encodes the given message using the given coding table and writes the packed coding symbols to
+   * the given outputStream. The whole message is held in memory by the caller, only the packed
+   * output is buffered by the encoder.
+   *
+   * @param codingSymbols the coding symbols used in the coding table, in the order of their index
+   * @param codingTable   the coding table for the message
+   * @param message       the message to encode
+   * @param outputStream  the stream to write the packed coding symbols to
+   * @return the number of coding symbols written
+   * @throws IOException           if writing to the outputStream fails
+   * @throws IllegalStateException if the encoding fails for any reason
+   */
+  long encode(List<Character> codingSymbols, Map<Character, String> codingTable, String message,
+              OutputStream outputStream) throws IOException, IllegalStateException;
+
+  /**
+   * Encodes the message read from the given reader using the given coding table and writes the
+   * packed coding symbols to the given outputStream. The message is read and encoded through
+   * bounded buffers, so the memory used is constant irrespective of the size of the message.
+   *
+   * @param codingSymbols the coding symbols used in the coding table, in the order of their index
+   * @param codingTable   the coding table for the message
+   * @param message       the reader to read the message from
+   * @param outputStream  the stream to write the packed coding symbols to
+   * @return the number of coding symbols written
+   * @throws IOException           if reading the message or writing to the outputStream fails
+   * @throws IllegalStateException if the encoding fails for any reason
+   */
+  long encode(List<Character> codingSymbols, Map<Character, String> codingTable, Reader message,
+              OutputStream outputStream) throws IOException, IllegalStateException;
+
+  /**
+   * Encodes the message read from the given reader using the given coding table and writes the
+   * packed coding symbols to the given file, replacing the file if it exists.
+   *
+   * @param codingSymbols the coding symbols used in the coding table, in the order of their index
+   * @param codingTable   the coding table for the message
+   * @param message       the reader to read the message from
+   * @param packedFile    the file to write the packed coding symbols to
+   * @return the number of coding symbols written
+   * @throws IOException           if reading the message or writing to the file fails
+   * @throws IllegalStateException if the encoding fails for any reason
+   */
+  long encode(List<Character> codingSymbols, Map<Character, String> codingTable, Reader message,
+              Path packedFile) throws IOException, IllegalStateException;
+}
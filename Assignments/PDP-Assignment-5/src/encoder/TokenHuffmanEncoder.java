@@ -0,0 +1,164 @@
+package encoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+import codingtable.IntCodingTable;
+import codingtable.TokenCodingTable;
+import util.Utils;
+
+/**
+ * This class represents a TokenHuffmanEncoder. It codes text token by token instead of char by
+ * char, a token being a maximal run of letters and digits, a maximal run of whitespace, or any
+ * other single char such as a punctuation mark. Runs longer than {@link
+ * TokenCodingTable#MAX_TOKEN_LENGTH} chars are split. Concatenating the tokens of a message gives
+ * back the message, hence no separator has to be coded.
+ *
+ * <p>The tokens are interned as int ids in the order they first appear, and the ids are counted
+ * and coded by an {@link IntSymbolHuffmanEncoder}, so the frequencies are held in a primitive
+ * array indexed by the id and the packed message can be decoded by {@link
+ * decoder.TokenHuffmanDecoder}.
+ */
+public class TokenHuffmanEncoder {
+
+  private final IntSymbolHuffmanEncoder encoder;
+
+  /**
+   * Constructs a {@link TokenHuffmanEncoder}.
+   */
+  public TokenHuffmanEncoder() {
+    this.encoder = new IntSymbolHuffmanEncoder();
+  }
+
+  /**
+   * Returns the tokens of the given message, in order.
+   *
+   * @param message the message to split into tokens
+   * @return the tokens of the message
+   * @throws IllegalArgumentException if the given message is null
+   */
+  public static List<String> tokenize(CharSequence message) throws IllegalArgumentException {
+    if (Objects.isNull(message)) {
+      throw new IllegalArgumentException("message cannot be null");
+    }
+
+    List<String> tokens = new ArrayList<>();
+    getTokenIds(message, token -> {
+      tokens.add(token);
+      return tokens.size() - 1;
+    });
+    return tokens;
+  }
+
+  /**
+   * Returns the coding table of the tokens of the given message. It throws an {@link
+   * IllegalArgumentException} if the given message is null or empty or the radix is less than 2.
+   *
+   * @param radix   the number of coding symbols
+   * @param message the message to generate the coding table for
+   * @return the coding table of the tokens of the message
+   * @throws IllegalArgumentException if any of the given params is invalid
+   */
+  public TokenCodingTable generateCodingTable(int radix, String message)
+          throws IllegalArgumentException {
+
+    Utils.checkNullOrEmptyString(message);
+    Map<String, Integer> tokenIds = new HashMap<>();
+    List<String> tokens = new ArrayList<>();
+    int[] ids = getTokenIds(message, token -> {
+      Integer id = tokenIds.putIfAbsent(token, tokens.size());
+      if (Objects.isNull(id)) {
+        id = tokens.size();
+        tokens.add(token);
+      }
+      return id;
+    });
+
+    IntCodingTable codingTable = this.encoder.generateCodingTable(radix, ids);
+    return new TokenCodingTable(tokens.toArray(new String[0]), codingTable);
+  }
+
+  /**
+   * Encodes the tokens of the given message using the given coding table and writes the packed
+   * coding symbols to the given outputStream, exactly as by {@link
+   * IntSymbolHuffmanEncoder#encode(IntCodingTable, int[], OutputStream)}. The outputStream is
+   * flushed but not closed.
+   *
+   * @param codingTable  the coding table to encode with
+   * @param message      the message to encode
+   * @param outputStream the stream to write the packed coding symbols to
+   * @return the number of coding symbols written
+   * @throws IOException              if writing to the outputStream fails
+   * @throws IllegalStateException    if a token of the message is not in the table
+   * @throws IllegalArgumentException if any of the given params is null or the message is empty
+   */
+  public long encode(TokenCodingTable codingTable, String message, OutputStream outputStream)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (Objects.isNull(codingTable)) {
+      throw new IllegalArgumentException("codingTable cannot be null");
+    }
+    Utils.checkNullOrEmptyString(message);
+
+    int[] ids = getTokenIds(message, token -> {
+      int id = codingTable.getTokenId(token);
+      if (id < 0) {
+        throw new IllegalStateException(String.format("Invalid token:'%s'", token));
+      }
+      return id;
+    });
+    return this.encoder.encode(codingTable.getCodingTable(), ids, outputStream);
+  }
+
+  /**
+   * Splits the given message into tokens and returns the id the given function gives every token,
+   * in the order of the tokens. It is the only place the message is split, hence the tokens listed
+   * by {@link TokenHuffmanEncoder#tokenize(CharSequence)}, counted for the coding table and coded
+   * are always the same.
+   *
+   * @param message the message to split into tokens
+   * @param tokenId the function giving the id of a token
+   * @return the id of every token of the message, in order
+   */
+  private static int[] getTokenIds(CharSequence message, ToIntFunction<String> tokenId) {
+    int[] ids = new int[message.length()];
+    int numberOfTokens = 0;
+    for (int start = 0; start < message.length(); ) {
+      int end = getTokenEnd(message, start);
+      ids[numberOfTokens++] = tokenId.applyAsInt(message.subSequence(start, end).toString());
+      start = end;
+    }
+    return Arrays.copyOf(ids, numberOfTokens);
+  }
+
+  /**
+   * Returns the index just past the end of the token starting at the given index of the given
+   * message.
+   *
+   * @param message the message
+   * @param start   the index the token starts at
+   * @return the index just past the end of the token
+   */
+  private static int getTokenEnd(CharSequence message, int start) {
+    char first = message.charAt(start);
+    int maxEnd = (int) Math.min(message.length(), (long) start + TokenCodingTable.MAX_TOKEN_LENGTH);
+    int end = start + 1;
+    if (Character.isLetterOrDigit(first)) {
+      while (end < maxEnd && Character.isLetterOrDigit(message.charAt(end))) {
+        end++;
+      }
+    } else if (Character.isWhitespace(first)) {
+      while (end < maxEnd && Character.isWhitespace(message.charAt(end))) {
+        end++;
+      }
+    }
+    return end;
+  }
+}
@@ -0,0 +1,281 @@
+package encoder.treeutil;
+
+import java.util.Objects;
+
+/**
+ * This class represents an n-ary Huffman tree built from the frequencies of a set of symbols. The
+ * nodes of the tree are identified by their index in flat primitive arrays, the leaves taking the
+ * indexes of the given symbols and every merged node the next free index. The tree is built by
+ * repeatedly merging up to <code>n</code> nodes with the lowest frequencies, a node with the same
+ * frequency as another being ordered by its first symbol, i.e. the symbol of the leaf reached by
+ * always following the first coding symbol. The i-th node merged into a group gets the i-th coding
+ * symbol, so the code of a symbol is the path from the root to its leaf.
+ *
+ * <p>Building the tree takes <code>O(s log s)</code> time for <code>s</code> symbols and the codes
+ * are derived from the parent of each node, hence no string is built while merging.
+ */
+public class HuffmanTree {
+
+  private final int numberOfSymbols;
+  private final int[] symbols;
+  private final long[] frequencies;
+  private final int[] firstSymbol;
+  private final int[] parent;
+  private final int[] codingSymbolIndex;
+  private final int[] depth;
+  private final int root;
+
+  /**
+   * Constructs a {@link HuffmanTree} for the given symbols and their frequencies. It throws an
+   * {@link IllegalArgumentException} if the given arrays are null, empty or of different lengths,
+   * if any frequency is not positive or if the radix is less than 2. It throws an {@link
+   * ArithmeticException} if the sum of the frequencies overflows a long.
+   *
+   * @param symbols     the symbols, each symbol appearing only once
+   * @param frequencies the frequency of each symbol
+   * @param radix       the number of coding symbols
+   * @throws IllegalArgumentException if the given params are invalid
+   * @throws ArithmeticException      if the sum of the frequencies overflows
+   */
+  public HuffmanTree(int[] symbols, long[] frequencies, int radix)
+          throws IllegalArgumentException, ArithmeticException {
+
+    if (Objects.isNull(symbols) || Objects.isNull(frequencies) || symbols.length == 0
+            || symbols.length != frequencies.length) {
+      throw new IllegalArgumentException("symbols and frequencies cannot be null or empty");
+    }
+    if (radix < 2) {
+      throw new IllegalArgumentException("coding symbols cannot be less than 2");
+    }
+
+    this.numberOfSymbols = symbols.length;
+    int maxNodes = 2 * this.numberOfSymbols + 1;
+    this.symbols = symbols.clone();
+    this.frequencies = new long[maxNodes];
+    this.firstSymbol = new int[maxNodes];
+    this.parent = new int[maxNodes];
+    this.codingSymbolIndex = new int[maxNodes];
+
+    for (int i = 0; i < this.numberOfSymbols; i++) {
+      if (frequencies[i] <= 0) {
+        throw new IllegalArgumentException(
+                String.format("Invalid frequency for symbol:'%d'", symbols[i]));
+      }
+      this.frequencies[i] = frequencies[i];
+      this.firstSymbol[i] = symbols[i];
+    }
+
+    int numberOfNodes = this.merge(radix);
+    this.root = numberOfNodes - 1;
+    this.parent[this.root] = -1;
+    this.depth = this.computeDepths(numberOfNodes);
+  }
+
+  /**
+   * Returns the Huffman tree for the symbols with a non zero frequency in the given histogram. The
+   * groups of symbols with the same frequency are merged in the order of the symbols merged into
+   * them so far. It throws an {@link IllegalArgumentException} if no symbol has a positive frequency
+   * or if the radix is less than 2.
+   *
+   * @param frequencies the frequency of every symbol, indexed by the symbol
+   * @param radix       the number of coding symbols
+   * @return the Huffman tree for the symbols
+   * @throws IllegalArgumentException if the given params are invalid
+   * @throws ArithmeticException      if the sum of the frequencies overflows
+   */
+  public static HuffmanTree fromFrequencies(long[] frequencies, int radix)
+          throws IllegalArgumentException, ArithmeticException {
+
+    if (Objects.isNull(frequencies)) {
+      throw new IllegalArgumentException("symbols and frequencies cannot be null or empty");
+    }
+
+    int numberOfSymbols = 0;
+    for (long frequency : frequencies) {
+      if (frequency > 0) {
+        numberOfSymbols++;
+      }
+    }
+
+    int[] symbols = new int[numberOfSymbols];
+    long[] symbolFrequencies = new long[numberOfSymbols];
+    int index = 0;
+    for (int symbol = 0; symbol < frequencies.length; symbol++) {
+      if (frequencies[symbol] > 0) {
+        symbols[index] = symbol;
+        symbolFrequencies[index++] = frequencies[symbol];
+      }
+    }
+    return new HuffmanTree(symbols, symbolFrequencies, radix);
+  }
+
+  /**
+   * Returns the number of symbols in this tree.
+   *
+   * @return the number of symbols in this tree
+   */
+  public int getNumberOfSymbols() {
+    return this.numberOfSymbols;
+  }
+
+  /**
+   * Returns the symbol at the given leaf.
+   *
+   * @param leaf the index of the leaf, same as the index of the symbol given while building
+   * @return the symbol at the given leaf
+   */
+  public int getSymbol(int leaf) {
+    return this.symbols[leaf];
+  }
+
+  /**
+   * Returns the length of the code of the symbol at the given leaf, i.e. the depth of the leaf.
+   *
+   * @param leaf the index of the leaf, same as the index of the symbol given while building
+   * @return the length of the code of the symbol at the given leaf
+   */
+  public int getCodeLength(int leaf) {
+    return this.depth[leaf];
+  }
+
+  /**
+   * Returns the code of the symbol at the given leaf as the indexes of its coding symbols, the
+   * first index being the one closest to the root.
+   *
+   * @param leaf the index of the leaf, same as the index of the symbol given while building
+   * @return the indexes of the coding symbols making up the code
+   */
+  public int[] getCode(int leaf) {
+    int[] code = new int[this.depth[leaf]];
+    int node = leaf;
+    for (int i = code.length - 1; i >= 0; i--) {
+      code[i] = this.codingSymbolIndex[node];
+      node = this.parent[node];
+    }
+    return code;
+  }
+
+  /**
+   * Merges the nodes of the tree till a single node is left, and returns the number of nodes in
+   * the tree. The last node created is the root.
+   *
+   * @param radix the number of coding symbols
+   * @return the number of nodes in the tree
+   * @throws ArithmeticException if the sum of the frequencies overflows
+   */
+  private int merge(int radix) throws ArithmeticException {
+    int[] heap = new int[this.numberOfSymbols];
+    int heapSize = 0;
+    for (int i = 0; i < this.numberOfSymbols; i++) {
+      heapSize = this.push(heap, heapSize, i);
+    }
+
+    int nextNode = this.numberOfSymbols;
+    while (heapSize > 0) {
+      int mergedNode = nextNode++;
+      long frequency = 0;
+
+      for (int i = 0; i < radix && heapSize > 0; i++) {
+        int node = heap[0];
+        heapSize = this.pop(heap, heapSize);
+
+        if (i == 0) {
+          this.firstSymbol[mergedNode] = this.firstSymbol[node];
+        }
+        this.parent[node] = mergedNode;
+        this.codingSymbolIndex[node] = i;
+        frequency = Math.addExact(frequency, this.frequencies[node]);
+      }
+
+      this.frequencies[mergedNode] = frequency;
+      heapSize = this.push(heap, heapSize, mergedNode);
+
+      if (heapSize < 2) {
+        break;
+      }
+    }
+    return nextNode;
+  }
+
+  /**
+   * Computes the depth of every node. Since a parent is always created after its children, the
+   * nodes are visited from the root downwards by walking the indexes in reverse.
+   *
+   * @param numberOfNodes the number of nodes in the tree
+   * @return the depth of every node
+   */
+  private int[] computeDepths(int numberOfNodes) {
+    int[] depths = new int[numberOfNodes];
+    for (int node = numberOfNodes - 2; node >= 0; node--) {
+      depths[node] = depths[this.parent[node]] + 1;
+    }
+    return depths;
+  }
+
+  /**
+   * Returns true if the first given node has to be merged before the second one, i.e. it has a
+   * lower frequency, or the same frequency and a smaller first symbol. Since the nodes waiting to
+   * be merged never share a symbol, this is the same as comparing all the symbols under the nodes
+   * lexicographically in the order they were merged.
+   *
+   * @param node1 the first node
+   * @param node2 the second node
+   * @return true if the first node is to be merged before the second one
+   */
+  private boolean isBefore(int node1, int node2) {
+    if (this.frequencies[node1] != this.frequencies[node2]) {
+      return this.frequencies[node1] < this.frequencies[node2];
+    }
+    return this.firstSymbol[node1] < this.firstSymbol[node2];
+  }
+
+  /**
+   * Pushes the given node on the binary heap and returns the new size of the heap.
+   *
+   * @param heap     the heap
+   * @param heapSize the current size of the heap
+   * @param node     the node to push
+   * @return the new size of the heap
+   */
+  private int push(int[] heap, int heapSize, int node) {
+    int position = heapSize;
+    while (position > 0) {
+      int parentPosition = (position - 1) / 2;
+      if (!this.isBefore(node, heap[parentPosition])) {
+        break;
+      }
+      heap[position] = heap[parentPosition];
+      position = parentPosition;
+    }
+    heap[position] = node;
+    return heapSize + 1;
+  }
+
+  /**
+   * Removes the first node from the binary heap and returns the new size of the heap.
+   *
+   * @param heap     the heap
+   * @param heapSize the current size of the heap
+   * @return the new size of the heap
+   */
+  private int pop(int[] heap, int heapSize) {
+    int last = heap[--heapSize];
+    int position = 0;
+    while (true) {
+      int child = 2 * position + 1;
+      if (child >= heapSize) {
+        break;
+      }
+      if (child + 1 < heapSize && this.isBefore(heap[child + 1], heap[child])) {
+        child++;
+      }
+      if (!this.isBefore(heap[child], last)) {
+        break;
+      }
+      heap[position] = heap[child];
+      position = child;
+    }
+    heap[position] = last;
+    return heapSize;
+  }
+}
@@ -0,0 +1,183 @@
+package encoder.treeutil;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * This class represents the optimal code lengths for a set of symbols under a limit on the maximum
+ * code length, computed with the package-merge algorithm. For <code>n</code> coding symbols the
+ * algorithm builds one list of items per code length, from the longest to the shortest. The list
+ * of the longest length holds the symbols sorted by frequency, and every other list merges the
+ * symbols with the packages formed by grouping <code>n</code> consecutive items of the list below
+ * it. The length of the code of a symbol is the number of times it appears in the items selected
+ * from the list of the shortest length.
+ *
+ * <p>For more than two coding symbols, dummy symbols of zero frequency are added such that the
+ * code tree is full, exactly as an n-ary Huffman code is built. When the limit is at least the
+ * depth of the Huffman tree, the total length of the encoded message is the same as that of a
+ * Huffman code. Computing the lengths takes <code>O(s L)</code> time for <code>s</code> symbols
+ * and a limit of <code>L</code>.
+ */
+public class PackageMerge {
+
+  private static final int NONE = -1;
+
+  private final int numberOfSymbols;
+  private final int[] codeLengths;
+
+  /**
+   * Constructs a {@link PackageMerge} for the given frequencies. It throws an {@link
+   * IllegalArgumentException} if the given array is null or empty, if any frequency is not
+   * positive, if the radix is less than 2 or if the symbols cannot be coded within the given
+   * maximum code length. It throws an {@link ArithmeticException} if the sum of the frequencies
+   * overflows a long.
+   *
+   * @param frequencies   the frequency of each symbol
+   * @param radix         the number of coding symbols
+   * @param maxCodeLength the maximum length of a code
+   * @throws IllegalArgumentException if the given params are invalid
+   * @throws ArithmeticException      if the sum of the frequencies overflows
+   */
+  public PackageMerge(long[] frequencies, int radix, int maxCodeLength)
+          throws IllegalArgumentException, ArithmeticException {
+
+    if (Objects.isNull(frequencies) || frequencies.length == 0) {
+      throw new IllegalArgumentException("frequencies cannot be null or empty");
+    }
+    if (radix < 2) {
+      throw new IllegalArgumentException("coding symbols cannot be less than 2");
+    }
+    for (int i = 0; i < frequencies.length; i++) {
+      if (frequencies[i] <= 0) {
+        throw new IllegalArgumentException(
+                String.format("Invalid frequency for symbol:'%d'", i));
+      }
+    }
+
+    this.numberOfSymbols = frequencies.length;
+    int dummySymbols = (radix - 1 - (this.numberOfSymbols - 1) % (radix - 1)) % (radix - 1);
+    int totalSymbols = this.numberOfSymbols + dummySymbols;
+    if (maxCodeLength < 1 || !canCode(totalSymbols, radix, maxCodeLength)) {
+      throw new IllegalArgumentException(
+              String.format("Invalid max code length:'%d'", maxCodeLength));
+    }
+
+    this.codeLengths = new int[totalSymbols];
+    if (this.numberOfSymbols == 1) {
+      this.codeLengths[0] = 1;
+    } else {
+      long[] allFrequencies = Arrays.copyOf(frequencies, totalSymbols);
+      this.computeCodeLengths(allFrequencies, radix, maxCodeLength);
+    }
+  }
+
+  /**
+   * Returns the number of symbols, excluding the dummy symbols.
+   *
+   * @return the number of symbols
+   */
+  public int getNumberOfSymbols() {
+    return this.numberOfSymbols;
+  }
+
+  /**
+   * Returns the length of the code of the symbol at the given index.
+   *
+   * @param symbolIndex the index of the symbol in the given frequencies
+   * @return the length of the code of the symbol
+   */
+  public int getCodeLength(int symbolIndex) {
+    return this.codeLengths[symbolIndex];
+  }
+
+  /**
+   * Runs the package-merge algorithm and stores the code length of every symbol, including the
+   * dummy symbols.
+   *
+   * @param frequencies   the frequency of every symbol, the dummy symbols having zero frequency
+   * @param radix         the number of coding symbols
+   * @param maxCodeLength the maximum length of a code
+   * @throws ArithmeticException if the sum of the frequencies overflows
+   */
+  private void computeCodeLengths(long[] frequencies, int radix, int maxCodeLength)
+          throws ArithmeticException {
+
+    int totalSymbols = frequencies.length;
+    int[] sortedSymbols = IntStream.range(0, totalSymbols).boxed()
+            .sorted(Comparator.comparingLong(symbol -> frequencies[symbol]))
+            .mapToInt(Integer::intValue).toArray();
+
+    // itemSymbol[level][i] is the symbol of the i-th item of a list, or NONE for a package
+    int[][] itemSymbol = new int[maxCodeLength + 1][];
+    int[] itemCount = new int[maxCodeLength + 1];
+
+    long[] weights = new long[totalSymbols];
+    itemSymbol[maxCodeLength] = sortedSymbols.clone();
+    itemCount[maxCodeLength] = totalSymbols;
+    for (int i = 0; i < totalSymbols; i++) {
+      weights[i] = frequencies[sortedSymbols[i]];
+    }
+
+    for (int level = maxCodeLength - 1; level >= 1; level--) {
+      int numberOfPackages = itemCount[level + 1] / radix;
+      long[] packageWeights = new long[numberOfPackages];
+      for (int i = 0; i < numberOfPackages; i++) {
+        long weight = 0;
+        for (int j = 0; j < radix; j++) {
+          weight = Math.addExact(weight, weights[i * radix + j]);
+        }
+        packageWeights[i] = weight;
+      }
+
+      int size = totalSymbols + numberOfPackages;
+      long[] mergedWeights = new long[size];
+      itemSymbol[level] = new int[size];
+      int symbolPosition = 0;
+      int packagePosition = 0;
+      for (int i = 0; i < size; i++) {
+        if (packagePosition == numberOfPackages || (symbolPosition < totalSymbols
+                && frequencies[sortedSymbols[symbolPosition]] <= packageWeights[packagePosition])) {
+          itemSymbol[level][i] = sortedSymbols[symbolPosition];
+          mergedWeights[i] = frequencies[sortedSymbols[symbolPosition++]];
+        } else {
+          itemSymbol[level][i] = NONE;
+          mergedWeights[i] = packageWeights[packagePosition++];
+        }
+      }
+      itemCount[level] = size;
+      weights = mergedWeights;
+    }
+
+    int selected = (totalSymbols - 1) / (radix - 1) * radix;
+    for (int level = 1; level <= maxCodeLength && selected > 0; level++) {
+      int packages = 0;
+      for (int i = 0; i < selected; i++) {
+        if (itemSymbol[level][i] == NONE) {
+          packages++;
+        } else {
+          this.codeLengths[itemSymbol[level][i]]++;
+        }
+      }
+      selected = packages * radix;
+    }
+  }
+
+  /**
+   * Returns true if the given number of symbols can be coded with codes of at most the given
+   * length, i.e. if <code>radix<sup>maxCodeLength</sup></code> is at least the number of symbols.
+   *
+   * @param symbols       the number of symbols
+   * @param radix         the number of coding symbols
+   * @param maxCodeLength the maximum length of a code
+   * @return true if the symbols can be coded within the given length
+   */
+  private static boolean canCode(int symbols, int radix, int maxCodeLength) {
+    long capacity = 1;
+    for (int i = 0; i < maxCodeLength && capacity < symbols; i++) {
+      capacity *= radix;
+    }
+    return capacity >= symbols;
+  }
+}
@@ -0,0 +1,252 @@
+package metrics;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import util.Utils;
+
+/**
+ * This class represents the metrics of a call made to an encoder or a decoder: the number of
+ * symbols and coding symbols, the Shannon entropy of the symbols, the length of the longest code
+ * and the time taken. The figures which tell how well and how fast the codec works, such as the
+ * average code length, the compression ratio and the throughput, are derived from them.
+ *
+ * <p>The entropy is known only when the call holds all the symbols at once, otherwise it is
+ * {@link Double#NaN}, and so are the figures derived from it. Likewise the radix is {@link
+ * CodecMetrics#UNKNOWN_RADIX} when the call is not given the coding symbols, and the figures in
+ * bits are then NaN.
+ */
+public class CodecMetrics {
+
+  /**
+   * This enum represents the kind of call the metrics are of.
+   */
+  public enum Operation {
+    /**
+     * the generation of a coding table from a message.
+     */
+    BUILD_TABLE,
+
+    /**
+     * the encoding of a message.
+     */
+    ENCODE,
+
+    /**
+     * the decoding of an encoded message.
+     */
+    DECODE
+  }
+
+  /**
+   * The radix of the metrics of a call which does not know the number of coding symbols.
+   */
+  public static final int UNKNOWN_RADIX = 0;
+
+  private static final int SMALL_ALPHABET_SIZE = 256;
+
+  private final Operation operation;
+  private final int radix;
+  private final long symbols;
+  private final long codingSymbols;
+  private final double entropy;
+  private final int maxCodeLength;
+  private final long elapsedNanos;
+
+  /**
+   * Constructs a {@link CodecMetrics} with the given params.
+   *
+   * @param operation     the kind of call
+   * @param radix         the number of coding symbols of the code, {@link #UNKNOWN_RADIX} if
+   *                      unknown
+   * @param symbols       the number of symbols of the message
+   * @param codingSymbols the number of coding symbols of the encoded message
+   * @param entropy       the entropy of the symbols in bits per symbol, NaN if unknown
+   * @param maxCodeLength the length of the longest code of the code
+   * @param elapsedNanos  the time taken by the call in nanoseconds
+   * @throws IllegalArgumentException if the operation is null or a count is negative
+   */
+  public CodecMetrics(Operation operation, int radix, long symbols, long codingSymbols,
+                      double entropy, int maxCodeLength, long elapsedNanos)
+          throws IllegalArgumentException {
+
+    if (Objects.isNull(operation)) {
+      throw new IllegalArgumentException("operation cannot be null");
+    }
+    if (radix < 0 || symbols < 0 || codingSymbols < 0 || maxCodeLength < 0 || elapsedNanos < 0) {
+      throw new IllegalArgumentException("metrics cannot be negative");
+    }
+    this.operation = operation;
+    this.radix = radix;
+    this.symbols = symbols;
+    this.codingSymbols = codingSymbols;
+    this.entropy = entropy;
+    this.maxCodeLength = maxCodeLength;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Returns the Shannon entropy of the symbols of the given message in bits per symbol, the lower
+   * bound of the average length in bits of any code for them. Returns 0 for an empty message.
+   *
+   * @param message the message to measure
+   * @return the entropy of the symbols of the message in bits per symbol
+   */
+  public static double getEntropy(CharSequence message) {
+    int[] frequencies = new int[SMALL_ALPHABET_SIZE];
+    for (int i = 0; i < message.length(); i++) {
+      char symbol = message.charAt(i);
+      if (symbol >= frequencies.length) {
+        frequencies = Arrays.copyOf(frequencies, Character.MAX_VALUE + 1);
+      }
+      frequencies[symbol]++;
+    }
+
+    double entropy = 0;
+    for (int frequency : frequencies) {
+      if (frequency > 0) {
+        double probability = (double) frequency / message.length();
+        entropy -= probability * Math.log(probability);
+      }
+    }
+    return entropy / Math.log(2);
+  }
+
+  /**
+   * Returns the kind of call the metrics are of.
+   *
+   * @return the kind of call
+   */
+  public Operation getOperation() {
+    return this.operation;
+  }
+
+  /**
+   * Returns the number of coding symbols of the code, {@link #UNKNOWN_RADIX} if unknown.
+   *
+   * @return the number of coding symbols of the code
+   */
+  public int getRadix() {
+    return this.radix;
+  }
+
+  /**
+   * Returns the number of symbols of the message.
+   *
+   * @return the number of symbols of the message
+   */
+  public long getSymbols() {
+    return this.symbols;
+  }
+
+  /**
+   * Returns the number of coding symbols of the encoded message. For {@link Operation#BUILD_TABLE}
+   * it is the number of coding symbols the message is encoded into with the built table.
+   *
+   * @return the number of coding symbols of the encoded message
+   */
+  public long getCodingSymbols() {
+    return this.codingSymbols;
+  }
+
+  /**
+   * Returns the Shannon entropy of the symbols in bits per symbol, NaN if unknown.
+   *
+   * @return the entropy of the symbols in bits per symbol
+   */
+  public double getEntropy() {
+    return this.entropy;
+  }
+
+  /**
+   * Returns the length of the longest code of the code, i.e. the depth of its coding tree.
+   *
+   * @return the length of the longest code
+   */
+  public int getMaxCodeLength() {
+    return this.maxCodeLength;
+  }
+
+  /**
+   * Returns the time taken by the call in nanoseconds. For {@link Operation#BUILD_TABLE} it is the
+   * time taken to build the table.
+   *
+   * @return the time taken by the call in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  /**
+   * Returns the average number of coding symbols per symbol, 0 if the message is empty.
+   *
+   * @return the average code length in coding symbols
+   */
+  public double getAverageCodeLength() {
+    return this.symbols == 0 ? 0 : (double) this.codingSymbols / this.symbols;
+  }
+
+  /**
+   * Returns the average information carried per symbol by its code in bits, i.e. the average code
+   * length times the bits of information of a coding symbol. It is never less than the entropy.
+   * Returns NaN if the radix is unknown.
+   *
+   * @return the average code length in bits
+   */
+  public double getAverageCodeLengthInBits() {
+    if (this.radix == UNKNOWN_RADIX) {
+      return Double.NaN;
+    }
+    return this.getAverageCodeLength() * Math.log(this.radix) / Math.log(2);
+  }
+
+  /**
+   * Returns the ratio of the entropy to the average code length in bits, 1 for an optimal code of
+   * the symbols. Returns NaN if the entropy or the radix is unknown.
+   *
+   * @return the efficiency of the code
+   */
+  public double getCodingEfficiency() {
+    double averageCodeLengthInBits = this.getAverageCodeLengthInBits();
+    return averageCodeLengthInBits == 0 ? Double.NaN : this.entropy / averageCodeLengthInBits;
+  }
+
+  /**
+   * Returns the ratio of the size of the message, as chars of {@link Character#SIZE} bits, to the
+   * size of the packed encoded message, as coding symbols of {@link
+   * Utils#getBitsPerCodingSymbol(int)} bits. Returns NaN if the encoded message is empty or the
+   * radix is unknown.
+   *
+   * @return the compression ratio
+   */
+  public double getCompressionRatio() {
+    if (this.codingSymbols == 0 || this.radix == UNKNOWN_RADIX) {
+      return Double.NaN;
+    }
+    return (double) this.symbols * Character.SIZE
+            / ((double) this.codingSymbols * Utils.getBitsPerCodingSymbol(this.radix));
+  }
+
+  /**
+   * Returns the number of symbols handled per second, NaN if no time was measured.
+   *
+   * @return the throughput in symbols per second
+   */
+  public double getSymbolsPerSecond() {
+    return this.elapsedNanos == 0 ? Double.NaN : this.symbols * 1e9 / this.elapsedNanos;
+  }
+
+  /**
+   * Returns the metrics as a string of the form
+   * <code>OPERATION{symbols=.., codingSymbols=.., ...}</code>.
+   *
+   * @return the metrics as a string
+   */
+  @Override
+  public String toString() {
+    return String.format("%s{radix=%d, symbols=%d, codingSymbols=%d, entropy=%.4f, "
+                    + "averageCodeLength=%.4f, maxCodeLength=%d, elapsedNanos=%d}",
+            this.operation, this.radix, this.symbols, this.codingSymbols, this.entropy,
+            this.getAverageCodeLength(), this.maxCodeLength, this.elapsedNanos);
+  }
+}
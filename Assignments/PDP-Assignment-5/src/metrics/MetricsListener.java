@@ -0,0 +1,17 @@
+package metrics;
+
+/**
+ * This interface represents the receiver of the {@link CodecMetrics} of the calls made to an
+ * encoder or a decoder, for e.g. to export them to a monitoring system. The metrics of a call are
+ * passed to the listener once the call has succeeded, on the thread which made the call, hence a
+ * listener shared by many threads must be safe to use from them.
+ */
+public interface MetricsListener {
+
+  /**
+   * Accepts the metrics of a call.
+   *
+   * @param metrics the metrics of the call
+   */
+  void onMetrics(CodecMetrics metrics);
+}
@@ -0,0 +1,181 @@
+package metrics;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * This class represents a {@link MetricsListener} which adds up the metrics of all the calls made
+ * to the encoders and decoders it listens to, per {@link CodecMetrics.Operation} and radix, since
+ * the figures in bits of calls with different radixes cannot be added up. The totals can be read
+ * at any time, for e.g. by a job which exports them to a dashboard at a fixed rate. The registry is
+ * safe to use from multiple threads.
+ */
+public class MetricsRegistry implements MetricsListener {
+
+  private final Map<CodecMetrics.Operation, Map<Integer, Totals>> totals;
+
+  /**
+   * Constructs an empty {@link MetricsRegistry}.
+   */
+  public MetricsRegistry() {
+    this.totals = new EnumMap<>(CodecMetrics.Operation.class);
+    for (CodecMetrics.Operation operation : CodecMetrics.Operation.values()) {
+      this.totals.put(operation, new TreeMap<>());
+    }
+  }
+
+  /**
+   * Adds the given metrics to the totals of their operation and radix.
+   *
+   * @param metrics the metrics of a call
+   * @throws IllegalArgumentException if the given metrics is null
+   */
+  @Override
+  public synchronized void onMetrics(CodecMetrics metrics) throws IllegalArgumentException {
+    if (Objects.isNull(metrics)) {
+      throw new IllegalArgumentException("metrics cannot be null");
+    }
+    this.totals.get(metrics.getOperation())
+            .computeIfAbsent(metrics.getRadix(), radix -> new Totals())
+            .add(metrics);
+  }
+
+  /**
+   * Returns the number of calls of the given operation recorded thus far.
+   *
+   * @param operation the operation
+   * @return the number of calls recorded thus far
+   */
+  public synchronized long getCalls(CodecMetrics.Operation operation) {
+    long calls = 0;
+    for (Totals radixTotals : this.totals.get(operation).values()) {
+      calls += radixTotals.calls;
+    }
+    return calls;
+  }
+
+  /**
+   * Returns the radixes of the calls of the given operation recorded thus far, in increasing
+   * order.
+   *
+   * @param operation the operation
+   * @return the radixes of the recorded calls
+   */
+  public synchronized List<Integer> getRadixes(CodecMetrics.Operation operation) {
+    return new ArrayList<>(this.totals.get(operation).keySet());
+  }
+
+  /**
+   * Returns the metrics of all the calls of the given operation recorded thus far, as if they were
+   * a single call. The counts and the times are added up, the longest code is the longest of all
+   * the calls and the entropy is the mean of the known entropies weighted by the number of symbols
+   * of their calls. The radix is that of the calls if they all have the same one, {@link
+   * CodecMetrics#UNKNOWN_RADIX} otherwise.
+   *
+   * @param operation the operation
+   * @return the total metrics of the operation, null if no call was recorded
+   */
+  public synchronized CodecMetrics getTotals(CodecMetrics.Operation operation) {
+    Map<Integer, Totals> radixTotals = this.totals.get(operation);
+    if (radixTotals.size() == 1) {
+      return this.getTotals(operation, radixTotals.keySet().iterator().next());
+    }
+
+    Totals operationTotals = new Totals();
+    for (Totals totals : radixTotals.values()) {
+      operationTotals.addAll(totals);
+    }
+    return operationTotals.toMetrics(operation, CodecMetrics.UNKNOWN_RADIX);
+  }
+
+  /**
+   * Returns the metrics of all the calls of the given operation with the given radix recorded thus
+   * far, as if they were a single call, added up as by {@link #getTotals(CodecMetrics.Operation)}.
+   *
+   * @param operation the operation
+   * @param radix     the radix of the calls
+   * @return the total metrics of the calls, null if no such call was recorded
+   */
+  public synchronized CodecMetrics getTotals(CodecMetrics.Operation operation, int radix) {
+    Totals radixTotals = this.totals.get(operation).get(radix);
+    return Objects.isNull(radixTotals) ? null : radixTotals.toMetrics(operation, radix);
+  }
+
+  /**
+   * Discards the metrics recorded thus far.
+   */
+  public synchronized void reset() {
+    for (Map<Integer, Totals> radixTotals : this.totals.values()) {
+      radixTotals.clear();
+    }
+  }
+
+  /**
+   * This class represents the running totals of the calls of a single operation and radix. It is
+   * guarded by the lock of the registry.
+   */
+  private static class Totals {
+
+    private long calls;
+    private long symbols;
+    private long codingSymbols;
+    private long symbolsWithEntropy;
+    private double entropyTimesSymbols;
+    private int maxCodeLength;
+    private long elapsedNanos;
+
+    /**
+     * Adds the given metrics to the totals.
+     *
+     * @param metrics the metrics of a call
+     */
+    private void add(CodecMetrics metrics) {
+      this.calls++;
+      this.symbols += metrics.getSymbols();
+      this.codingSymbols += metrics.getCodingSymbols();
+      if (!Double.isNaN(metrics.getEntropy())) {
+        this.symbolsWithEntropy += metrics.getSymbols();
+        this.entropyTimesSymbols += metrics.getEntropy() * metrics.getSymbols();
+      }
+      this.maxCodeLength = Math.max(this.maxCodeLength, metrics.getMaxCodeLength());
+      this.elapsedNanos += metrics.getElapsedNanos();
+    }
+
+    /**
+     * Adds the given totals to these totals.
+     *
+     * @param totals the totals to add
+     */
+    private void addAll(Totals totals) {
+      this.calls += totals.calls;
+      this.symbols += totals.symbols;
+      this.codingSymbols += totals.codingSymbols;
+      this.symbolsWithEntropy += totals.symbolsWithEntropy;
+      this.entropyTimesSymbols += totals.entropyTimesSymbols;
+      this.maxCodeLength = Math.max(this.maxCodeLength, totals.maxCodeLength);
+      this.elapsedNanos += totals.elapsedNanos;
+    }
+
+    /**
+     * Returns the totals as the metrics of the given operation and radix, null if no call was
+     * added.
+     *
+     * @param operation the operation of the totals
+     * @param radix     the radix of the totals
+     * @return the totals as metrics
+     */
+    private CodecMetrics toMetrics(CodecMetrics.Operation operation, int radix) {
+      if (this.calls == 0) {
+        return null;
+      }
+      double entropy = this.symbolsWithEntropy == 0
+              ? Double.NaN : this.entropyTimesSymbols / this.symbolsWithEntropy;
+      return new CodecMetrics(operation, radix, this.symbols, this.codingSymbols, entropy,
+              this.maxCodeLength, this.elapsedNanos);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * This class represents a BitReader. It reads the bytes from the underlying {@link InputStream}
+ * and returns their bits in the same order in which they were packed by a {@link BitWriter}, i.e.
+ * most significant bit first. The bytes are read through a bounded buffer, so the memory used by
+ * the reader is constant irrespective of the size of the stream.
+ */
+public class BitReader {
+
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  private final InputStream inputStream;
+  private final byte[] buffer;
+  private int bufferPosition;
+  private int bufferLimit;
+  private long accumulator;
+  private int bitsInAccumulator;
+
+  /**
+   * Constructs a {@link BitReader} which reads from the given inputStream using a buffer of default
+   * size.
+   *
+   * @param inputStream the stream to read the packed bits from
+   * @throws IllegalArgumentException if the given inputStream is null
+   */
+  public BitReader(InputStream inputStream) throws IllegalArgumentException {
+    this(inputStream, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Constructs a {@link BitReader} which reads from the given inputStream using a buffer of given
+   * size.
+   *
+   * @param inputStream the stream to read the packed bits from
+   * @param bufferSize  the size of the buffer in bytes
+   * @throws IllegalArgumentException if the given inputStream is null or the bufferSize is not
+   *                                  positive
+   */
+  public BitReader(InputStream inputStream, int bufferSize) throws IllegalArgumentException {
+    if (Objects.isNull(inputStream)) {
+      throw new IllegalArgumentException("inputStream cannot be null");
+    }
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException(String.format("Invalid buffer size:'%d'", bufferSize));
+    }
+    this.inputStream = inputStream;
+    this.buffer = new byte[bufferSize];
+  }
+
+  /**
+   * Reads the next <code>count</code> bits and returns them as the lowest bits of an int, the first
+   * bit read being the most significant one. It throws an {@link IllegalStateException} if the
+   * stream ends before <code>count</code> bits could be read.
+   *
+   * @param count the number of bits to read, between 1 and 32
+   * @return the bits read
+   * @throws IOException              if the underlying stream fails
+   * @throws IllegalStateException    if the stream does not have enough bits
+   * @throws IllegalArgumentException if the given count is not between 1 and 32
+   */
+  public int readBits(int count)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+
+    if (count < 1 || count > 32) {
+      throw new IllegalArgumentException(String.format("Invalid bit count:'%d'", count));
+    }
+
+    while (this.bitsInAccumulator < count) {
+      int nextByte = this.readByte();
+      if (nextByte < 0) {
+        throw new IllegalStateException("unexpected end of packed stream");
+      }
+      this.accumulator = (this.accumulator << 8) | nextByte;
+      this.bitsInAccumulator += 8;
+    }
+
+    this.bitsInAccumulator -= count;
+    return (int) ((this.accumulator >>> this.bitsInAccumulator) & (-1L >>> (64 - count)));
+  }
+
+  /**
+   * Returns the next byte from the buffer, refilling it from the underlying stream when it is
+   * exhausted. Returns -1 if the end of stream is reached.
+   *
+   * @return the next byte or -1 at the end of stream
+   * @throws IOException if the underlying stream fails
+   */
+  private int readByte() throws IOException {
+    if (this.bufferPosition == this.bufferLimit) {
+      int bytesRead = this.inputStream.read(this.buffer, 0, this.buffer.length);
+      if (bytesRead <= 0) {
+        return -1;
+      }
+      this.bufferPosition = 0;
+      this.bufferLimit = bytesRead;
+    }
+    return this.buffer[this.bufferPosition++] & 0xFF;
+  }
+}
@@ -0,0 +1,181 @@
+package util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * This class represents a BitWriter. It packs the bits written to it into bytes and writes them to
+ * the underlying {@link OutputStream}. Bits are packed most significant bit first, i.e. the first
+ * bit written becomes the highest bit of the first byte. The bits are accumulated in a 64 bit
+ * register which is spilled to a bounded buffer 8 bytes at a time once it is full, hence writing
+ * a code of up to 64 bits takes a couple of shifts and no loop over its bits or bytes. The memory
+ * used by the writer is constant irrespective of the number of bits written.
+ *
+ * <p>The last byte is padded with zero bits when the writer is flushed. It is the responsibility
+ * of the caller to remember the number of bits written in order to ignore the padding.
+ */
+public class BitWriter {
+
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  private final OutputStream outputStream;
+  private final byte[] buffer;
+  private int bufferPosition;
+  private long accumulator;
+  private int bitsInAccumulator;
+  private long bitsWritten;
+
+  /**
+   * Constructs a {@link BitWriter} which writes to the given outputStream using a buffer of
+   * default size.
+   *
+   * @param outputStream the stream to write the packed bits to
+   * @throws IllegalArgumentException if the given outputStream is null
+   */
+  public BitWriter(OutputStream outputStream) throws IllegalArgumentException {
+    this(outputStream, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Constructs a {@link BitWriter} which writes to the given outputStream using a buffer of given
+   * size. Packed bytes are handed over to the outputStream only once the buffer is full or the
+   * writer is flushed.
+   *
+   * @param outputStream the stream to write the packed bits to
+   * @param bufferSize   the size of the buffer in bytes
+   * @throws IllegalArgumentException if the given outputStream is null or the bufferSize is not
+   *                                  positive
+   */
+  public BitWriter(OutputStream outputStream, int bufferSize) throws IllegalArgumentException {
+    if (Objects.isNull(outputStream)) {
+      throw new IllegalArgumentException("outputStream cannot be null");
+    }
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException(String.format("Invalid buffer size:'%d'", bufferSize));
+    }
+    this.outputStream = outputStream;
+    this.buffer = new byte[bufferSize];
+  }
+
+  /**
+   * Writes the lowest <code>count</code> bits of the given value, most significant bit first.
+   *
+   * @param value the value whose bits are to be written
+   * @param count the number of bits to write, between 0 and 64
+   * @throws IOException              if the underlying stream fails
+   * @throws IllegalArgumentException if the given count is not between 0 and 64
+   */
+  public void writeBits(long value, int count) throws IOException, IllegalArgumentException {
+    if (count < 0 || count > 64) {
+      throw new IllegalArgumentException(String.format("Invalid bit count:'%d'", count));
+    }
+
+    if (count == 0) {
+      return;
+    }
+
+    long bits = value & (-1L >>> (Long.SIZE - count));
+    this.bitsWritten += count;
+    int free = Long.SIZE - this.bitsInAccumulator;
+    if (count < free) {
+      this.accumulator = (this.accumulator << count) | bits;
+      this.bitsInAccumulator += count;
+      return;
+    }
+
+    // the register is filled with the highest bits of the value and spilled whole, the remaining
+    // bits start the next register. Bits above bitsInAccumulator are stale and never read.
+    int remaining = count - free;
+    long register = free == Long.SIZE ? bits : (this.accumulator << free) | (bits >>> remaining);
+    this.writeLong(register);
+    this.accumulator = bits;
+    this.bitsInAccumulator = remaining;
+  }
+
+  /**
+   * Returns the number of bits written to this writer thus far, excluding the padding.
+   *
+   * @return the number of bits written thus far
+   */
+  public long getBitsWritten() {
+    return this.bitsWritten;
+  }
+
+  /**
+   * Pads the pending bits to a complete byte with zero bits and writes all the buffered bytes to
+   * the underlying stream. Any bits written after a flush start at a fresh byte.
+   *
+   * @throws IOException if the underlying stream fails
+   */
+  public void flush() throws IOException {
+    this.writeCompleteBytes();
+    if (this.bitsInAccumulator > 0) {
+      this.writeByte((int) (this.accumulator << (Byte.SIZE - this.bitsInAccumulator)));
+      this.bitsInAccumulator = 0;
+    }
+    this.accumulator = 0;
+    this.outputStream.write(this.buffer, 0, this.bufferPosition);
+    this.bufferPosition = 0;
+    this.outputStream.flush();
+  }
+
+  /**
+   * Writes all the complete bytes buffered thus far to the underlying stream without padding the
+   * pending bits, which stay in the writer till the next byte is complete or the writer is flushed.
+   *
+   * @throws IOException if the underlying stream fails
+   */
+  public void flushCompleteBytes() throws IOException {
+    this.writeCompleteBytes();
+    this.outputStream.write(this.buffer, 0, this.bufferPosition);
+    this.bufferPosition = 0;
+    this.outputStream.flush();
+  }
+
+  /**
+   * Stages the complete bytes of the register in the buffer, leaving less than 8 bits in it.
+   *
+   * @throws IOException if the underlying stream fails
+   */
+  private void writeCompleteBytes() throws IOException {
+    while (this.bitsInAccumulator >= Byte.SIZE) {
+      this.bitsInAccumulator -= Byte.SIZE;
+      this.writeByte((int) (this.accumulator >>> this.bitsInAccumulator));
+    }
+  }
+
+  /**
+   * Stages the 8 bytes of the given full register in the buffer, highest byte first, writing the
+   * buffer to the underlying stream when it is full.
+   *
+   * @param register the register to write
+   * @throws IOException if the underlying stream fails
+   */
+  private void writeLong(long register) throws IOException {
+    if (this.buffer.length - this.bufferPosition < Long.BYTES) {
+      for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+        this.writeByte((int) (register >>> shift));
+      }
+      return;
+    }
+    for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+      this.buffer[this.bufferPosition++] = (byte) (register >>> shift);
+    }
+  }
+
+  /**
+   * Stages the lowest 8 bits of the given value in the buffer, writing the buffer to the
+   * underlying stream when it is full.
+   *
+   * @param value the byte to write
+   * @throws IOException if the underlying stream fails
+   */
+  private void writeByte(int value) throws IOException {
+    if (this.bufferPosition == this.buffer.length) {
+      this.outputStream.write(this.buffer, 0, this.bufferPosition);
+      this.bufferPosition = 0;
+    }
+    this.buffer[this.bufferPosition++] = (byte) value;
+  }
+}
@@ -0,0 +1,158 @@
+package util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * This class represents a FileChannelOutputStream. It writes a file through a {@link FileChannel}
+ * from a single direct buffer which is reused for every write, hence the bytes are handed to the
+ * operating system without the extra copy into a temporary direct buffer that a write from a heap
+ * array costs. The file is replaced if it exists and the bytes are written in order, hence the
+ * size of the output need not be known in advance and the file is never longer than the bytes
+ * written.
+ *
+ * <p>Unlike the input side, which is read through the memory mapped windows of {@link
+ * MappedFileInputStream}, the output is not mapped: a mapped output has to be truncated to the
+ * bytes written when it is closed, which some platforms refuse while any part of the file is still
+ * mapped, and Java has no public API to unmap a buffer.
+ */
+public class FileChannelOutputStream extends OutputStream {
+
+  /**
+   * The default size of the buffer.
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private long bytesFlushed;
+  private boolean isClosed;
+
+  /**
+   * Constructs a {@link FileChannelOutputStream} for the given file with a buffer of default size.
+   *
+   * @param file the file to write
+   * @throws IOException              if the file cannot be opened
+   * @throws IllegalArgumentException if the given file is null
+   */
+  public FileChannelOutputStream(Path file) throws IOException, IllegalArgumentException {
+    this(file, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Constructs a {@link FileChannelOutputStream} for the given file with a buffer of given size.
+   *
+   * @param file       the file to write
+   * @param bufferSize the size of the buffer in bytes
+   * @throws IOException              if the file cannot be opened
+   * @throws IllegalArgumentException if the given file is null or the bufferSize is not positive
+   */
+  public FileChannelOutputStream(Path file, int bufferSize)
+          throws IOException, IllegalArgumentException {
+
+    if (Objects.isNull(file)) {
+      throw new IllegalArgumentException("file cannot be null");
+    }
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException(String.format("Invalid buffer size:'%d'", bufferSize));
+    }
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    this.bytesFlushed = 0;
+    this.isClosed = false;
+  }
+
+  /**
+   * Writes the given byte to the buffer, writing the buffer to the file first if it is full.
+   *
+   * @param value the byte to write
+   * @throws IOException if writing to the file fails
+   */
+  @Override
+  public void write(int value) throws IOException {
+    if (!this.buffer.hasRemaining()) {
+      this.flushBuffer();
+    }
+    this.buffer.put((byte) value);
+  }
+
+  /**
+   * Writes the given bytes through the buffer, writing the buffer to the file every time it fills
+   * up.
+   *
+   * @param bytes  the array to write from
+   * @param offset the position in the array to write from
+   * @param length the number of bytes to write
+   * @throws IOException if writing to the file fails
+   */
+  @Override
+  public void write(byte[] bytes, int offset, int length) throws IOException {
+    Objects.checkFromIndexSize(offset, length, bytes.length);
+    while (length > 0) {
+      if (!this.buffer.hasRemaining()) {
+        this.flushBuffer();
+      }
+      int bytesWritten = Math.min(length, this.buffer.remaining());
+      this.buffer.put(bytes, offset, bytesWritten);
+      offset += bytesWritten;
+      length -= bytesWritten;
+    }
+  }
+
+  /**
+   * Writes the buffered bytes to the file. Like a {@link java.io.FileOutputStream}, the bytes are
+   * then visible to other readers but are not forced to the storage device.
+   *
+   * @throws IOException if writing to the file fails
+   */
+  @Override
+  public void flush() throws IOException {
+    this.flushBuffer();
+  }
+
+  /**
+   * Returns the number of bytes written so far, including the ones still in the buffer.
+   *
+   * @return the number of bytes written so far
+   */
+  public long getBytesWritten() {
+    return this.bytesFlushed + this.buffer.position();
+  }
+
+  /**
+   * Writes the buffered bytes to the file and closes it.
+   *
+   * @throws IOException if writing to or closing the file fails
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.isClosed) {
+      return;
+    }
+    this.isClosed = true;
+    try {
+      this.flushBuffer();
+    } finally {
+      this.channel.close();
+    }
+  }
+
+  /**
+   * Writes the bytes in the buffer to the file and empties the buffer.
+   *
+   * @throws IOException if writing to the file fails
+   */
+  private void flushBuffer() throws IOException {
+    this.buffer.flip();
+    while (this.buffer.hasRemaining()) {
+      this.bytesFlushed += this.channel.write(this.buffer);
+    }
+    this.buffer.clear();
+  }
+}
@@ -0,0 +1,107 @@
+package util;
+
+import java.math.BigInteger;
+
+/**
+ * This class represents a KraftSum, the Kraft-McMillan sum of a set of codes over
+ * <code>r</code> coding symbols, i.e. the sum of <code>r^-l</code> over the length
+ * <code>l</code> of every code. The codes of a prefix code have a sum of at most 1, and a sum of
+ * exactly 1 when every valid encoded message can be decoded, hence the sum tells whether a code of
+ * a given length can still be added without looking at the codes themselves.
+ *
+ * <p>The sum is kept exactly as a numerator over <code>r^s</code>, where <code>s</code> is the
+ * length of the longest code added thus far, so no rounding ever makes an over-full code look
+ * valid. Comparing the sum to 1 takes constant time.
+ */
+public class KraftSum {
+
+  private final BigInteger radix;
+  private BigInteger numerator;
+  private BigInteger denominator;
+  private int scale;
+
+  /**
+   * Constructs an empty {@link KraftSum} for codes over the given number of coding symbols.
+   *
+   * @param radix the number of coding symbols
+   * @throws IllegalArgumentException if the given radix is less than 1
+   */
+  public KraftSum(int radix) throws IllegalArgumentException {
+    if (radix < 1) {
+      throw new IllegalArgumentException(String.format("Invalid radix:'%d'", radix));
+    }
+    this.radix = BigInteger.valueOf(radix);
+    this.numerator = BigInteger.ZERO;
+    this.denominator = BigInteger.ONE;
+    this.scale = 0;
+  }
+
+  /**
+   * Adds a code of the given length to the sum.
+   *
+   * @param codeLength the length of the code
+   * @throws IllegalArgumentException if the given length is less than 1
+   */
+  public void add(int codeLength) throws IllegalArgumentException {
+    checkCodeLength(codeLength);
+    if (codeLength > this.scale) {
+      BigInteger factor = this.radix.pow(codeLength - this.scale);
+      this.numerator = this.numerator.multiply(factor);
+      this.denominator = this.denominator.multiply(factor);
+      this.scale = codeLength;
+    }
+    this.numerator = this.numerator.add(this.radix.pow(this.scale - codeLength));
+  }
+
+  /**
+   * Returns true if a code of the given length can be added without the sum exceeding 1. A code
+   * for which it returns false surely conflicts with the codes added thus far, while a code for
+   * which it returns true may still conflict with them.
+   *
+   * @param codeLength the length of the code
+   * @return true if the sum does not exceed 1 after adding a code of the given length
+   * @throws IllegalArgumentException if the given length is less than 1
+   */
+  public boolean canAdd(int codeLength) throws IllegalArgumentException {
+    checkCodeLength(codeLength);
+    if (codeLength > this.scale) {
+      BigInteger factor = this.radix.pow(codeLength - this.scale);
+      return this.numerator.multiply(factor).add(BigInteger.ONE)
+              .compareTo(this.denominator.multiply(factor)) <= 0;
+    }
+    return this.numerator.add(this.radix.pow(this.scale - codeLength))
+            .compareTo(this.denominator) <= 0;
+  }
+
+  /**
+   * Compares the sum to 1 and returns a negative number, zero or a positive number if the sum is
+   * less than, equal to or greater than 1 respectively.
+   *
+   * @return the result of comparing the sum to 1
+   */
+  public int compareToOne() {
+    return this.numerator.compareTo(this.denominator);
+  }
+
+  /**
+   * Returns the sum as a string of the form <code>n/r^s</code>.
+   *
+   * @return the sum as a string
+   */
+  @Override
+  public String toString() {
+    return String.format("%s/%s^%d", this.numerator, this.radix, this.scale);
+  }
+
+  /**
+   * Checks if the given code length is valid.
+   *
+   * @param codeLength the length to check
+   * @throws IllegalArgumentException if the given length is less than 1
+   */
+  private static void checkCodeLength(int codeLength) throws IllegalArgumentException {
+    if (codeLength < 1) {
+      throw new IllegalArgumentException(String.format("Invalid code length:'%d'", codeLength));
+    }
+  }
+}
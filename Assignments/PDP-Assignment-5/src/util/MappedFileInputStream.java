@@ -0,0 +1,145 @@
+package util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * This class represents a MappedFileInputStream. It reads a file through memory mapped windows
+ * instead of copying it through the buffers of the operating system. Only one window is mapped at
+ * a time, hence files larger than 2 GB, the largest region a single {@link MappedByteBuffer} can
+ * map, are read window by window.
+ */
+public class MappedFileInputStream extends InputStream {
+
+  /**
+   * The default size of a mapped window.
+   */
+  public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+  private final FileChannel channel;
+  private final long size;
+  private final int windowSize;
+  private MappedByteBuffer window;
+  private long windowStart;
+
+  /**
+   * Constructs a {@link MappedFileInputStream} for the given file with windows of default size.
+   *
+   * @param file the file to read
+   * @throws IOException              if the file cannot be opened
+   * @throws IllegalArgumentException if the given file is null
+   */
+  public MappedFileInputStream(Path file) throws IOException, IllegalArgumentException {
+    this(file, DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * Constructs a {@link MappedFileInputStream} for the given file with windows of given size.
+   *
+   * @param file       the file to read
+   * @param windowSize the size of a mapped window in bytes
+   * @throws IOException              if the file cannot be opened
+   * @throws IllegalArgumentException if the given file is null or the windowSize is not positive
+   */
+  public MappedFileInputStream(Path file, int windowSize)
+          throws IOException, IllegalArgumentException {
+
+    if (Objects.isNull(file)) {
+      throw new IllegalArgumentException("file cannot be null");
+    }
+    if (windowSize <= 0) {
+      throw new IllegalArgumentException(String.format("Invalid window size:'%d'", windowSize));
+    }
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.size = this.channel.size();
+    this.windowSize = windowSize;
+    this.windowStart = 0;
+  }
+
+  /**
+   * Reads the next byte of the file, or returns -1 at the end of the file.
+   *
+   * @return the next byte or -1 at the end of the file
+   * @throws IOException if mapping the next window fails
+   */
+  @Override
+  public int read() throws IOException {
+    if (!this.ensureWindow()) {
+      return -1;
+    }
+    return this.window.get() & 0xFF;
+  }
+
+  /**
+   * Reads up to <code>length</code> bytes of the current window into the given array, mapping the
+   * next window if the current one is exhausted.
+   *
+   * @param bytes  the array to read into
+   * @param offset the position in the array to read into
+   * @param length the maximum number of bytes to read
+   * @return the number of bytes read, or -1 at the end of the file
+   * @throws IOException if mapping the next window fails
+   */
+  @Override
+  public int read(byte[] bytes, int offset, int length) throws IOException {
+    Objects.checkFromIndexSize(offset, length, bytes.length);
+    if (length == 0) {
+      return 0;
+    }
+    if (!this.ensureWindow()) {
+      return -1;
+    }
+    int bytesRead = Math.min(length, this.window.remaining());
+    this.window.get(bytes, offset, bytesRead);
+    return bytesRead;
+  }
+
+  /**
+   * Returns the number of bytes left in the current window.
+   *
+   * @return the number of bytes which can be read without mapping a window
+   */
+  @Override
+  public int available() {
+    return Objects.isNull(this.window) ? 0 : this.window.remaining();
+  }
+
+  /**
+   * Closes the underlying file. The mapped window is released once it is garbage collected.
+   *
+   * @throws IOException if closing the file fails
+   */
+  @Override
+  public void close() throws IOException {
+    this.window = null;
+    this.channel.close();
+  }
+
+  /**
+   * Maps the next window if the current one is exhausted and returns false if the end of the file
+   * is reached.
+   *
+   * @return true if a byte can be read from the current window
+   * @throws IOException if mapping the next window fails
+   */
+  private boolean ensureWindow() throws IOException {
+    if (Objects.nonNull(this.window) && this.window.hasRemaining()) {
+      return true;
+    }
+    if (Objects.nonNull(this.window)) {
+      this.windowStart += this.window.capacity();
+    }
+    if (this.windowStart >= this.size) {
+      return false;
+    }
+
+    long length = Math.min(this.windowSize, this.size - this.windowStart);
+    this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, this.windowStart, length);
+    return true;
+  }
+}
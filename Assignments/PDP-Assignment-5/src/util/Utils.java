@@ -1,6 +1,14 @@
 package util;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -63,4 +71,61 @@ public class Utils {
       throw new IllegalArgumentException("Map cannot be null or empty");
     }
   }
+
+  /**
+   * Returns the number of bits needed to store the index of a coding symbol when the given number
+   * of coding symbols are used. For e.g. a binary code needs 1 bit, a ternary or a quaternary code
+   * needs 2 bits and a hexadecimal code needs 4 bits per coding symbol.
+   *
+   * @param numberOfCodingSymbols the number of coding symbols
+   * @return the number of bits needed per coding symbol
+   * @throws IllegalArgumentException if the given number of coding symbols is not positive
+   */
+  public static int getBitsPerCodingSymbol(int numberOfCodingSymbols)
+          throws IllegalArgumentException {
+
+    if (numberOfCodingSymbols <= 0) {
+      throw new IllegalArgumentException(
+              String.format("Invalid number of coding symbols:'%d'", numberOfCodingSymbols));
+    }
+    return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(numberOfCodingSymbols - 1));
+  }
+
+  /**
+   * Returns an array which maps each coding symbol to its index in the given string. The array is
+   * indexed by the coding symbol itself and all the other characters up to the largest coding
+   * symbol are mapped to -1.
+   *
+   * @param codingSymbols the coding symbols
+   * @return an array which maps each coding symbol to its index
+   */
+  public static int[] getCodingSymbolIndexArray(String codingSymbols) {
+    char maxCodingSymbol = 0;
+    for (char codingSymbol : codingSymbols.toCharArray()) {
+      maxCodingSymbol = (char) Math.max(maxCodingSymbol, codingSymbol);
+    }
+
+    int[] codingSymbolIndex = new int[maxCodingSymbol + 1];
+    Arrays.fill(codingSymbolIndex, -1);
+    for (int i = 0; i < codingSymbols.length(); i++) {
+      codingSymbolIndex[codingSymbols.charAt(i)] = i;
+    }
+    return codingSymbolIndex;
+  }
+
+  /**
+   * Returns a buffered reader of the given UTF-8 encoded file which reads a malformed or
+   * unmappable byte sequence as the replacement character instead of failing, the same way the
+   * frequencies of a file are counted.
+   *
+   * @param file the UTF-8 encoded file to read
+   * @return a reader of the given file
+   * @throws IOException if opening the file fails
+   */
+  public static BufferedReader newUtf8Reader(Path file) throws IOException {
+    return new BufferedReader(new InputStreamReader(Files.newInputStream(file),
+            StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)));
+  }
 }
@@ -0,0 +1,123 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Map;
+
+import decoder.AdaptiveDecoder;
+import decoder.AdaptiveHuffmanDecoder;
+import encoder.AdaptiveEncoder;
+import encoder.AdaptiveHuffmanEncoder;
+import encoder.HuffmanEncoder;
+
+/**
+ * A Junit class to test {@link encoder.AdaptiveHuffmanEncoder} and {@link
+ * decoder.AdaptiveHuffmanDecoder}.
+ */
+public class AdaptiveHuffmanTest {
+
+  @Test
+  public void testEncodingSmallMessage() {
+    AdaptiveEncoder encoder = new AdaptiveHuffmanEncoder(Arrays.asList('0', '1'));
+    String a = String.format("%16s", Integer.toBinaryString('a')).replace(' ', '0');
+    String b = String.format("%16s", Integer.toBinaryString('b')).replace(' ', '0');
+
+    // a is sent raw, then coded as "1", b is sent raw after the escape code "0"
+    Assert.assertEquals(a + "1" + "0" + b, encoder.encode("aab"));
+    Map<Character, String> codingTable = encoder.getCodingTable();
+    Assert.assertEquals("1", codingTable.get('a'));
+    Assert.assertEquals("01", codingTable.get('b'));
+
+    AdaptiveDecoder decoder = new AdaptiveHuffmanDecoder("01");
+    Assert.assertEquals("aab", decoder.decode(a + "1" + "0" + b));
+    Assert.assertEquals(codingTable, decoder.getCodingTable());
+  }
+
+  @Test
+  public void testDecodingInArbitraryParts() throws IOException {
+    String message = TestFixtures.getPassage() + "\u00e9\u4e16\ud83d\ude00";
+    AdaptiveEncoder encoder = new AdaptiveHuffmanEncoder(Arrays.asList('x', 'y'));
+    AdaptiveDecoder decoder = new AdaptiveHuffmanDecoder("xy");
+
+    StringBuilder encodedMessage = new StringBuilder();
+    for (int i = 0; i < message.length(); i += 37) {
+      encodedMessage.append(encoder.encode(message.substring(i, Math.min(message.length(),
+              i + 37))));
+    }
+
+    StringBuilder decodedMessage = new StringBuilder();
+    for (int i = 0; i < encodedMessage.length(); i += 13) {
+      decodedMessage.append(decoder.decode(encodedMessage.substring(i,
+              Math.min(encodedMessage.length(), i + 13))));
+    }
+    Assert.assertTrue(decoder.isAtSymbolBoundary());
+    Assert.assertEquals(message, decodedMessage.toString());
+    Assert.assertEquals(encoder.getCodingTable(), decoder.getCodingTable());
+
+    Assert.assertEquals("", decoder.decode("x"));
+    Assert.assertFalse(decoder.isAtSymbolBoundary());
+  }
+
+  @Test
+  public void testAdaptiveCodeIsCloseToStaticCode() throws IOException {
+    String message = TestFixtures.getPassage();
+    String adaptiveCode = new AdaptiveHuffmanEncoder(Arrays.asList('0', '1')).encode(message);
+
+    HuffmanEncoder encoder = new HuffmanEncoder();
+    String staticCode = encoder.encode(
+            encoder.generateCodingTable(Arrays.asList('0', '1'), message), message);
+    int distinctSymbols = (int) message.chars().distinct().count();
+
+    // the adaptive code pays for the raw symbols and for learning the frequencies
+    Assert.assertTrue(adaptiveCode.length() < staticCode.length() + distinctSymbols * 24);
+  }
+
+  @Test
+  public void testPackedStreams() throws IOException {
+    String message = TestFixtures.getPassage();
+    AdaptiveEncoder encoder = new AdaptiveHuffmanEncoder(Arrays.asList('0', '1'));
+    AdaptiveDecoder decoder = new AdaptiveHuffmanDecoder("01");
+
+    StringWriter writer = new StringWriter();
+    for (String part : Arrays.asList(message.substring(0, 100), message.substring(100))) {
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      long encodedLength = encoder.encode(new StringReader(part), outputStream);
+      Assert.assertEquals(part.length(), decoder.decode(
+              new ByteArrayInputStream(outputStream.toByteArray()), encodedLength, writer));
+    }
+    Assert.assertEquals(message, writer.toString());
+
+    encoder.reset();
+    decoder.reset();
+    Assert.assertEquals("ab", decoder.decode(encoder.encode("ab")));
+  }
+
+  @Test
+  public void testInvalidParams() {
+    try {
+      new AdaptiveHuffmanEncoder(Arrays.asList('0', '1', '2'));
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("adaptive coding needs exactly 2 unique coding symbols", e.getMessage());
+    }
+
+    try {
+      new AdaptiveHuffmanDecoder("00");
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("adaptive coding needs exactly 2 unique coding symbols", e.getMessage());
+    }
+
+    try {
+      new AdaptiveHuffmanDecoder("01").decode("0120");
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,136 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import codingtable.BlockCodingTables;
+import decoder.BlockHuffmanDecoder;
+import encoder.BlockHuffmanEncoder;
+import encoder.HuffmanEncoder;
+import util.Utils;
+
+/**
+ * A Junit class to test {@link encoder.BlockHuffmanEncoder} and {@link
+ * decoder.BlockHuffmanDecoder}.
+ */
+public class BlockHuffmanTest {
+
+  private String getSectionedMessage() throws IOException {
+    StringBuilder builder = new StringBuilder(TestFixtures.getPassage());
+    for (int i = 0; i < 2000; i++) {
+      builder.append(String.format("%08x;", i * 2654435761L & 0xffffffffL));
+    }
+    builder.append(TestFixtures.getPassage().toUpperCase());
+    return builder.toString();
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    String message = getSectionedMessage();
+    HuffmanEncoder huffmanEncoder = new HuffmanEncoder();
+    BlockHuffmanEncoder encoder = new BlockHuffmanEncoder(huffmanEncoder, 256, 6, 0.02);
+    BlockHuffmanDecoder decoder = new BlockHuffmanDecoder();
+
+    for (String codingSymbols : new String[]{"01", "012", "0123456789abcdef"}) {
+      List<Character> codingSymbolList = Utils.convertStringToCharacterArray(codingSymbols);
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      long encodedLength = encoder.encode(codingSymbolList, message, outputStream);
+      Assert.assertEquals(message, decoder.decode(outputStream.toByteArray()));
+
+      BlockCodingTables blockCodingTables =
+              encoder.generateCodingTables(codingSymbolList, message);
+      Assert.assertEquals(encodedLength, blockCodingTables.getEncodedLength());
+      Assert.assertEquals(message.length(), blockCodingTables.getMessageLength());
+      Assert.assertTrue(blockCodingTables.getTables().size() > 1);
+
+      // the sections coded with their own tables take fewer coding symbols than a single table
+      Map<Character, String> codingTable =
+              huffmanEncoder.generateCodingTable(codingSymbolList, message);
+      Assert.assertTrue(encodedLength < huffmanEncoder.encode(codingTable, message).length());
+    }
+  }
+
+  @Test
+  public void testSwitchTolerance() throws IOException {
+    String message = getSectionedMessage();
+    List<Character> codingSymbols = Utils.convertStringToCharacterArray("01");
+    BlockCodingTables switchingTables = new BlockHuffmanEncoder(new HuffmanEncoder(), 256, 6, 0)
+            .generateCodingTables(codingSymbols, message);
+    BlockCodingTables stickyTables = new BlockHuffmanEncoder(new HuffmanEncoder(), 256, 6, 0.25)
+            .generateCodingTables(codingSymbols, message);
+    Assert.assertTrue(stickyTables.getNumberOfSwitches()
+            <= switchingTables.getNumberOfSwitches());
+
+    BlockCodingTables singleTable = new BlockHuffmanEncoder(new HuffmanEncoder(), 256, 6, 100)
+            .generateCodingTables(codingSymbols, message);
+    Assert.assertEquals(1, singleTable.getNumberOfSwitches());
+    Assert.assertEquals(1, singleTable.getTables().size());
+    Assert.assertEquals((message.length() + 255) / 256, singleTable.getSwitchBlocks(0));
+  }
+
+  @Test
+  public void testShortMessages() {
+    BlockHuffmanEncoder encoder = new BlockHuffmanEncoder(new HuffmanEncoder(), 4, 3, 0);
+    BlockHuffmanDecoder decoder = new BlockHuffmanDecoder();
+    for (String message : new String[]{"a", "aaaaaaaaa", "abcd", "aaaabbbbccccddddaaaa"}) {
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      try {
+        encoder.encode(Utils.convertStringToCharacterArray("01"), message, outputStream);
+      } catch (IOException e) {
+        Assert.fail(e.getMessage());
+      }
+      Assert.assertEquals(message, decoder.decode(outputStream.toByteArray()));
+    }
+  }
+
+  @Test
+  public void testInvalidParams() throws IOException {
+    try {
+      new BlockHuffmanEncoder(new HuffmanEncoder(), 0, 6, 0.02);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid block size:'0'", e.getMessage());
+    }
+
+    try {
+      new BlockHuffmanEncoder(new HuffmanEncoder(), 256, 6, Double.NaN);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid tolerance:'NaN'", e.getMessage());
+    }
+
+    try {
+      new BlockHuffmanEncoder(new HuffmanEncoder()).generateCodingTables(
+              Utils.convertStringToCharacterArray("01"), "");
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid string:''", e.getMessage());
+    }
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    new BlockHuffmanEncoder(new HuffmanEncoder()).encode(
+            Utils.convertStringToCharacterArray("01"), TestFixtures.getPassage(), outputStream);
+    byte[] packedMessage = outputStream.toByteArray();
+    try {
+      new BlockHuffmanDecoder().decode(Arrays.copyOf(packedMessage, 3));
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("malformed block coding tables", e.getMessage());
+      Assert.assertTrue(e.getCause() instanceof EOFException);
+    }
+    for (int length : new int[]{40, packedMessage.length - 1}) {
+      try {
+        new BlockHuffmanDecoder().decode(Arrays.copyOf(packedMessage, length));
+        Assert.fail("should have failed");
+      } catch (IllegalStateException e) {
+        Assert.assertTrue(e.getMessage().startsWith("malformed block coding tables")
+                || e.getMessage().equals("unexpected end of packed stream"));
+      }
+    }
+  }
+}
@@ -0,0 +1,178 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import codingtable.CanonicalCodingTable;
+import decoder.DecoderImpl;
+import decoder.LookupTableDecoder;
+import encoder.HuffmanEncoder;
+import util.Utils;
+
+/**
+ * A Junit class to test the bulk loading and the export of codes by {@link decoder.DecoderImpl}.
+ */
+public class BulkCodeLoadingTest {
+
+  @Test
+  public void testBulkLoadingMatchesAddCode() throws IOException {
+    String message = TestFixtures.getPassage();
+    HuffmanEncoder encoder = new HuffmanEncoder();
+
+    for (String codingSymbols : new String[]{"01", "012", "0123456789abcdef"}) {
+      List<Character> codingSymbolList = Utils.convertStringToCharacterArray(codingSymbols);
+      Map<Character, String> codingTable = encoder.generateCodingTable(codingSymbolList, message);
+      String encodedMessage = encoder.encode(codingTable, message);
+
+      DecoderImpl expectedDecoder = new DecoderImpl(codingSymbols);
+      for (Map.Entry<Character, String> entry : codingTable.entrySet()) {
+        expectedDecoder.addCode(entry.getKey(), entry.getValue());
+      }
+
+      DecoderImpl decoder = new DecoderImpl(codingSymbols);
+      decoder.addCodes(codingTable);
+      Assert.assertEquals(expectedDecoder.allCodes(), decoder.allCodes());
+      Assert.assertEquals(expectedDecoder.isCodeComplete(), decoder.isCodeComplete());
+      Assert.assertEquals(message, decoder.decode(encodedMessage));
+
+      // the passage holds line separators, which are symbols of the exported lines too
+      StringWriter writer = new StringWriter();
+      Assert.assertEquals(codingTable.size(), decoder.writeCodes(writer));
+      DecoderImpl reloadedDecoder = new LookupTableDecoder(codingSymbols);
+      reloadedDecoder.addCodes(new StringReader(writer.toString()));
+      Assert.assertEquals(decoder.allCodes(), reloadedDecoder.allCodes());
+      Assert.assertEquals(message, reloadedDecoder.decode(encodedMessage));
+
+      reloadedDecoder = new DecoderImpl(codingSymbols);
+      reloadedDecoder.addCodes(new StringReader(decoder.allCodes()));
+      Assert.assertEquals(decoder.allCodes(), reloadedDecoder.allCodes());
+
+      byte[] binaryTable = CanonicalCodingTable.fromCodingTable(codingSymbols, codingTable)
+              .toByteArray();
+      Map<Character, String> canonicalTable =
+              CanonicalCodingTable.fromByteArray(binaryTable).getCodingTable();
+      reloadedDecoder = new DecoderImpl(codingSymbols);
+      reloadedDecoder.addCodes(new DataInputStream(new ByteArrayInputStream(binaryTable)));
+      Assert.assertEquals(message,
+              reloadedDecoder.decode(encoder.encode(canonicalTable, message)));
+    }
+  }
+
+  @Test
+  public void testBulkLoadingExtendsExistingCodes() throws IOException {
+    DecoderImpl decoder = new LookupTableDecoder("01");
+    decoder.addCode('a', "0");
+    Assert.assertEquals("a", decoder.decode("0"));
+
+    decoder.addCodes(new StringReader("b:10\n\nc:110\r\nd:111\n"));
+    Assert.assertTrue(decoder.isCodeComplete());
+    Assert.assertEquals("abcd", decoder.decode("010110111"));
+
+    StringWriter writer = new StringWriter();
+    decoder.writeCodes(writer);
+    String lineSeparator = System.lineSeparator();
+    Assert.assertEquals("a:0" + lineSeparator + "b:10" + lineSeparator + "c:110" + lineSeparator
+            + "d:111" + lineSeparator, writer.toString());
+
+    // the codes are written in the order of the coding tree, not in the order of the symbols
+    decoder = new DecoderImpl("01");
+    decoder.addCodes(new StringReader("b:0\na:1"));
+    writer = new StringWriter();
+    Assert.assertEquals(2, decoder.writeCodes(writer));
+    Assert.assertEquals("b:0" + lineSeparator + "a:1" + lineSeparator, writer.toString());
+    Assert.assertEquals("a:1" + lineSeparator + "b:0", decoder.allCodes());
+    Assert.assertEquals("", new DecoderImpl("01").allCodes());
+  }
+
+  @Test
+  public void testAllConflictsAreReported() {
+    DecoderImpl decoder = new DecoderImpl("01");
+    decoder.addCode('a', "00");
+
+    Map<Character, String> codingTable = new LinkedHashMap<>();
+    codingTable.put('b', "001");
+    codingTable.put('c', "0");
+    codingTable.put('a', "11");
+    codingTable.put('d', "10");
+    codingTable.put('e', "101");
+    codingTable.put('f', "1");
+    codingTable.put('g', "12");
+    codingTable.put('h', "");
+    codingTable.put('i', "10");
+
+    try {
+      decoder.addCodes(codingTable);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      String lineSeparator = System.lineSeparator();
+      Assert.assertEquals("code for symbol:'b' conflicts with code for symbol:'a'" + lineSeparator
+              + "code for symbol:'c' is a prefix of another code" + lineSeparator
+              + "code for symbol:'a' already exists" + lineSeparator
+              + "code for symbol:'e' conflicts with code for symbol:'d'" + lineSeparator
+              + "code for symbol:'f' is a prefix of another code" + lineSeparator
+              + "Invalid coding symbol:'2' in code for symbol:'g'" + lineSeparator
+              + "Invalid code for symbol:'h'" + lineSeparator
+              + "code for symbol:'i' conflicts with code for symbol:'d'", e.getMessage());
+    }
+    Assert.assertEquals("a:00", decoder.allCodes());
+
+    try {
+      decoder.addCodes(new StringReader("b:01\nbad line\nc:1"));
+      Assert.fail("should have failed");
+    } catch (IOException | IllegalStateException e) {
+      Assert.assertEquals("Invalid line:'bad line'", e.getMessage());
+    }
+    Assert.assertEquals("a:00", decoder.allCodes());
+  }
+
+  @Test
+  public void testInvalidParams() throws IOException {
+    DecoderImpl decoder = new DecoderImpl("01");
+    try {
+      decoder.addCodes((Map<Character, String>) null);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Map cannot be null or empty", e.getMessage());
+    }
+
+    try {
+      decoder.addCodes(new StringReader("\n"));
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("codes cannot be empty", e.getMessage());
+    }
+
+    Map<Character, String> codingTable = new LinkedHashMap<>();
+    codingTable.put('a', "0");
+    codingTable.put('b', "1");
+    byte[] binaryTable = CanonicalCodingTable.fromCodingTable("01", codingTable).toByteArray();
+    try {
+      new DecoderImpl("10").addCodes(new DataInputStream(new ByteArrayInputStream(binaryTable)));
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid coding symbols:'01'", e.getMessage());
+    }
+
+    try {
+      decoder.writeCodes(null);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("writer cannot be null", e.getMessage());
+    }
+
+    decoder.freeze();
+    try {
+      decoder.addCodes(codingTable);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot add code to a frozen decoder", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,160 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import decoder.Decoder;
+import decoder.DecoderImpl;
+import encoder.CachingHuffmanEncoder;
+import encoder.HuffmanEncoder;
+
+/**
+ * A Junit class to test {@link encoder.CachingHuffmanEncoder}.
+ */
+public class CachingHuffmanEncoderTest {
+
+  private final List<Character> codingSymbols = Arrays.asList('0', '1');
+
+  @Test
+  public void testSimilarMessagesShareCodingTable() throws IOException {
+    String passage = TestFixtures.getPassage();
+    CachingHuffmanEncoder encoder = new CachingHuffmanEncoder(new HuffmanEncoder());
+
+    Map<Character, String> codingTable = encoder.generateCodingTable(codingSymbols, passage);
+    Assert.assertEquals(new HuffmanEncoder().generateCodingTable(codingSymbols, passage),
+            codingTable);
+    Assert.assertEquals(0, encoder.getHits());
+    Assert.assertEquals(1, encoder.getMisses());
+
+    Assert.assertSame(codingTable, encoder.generateCodingTable(codingSymbols, passage));
+    String similarPassage = passage.replaceFirst("the", "tha");
+    Assert.assertSame(codingTable, encoder.generateCodingTable(codingSymbols, similarPassage));
+    Assert.assertEquals(2, encoder.getHits());
+    Assert.assertEquals(1, encoder.getMisses());
+    Assert.assertEquals(1, encoder.getSize());
+
+    Decoder decoder = new DecoderImpl("01");
+    for (Map.Entry<Character, String> entry : codingTable.entrySet()) {
+      decoder.addCode(entry.getKey(), entry.getValue());
+    }
+    Assert.assertEquals(similarPassage,
+            decoder.decode(encoder.encode(codingTable, similarPassage)));
+  }
+
+  @Test
+  public void testCachedTableIsNotReusedWhenItDoesNotFit() throws IOException {
+    String passage = TestFixtures.getPassage();
+    CachingHuffmanEncoder encoder = new CachingHuffmanEncoder(new HuffmanEncoder());
+    encoder.generateCodingTable(codingSymbols, passage);
+
+    // a new symbol is not covered by the cached table
+    Map<Character, String> codingTable =
+            encoder.generateCodingTable(codingSymbols, passage + "\u00e9");
+    Assert.assertTrue(codingTable.containsKey('\u00e9'));
+
+    // the ternary table is cached separately from the binary one
+    encoder.generateCodingTable(Arrays.asList('0', '1', '2'), passage);
+    Assert.assertEquals(0, encoder.getHits());
+    Assert.assertEquals(3, encoder.getMisses());
+
+    // the same fingerprint, but the cached table is one coding symbol longer than the Huffman code
+    CachingHuffmanEncoder strictEncoder = new CachingHuffmanEncoder(new HuffmanEncoder(), 4, 0);
+    strictEncoder.generateCodingTable(codingSymbols, "aaaaabbccdddddee");
+    strictEncoder.generateCodingTable(codingSymbols, "aaaabbcccddddddee");
+    Assert.assertEquals(0, strictEncoder.getHits());
+
+    CachingHuffmanEncoder tolerantEncoder =
+            new CachingHuffmanEncoder(new HuffmanEncoder(), 4, 0.05);
+    tolerantEncoder.generateCodingTable(codingSymbols, "aaaaabbccdddddee");
+    tolerantEncoder.generateCodingTable(codingSymbols, "aaaabbcccddddddee");
+    Assert.assertEquals(1, tolerantEncoder.getHits());
+  }
+
+  @Test
+  public void testRepeatedSkewedMessageIsReused() throws IOException {
+    CachingHuffmanEncoder encoder = new CachingHuffmanEncoder(new HuffmanEncoder(), 4, 0);
+    for (int i = 0; i < 5; i++) {
+      encoder.generateCodingTable(codingSymbols, "aaaaaaaabc");
+      encoder.generateCodingTable(codingSymbols, TestFixtures.getPassage());
+    }
+    Assert.assertEquals(8, encoder.getHits());
+    Assert.assertEquals(2, encoder.getMisses());
+  }
+
+  @Test
+  public void testCacheHitBuildsNoTree() throws IOException {
+    int[] treeBuilds = new int[1];
+    HuffmanEncoder countingEncoder = new HuffmanEncoder() {
+      @Override
+      protected Map<Character, String> generateCodingTable(List<Character> codingSymbols,
+                                                           long[] frequencies) {
+        treeBuilds[0]++;
+        return super.generateCodingTable(codingSymbols, frequencies);
+      }
+    };
+    CachingHuffmanEncoder encoder = new CachingHuffmanEncoder(countingEncoder);
+    String passage = TestFixtures.getPassage();
+    for (int i = 0; i < 100; i++) {
+      encoder.generateCodingTable(codingSymbols, passage);
+      encoder.generateCodingTable(codingSymbols, "aaaaaaaabc");
+    }
+    Assert.assertEquals(198, encoder.getHits());
+    Assert.assertEquals(2, encoder.getMisses());
+    Assert.assertEquals(2, treeBuilds[0]);
+  }
+
+  @Test
+  public void testLeastRecentlyUsedTableIsEvicted() {
+    CachingHuffmanEncoder encoder = new CachingHuffmanEncoder(new HuffmanEncoder(), 2, 0.5);
+    encoder.generateCodingTable(codingSymbols, "aaaabbc");
+    encoder.generateCodingTable(codingSymbols, "xxxxyyz");
+    encoder.generateCodingTable(codingSymbols, "aaaabbc");
+    encoder.generateCodingTable(codingSymbols, "ppppqqr");
+    Assert.assertEquals(1, encoder.getHits());
+    Assert.assertEquals(2, encoder.getSize());
+
+    encoder.generateCodingTable(codingSymbols, "aaaabbc");
+    Assert.assertEquals(2, encoder.getHits());
+    encoder.generateCodingTable(codingSymbols, "xxxxyyz");
+    Assert.assertEquals(2, encoder.getHits());
+    Assert.assertEquals(4, encoder.getMisses());
+
+    encoder.clear();
+    Assert.assertEquals(0, encoder.getSize());
+  }
+
+  @Test
+  public void testInvalidParams() {
+    try {
+      new CachingHuffmanEncoder(null);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("encoder cannot be null", e.getMessage());
+    }
+
+    try {
+      new CachingHuffmanEncoder(new HuffmanEncoder(), 0, 0.1);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid cache size:'0'", e.getMessage());
+    }
+
+    try {
+      new CachingHuffmanEncoder(new HuffmanEncoder(), 1, Double.NaN);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid tolerance:'NaN'", e.getMessage());
+    }
+
+    try {
+      new CachingHuffmanEncoder(new HuffmanEncoder()).generateCodingTable(
+              Arrays.asList('0', '0'), "abc");
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("duplicate coding symbols are not allowed", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,218 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import codingtable.CanonicalCodingTable;
+import decoder.CanonicalDecoder;
+import decoder.Decoder;
+import encoder.HuffmanEncoder;
+import util.Utils;
+
+/**
+ * A Junit class to test {@link codingtable.CanonicalCodingTable} and {@link
+ * decoder.CanonicalDecoder}.
+ */
+public class CanonicalCodingTableTest {
+
+  @Test
+  public void testCanonicalCodesWithTwoCodingSymbols() {
+    Map<Character, Integer> codeLengths = new HashMap<>();
+    codeLengths.put('a', 3);
+    codeLengths.put('b', 3);
+    codeLengths.put('c', 2);
+    codeLengths.put('d', 2);
+    codeLengths.put('e', 2);
+
+    Map<Character, String> codingTable =
+            new CanonicalCodingTable("01", codeLengths).getCodingTable();
+
+    Assert.assertEquals("00", codingTable.get('c'));
+    Assert.assertEquals("01", codingTable.get('d'));
+    Assert.assertEquals("10", codingTable.get('e'));
+    Assert.assertEquals("110", codingTable.get('a'));
+    Assert.assertEquals("111", codingTable.get('b'));
+  }
+
+  @Test
+  public void testCanonicalCodesWithThreeCodingSymbols() {
+    HuffmanEncoder encoder = new HuffmanEncoder();
+    CanonicalCodingTable canonicalCodingTable =
+            encoder.generateCanonicalCodingTable(Arrays.asList('0', '1', '2'), "abcd");
+    Map<Character, String> codingTable = canonicalCodingTable.getCodingTable();
+
+    Assert.assertEquals("0", codingTable.get('d'));
+    Assert.assertEquals("10", codingTable.get('a'));
+    Assert.assertEquals("11", codingTable.get('b'));
+    Assert.assertEquals("12", codingTable.get('c'));
+    Assert.assertEquals("012", canonicalCodingTable.getCodingSymbols());
+  }
+
+  @Test
+  public void testSerializationRoundTrip() {
+    HuffmanEncoder encoder = new HuffmanEncoder();
+    String message = "Robots are gonna take over the world, I am just playing my part";
+    for (String codingSymbols : Arrays.asList("01", "012", "@ #\n$", "0123456789abcdef")) {
+      CanonicalCodingTable canonicalCodingTable = encoder.generateCanonicalCodingTable(
+              Utils.convertStringToCharacterArray(codingSymbols), message);
+
+      byte[] serializedTable = canonicalCodingTable.toByteArray();
+      CanonicalCodingTable deserializedTable = CanonicalCodingTable.fromByteArray(serializedTable);
+
+      Assert.assertEquals(codingSymbols, deserializedTable.getCodingSymbols());
+      Assert.assertEquals(canonicalCodingTable.getCodingTable(),
+              deserializedTable.getCodingTable());
+      Assert.assertEquals(canonicalCodingTable.getCodeLengths(),
+              deserializedTable.getCodeLengths());
+    }
+  }
+
+  @Test
+  public void testSerializedTableIsCompact() {
+    HuffmanEncoder encoder = new HuffmanEncoder();
+    String message = "Robots are gonna take over the world, I am just playing my part";
+    CanonicalCodingTable canonicalCodingTable =
+            encoder.generateCanonicalCodingTable(Arrays.asList('0', '1'), message);
+
+    int numberOfSymbols = canonicalCodingTable.getCodingTable().size();
+    Assert.assertEquals(1 + 2 + 1 + 2 * numberOfSymbols,
+            canonicalCodingTable.toByteArray().length);
+  }
+
+  @Test
+  public void testCanonicalEncodingHasSameLengthAsHuffmanEncoding() {
+    HuffmanEncoder encoder = new HuffmanEncoder();
+    String message = "Hello world";
+    Map<Character, String> codingTable =
+            encoder.generateCodingTable(Arrays.asList('0', '1'), message);
+    Map<Character, String> canonicalCodingTable =
+            encoder.generateCanonicalCodingTable(Arrays.asList('0', '1'), message)
+                    .getCodingTable();
+
+    Assert.assertEquals(encoder.encode(codingTable, message).length(),
+            encoder.encode(canonicalCodingTable, message).length());
+  }
+
+  @Test
+  public void testInvalidCodeLengths() {
+    Map<Character, Integer> codeLengths = new HashMap<>();
+    codeLengths.put('a', 1);
+    codeLengths.put('b', 1);
+    codeLengths.put('c', 2);
+
+    try {
+      new CanonicalCodingTable("01", codeLengths);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("code lengths do not form a prefix code", e.getMessage());
+    }
+
+    codeLengths.put('c', 0);
+    try {
+      new CanonicalCodingTable("012", codeLengths);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid code length for symbol:'c'", e.getMessage());
+    }
+
+    try {
+      new CanonicalCodingTable("0", codeLengths);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("coding symbols cannot be less than 2", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testMalformedSerializedTable() {
+    for (byte[] serializedTable : Arrays.asList(new byte[0], new byte[]{2, 48},
+            new byte[]{2, 48, 49, 2, 97, 1, 0, 1}, new byte[]{2, 48, 49, 1, 97, 0})) {
+      try {
+        CanonicalCodingTable.fromByteArray(serializedTable);
+        Assert.fail("should have failed");
+      } catch (IllegalStateException e) {
+        Assert.assertTrue(e.getMessage().startsWith("malformed coding table"));
+      }
+    }
+  }
+
+  @Test
+  public void testCanonicalDecoder() {
+    Map<Character, Integer> codeLengths = new HashMap<>();
+    codeLengths.put('a', 3);
+    codeLengths.put('b', 3);
+    codeLengths.put('c', 2);
+    codeLengths.put('d', 2);
+    codeLengths.put('e', 2);
+
+    Decoder decoder = new CanonicalDecoder(new CanonicalCodingTable("01", codeLengths));
+    Assert.assertEquals("ace", decoder.decode("1100010"));
+    Assert.assertEquals("bad", decoder.decode("11111001"));
+    Assert.assertTrue(decoder.isCodeComplete());
+
+    for (String encodedMessage : Arrays.asList("11", "1102", "x")) {
+      try {
+        decoder.decode(encodedMessage);
+        Assert.fail("should have failed");
+      } catch (IllegalStateException e) {
+        Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testCanonicalDecoderWithIncompleteCode() {
+    Decoder decoder = new CanonicalDecoder("012");
+    try {
+      decoder.decode("0");
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+    }
+
+    decoder.addCode('a', "0");
+    decoder.addCode('b', "10");
+    Assert.assertEquals("aba", decoder.decode("0100"));
+
+    try {
+      decoder.decode("11");
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testCanonicalDecoderRejectsNonCanonicalCodes() {
+    Decoder decoder = new CanonicalDecoder("01");
+    decoder.addCode('a', "1");
+    decoder.addCode('b', "0");
+
+    try {
+      decoder.decode("10");
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("codes are not canonical", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testEncodingAndDecodingPassageTxt() throws IOException {
+    String originalMessage = TestFixtures.getPassage();
+
+    for (String codingSymbols : Arrays.asList("01", "012", "0123456789abcdef")) {
+      HuffmanEncoder encoder = new HuffmanEncoder();
+      CanonicalCodingTable canonicalCodingTable = encoder.generateCanonicalCodingTable(
+              Utils.convertStringToCharacterArray(codingSymbols), originalMessage);
+      String encodedMessage =
+              encoder.encode(canonicalCodingTable.getCodingTable(), originalMessage);
+
+      Decoder decoder = new CanonicalDecoder(
+              CanonicalCodingTable.fromByteArray(canonicalCodingTable.toByteArray()));
+      Assert.assertEquals(originalMessage, decoder.decode(encodedMessage));
+    }
+  }
+}
@@ -0,0 +1,176 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import decoder.DecoderImpl;
+import decoder.DecodingSession;
+import decoder.LookupTableDecoder;
+import encoder.HuffmanEncoder;
+import metrics.CodecMetrics;
+import metrics.MetricsRegistry;
+import util.Utils;
+
+/**
+ * A Junit class to test {@link metrics.CodecMetrics} and {@link metrics.MetricsRegistry}.
+ */
+public class CodecMetricsTest {
+
+  @Test
+  public void testEncoderMetrics() throws IOException {
+    String message = TestFixtures.getPassage();
+    List<Character> codingSymbols = Utils.convertStringToCharacterArray("01");
+    List<CodecMetrics> reports = new ArrayList<>();
+    HuffmanEncoder encoder = new HuffmanEncoder();
+    encoder.setMetricsListener(reports::add);
+
+    Map<Character, String> codingTable = encoder.generateCodingTable(codingSymbols, message);
+    String encodedMessage = encoder.encode(codingTable, message);
+    encoder.encode(codingSymbols, codingTable, new StringReader(message),
+            new ByteArrayOutputStream());
+    Assert.assertEquals(3, reports.size());
+
+    CodecMetrics buildMetrics = reports.get(0);
+    Assert.assertEquals(CodecMetrics.Operation.BUILD_TABLE, buildMetrics.getOperation());
+    Assert.assertEquals(message.length(), buildMetrics.getSymbols());
+    Assert.assertEquals(encodedMessage.length(), buildMetrics.getCodingSymbols());
+    Assert.assertEquals(CodecMetrics.getEntropy(message), buildMetrics.getEntropy(), 1e-12);
+    // a Huffman code is within one bit per symbol of the entropy
+    Assert.assertTrue(buildMetrics.getAverageCodeLengthInBits() >= buildMetrics.getEntropy());
+    Assert.assertTrue(buildMetrics.getAverageCodeLengthInBits() < buildMetrics.getEntropy() + 1);
+    Assert.assertTrue(buildMetrics.getCodingEfficiency() <= 1);
+    Assert.assertEquals(codingTable.values().stream().mapToInt(String::length).max().getAsInt(),
+            buildMetrics.getMaxCodeLength());
+
+    // the coding symbols are not given to encode a message as a string
+    CodecMetrics encodeMetrics = reports.get(1);
+    Assert.assertEquals(CodecMetrics.Operation.ENCODE, encodeMetrics.getOperation());
+    Assert.assertEquals(CodecMetrics.UNKNOWN_RADIX, encodeMetrics.getRadix());
+    Assert.assertEquals(encodedMessage.length(), encodeMetrics.getCodingSymbols());
+    Assert.assertTrue(Double.isNaN(encodeMetrics.getCompressionRatio()));
+    Assert.assertTrue(Double.isNaN(encodeMetrics.getAverageCodeLengthInBits()));
+
+    CodecMetrics streamMetrics = reports.get(2);
+    Assert.assertEquals(2, streamMetrics.getRadix());
+    Assert.assertEquals(16.0 * message.length() / encodedMessage.length(),
+            streamMetrics.getCompressionRatio(), 1e-9);
+    Assert.assertEquals(message.length(), streamMetrics.getSymbols());
+    Assert.assertEquals(encodedMessage.length(), streamMetrics.getCodingSymbols());
+    Assert.assertTrue(Double.isNaN(streamMetrics.getEntropy()));
+
+    encoder.setMetricsListener(null);
+    encoder.encode(codingTable, message);
+    Assert.assertEquals(3, reports.size());
+  }
+
+  @Test
+  public void testDecoderMetricsAddUpInRegistry() throws IOException {
+    String message = TestFixtures.getPassage();
+    List<Character> codingSymbols = Utils.convertStringToCharacterArray("012");
+    HuffmanEncoder encoder = new HuffmanEncoder();
+    Map<Character, String> codingTable = encoder.generateCodingTable(codingSymbols, message);
+    String encodedMessage = encoder.encode(codingTable, message);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    long encodedLength = encoder.encode(codingSymbols, codingTable, message, outputStream);
+
+    MetricsRegistry registry = new MetricsRegistry();
+    for (DecoderImpl decoder : new DecoderImpl[]{new DecoderImpl("012"),
+        new LookupTableDecoder("012")}) {
+      decoder.addCodes(codingTable);
+      decoder.setMetricsListener(registry);
+      Assert.assertEquals(message, decoder.decode(encodedMessage));
+      Assert.assertEquals(message, decoder.decode(outputStream.toByteArray(), encodedLength));
+
+      DecodingSession session = decoder.newSession(symbol -> { });
+      session.decode(encodedMessage);
+      session.finish();
+    }
+
+    Assert.assertEquals(6, registry.getCalls(CodecMetrics.Operation.DECODE));
+    Assert.assertEquals(0, registry.getCalls(CodecMetrics.Operation.ENCODE));
+    Assert.assertNull(registry.getTotals(CodecMetrics.Operation.ENCODE));
+
+    CodecMetrics totals = registry.getTotals(CodecMetrics.Operation.DECODE);
+    Assert.assertEquals(6L * message.length(), totals.getSymbols());
+    Assert.assertEquals(6L * encodedMessage.length(), totals.getCodingSymbols());
+    Assert.assertEquals(CodecMetrics.getEntropy(message), totals.getEntropy(), 1e-9);
+    Assert.assertEquals(codingTable.values().stream().mapToInt(String::length).max().getAsInt(),
+            totals.getMaxCodeLength());
+    Assert.assertTrue(totals.getSymbolsPerSecond() > 0);
+
+    registry.reset();
+    Assert.assertEquals(0, registry.getCalls(CodecMetrics.Operation.DECODE));
+  }
+
+  @Test
+  public void testRegistryKeepsTotalsPerRadix() {
+    MetricsRegistry registry = new MetricsRegistry();
+    registry.onMetrics(new CodecMetrics(CodecMetrics.Operation.ENCODE, 2, 8, 16, 1, 3, 10));
+    registry.onMetrics(new CodecMetrics(CodecMetrics.Operation.ENCODE, 2, 8, 24, 2, 4, 10));
+    CodecMetrics binaryTotals = registry.getTotals(CodecMetrics.Operation.ENCODE);
+    Assert.assertEquals(2, binaryTotals.getRadix());
+    Assert.assertEquals(2.5, binaryTotals.getAverageCodeLengthInBits(), 1e-12);
+
+    // a ternary code whose codes happen to use only two of the coding symbols
+    registry.onMetrics(new CodecMetrics(CodecMetrics.Operation.ENCODE, 3, 8, 8, 1, 1, 10));
+    Assert.assertEquals(3, registry.getCalls(CodecMetrics.Operation.ENCODE));
+    Assert.assertEquals(Arrays.asList(2, 3),
+            registry.getRadixes(CodecMetrics.Operation.ENCODE));
+    Assert.assertEquals(2.5, registry.getTotals(CodecMetrics.Operation.ENCODE, 2)
+            .getAverageCodeLengthInBits(), 1e-12);
+    Assert.assertEquals(Math.log(3) / Math.log(2), registry.getTotals(
+            CodecMetrics.Operation.ENCODE, 3).getAverageCodeLengthInBits(), 1e-12);
+    Assert.assertNull(registry.getTotals(CodecMetrics.Operation.ENCODE, 4));
+
+    CodecMetrics mixedTotals = registry.getTotals(CodecMetrics.Operation.ENCODE);
+    Assert.assertEquals(CodecMetrics.UNKNOWN_RADIX, mixedTotals.getRadix());
+    Assert.assertEquals(24, mixedTotals.getSymbols());
+    Assert.assertEquals(48, mixedTotals.getCodingSymbols());
+    Assert.assertTrue(Double.isNaN(mixedTotals.getCompressionRatio()));
+    Assert.assertTrue(Double.isNaN(mixedTotals.getCodingEfficiency()));
+  }
+
+  @Test
+  public void testDerivedFigures() {
+    Assert.assertEquals(0, CodecMetrics.getEntropy(""), 0);
+    Assert.assertEquals(2, CodecMetrics.getEntropy("abcd"), 1e-12);
+
+    CodecMetrics metrics = new CodecMetrics(CodecMetrics.Operation.ENCODE, 4, 8, 12, 1.5, 3,
+            2_000_000_000L);
+    Assert.assertEquals(1.5, metrics.getAverageCodeLength(), 1e-12);
+    Assert.assertEquals(3, metrics.getAverageCodeLengthInBits(), 1e-12);
+    Assert.assertEquals(0.5, metrics.getCodingEfficiency(), 1e-12);
+    Assert.assertEquals(128.0 / 24, metrics.getCompressionRatio(), 1e-12);
+    Assert.assertEquals(4, metrics.getSymbolsPerSecond(), 1e-12);
+  }
+
+  @Test
+  public void testInvalidParams() {
+    try {
+      new CodecMetrics(null, 2, 0, 0, 0, 0, 0);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("operation cannot be null", e.getMessage());
+    }
+
+    try {
+      new CodecMetrics(CodecMetrics.Operation.DECODE, -1, 0, 0, 0, 0, 0);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("metrics cannot be negative", e.getMessage());
+    }
+
+    try {
+      new MetricsRegistry().onMetrics(null);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("metrics cannot be null", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,124 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import decoder.CompiledDecoder;
+import decoder.DecoderImpl;
+import decoder.LookupTableDecoder;
+import decoder.treeutil.FlatPrefixTree;
+import encoder.HuffmanEncoder;
+import util.Utils;
+
+/**
+ * A Junit class to test {@link decoder.CompiledDecoder} and {@link
+ * decoder.treeutil.FlatPrefixTree}.
+ */
+public class CompiledDecoderTest {
+
+  @Test
+  public void testFlatTreeLayout() {
+    DecoderImpl decoder = new DecoderImpl("01");
+    decoder.addCode('a', "0");
+    decoder.addCode('b', "10");
+    decoder.addCode('c', "11");
+
+    FlatPrefixTree tree = decoder.compile().getCodingTree();
+    Assert.assertEquals(2, tree.getNumberOfStates());
+    Assert.assertEquals(3, tree.getNumberOfLeaves());
+    Assert.assertTrue(FlatPrefixTree.isLeaf(tree.getTransition(0, 0)));
+    Assert.assertEquals('a', tree.getLeafSymbol(FlatPrefixTree.getLeafIndex(
+            tree.getTransition(0, 0))));
+    Assert.assertEquals(1, tree.getTransition(0, 1));
+    Assert.assertEquals('c', tree.getLeafSymbol(FlatPrefixTree.getLeafIndex(
+            tree.getTransition(1, 1))));
+    Assert.assertTrue(tree.isTreeComplete());
+  }
+
+  @Test
+  public void testCompiledDecoderMatchesDecoderImpl() throws IOException {
+    String message = TestFixtures.getPassage();
+    HuffmanEncoder encoder = new HuffmanEncoder();
+
+    for (String codingSymbols : new String[]{"01", "012", "0123456789abcdef"}) {
+      List<Character> codingSymbolList = Utils.convertStringToCharacterArray(codingSymbols);
+      Map<Character, String> codingTable = encoder.generateCodingTable(codingSymbolList, message);
+
+      DecoderImpl decoder = new LookupTableDecoder(codingSymbols);
+      for (Map.Entry<Character, String> entry : codingTable.entrySet()) {
+        decoder.addCode(entry.getKey(), entry.getValue());
+      }
+      CompiledDecoder compiledDecoder = decoder.compile();
+
+      String encodedMessage = encoder.encode(codingTable, message);
+      Assert.assertEquals(message, compiledDecoder.decode(encodedMessage));
+      Assert.assertEquals(decoder.allCodes(), compiledDecoder.allCodes());
+      Assert.assertEquals(decoder.isCodeComplete(), compiledDecoder.isCodeComplete());
+      Assert.assertEquals(codingTable.size(),
+              compiledDecoder.getCodingTree().getNumberOfLeaves());
+
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      long encodedLength = encoder.encode(codingSymbolList, codingTable, message, outputStream);
+      Assert.assertEquals(message, compiledDecoder.decode(outputStream.toByteArray(),
+              encodedLength));
+    }
+  }
+
+  @Test
+  public void testCompiledDecoderIsFrozen() {
+    DecoderImpl decoder = new DecoderImpl("012");
+    decoder.addCode('a', "0");
+    decoder.addCode('b', "12");
+    CompiledDecoder compiledDecoder = decoder.compile();
+    Assert.assertFalse(compiledDecoder.isCodeComplete());
+
+    try {
+      compiledDecoder.addCode('c', "10");
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot add code to a compiled decoder", e.getMessage());
+    }
+
+    decoder.addCode('c', "10");
+    try {
+      compiledDecoder.decode("10");
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+    }
+    Assert.assertEquals("c", decoder.compile().decode("10"));
+  }
+
+  @Test
+  public void testDecodingFailures() {
+    CompiledDecoder emptyDecoder = new DecoderImpl("01").compile();
+    Assert.assertEquals("", emptyDecoder.allCodes());
+    Assert.assertFalse(emptyDecoder.isCodeComplete());
+
+    DecoderImpl decoder = new DecoderImpl("01");
+    decoder.addCode('a', "0");
+    decoder.addCode('b', "11");
+    CompiledDecoder compiledDecoder = decoder.compile();
+
+    for (String encodedMessage : new String[]{"0x", "01", "1", "10"}) {
+      try {
+        compiledDecoder.decode(encodedMessage);
+        Assert.fail("should have failed");
+      } catch (IllegalStateException e) {
+        Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+      }
+    }
+
+    DecoderImpl ternaryDecoder = new DecoderImpl("012");
+    ternaryDecoder.addCode('a', "0");
+    try {
+      ternaryDecoder.compile().decode(new byte[]{(byte) 0xC0}, 1);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("Invalid coding symbol index:'3'", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,225 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import container.ContainerFormat;
+import container.ContainerReader;
+import container.ContainerTool;
+import container.ContainerWriter;
+import container.ParallelContainerDecoder;
+import container.bean.BlockInfo;
+import encoder.HuffmanEncoder;
+import util.Utils;
+
+/**
+ * A Junit class to test {@link container.ContainerWriter}, {@link container.ContainerReader} and
+ * {@link container.ParallelContainerDecoder}.
+ */
+public class ContainerTest {
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    String text = TestFixtures.getText(20);
+    Path input = TestFixtures.writeTempFile(text);
+
+    for (String codingSymbols : new String[]{"01", "012", "0123456789abcdef"}) {
+      Path container = TestFixtures.createTempFile(".huf");
+      List<BlockInfo> blocks = new ContainerWriter(new HuffmanEncoder(),
+              Utils.convertStringToCharacterArray(codingSymbols), 1000).compress(input, container);
+
+      try (ContainerReader reader = new ContainerReader(container)) {
+        Assert.assertEquals(blocks.size(), reader.getNumberOfBlocks());
+        Assert.assertEquals(codingSymbols, reader.getCodingTable().getCodingSymbols());
+
+        StringWriter writer = new StringWriter();
+        Assert.assertEquals(text.length(), reader.decompress(writer));
+        Assert.assertEquals(text, writer.toString());
+
+        long decodedByteLength = 0;
+        for (int i = 0; i < reader.getNumberOfBlocks(); i++) {
+          BlockInfo blockInfo = reader.getBlockInfo(i);
+          String block = reader.decodeBlock(i);
+          Assert.assertFalse(Character.isHighSurrogate(block.charAt(block.length() - 1)));
+          Assert.assertEquals(blockInfo.getDecodedByteLength(),
+                  block.getBytes(StandardCharsets.UTF_8).length);
+          decodedByteLength += blockInfo.getDecodedByteLength();
+        }
+        Assert.assertEquals(Files.size(input), decodedByteLength);
+      }
+    }
+  }
+
+  @Test
+  public void testRandomAccessToBlocks() throws IOException {
+    String text = TestFixtures.getText(20);
+    Path container = TestFixtures.createTempFile(".huf");
+    new ContainerWriter(new HuffmanEncoder(), Utils.convertStringToCharacterArray("01"), 500)
+            .compress(TestFixtures.writeTempFile(text), container);
+
+    try (ContainerReader reader = new ContainerReader(container)) {
+      int symbols = 0;
+      for (int i = 0; i < 3; i++) {
+        symbols += reader.getBlockInfo(i).getSymbolCount();
+      }
+      String block = reader.decodeBlock(3);
+      Assert.assertEquals(text.substring(symbols, symbols + block.length()), block);
+    }
+  }
+
+  @Test
+  public void testEmptyInput() throws IOException {
+    Path input = TestFixtures.writeTempFile("");
+    Path container = TestFixtures.createTempFile(".huf");
+    List<BlockInfo> blocks = new ContainerWriter(new HuffmanEncoder(),
+            Utils.convertStringToCharacterArray("01")).compress(input, container);
+    Assert.assertTrue(blocks.isEmpty());
+
+    try (ContainerReader reader = new ContainerReader(container)) {
+      Assert.assertEquals(0, reader.getNumberOfBlocks());
+      Assert.assertNull(reader.getCodingTable());
+      StringWriter writer = new StringWriter();
+      Assert.assertEquals(0, reader.decompress(writer));
+      Assert.assertEquals("", writer.toString());
+    }
+  }
+
+  @Test
+  public void testMalformedInputIsReadAsReplacementCharacter() throws IOException {
+    Path input = TestFixtures.createTempFile(".txt");
+    Files.write(input, new byte[]{0x61, (byte) 0xc3, 0x62, 0x63});
+    Path container = TestFixtures.createTempFile(".huf");
+    new ContainerWriter(new HuffmanEncoder(), Utils.convertStringToCharacterArray("01"))
+            .compress(input, container);
+
+    try (ContainerReader reader = new ContainerReader(container)) {
+      StringWriter writer = new StringWriter();
+      reader.decompress(writer);
+      Assert.assertEquals("a\ufffdbc", writer.toString());
+    }
+  }
+
+  @Test
+  public void testCorruptedBlockIsDetected() throws IOException {
+    Path input = TestFixtures.writeTempFile(TestFixtures.getText(20));
+    Path container = TestFixtures.createTempFile(".huf");
+    List<BlockInfo> blocks = new ContainerWriter(new HuffmanEncoder(),
+            Utils.convertStringToCharacterArray("01"), 500).compress(input, container);
+
+    try (RandomAccessFile file = new RandomAccessFile(container.toFile(), "rw")) {
+      long position = blocks.get(2).getOffset() + ContainerFormat.BLOCK_HEADER_SIZE + 3;
+      file.seek(position);
+      int value = file.read();
+      file.seek(position);
+      file.write(value ^ 0x10);
+    }
+
+    try (ContainerReader reader = new ContainerReader(container)) {
+      Assert.assertFalse(reader.decodeBlock(1).isEmpty());
+      try {
+        reader.decodeBlock(2);
+        Assert.fail("should have failed");
+      } catch (IllegalStateException e) {
+        Assert.assertEquals("checksum mismatch in block:'2'", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testInvalidContainer() throws IOException {
+    try {
+      new ContainerReader(TestFixtures.writeTempFile("this is definitely not a container file"));
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("not a container file", e.getMessage());
+    }
+
+    Path container = TestFixtures.createTempFile(".huf");
+    new ContainerWriter(new HuffmanEncoder(), Utils.convertStringToCharacterArray("01"))
+            .compress(TestFixtures.writeTempFile("abracadabra"), container);
+    try (ContainerReader reader = new ContainerReader(container)) {
+      reader.getBlockInfo(1);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid block index:'1'", e.getMessage());
+    }
+
+    try {
+      new ContainerWriter(new HuffmanEncoder(), Utils.convertStringToCharacterArray("01"), 1);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid block size:'1'", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testParallelDecode() throws IOException {
+    String text = TestFixtures.getText(20);
+    Path input = TestFixtures.writeTempFile(text);
+    Path container = TestFixtures.createTempFile(".huf");
+    Path output = TestFixtures.createTempFile(".huf");
+    new ContainerWriter(new HuffmanEncoder(), Utils.convertStringToCharacterArray("0123"), 300)
+            .compress(input, container);
+
+    ParallelContainerDecoder decoder = new ParallelContainerDecoder(new ForkJoinPool(4));
+    try (ContainerReader reader = new ContainerReader(container)) {
+      Assert.assertTrue(reader.getNumberOfBlocks() > 50);
+      Assert.assertEquals(text, new String(decoder.decode(reader)));
+      Assert.assertEquals(text.length(), decoder.decode(reader, output));
+    }
+    Assert.assertArrayEquals(Files.readAllBytes(input), Files.readAllBytes(output));
+  }
+
+  @Test
+  public void testParallelDecodeOfCorruptedBlock() throws IOException {
+    Path input = TestFixtures.writeTempFile(TestFixtures.getText(20));
+    Path container = TestFixtures.createTempFile(".huf");
+    List<BlockInfo> blocks = new ContainerWriter(new HuffmanEncoder(),
+            Utils.convertStringToCharacterArray("01"), 500).compress(input, container);
+
+    try (RandomAccessFile file = new RandomAccessFile(container.toFile(), "rw")) {
+      long position = blocks.get(5).getOffset() + ContainerFormat.BLOCK_HEADER_SIZE;
+      file.seek(position);
+      int value = file.read();
+      file.seek(position);
+      file.write(value ^ 0x01);
+    }
+
+    try (ContainerReader reader = new ContainerReader(container)) {
+      new ParallelContainerDecoder(new ForkJoinPool(4)).decode(reader);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("checksum mismatch in block:'5'", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testTool() throws IOException {
+    String text = TestFixtures.getText(20);
+    Path input = TestFixtures.writeTempFile(text);
+    Path container = TestFixtures.createTempFile(".huf");
+    Path output = TestFixtures.createTempFile(".huf");
+
+    Assert.assertEquals("compressed into 1 blocks", ContainerTool.run(
+            new String[]{"compress", input.toString(), container.toString(), "012"}));
+    Assert.assertEquals(String.format("decompressed %d symbols from 1 blocks", text.length()),
+            ContainerTool.run(
+                    new String[]{"decompress", container.toString(), output.toString()}));
+    Assert.assertArrayEquals(Files.readAllBytes(input), Files.readAllBytes(output));
+
+    try {
+      ContainerTool.run(new String[]{"extract", input.toString()});
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("usage: compress <input> <container> [codingSymbols] "
+              + "| decompress <container> <output>", e.getMessage());
+    }
+  }
+}
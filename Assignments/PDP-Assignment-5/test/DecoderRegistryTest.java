@@ -0,0 +1,166 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import decoder.CompiledDecoder;
+import decoder.DecoderImpl;
+import decoder.DecoderRegistry;
+import decoder.LookupTableDecoder;
+import encoder.HuffmanEncoder;
+import util.Utils;
+
+/**
+ * A Junit class to test {@link decoder.DecoderImpl#freeze()} and {@link decoder.DecoderRegistry}.
+ */
+public class DecoderRegistryTest {
+
+  @Test
+  public void testFrozenDecoderCannotChange() {
+    DecoderImpl decoder = new LookupTableDecoder("01");
+    decoder.addCode('a', "0");
+    decoder.addCode('b', "10");
+    Assert.assertFalse(decoder.isFrozen());
+
+    CompiledDecoder frozenDecoder = decoder.freeze();
+    Assert.assertTrue(decoder.isFrozen());
+    Assert.assertEquals("ab", frozenDecoder.decode("010"));
+
+    try {
+      decoder.addCode('c', "11");
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot add code to a frozen decoder", e.getMessage());
+    }
+    Assert.assertEquals(decoder.allCodes(), frozenDecoder.allCodes());
+  }
+
+  @Test
+  public void testFailedFreezeLeavesDecoderUnfrozen() {
+    DecoderImpl decoder = new DecoderImpl("01") {
+      @Override
+      public CompiledDecoder compile() {
+        throw new IllegalStateException("cannot compile");
+      }
+    };
+    decoder.addCode('a', "0");
+    try {
+      decoder.freeze();
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot compile", e.getMessage());
+    }
+    Assert.assertFalse(decoder.isFrozen());
+    decoder.addCode('b', "1");
+    Assert.assertEquals("ab", decoder.decode("01"));
+  }
+
+  @Test
+  public void testConcurrentDecodingThroughRegistry()
+          throws IOException, InterruptedException, ExecutionException {
+
+    String message = TestFixtures.getPassage();
+    HuffmanEncoder encoder = new HuffmanEncoder();
+    DecoderRegistry registry = new DecoderRegistry();
+    List<String> tableIds = Arrays.asList("binary", "ternary", "hexadecimal");
+    List<String> codingSymbols = Arrays.asList("01", "012", "0123456789abcdef");
+    List<String> encodedMessages = new ArrayList<>();
+    for (int i = 0; i < tableIds.size(); i++) {
+      Map<Character, String> codingTable = encoder.generateCodingTable(
+              Utils.convertStringToCharacterArray(codingSymbols.get(i)), message);
+      registry.register(tableIds.get(i), codingSymbols.get(i), codingTable);
+      encodedMessages.add(encoder.encode(codingTable, message));
+    }
+    Assert.assertEquals(3, registry.size());
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Callable<String>> tasks = new ArrayList<>();
+      for (int i = 0; i < 48; i++) {
+        int table = i % tableIds.size();
+        tasks.add(() -> registry.get(tableIds.get(table)).decode(encodedMessages.get(table)));
+      }
+      for (Future<String> result : executor.invokeAll(tasks)) {
+        Assert.assertEquals(message, result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testDecoderIsBuiltOnce() throws InterruptedException, ExecutionException {
+    DecoderRegistry registry = new DecoderRegistry();
+    AtomicInteger builds = new AtomicInteger();
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Callable<CompiledDecoder>> tasks = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        tasks.add(() -> registry.getOrBuild("table", () -> {
+          builds.incrementAndGet();
+          DecoderImpl decoder = new DecoderImpl("01");
+          decoder.addCode('a', "0");
+          decoder.addCode('b', "1");
+          return decoder.freeze();
+        }));
+      }
+      CompiledDecoder first = null;
+      for (Future<CompiledDecoder> result : executor.invokeAll(tasks)) {
+        first = first == null ? result.get() : first;
+        Assert.assertSame(first, result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+    Assert.assertEquals(1, builds.get());
+
+    Assert.assertTrue(registry.contains("table"));
+    Assert.assertTrue(registry.remove("table"));
+    Assert.assertFalse(registry.contains("table"));
+    Assert.assertFalse(registry.remove("table"));
+  }
+
+  @Test
+  public void testInvalidParams() {
+    DecoderRegistry registry = new DecoderRegistry();
+    try {
+      registry.get("missing");
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid table id:'missing'", e.getMessage());
+    }
+
+    try {
+      registry.register("", new DecoderImpl("01").freeze());
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid string:''", e.getMessage());
+    }
+
+    try {
+      registry.register("table", null);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("decoder cannot be null", e.getMessage());
+    }
+
+    try {
+      registry.getOrBuild("table", () -> null);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("decoder cannot be null", e.getMessage());
+    }
+    Assert.assertEquals(0, registry.size());
+  }
+}
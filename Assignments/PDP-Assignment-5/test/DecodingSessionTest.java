@@ -0,0 +1,196 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.Map;
+
+import codingtable.HuffmanModel;
+import decoder.DecoderImpl;
+import decoder.DecodingSession;
+import decoder.ModelDecoder;
+import encoder.HuffmanEncoder;
+import encoder.ModelTrainer;
+import util.Utils;
+
+/**
+ * A Junit class to test {@link decoder.DecodingSession}.
+ */
+public class DecodingSessionTest {
+
+  private DecoderImpl getDecoder(String codingSymbols, Map<Character, String> codingTable) {
+    DecoderImpl decoder = new DecoderImpl(codingSymbols);
+    for (Map.Entry<Character, String> entry : codingTable.entrySet()) {
+      decoder.addCode(entry.getKey(), entry.getValue());
+    }
+    return decoder;
+  }
+
+  @Test
+  public void testChunksOfCodingSymbols() throws IOException {
+    String message = TestFixtures.getPassage();
+    HuffmanEncoder encoder = new HuffmanEncoder();
+
+    for (String codingSymbols : new String[]{"01", "012", "0123456789abcdef"}) {
+      List<Character> codingSymbolList = Utils.convertStringToCharacterArray(codingSymbols);
+      Map<Character, String> codingTable = encoder.generateCodingTable(codingSymbolList, message);
+      String encodedMessage = encoder.encode(codingTable, message);
+      DecoderImpl decoder = getDecoder(codingSymbols, codingTable);
+
+      for (int chunkSize : new int[]{1, 3, 7, 1000}) {
+        StringBuilder builder = new StringBuilder();
+        DecodingSession session = decoder.newSession(builder::append);
+        for (int start = 0; start < encodedMessage.length(); start += chunkSize) {
+          session.decode(encodedMessage.substring(start,
+                  Math.min(start + chunkSize, encodedMessage.length())));
+        }
+        session.finish();
+        Assert.assertEquals(message, builder.toString());
+        Assert.assertEquals(message.length(), session.getDecodedSymbols());
+        Assert.assertEquals(encodedMessage.length(), session.getCodingSymbolsRead());
+      }
+    }
+  }
+
+  @Test
+  public void testChunksOfPackedCodingSymbols() throws IOException {
+    String message = TestFixtures.getPassage();
+    HuffmanEncoder encoder = new HuffmanEncoder();
+
+    for (String codingSymbols : new String[]{"01", "01234", "0123456789abcdef"}) {
+      List<Character> codingSymbolList = Utils.convertStringToCharacterArray(codingSymbols);
+      Map<Character, String> codingTable = encoder.generateCodingTable(codingSymbolList, message);
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      long encodedLength = encoder.encode(codingSymbolList, codingTable, message, outputStream);
+      byte[] packedMessage = outputStream.toByteArray();
+      DecoderImpl decoder = getDecoder(codingSymbols, codingTable);
+
+      for (int chunkSize : new int[]{1, 5, 64}) {
+        CharBuffer output = CharBuffer.allocate(message.length());
+        DecodingSession session = decoder.newSession(output);
+        session.setEncodedLength(encodedLength);
+        for (int start = 0; start < packedMessage.length; start += chunkSize) {
+          session.decode(packedMessage, start, Math.min(chunkSize, packedMessage.length - start));
+        }
+        session.finish();
+        output.flip();
+        Assert.assertEquals(message, output.toString());
+      }
+    }
+  }
+
+  @Test
+  public void testCodeSpanningTwoChunks() {
+    DecoderImpl decoder = new DecoderImpl("01");
+    decoder.addCode('a', "0");
+    decoder.addCode('b', "10");
+    decoder.addCode('c', "11");
+
+    try {
+      decoder.decode("01");
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+    }
+
+    StringBuilder builder = new StringBuilder();
+    DecodingSession session = decoder.newSession(builder::append);
+    session.decode("01");
+    Assert.assertEquals("a", builder.toString());
+    Assert.assertFalse(session.isAtSymbolBoundary());
+    try {
+      session.finish();
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+    }
+
+    session.decode("01");
+    session.decode("");
+    session.decode("1");
+    Assert.assertTrue(session.isAtSymbolBoundary());
+    session.finish();
+    Assert.assertEquals("abc", builder.toString());
+  }
+
+  @Test
+  public void testEscapedSymbolsSpanningChunks() {
+    ModelTrainer trainer = new ModelTrainer();
+    trainer.addText("the quick brown fox jumps over the lazy dog");
+    HuffmanModel model = trainer.train(Utils.convertStringToCharacterArray("012"));
+    HuffmanEncoder encoder = new HuffmanEncoder();
+    String message = "the caf\u00e9 \u20ac";
+    String encodedMessage = encoder.encode(model, message);
+
+    StringBuilder builder = new StringBuilder();
+    DecodingSession session = new ModelDecoder(model).newSession(builder::append);
+    for (int i = 0; i < encodedMessage.length(); i++) {
+      session.decode(encodedMessage.substring(i, i + 1));
+    }
+    session.finish();
+    Assert.assertEquals(message, builder.toString());
+  }
+
+  @Test
+  public void testInvalidParams() throws IOException {
+    DecoderImpl decoder = new DecoderImpl("012");
+    decoder.addCode('a', "0");
+    decoder.addCode('b', "1");
+
+    try {
+      decoder.newSession((CharBuffer) null);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("output cannot be null", e.getMessage());
+    }
+
+    StringBuilder builder = new StringBuilder();
+    DecodingSession session = decoder.newSession(builder::append);
+    for (String chunk : new String[]{"x", "2"}) {
+      try {
+        session.decode(chunk);
+        Assert.fail("should have failed");
+      } catch (IllegalStateException e) {
+        Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+      }
+    }
+
+    try {
+      session.decode(new byte[]{(byte) 0xC0}, 0, 1);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("Invalid coding symbol index:'3'", e.getMessage());
+    }
+
+    try {
+      session.decode(new byte[2], 1, 2);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid range:'1, 2'", e.getMessage());
+    }
+
+    session = decoder.newSession(builder::append);
+    session.decode("01");
+    try {
+      session.setEncodedLength(1);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid encoded length:'1'", e.getMessage());
+    }
+
+    session.setEncodedLength(3);
+    try {
+      session.finish();
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+    }
+
+    // the padding bits after the encoded length are ignored
+    session.decode(new byte[]{0x40, 0x00}, 0, 2);
+    session.finish();
+    Assert.assertEquals("abb", builder.toString());
+  }
+}
@@ -246,4 +246,29 @@ public class EncoderTest {
 
     Assert.assertEquals("13776056472", encoder.encode(codingTable, message));
   }
+
+  @Test
+  public void testHuffmanEncoderWithSingleSymbolMessage() {
+    Encoder encoder = new HuffmanEncoder();
+    Map<Character, String> codingTable =
+            encoder.generateCodingTable(Arrays.asList('0', '1'), "aaaa");
+
+    Assert.assertEquals(1, codingTable.size());
+    Assert.assertEquals("0", codingTable.get('a'));
+    Assert.assertEquals("0000", encoder.encode(codingTable, "aaaa"));
+  }
+
+  @Test
+  public void testHuffmanEncoderWithCharactersOutsideAscii() {
+    String message = "\u00e9\u4e16\u4e16\u754c\u754c\u754ca";
+
+    Encoder encoder = new HuffmanEncoder();
+    Map<Character, String> codingTable =
+            encoder.generateCodingTable(Arrays.asList('0', '1'), message);
+
+    Assert.assertEquals("100", codingTable.get('a'));
+    Assert.assertEquals("101", codingTable.get('\u00e9'));
+    Assert.assertEquals("11", codingTable.get('\u4e16'));
+    Assert.assertEquals("0", codingTable.get('\u754c'));
+  }
 }
@@ -0,0 +1,216 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import codingtable.HuffmanModel;
+import decoder.ModelDecoder;
+import encoder.HuffmanEncoder;
+import encoder.ModelTrainer;
+import util.Utils;
+
+/**
+ * A Junit class to test {@link codingtable.HuffmanModel}, {@link encoder.ModelTrainer} and {@link
+ * decoder.ModelDecoder}.
+ */
+public class HuffmanModelTest {
+
+  @Test
+  public void testModelTrainedOnCorpusDirectory() throws IOException {
+    String passage = TestFixtures.getPassage();
+    int middle = passage.length() / 2;
+    Path corpus = Files.createTempDirectory("corpus");
+    Path nested = Files.createDirectory(corpus.resolve("nested"));
+    Path first = Files.write(corpus.resolve("first.txt"),
+            passage.substring(0, middle).getBytes(StandardCharsets.UTF_8));
+    Path second = Files.write(nested.resolve("second.txt"),
+            passage.substring(middle).getBytes(StandardCharsets.UTF_8));
+    Path modelFile = Files.createTempFile("model", ".bin");
+    try {
+      ModelTrainer trainer = new ModelTrainer();
+      trainer.addDirectory(corpus);
+      Assert.assertEquals(passage.length(), trainer.getCorpusLength());
+
+      for (String codingSymbols : new String[]{"01", "012", "0123456789abcdef"}) {
+        List<Character> codingSymbolList = Utils.convertStringToCharacterArray(codingSymbols);
+        HuffmanModel model = trainer.train(codingSymbolList);
+        Assert.assertEquals('\uffff', model.getEscapeSymbol());
+
+        // the codes of the symbols in the corpus are those of a table built from the corpus
+        Map<Character, String> codingTable =
+                new HuffmanEncoder().generateCodingTable(codingSymbolList, passage);
+        for (Map.Entry<Character, String> entry : codingTable.entrySet()) {
+          Assert.assertTrue(model.hasCode(entry.getKey()));
+          Assert.assertTrue(model.getCode(entry.getKey()).length()
+                  <= entry.getValue().length() + 1);
+        }
+
+        model.save(modelFile);
+        HuffmanModel loadedModel = HuffmanModel.load(modelFile);
+        Assert.assertEquals(model.getCodingTable().getCodingTable(),
+                loadedModel.getCodingTable().getCodingTable());
+        Assert.assertEquals(model.getEscapeSymbol(), loadedModel.getEscapeSymbol());
+        Assert.assertTrue(Files.size(modelFile) < 3 * (codingTable.size() + 1) + 16);
+
+        HuffmanEncoder encoder = new HuffmanEncoder();
+        ModelDecoder decoder = new ModelDecoder(loadedModel);
+        Assert.assertEquals(passage, decoder.decode(encoder.encode(model, passage)));
+      }
+    } finally {
+      Files.delete(modelFile);
+      Files.delete(second);
+      Files.delete(nested);
+      Files.delete(first);
+      Files.delete(corpus);
+    }
+  }
+
+  @Test
+  public void testMalformedCorpusFileIsReadAsReplacementCharacter() throws IOException {
+    Path corpus = Files.createTempDirectory("corpus");
+    Path valid = Files.write(corpus.resolve("valid.txt"),
+            "abc".getBytes(StandardCharsets.UTF_8));
+    Path latin1 = Files.write(corpus.resolve("latin1.txt"),
+            "caf\u00e9".getBytes(StandardCharsets.ISO_8859_1));
+    try {
+      ModelTrainer trainer = new ModelTrainer();
+      trainer.addDirectory(corpus);
+      Assert.assertEquals(7, trainer.getCorpusLength());
+      HuffmanModel model = trainer.train(Utils.convertStringToCharacterArray("01"));
+      Assert.assertTrue(model.hasCode('\ufffd'));
+      Assert.assertFalse(model.hasCode('\u00e9'));
+    } finally {
+      Files.delete(latin1);
+      Files.delete(valid);
+      Files.delete(corpus);
+    }
+  }
+
+  @Test
+  public void testUnseenSymbolsAreEscaped() throws IOException {
+    ModelTrainer trainer = new ModelTrainer();
+    trainer.addText("the quick brown fox jumps over the lazy dog");
+
+    for (String codingSymbols : new String[]{"01", "012", "0123456789abcdef"}) {
+      HuffmanModel model = trainer.train(Utils.convertStringToCharacterArray(codingSymbols));
+      HuffmanEncoder encoder = new HuffmanEncoder();
+      ModelDecoder decoder = new ModelDecoder(model);
+
+      String message = "THE caf\u00e9 costs 5\u20ac \ud83d\ude00 " + model.getEscapeSymbol()
+              + "\u0000 the end";
+      Assert.assertFalse(model.hasCode('\u00e9'));
+      Assert.assertFalse(model.hasCode(model.getEscapeSymbol()));
+      String encodedMessage = encoder.encode(model, message);
+      Assert.assertEquals(message, decoder.decode(encodedMessage));
+
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      long encodedLength = encoder.encode(model, new StringReader(message), outputStream);
+      Assert.assertEquals(encodedMessage.length(), encodedLength);
+      Assert.assertEquals(message, decoder.decode(outputStream.toByteArray(), encodedLength));
+
+      // a message cannot end within an escaped symbol
+      String escapedSymbol = encoder.encode(model, "\u00e9");
+      try {
+        decoder.decode(escapedSymbol.substring(0, escapedSymbol.length() - 1));
+        Assert.fail("should have failed");
+      } catch (IllegalStateException e) {
+        Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testSerializedModel() {
+    ModelTrainer trainer = new ModelTrainer();
+    trainer.addText("abracadabra");
+    HuffmanModel model = trainer.train(Arrays.asList('0', '1'));
+
+    HuffmanModel copy = HuffmanModel.fromByteArray(model.toByteArray());
+    Assert.assertEquals(model.getCodingTable().getCodingTable(),
+            copy.getCodingTable().getCodingTable());
+    Assert.assertEquals(16, copy.getEscapeLength());
+
+    byte[] serializedModel = model.toByteArray();
+    serializedModel[0] = 0;
+    try {
+      HuffmanModel.fromByteArray(serializedModel);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("malformed model", e.getMessage());
+    }
+
+    try {
+      HuffmanModel.fromByteArray(Arrays.copyOf(model.toByteArray(), 8));
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("malformed model", e.getMessage());
+    }
+
+    try {
+      new HuffmanModel(model.getCodingTable(), 'z');
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid escape symbol:'z'", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testInvalidParams() throws IOException {
+    ModelTrainer trainer = new ModelTrainer();
+    try {
+      trainer.train(Arrays.asList('0', '1'));
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("corpus cannot be empty", e.getMessage());
+    }
+
+    Path file = Files.createTempFile("corpus", ".txt");
+    try {
+      trainer.addDirectory(file);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals(String.format("Invalid directory:'%s'", file), e.getMessage());
+    } finally {
+      Files.delete(file);
+    }
+
+    trainer.addText("abc");
+    try {
+      trainer.train(Arrays.asList('0', '0'));
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("duplicate coding symbols are not allowed", e.getMessage());
+    }
+
+    try {
+      new ModelDecoder(trainer.train(Arrays.asList('0', '1'))).addCode('d', "11");
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot add code to a model decoder", e.getMessage());
+    }
+
+    ModelDecoder decoder = new ModelDecoder(trainer.train(Arrays.asList('0', '1')));
+    try {
+      decoder.freeze();
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot freeze a model decoder", e.getMessage());
+    }
+    Assert.assertFalse(decoder.isFrozen());
+
+    try {
+      new HuffmanEncoder().encode((HuffmanModel) null, "abc");
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("model cannot be null", e.getMessage());
+    }
+  }
+}
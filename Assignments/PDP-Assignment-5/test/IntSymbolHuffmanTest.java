@@ -0,0 +1,163 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import codingtable.IntCodingTable;
+import decoder.IntSymbolHuffmanDecoder;
+import encoder.IntSymbolHuffmanEncoder;
+
+/**
+ * A Junit class to test {@link codingtable.IntCodingTable}, {@link encoder.IntSymbolHuffmanEncoder}
+ * and {@link decoder.IntSymbolHuffmanDecoder}.
+ */
+public class IntSymbolHuffmanTest {
+
+  @Test
+  public void testCanonicalCodes() {
+    IntCodingTable codingTable = new IntCodingTable(2, new int[]{3, 3, 2, 2, 2, 0});
+
+    Assert.assertArrayEquals(new int[]{0, 0}, codingTable.getCode(2));
+    Assert.assertArrayEquals(new int[]{0, 1}, codingTable.getCode(3));
+    Assert.assertArrayEquals(new int[]{1, 0}, codingTable.getCode(4));
+    Assert.assertArrayEquals(new int[]{1, 1, 0}, codingTable.getCode(0));
+    Assert.assertArrayEquals(new int[]{1, 1, 1}, codingTable.getCode(1));
+    Assert.assertEquals(0, codingTable.getCodeLength(5));
+    Assert.assertEquals(0, codingTable.getCodeLength(6));
+    Assert.assertEquals(5, codingTable.getNumberOfSymbols());
+    Assert.assertEquals(3, codingTable.getMaxCodeLength());
+  }
+
+  @Test
+  public void testCodePointsRoundTrip() throws IOException {
+    String message = TestFixtures.getPassage()
+            + " \ud83d\ude00\ud83d\ude00\ud83d\udc4d \u4e16\u754c \u00e9\ud83d\ude00";
+    IntSymbolHuffmanEncoder encoder = new IntSymbolHuffmanEncoder();
+
+    for (int radix = 2; radix <= 16; radix++) {
+      IntCodingTable codingTable = encoder.generateCodePointCodingTable(radix, message);
+      Assert.assertTrue(codingTable.getCodeLength(0x1F600) > 0);
+      Assert.assertEquals(0, codingTable.getCodeLength(0xD83D));
+      Assert.assertEquals(0x1F600 + 1, codingTable.getAlphabetSize());
+
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      long encodedLength = encoder.encodeCodePoints(codingTable, message, outputStream);
+      IntSymbolHuffmanDecoder decoder = new IntSymbolHuffmanDecoder(codingTable);
+      Assert.assertEquals(message, decoder.decodeCodePoints(
+              new ByteArrayInputStream(outputStream.toByteArray()), encodedLength));
+    }
+  }
+
+  @Test
+  public void testBytesRoundTrip() throws IOException {
+    Random random = new Random(5010);
+    byte[] data = new byte[100000];
+    for (int i = 0; i < data.length; i++) {
+      // a skewed distribution over all the 256 byte values
+      data[i] = (byte) (random.nextInt(16) == 0 ? random.nextInt(256) : random.nextInt(8));
+    }
+    byte[] passage = Files.readAllBytes(Paths.get("test/passage.txt"));
+
+    IntSymbolHuffmanEncoder encoder = new IntSymbolHuffmanEncoder();
+    for (byte[] input : new byte[][]{data, passage}) {
+      for (int radix : new int[]{2, 3, 4, 16}) {
+        IntCodingTable codingTable =
+                encoder.generateByteCodingTable(radix, new ByteArrayInputStream(input));
+        ByteArrayOutputStream packedStream = new ByteArrayOutputStream();
+        long encodedLength = encoder.encodeBytes(codingTable, new ByteArrayInputStream(input),
+                packedStream);
+        if (radix == 2) {
+          Assert.assertTrue(packedStream.size() < input.length);
+        }
+
+        ByteArrayOutputStream decodedStream = new ByteArrayOutputStream();
+        IntSymbolHuffmanDecoder decoder = new IntSymbolHuffmanDecoder(codingTable);
+        Assert.assertEquals(input.length, decoder.decodeBytes(
+                new ByteArrayInputStream(packedStream.toByteArray()), encodedLength,
+                decodedStream));
+        Assert.assertArrayEquals(input, decodedStream.toByteArray());
+      }
+    }
+  }
+
+  @Test
+  public void testIntSymbolsRoundTrip() throws IOException {
+    int[] symbols = {7, 1000000, 7, 7, 3, 1000000, 42, 7};
+    IntSymbolHuffmanEncoder encoder = new IntSymbolHuffmanEncoder();
+    IntCodingTable codingTable = encoder.generateCodingTable(3, symbols);
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    long encodedLength = encoder.encode(codingTable, symbols, outputStream);
+    Assert.assertArrayEquals(symbols, new IntSymbolHuffmanDecoder(codingTable).decode(
+            new ByteArrayInputStream(outputStream.toByteArray()), encodedLength));
+
+    codingTable = encoder.generateCodingTable(2, new int[]{5, 5});
+    Assert.assertArrayEquals(new int[]{0}, codingTable.getCode(5));
+  }
+
+  @Test
+  public void testInvalidParams() throws IOException {
+    IntSymbolHuffmanEncoder encoder = new IntSymbolHuffmanEncoder();
+    try {
+      encoder.generateCodingTable(2, new int[]{1, -1});
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid symbol:'-1'", e.getMessage());
+    }
+
+    // the frequencies are indexed by the symbol, hence the alphabet ends at the last code point
+    for (int symbol : new int[]{Character.MAX_CODE_POINT + 1, Integer.MAX_VALUE}) {
+      try {
+        encoder.generateCodingTable(2, new int[]{1, symbol});
+        Assert.fail("should have failed");
+      } catch (IllegalArgumentException e) {
+        Assert.assertEquals(String.format("Invalid symbol:'%d'", symbol), e.getMessage());
+      }
+    }
+    Assert.assertArrayEquals(new int[]{1}, encoder.generateCodingTable(2,
+            new int[]{1, Character.MAX_CODE_POINT}).getCode(Character.MAX_CODE_POINT));
+
+    try {
+      encoder.generateByteCodingTable(2, new ByteArrayInputStream(new byte[0]));
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("symbols cannot be null or empty", e.getMessage());
+    }
+
+    try {
+      new IntCodingTable(2, new int[]{1, 1, 1});
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("code lengths do not form a prefix code", e.getMessage());
+    }
+
+    try {
+      new IntCodingTable(2, new int[]{1, -1});
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid code length for symbol:'1'", e.getMessage());
+    }
+
+    IntCodingTable codingTable = encoder.generateCodingTable(2, new int[]{1, 2, 2, 3, 3, 3});
+    try {
+      encoder.encode(codingTable, new int[]{4}, new ByteArrayOutputStream());
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("invalid coding symbol for symbol:'4'", e.getMessage());
+    }
+
+    try {
+      // 3 is coded as "0", 2 as "10" and 1 as "11", so a single 1 bit is an incomplete code
+      new IntSymbolHuffmanDecoder(codingTable).decode(
+              new ByteArrayInputStream(new byte[]{(byte) 0x80}), 1);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+    }
+  }
+}
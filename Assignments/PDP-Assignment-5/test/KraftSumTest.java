@@ -0,0 +1,125 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import decoder.CanonicalDecoder;
+import decoder.DecoderImpl;
+import encoder.HuffmanEncoder;
+import util.KraftSum;
+import util.Utils;
+
+/**
+ * A Junit class to test {@link util.KraftSum} and the incremental completeness check of {@link
+ * decoder.DecoderImpl}.
+ */
+public class KraftSumTest {
+
+  @Test
+  public void testKraftSum() {
+    KraftSum kraftSum = new KraftSum(3);
+    Assert.assertTrue(kraftSum.compareToOne() < 0);
+    kraftSum.add(1);
+    kraftSum.add(2);
+    kraftSum.add(2);
+    Assert.assertEquals("5/3^2", kraftSum.toString());
+    kraftSum.add(2);
+    Assert.assertTrue(kraftSum.canAdd(1));
+    kraftSum.add(3);
+    Assert.assertFalse(kraftSum.canAdd(1));
+    Assert.assertTrue(kraftSum.canAdd(2));
+    Assert.assertTrue(kraftSum.canAdd(40));
+    kraftSum.add(2);
+    for (int i = 0; i < 5; i++) {
+      kraftSum.add(3);
+    }
+    Assert.assertEquals(0, kraftSum.compareToOne());
+    Assert.assertFalse(kraftSum.canAdd(64));
+    kraftSum.add(64);
+    Assert.assertTrue(kraftSum.compareToOne() > 0);
+
+    KraftSum unarySum = new KraftSum(1);
+    Assert.assertTrue(unarySum.canAdd(5));
+    unarySum.add(5);
+    Assert.assertEquals(0, unarySum.compareToOne());
+  }
+
+  @Test
+  public void testCompletenessIsTrackedAsCodesAreAdded() throws IOException {
+    String message = TestFixtures.getPassage();
+    HuffmanEncoder encoder = new HuffmanEncoder();
+
+    for (String codingSymbols : new String[]{"01", "012", "0123456789abcdef"}) {
+      List<Character> codingSymbolList = Utils.convertStringToCharacterArray(codingSymbols);
+      Map<Character, String> codingTable = encoder.generateCodingTable(codingSymbolList, message);
+
+      DecoderImpl decoder = new DecoderImpl(codingSymbols);
+      Assert.assertEquals(codingSymbols.length(), decoder.getUnfilledBranches());
+      for (Map.Entry<Character, String> entry : codingTable.entrySet()) {
+        Assert.assertTrue(decoder.canAddCode(entry.getValue().length()));
+        decoder.addCode(entry.getKey(), entry.getValue());
+      }
+
+      DecoderImpl bulkDecoder = new CanonicalDecoder(codingSymbols);
+      bulkDecoder.addCodes(codingTable);
+      Assert.assertEquals(decoder.getUnfilledBranches(), bulkDecoder.getUnfilledBranches());
+      Assert.assertEquals(decoder.isCodeComplete(), bulkDecoder.isCodeComplete());
+      Assert.assertEquals(decoder.isCodeComplete(), decoder.compile().isCodeComplete());
+      Assert.assertEquals(decoder.isCodeComplete(), !decoder.canAddCode(64));
+    }
+  }
+
+  @Test
+  public void testUnfilledBranches() {
+    DecoderImpl decoder = new DecoderImpl("012");
+    decoder.addCode('a', "21");
+    Assert.assertEquals(4, decoder.getUnfilledBranches());
+    decoder.addCode('b', "0");
+    Assert.assertEquals(3, decoder.getUnfilledBranches());
+    try {
+      decoder.addCode('c', "02");
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals(3, decoder.getUnfilledBranches());
+    }
+
+    Map<Character, String> codingTable = new LinkedHashMap<>();
+    codingTable.put('c', "1");
+    codingTable.put('d', "20");
+    codingTable.put('e', "220");
+    decoder.addCodes(codingTable);
+    Assert.assertEquals(2, decoder.getUnfilledBranches());
+    Assert.assertFalse(decoder.isCodeComplete());
+    Assert.assertFalse(decoder.canAddCode(1));
+
+    decoder.addCode('f', "221");
+    decoder.addCode('g', "222");
+    Assert.assertTrue(decoder.isCodeComplete());
+    Assert.assertEquals(0, decoder.getUnfilledBranches());
+
+    DecoderImpl unaryDecoder = new DecoderImpl("0");
+    Assert.assertFalse(unaryDecoder.isCodeComplete());
+    unaryDecoder.addCode('a', "000");
+    Assert.assertTrue(unaryDecoder.isCodeComplete());
+  }
+
+  @Test
+  public void testInvalidParams() {
+    try {
+      new KraftSum(0);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid radix:'0'", e.getMessage());
+    }
+
+    try {
+      new DecoderImpl("01").canAddCode(0);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid code length:'0'", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,207 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import decoder.Decoder;
+import decoder.LookupTableDecoder;
+import decoder.StreamingDecoder;
+import encoder.Encoder;
+import encoder.HuffmanEncoder;
+import util.Utils;
+
+/**
+ * A Junit class to test {@link decoder.LookupTableDecoder}.
+ */
+public class LookupTableDecoderTest {
+
+  private Decoder getDecoder(int lookupWidth) {
+    Decoder decoder = new LookupTableDecoder("01", lookupWidth);
+
+    decoder.addCode('a', "100");
+    decoder.addCode('b', "00");
+    decoder.addCode('c', "01");
+    decoder.addCode('d', "11");
+    decoder.addCode('e', "101");
+
+    return decoder;
+  }
+
+  @Test
+  public void testDecodingWithDifferentLookupWidths() {
+    for (int lookupWidth = 1; lookupWidth <= 8; lookupWidth++) {
+      Decoder decoder = getDecoder(lookupWidth);
+
+      Assert.assertEquals("ace", decoder.decode("10001101"));
+      Assert.assertEquals("bad", decoder.decode("0010011"));
+      Assert.assertEquals("dad", decoder.decode("1110011"));
+      Assert.assertEquals("a", decoder.decode("100"));
+      Assert.assertTrue(decoder.isCodeComplete());
+    }
+  }
+
+  @Test
+  public void testCodesAddedAfterDecodingAreUsed() {
+    Decoder decoder = new LookupTableDecoder("01");
+    decoder.addCode('a', "0");
+    Assert.assertEquals("aaa", decoder.decode("000"));
+
+    try {
+      decoder.decode("01");
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+    }
+
+    decoder.addCode('b', "1");
+    Assert.assertEquals("aba", decoder.decode("010"));
+    Assert.assertEquals("a:0" + System.lineSeparator() + "b:1", decoder.allCodes());
+  }
+
+  @Test
+  public void testDecodingInvalidMessages() {
+    Decoder decoder = new LookupTableDecoder("01");
+    try {
+      decoder.decode("10001101");
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+    }
+
+    decoder.addCode('a', "100");
+    decoder.addCode('b', "00");
+    for (String encodedMessage : Arrays.asList("1001", "10011111", "100100102", "x")) {
+      try {
+        decoder.decode(encodedMessage);
+        Assert.fail("should have failed");
+      } catch (IllegalStateException e) {
+        Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+      }
+    }
+
+    try {
+      decoder.decode("");
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid string:''", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testInvalidLookupWidth() {
+    for (int lookupWidth : Arrays.asList(0, 9)) {
+      try {
+        new LookupTableDecoder("01", lookupWidth);
+        Assert.fail("should have failed");
+      } catch (IllegalArgumentException e) {
+        Assert.assertEquals(
+                String.format("Invalid lookup width:'%d'", lookupWidth), e.getMessage());
+      }
+    }
+
+    try {
+      new LookupTableDecoder(null);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid string:'null'", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testWideLookupWithManyStates() throws IOException {
+    StringBuilder message = new StringBuilder();
+    for (char symbol = '\u4e00'; symbol < '\u4e00' + 4000; symbol++) {
+      message.append(symbol);
+    }
+    String codingSymbols = "0123456789abcdef";
+    HuffmanEncoder encoder = new HuffmanEncoder();
+    Map<Character, String> codingTable = encoder.generateCodingTable(
+            Utils.convertStringToCharacterArray(codingSymbols), message.toString());
+    String encodedMessage = encoder.encode(codingTable, message.toString());
+
+    LookupTableDecoder decoder = new LookupTableDecoder(codingSymbols, 6);
+    decoder.addCodes(codingTable);
+    Assert.assertEquals(message.toString(), decoder.decode(encodedMessage));
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    long encodedLength = encoder.encode(Utils.convertStringToCharacterArray(codingSymbols),
+            codingTable, message.toString(), outputStream);
+    StringWriter writer = new StringWriter();
+    decoder.decode(new ByteArrayInputStream(outputStream.toByteArray()), encodedLength, writer);
+    Assert.assertEquals(message.toString(), writer.toString());
+  }
+
+  @Test
+  public void testDecodingPassageTxt() throws IOException {
+    String originalMessage = TestFixtures.getPassage();
+
+    for (String codingSymbols : Arrays.asList("01", "012", "0123456789abcdef")) {
+      Encoder encoder = new HuffmanEncoder();
+      Map<Character, String> codingTable = encoder.generateCodingTable(
+              Utils.convertStringToCharacterArray(codingSymbols), originalMessage);
+      String encodedMessage = encoder.encode(codingTable, originalMessage);
+
+      Decoder decoder = new LookupTableDecoder(codingSymbols);
+      for (Map.Entry<Character, String> entry : codingTable.entrySet()) {
+        decoder.addCode(entry.getKey(), entry.getValue());
+      }
+
+      Assert.assertEquals(originalMessage, decoder.decode(encodedMessage));
+    }
+  }
+
+  @Test
+  public void testPackedDecodingPassageTxt() throws IOException {
+    String originalMessage = TestFixtures.getPassage();
+
+    for (String codingSymbols : Arrays.asList("01", "012", "0123", "0123456789abcdef")) {
+      HuffmanEncoder encoder = new HuffmanEncoder();
+      List<Character> codingSymbolList = Utils.convertStringToCharacterArray(codingSymbols);
+      Map<Character, String> codingTable =
+              encoder.generateCodingTable(codingSymbolList, originalMessage);
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      long encodedLength =
+              encoder.encode(codingSymbolList, codingTable, originalMessage, outputStream);
+
+      for (int lookupWidth = 1; lookupWidth <= 3; lookupWidth++) {
+        StreamingDecoder decoder = new LookupTableDecoder(codingSymbols, lookupWidth);
+        for (Map.Entry<Character, String> entry : codingTable.entrySet()) {
+          decoder.addCode(entry.getKey(), entry.getValue());
+        }
+
+        StringWriter writer = new StringWriter();
+        Assert.assertEquals(originalMessage.length(), decoder.decode(
+                new ByteArrayInputStream(outputStream.toByteArray()), encodedLength, writer));
+        Assert.assertEquals(originalMessage, writer.toString());
+      }
+    }
+  }
+
+  @Test
+  public void testPackedDecodingOfInvalidMessage() {
+    StreamingDecoder decoder = (StreamingDecoder) getDecoder(3);
+    try {
+      // "1001" is not a complete code
+      decoder.decode(new byte[]{(byte) 0b10010000}, 4);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+    }
+
+    decoder = new LookupTableDecoder("012");
+    decoder.addCode('a', "0");
+    try {
+      // index 3 does not belong to a coding symbol
+      decoder.decode(new byte[]{(byte) 0b11000000}, 1);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("Invalid coding symbol index:'3'", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,144 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import codingtable.CanonicalCodingTable;
+import decoder.CanonicalDecoder;
+import encoder.HuffmanEncoder;
+import encoder.treeutil.PackageMerge;
+import util.Utils;
+
+/**
+ * A Junit class to test {@link encoder.treeutil.PackageMerge} and the length limited coding tables
+ * generated by {@link encoder.HuffmanEncoder}.
+ */
+public class PackageMergeTest {
+
+  private long getEncodedLength(Map<Character, String> codingTable, String message) {
+    return message.chars().mapToLong(symbol -> codingTable.get((char) symbol).length()).sum();
+  }
+
+  private long getBestCost(long[] frequencies, int radix, int maxCodeLength, int[] lengths,
+                           int index) {
+    if (index == lengths.length) {
+      double kraftSum = 0;
+      long cost = 0;
+      for (int i = 0; i < lengths.length; i++) {
+        kraftSum += Math.pow(radix, -lengths[i]);
+        cost += frequencies[i] * lengths[i];
+      }
+      return kraftSum <= 1 + 1e-9 ? cost : Long.MAX_VALUE;
+    }
+
+    long best = Long.MAX_VALUE;
+    for (int length = 1; length <= maxCodeLength; length++) {
+      lengths[index] = length;
+      best = Math.min(best, getBestCost(frequencies, radix, maxCodeLength, lengths, index + 1));
+    }
+    return best;
+  }
+
+  @Test
+  public void testUnboundedLimitMatchesHuffmanCode() throws IOException {
+    String message = TestFixtures.getPassage();
+
+    HuffmanEncoder encoder = new HuffmanEncoder();
+    for (String codingSymbols : Arrays.asList("01", "012", "0123", "0123456789abcdef")) {
+      List<Character> codingSymbolList = Utils.convertStringToCharacterArray(codingSymbols);
+      CanonicalCodingTable limitedTable =
+              encoder.generateLengthLimitedCodingTable(codingSymbolList, message, 30);
+      long huffmanLength =
+              getEncodedLength(encoder.generateCodingTable(codingSymbolList, message), message);
+      long limitedLength = getEncodedLength(limitedTable.getCodingTable(), message);
+      if (codingSymbols.length() == 2) {
+        Assert.assertEquals(huffmanLength, limitedLength);
+      } else {
+        // the n-ary Huffman code does not add dummy symbols, hence it can be longer
+        Assert.assertTrue(limitedLength <= huffmanLength);
+      }
+
+      CanonicalDecoder decoder = new CanonicalDecoder(limitedTable);
+      Assert.assertEquals(message,
+              decoder.decode(encoder.encode(limitedTable.getCodingTable(), message)));
+    }
+  }
+
+  @Test
+  public void testCodeLengthIsLimited() {
+    // fibonacci frequencies lead to a Huffman code as deep as the number of symbols
+    String message = "ab" + "cc" + "ddd" + "eeeee" + "ffffffff" + "ggggggggggggg"
+            + "hhhhhhhhhhhhhhhhhhhhh";
+    HuffmanEncoder encoder = new HuffmanEncoder();
+    List<Character> codingSymbols = Arrays.asList('0', '1');
+    Assert.assertEquals(7, encoder.generateCodingTable(codingSymbols, message).get('a').length());
+
+    for (int maxCodeLength = 3; maxCodeLength <= 7; maxCodeLength++) {
+      CanonicalCodingTable table =
+              encoder.generateLengthLimitedCodingTable(codingSymbols, message, maxCodeLength);
+      for (int length : table.getCodeLengths().values()) {
+        Assert.assertTrue(length <= maxCodeLength);
+      }
+      Assert.assertEquals(message, new CanonicalDecoder(table)
+              .decode(encoder.encode(table.getCodingTable(), message)));
+    }
+
+    Map<Character, Integer> codeLengths =
+            encoder.generateLengthLimitedCodingTable(codingSymbols, message, 3).getCodeLengths();
+    for (int length : codeLengths.values()) {
+      Assert.assertEquals(3, length);
+    }
+  }
+
+  @Test
+  public void testCodeLengthsAreOptimal() {
+    Random random = new Random(5010);
+    for (int radix = 2; radix <= 3; radix++) {
+      for (int test = 0; test < 200; test++) {
+        int numberOfSymbols = 2 + random.nextInt(5);
+        long[] frequencies = new long[numberOfSymbols];
+        for (int i = 0; i < numberOfSymbols; i++) {
+          frequencies[i] = 1 + random.nextInt(random.nextBoolean() ? 5 : 100);
+        }
+        int maxCodeLength = radix == 2 ? 3 : 2;
+
+        PackageMerge packageMerge = new PackageMerge(frequencies, radix, maxCodeLength);
+        long cost = 0;
+        for (int i = 0; i < numberOfSymbols; i++) {
+          Assert.assertTrue(packageMerge.getCodeLength(i) <= maxCodeLength);
+          cost += frequencies[i] * packageMerge.getCodeLength(i);
+        }
+        Assert.assertEquals(getBestCost(frequencies, radix, maxCodeLength,
+                new int[numberOfSymbols], 0), cost);
+      }
+    }
+  }
+
+  @Test
+  public void testInvalidMaxCodeLength() {
+    try {
+      new HuffmanEncoder().generateLengthLimitedCodingTable(Arrays.asList('0', '1'), "abcde", 2);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid max code length:'2'", e.getMessage());
+    }
+
+    try {
+      new PackageMerge(new long[]{1, 2}, 2, 0);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid max code length:'0'", e.getMessage());
+    }
+
+    try {
+      new PackageMerge(new long[]{1, 0}, 2, 4);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid frequency for symbol:'1'", e.getMessage());
+    }
+  }
+}
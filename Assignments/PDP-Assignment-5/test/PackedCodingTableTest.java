@@ -0,0 +1,180 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import codingtable.PackedCodingTable;
+import decoder.DecoderImpl;
+import encoder.HuffmanEncoder;
+import util.BitWriter;
+import util.Utils;
+
+/**
+ * A Junit class to test {@link codingtable.PackedCodingTable} and the word-at-a-time spilling of
+ * {@link util.BitWriter}.
+ */
+public class PackedCodingTableTest {
+
+  /**
+   * Returns the bytes holding the given bits, most significant bit first, padded with zero bits.
+   */
+  private byte[] pack(StringBuilder bits) {
+    byte[] packed = new byte[(bits.length() + 7) / 8];
+    for (int i = 0; i < bits.length(); i++) {
+      if (bits.charAt(i) == '1') {
+        packed[i / 8] |= (byte) (0x80 >>> (i % 8));
+      }
+    }
+    return packed;
+  }
+
+  @Test
+  public void testBitWriterMatchesBitByBitPacking() throws IOException {
+    Random random = new Random(2024);
+    for (int bufferSize : new int[]{1, 3, 8, 9, 8192}) {
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      BitWriter writer = new BitWriter(outputStream, bufferSize);
+      StringBuilder expected = new StringBuilder();
+
+      for (int i = 0; i < 5000; i++) {
+        int count = random.nextInt(65);
+        long value = random.nextLong();
+        writer.writeBits(value, count);
+        for (int bit = count - 1; bit >= 0; bit--) {
+          expected.append((value >>> bit & 1) == 1 ? '1' : '0');
+        }
+        if (i % 1000 == 999) {
+          writer.flushCompleteBytes();
+        }
+      }
+      writer.flush();
+
+      Assert.assertEquals(expected.length(), writer.getBitsWritten());
+      Assert.assertArrayEquals(pack(expected), outputStream.toByteArray());
+    }
+  }
+
+  @Test
+  public void testPackedCodes() throws IOException {
+    Map<Character, String> codingTable = new HashMap<>();
+    codingTable.put('a', "0");
+    codingTable.put('b', "21");
+    codingTable.put('c', "");
+    StringBuilder longCode = new StringBuilder();
+    for (int i = 0; i < 40; i++) {
+      longCode.append('1');
+    }
+    codingTable.put('\u4e16', longCode.append('0').toString());
+
+    PackedCodingTable packedTable = PackedCodingTable.compile("012", codingTable);
+    Assert.assertEquals(2, packedTable.getBitsPerCodingSymbol());
+    Assert.assertEquals(2, packedTable.getCodeLengthInBits('a'));
+    Assert.assertEquals(4, packedTable.getCodeLengthInBits('b'));
+    Assert.assertEquals(0, packedTable.getCodeLengthInBits('c'));
+    Assert.assertEquals(0, packedTable.getCodeLengthInBits('\uffff'));
+    Assert.assertEquals(82, packedTable.getCodeLengthInBits('\u4e16'));
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    BitWriter writer = new BitWriter(outputStream);
+    packedTable.writeCodes(writer, "ba\u4e16a", 0, 4);
+    writer.flush();
+
+    StringBuilder expected = new StringBuilder("1001" + "00");
+    for (int i = 0; i < 40; i++) {
+      expected.append("01");
+    }
+    expected.append("00" + "00");
+    Assert.assertEquals(expected.length(), writer.getBitsWritten());
+    Assert.assertArrayEquals(pack(expected), outputStream.toByteArray());
+
+    try {
+      packedTable.writeCode(writer, 'c');
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("invalid coding symbol for symbol:'c'", e.getMessage());
+    }
+    try {
+      packedTable.writeCode(writer, 'z');
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("invalid coding symbol for symbol:'z'", e.getMessage());
+    }
+
+    codingTable.put('d', "13");
+    try {
+      PackedCodingTable.compile("012", codingTable);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("Invalid coding symbol:'3'", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testBulkWritesMatchSingleWrites() throws IOException {
+    Map<Character, String> codingTable = new HashMap<>();
+    codingTable.put('a', "0");
+    codingTable.put('b', "10");
+    codingTable.put('c', "3210");
+    StringBuilder code = new StringBuilder("3");
+    for (int i = 1; i < 32; i++) {
+      code.append('2');
+    }
+    // exactly 64 bits, and one coding symbol more than that
+    codingTable.put('d', code.toString());
+    codingTable.put('e', code.append('1').toString());
+    PackedCodingTable packedTable = PackedCodingTable.compile("0123", codingTable);
+
+    Random random = new Random(2024);
+    char[] symbols = new char[5000];
+    for (int i = 0; i < symbols.length; i++) {
+      symbols[i] = (char) ('a' + random.nextInt(5));
+    }
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    BitWriter writer = new BitWriter(expected);
+    for (char symbol : symbols) {
+      packedTable.writeCode(writer, symbol);
+    }
+    writer.flush();
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    writer = new BitWriter(outputStream);
+    packedTable.writeCodes(writer, new StringBuilder(new String(symbols)), 0, symbols.length);
+    writer.flush();
+    Assert.assertArrayEquals(expected.toByteArray(), outputStream.toByteArray());
+
+    // the codes before a symbol without a code are written before the failure
+    outputStream = new ByteArrayOutputStream();
+    writer = new BitWriter(outputStream);
+    try {
+      packedTable.writeCodes(writer, "abcz".toCharArray(), 0, 4);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("invalid coding symbol for symbol:'z'", e.getMessage());
+    }
+    Assert.assertEquals(14, writer.getBitsWritten());
+  }
+
+  @Test
+  public void testEncodeRoundTrip() throws IOException {
+    String message = TestFixtures.getPassage() + " \u4e16\u754c";
+    HuffmanEncoder encoder = new HuffmanEncoder();
+
+    for (String codingSymbols : new String[]{"01", "012", "0123456789abcdef"}) {
+      List<Character> codingSymbolList = Utils.convertStringToCharacterArray(codingSymbols);
+      Map<Character, String> codingTable = encoder.generateCodingTable(codingSymbolList, message);
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      long encodedLength = encoder.encode(codingSymbolList, codingTable, message, outputStream);
+
+      String encodedMessage = encoder.encode(codingTable, message);
+      Assert.assertEquals(encodedMessage.length(), encodedLength);
+      DecoderImpl decoder = new DecoderImpl(codingSymbols);
+      decoder.addCodes(codingTable);
+      Assert.assertEquals(message, decoder.decode(outputStream.toByteArray(), encodedLength));
+    }
+  }
+}
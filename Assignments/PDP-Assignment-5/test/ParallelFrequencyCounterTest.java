@@ -0,0 +1,101 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import encoder.HuffmanEncoder;
+import encoder.ParallelFrequencyCounter;
+import util.Utils;
+
+/**
+ * A Junit class to test {@link encoder.ParallelFrequencyCounter} and the parallel generation of
+ * coding tables by {@link encoder.HuffmanEncoder}.
+ */
+public class ParallelFrequencyCounterTest {
+
+  @Test
+  public void testCountingMessage() {
+    ParallelFrequencyCounter counter = new ParallelFrequencyCounter(new ForkJoinPool(4));
+    long[] frequencies = counter.count("abracadabra\u4e16");
+
+    Assert.assertEquals(Character.MAX_VALUE + 1, frequencies.length);
+    Assert.assertEquals(5, frequencies['a']);
+    Assert.assertEquals(2, frequencies['b']);
+    Assert.assertEquals(2, frequencies['r']);
+    Assert.assertEquals(1, frequencies['c']);
+    Assert.assertEquals(1, frequencies['d']);
+    Assert.assertEquals(1, frequencies['\u4e16']);
+    Assert.assertEquals(256, counter.count("abc").length);
+  }
+
+  @Test
+  public void testParallelTableIsSameAsSequentialTable() throws IOException {
+    String message = TestFixtures.getText(400);
+    HuffmanEncoder encoder = new HuffmanEncoder(new ForkJoinPool(4));
+
+    for (String codingSymbols : Arrays.asList("01", "012", "0123456789abcdef")) {
+      List<Character> codingSymbolList = Utils.convertStringToCharacterArray(codingSymbols);
+      Assert.assertEquals(encoder.generateCodingTable(codingSymbolList, message),
+              encoder.generateCodingTableInParallel(codingSymbolList, message));
+    }
+  }
+
+  @Test
+  public void testParallelTableOfFileIsSameAsSequentialTable() throws IOException {
+    String message = TestFixtures.getText(400);
+    Path file = Files.createTempFile("parallel", ".txt");
+    try {
+      Files.write(file, message.getBytes(StandardCharsets.UTF_8));
+      HuffmanEncoder encoder = new HuffmanEncoder(new ForkJoinPool(8));
+      List<Character> codingSymbols = Arrays.asList('0', '1');
+
+      Map<Character, String> codingTable = encoder.generateCodingTableInParallel(codingSymbols, file);
+      Assert.assertEquals(encoder.generateCodingTable(codingSymbols, message), codingTable);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testInvalidParamsForParallelTable() throws IOException {
+    HuffmanEncoder encoder = new HuffmanEncoder();
+    try {
+      encoder.generateCodingTableInParallel(Arrays.asList('0', '1'), "");
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid string:''", e.getMessage());
+    }
+
+    try {
+      encoder.generateCodingTableInParallel(Collections.singletonList('0'), "abc");
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("coding symbols cannot be less than 2", e.getMessage());
+    }
+
+    Path file = Files.createTempFile("parallel", ".txt");
+    try {
+      encoder.generateCodingTableInParallel(Arrays.asList('0', '1'), file);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals(String.format("Invalid file:'%s'", file), e.getMessage());
+    } finally {
+      Files.delete(file);
+    }
+
+    try {
+      new HuffmanEncoder(null);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("pool cannot be null", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,232 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Stream;
+
+import container.ContainerReader;
+import container.ContainerWriter;
+import container.PipelinedContainerWriter;
+import container.bean.BlockInfo;
+import encoder.HuffmanEncoder;
+import util.Utils;
+
+/**
+ * A Junit class to test {@link container.PipelinedContainerWriter}.
+ */
+public class PipelinedContainerWriterTest {
+
+  @Test
+  public void testSameContainerAsContainerWriter() throws IOException {
+    Path input = TestFixtures.writeTempFile(TestFixtures.getText(20));
+    for (String codingSymbols : new String[]{"01", "012"}) {
+      List<Character> codingSymbolList = Utils.convertStringToCharacterArray(codingSymbols);
+      Path expected = TestFixtures.createTempFile(".huf");
+      List<BlockInfo> expectedBlocks = new ContainerWriter(new HuffmanEncoder(), codingSymbolList,
+              1001).compress(input, expected);
+
+      for (int workers : new int[]{1, 2, 4}) {
+        for (int queueCapacity : new int[]{1, 3}) {
+          Path container = TestFixtures.createTempFile(".huf");
+          List<BlockInfo> blocks = new PipelinedContainerWriter(new HuffmanEncoder(),
+                  codingSymbolList, 1001, workers, queueCapacity).compress(input, container);
+
+          Assert.assertEquals(expectedBlocks.size(), blocks.size());
+          for (int i = 0; i < blocks.size(); i++) {
+            Assert.assertEquals(expectedBlocks.get(i).getOffset(), blocks.get(i).getOffset());
+            Assert.assertEquals(expectedBlocks.get(i).getChecksum(), blocks.get(i).getChecksum());
+          }
+          Assert.assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(container));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    String text = TestFixtures.getText(20);
+    Path container = TestFixtures.createTempFile(".huf");
+    new PipelinedContainerWriter(new HuffmanEncoder(), Utils.convertStringToCharacterArray("01"),
+            500, 3, 2).compress(TestFixtures.writeTempFile(text), container);
+
+    try (ContainerReader reader = new ContainerReader(container)) {
+      StringWriter writer = new StringWriter();
+      Assert.assertEquals(text.length(), reader.decompress(writer));
+      Assert.assertEquals(text, writer.toString());
+    }
+  }
+
+  @Test
+  public void testEmptyInput() throws IOException {
+    Path input = TestFixtures.writeTempFile("");
+    Path expected = TestFixtures.createTempFile(".huf");
+    new ContainerWriter(new HuffmanEncoder(), Utils.convertStringToCharacterArray("01"))
+            .compress(input, expected);
+    Path container = TestFixtures.createTempFile(".huf");
+    List<BlockInfo> blocks = new PipelinedContainerWriter(new HuffmanEncoder(),
+            Utils.convertStringToCharacterArray("01")).compress(input, container);
+
+    Assert.assertTrue(blocks.isEmpty());
+    Assert.assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(container));
+  }
+
+  @Test
+  public void testMalformedInputIsReadAsReplacementCharacter() throws IOException {
+    Path input = TestFixtures.createTempFile(".txt");
+    Files.write(input, new byte[]{0x61, (byte) 0xc3, 0x62, 0x63});
+    Path container = TestFixtures.createTempFile(".huf");
+    new PipelinedContainerWriter(new HuffmanEncoder(), Utils.convertStringToCharacterArray("01"))
+            .compress(input, container);
+
+    try (ContainerReader reader = new ContainerReader(container)) {
+      StringWriter writer = new StringWriter();
+      reader.decompress(writer);
+      Assert.assertEquals("a\ufffdbc", writer.toString());
+    }
+  }
+
+  @Test
+  public void testFailureLeavesExistingOutput() throws IOException {
+    Path directory = Files.createTempDirectory("pipelined");
+    Path container = Files.write(directory.resolve("container.huf"), new byte[]{1, 2, 3});
+    Path input = TestFixtures.writeTempFile("abracadabra");
+    try {
+      new PipelinedContainerWriter(new HuffmanEncoder(), Utils.convertStringToCharacterArray("01"))
+              .compress(directory.resolve("missing.txt"), container);
+      Assert.fail("should have failed");
+    } catch (NoSuchFileException e) {
+      Assert.assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(container));
+    }
+
+    try {
+      new PipelinedContainerWriter(new HuffmanEncoder(), Utils.convertStringToCharacterArray("00"))
+              .compress(input, container);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("duplicate coding symbols are not allowed", e.getMessage());
+      Assert.assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(container));
+    }
+    Assert.assertEquals(1, getFileCount(directory));
+
+    new PipelinedContainerWriter(new HuffmanEncoder(), Utils.convertStringToCharacterArray("01"))
+            .compress(input, container);
+    try (ContainerReader reader = new ContainerReader(container)) {
+      Assert.assertEquals(1, reader.getNumberOfBlocks());
+    }
+    Assert.assertEquals(1, getFileCount(directory));
+    Files.delete(container);
+    Files.delete(directory);
+  }
+
+  @Test(timeout = 60000)
+  public void testReaderErrorEndsCompression() throws IOException {
+    Path input = TestFixtures.writeTempFile("abracadabra");
+    Path output = TestFixtures.createTempFile(".huf");
+    // the reader thread cannot allocate a block of this size, whatever the heap
+    try {
+      new PipelinedContainerWriter(new HuffmanEncoder(), Utils.convertStringToCharacterArray("01"),
+              Integer.MAX_VALUE, 1, 1).compress(input, output);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertTrue(e.getCause() instanceof OutOfMemoryError);
+    }
+  }
+
+  @Test
+  public void testCancellation() throws IOException {
+    Path input = TestFixtures.writeTempFile(TestFixtures.getText(20));
+    Path directory = Files.createTempDirectory("pipelined");
+    Path container = directory.resolve("container.huf");
+    PipelinedContainerWriter writer = new PipelinedContainerWriter(new HuffmanEncoder(),
+            Utils.convertStringToCharacterArray("01"), 100, 2, 1);
+
+    Thread.currentThread().interrupt();
+    try {
+      writer.compress(input, container);
+      Assert.fail("should have failed");
+    } catch (CancellationException e) {
+      Assert.assertEquals("compression cancelled", e.getMessage());
+    } finally {
+      Assert.assertTrue(Thread.interrupted());
+    }
+    Assert.assertEquals(0, getFileCount(directory));
+
+    PipelinedContainerWriter[] cancellingWriter = new PipelinedContainerWriter[1];
+    HuffmanEncoder cancellingEncoder = new HuffmanEncoder() {
+      @Override
+      public long encode(List<Character> codingSymbols, Map<Character, String> codingTable,
+                         Reader message, OutputStream outputStream) throws IOException {
+        cancellingWriter[0].cancel();
+        return super.encode(codingSymbols, codingTable, message, outputStream);
+      }
+    };
+    cancellingWriter[0] = new PipelinedContainerWriter(cancellingEncoder,
+            Utils.convertStringToCharacterArray("01"), 100, 2, 1);
+    try {
+      cancellingWriter[0].compress(input, container);
+      Assert.fail("should have failed");
+    } catch (CancellationException e) {
+      Assert.assertEquals("compression cancelled", e.getMessage());
+    }
+    Assert.assertEquals(0, getFileCount(directory));
+    Files.delete(directory);
+  }
+
+  @Test
+  public void testInvalidParams() {
+    List<Character> codingSymbols = Utils.convertStringToCharacterArray("01");
+    try {
+      new PipelinedContainerWriter(null, codingSymbols);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("encoder cannot be null", e.getMessage());
+    }
+    try {
+      new PipelinedContainerWriter(new HuffmanEncoder(), codingSymbols, 1, 1, 1);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid block size:'1'", e.getMessage());
+    }
+    try {
+      new PipelinedContainerWriter(new HuffmanEncoder(), codingSymbols, 2, 0, 1);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid worker count:'0'", e.getMessage());
+    }
+    try {
+      new PipelinedContainerWriter(new HuffmanEncoder(), codingSymbols, 2, 1, 0);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid queue capacity:'0'", e.getMessage());
+    }
+    try {
+      new PipelinedContainerWriter(new HuffmanEncoder(), codingSymbols, 2, 1, 1)
+              .compress(null, null);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException | IOException e) {
+      Assert.assertEquals("input and output cannot be null", e.getMessage());
+    }
+  }
+
+  /**
+   * Returns the number of files in the given directory.
+   *
+   * @param directory the directory
+   * @return the number of files in the directory
+   * @throws IOException if listing the directory fails
+   */
+  private static long getFileCount(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.count();
+    }
+  }
+}
@@ -0,0 +1,293 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import codingtable.AnsFrequencyTable;
+import decoder.RansDecoder;
+import encoder.HuffmanEncoder;
+import encoder.RansEncoder;
+import util.Utils;
+
+/**
+ * A Junit class to test {@link encoder.RansEncoder}, {@link decoder.RansDecoder} and {@link
+ * codingtable.AnsFrequencyTable}.
+ */
+public class RansTest {
+
+  private String getSkewedMessage() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      builder.append(i % 20 == 0 ? 'b' : i % 97 == 0 ? 'c' : 'a');
+    }
+    return builder.toString();
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    String message = TestFixtures.getPassage();
+    for (int states : new int[]{1, 2, 3, 4, 32}) {
+      RansEncoder encoder = new RansEncoder(new HuffmanEncoder(), states, 12);
+      AnsFrequencyTable table = encoder.generateFrequencyTable(message);
+      Assert.assertEquals(12, table.getPrecisionBits());
+      RansDecoder decoder = new RansDecoder(table);
+      Assert.assertEquals(message, decoder.decode(encoder.encode(table, message)));
+
+      // messages shorter than a round of states
+      Assert.assertEquals("a", decoder.decode(encoder.encode(table, "a")));
+      Assert.assertEquals("the", decoder.decode(encoder.encode(table, "the")));
+    }
+  }
+
+  @Test
+  public void testSingleSymbol() {
+    RansEncoder encoder = new RansEncoder(new HuffmanEncoder());
+    AnsFrequencyTable table = encoder.generateFrequencyTable("aaaaaaaaaa");
+    Assert.assertEquals(1, table.getNumberOfSymbols());
+    Assert.assertEquals(1 << 12, table.getFrequency(0));
+    Assert.assertEquals("aaaaaaaaaa",
+            new RansDecoder(table).decode(encoder.encode(table, "aaaaaaaaaa")));
+  }
+
+  @Test
+  public void testLargeAlphabet() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 6000; i++) {
+      builder.append((char) (0x4E00 + i)).append('x');
+    }
+    String message = builder.toString();
+    RansEncoder encoder = new RansEncoder(new HuffmanEncoder());
+    AnsFrequencyTable table = encoder.generateFrequencyTable(message);
+    Assert.assertEquals(13, table.getPrecisionBits());
+    Assert.assertEquals(6001, table.getNumberOfSymbols());
+    Assert.assertEquals(message, new RansDecoder(table).decode(encoder.encode(table, message)));
+  }
+
+  @Test
+  public void testBeatsHuffmanOnSkewedAlphabet() {
+    String message = getSkewedMessage();
+    RansEncoder encoder = new RansEncoder(new HuffmanEncoder());
+    AnsFrequencyTable table = encoder.generateFrequencyTable(message);
+    byte[] encoded = encoder.encode(table, message);
+    Assert.assertEquals(message, new RansDecoder(table).decode(encoded));
+
+    // a binary Huffman code spends at least a bit on every symbol
+    HuffmanEncoder huffmanEncoder = new HuffmanEncoder();
+    List<Character> codingSymbols = Utils.convertStringToCharacterArray("01");
+    Map<Character, String> codingTable = huffmanEncoder.generateCodingTable(codingSymbols,
+            message);
+    int huffmanBits = huffmanEncoder.encode(codingTable, message).length();
+    Assert.assertTrue(encoded.length * 8L < huffmanBits / 2);
+    Assert.assertTrue(encoded.length * 8L < table.getCodedLengthInBits(message) + 200);
+  }
+
+  @Test
+  public void testQuantization() {
+    long[] frequencies = new long['e' + 1];
+    frequencies['a'] = 1000000;
+    frequencies['b'] = 1;
+    frequencies['c'] = 1;
+    frequencies['e'] = 3;
+    AnsFrequencyTable table = AnsFrequencyTable.fromFrequencies(frequencies, 4);
+    Assert.assertEquals(4, table.getNumberOfSymbols());
+    int total = 0;
+    for (int i = 0; i < table.getNumberOfSymbols(); i++) {
+      Assert.assertTrue(table.getFrequency(i) >= 1);
+      Assert.assertEquals(total, table.getCumulativeFrequency(i));
+      total += table.getFrequency(i);
+    }
+    Assert.assertEquals(16, total);
+    Assert.assertEquals(13, table.getFrequency(table.getSymbolIndex('a')));
+    Assert.assertEquals(-1, table.getSymbolIndex('d'));
+    Assert.assertEquals(-1, table.getSymbolIndex('z'));
+
+    try {
+      AnsFrequencyTable.fromFrequencies(frequencies, 1);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid precision:'1'", e.getMessage());
+    }
+    try {
+      AnsFrequencyTable.fromFrequencies(new long[4], 8);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("frequencies cannot be all 0", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testInvalidTable() {
+    Map<Character, Integer> frequencies = new HashMap<>();
+    frequencies.put('a', 3);
+    frequencies.put('b', 0);
+    try {
+      new AnsFrequencyTable(2, frequencies);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid frequency for symbol:'b'", e.getMessage());
+    }
+
+    frequencies.put('b', 2);
+    try {
+      new AnsFrequencyTable(2, frequencies);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid frequency total:'5'", e.getMessage());
+    }
+    try {
+      new AnsFrequencyTable(17, frequencies);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid precision:'17'", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testSerialization() throws IOException {
+    String message = TestFixtures.getPassage();
+    RansEncoder encoder = new RansEncoder(new HuffmanEncoder());
+    AnsFrequencyTable table = encoder.generateFrequencyTable(message);
+    AnsFrequencyTable copy = AnsFrequencyTable.fromByteArray(table.toByteArray());
+    Assert.assertEquals(table.getPrecisionBits(), copy.getPrecisionBits());
+    Assert.assertEquals(table.getNumberOfSymbols(), copy.getNumberOfSymbols());
+    for (int i = 0; i < table.getNumberOfSymbols(); i++) {
+      Assert.assertEquals(table.getSymbol(i), copy.getSymbol(i));
+      Assert.assertEquals(table.getFrequency(i), copy.getFrequency(i));
+    }
+    Assert.assertEquals(message, new RansDecoder(copy).decode(encoder.encode(table, message)));
+
+    byte[] serializedTable = table.toByteArray();
+    serializedTable[0] = 0;
+    try {
+      AnsFrequencyTable.fromByteArray(serializedTable);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("malformed frequency table", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testCorruptedMessage() throws IOException {
+    String message = TestFixtures.getPassage();
+    RansEncoder encoder = new RansEncoder(new HuffmanEncoder());
+    AnsFrequencyTable table = encoder.generateFrequencyTable(message);
+    RansDecoder decoder = new RansDecoder(table);
+
+    byte[] encoded = encoder.encode(table, message);
+    encoded[encoded.length / 2] ^= 0x10;
+    try {
+      decoder.decode(encoded);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+    }
+
+    encoded = encoder.encode(table, message);
+    try {
+      decoder.decode(Arrays.copyOf(encoded, encoded.length - 1));
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("malformed encoded message", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testOversizedHeader() throws IOException {
+    String message = TestFixtures.getPassage();
+    RansEncoder encoder = new RansEncoder(new HuffmanEncoder());
+    AnsFrequencyTable table = encoder.generateFrequencyTable(message);
+    RansDecoder decoder = new RansDecoder(table);
+
+    // the message length follows the number of states
+    for (int messageLength : new int[]{Integer.MAX_VALUE, message.length() * 4}) {
+      byte[] encoded = encoder.encode(table, message);
+      ByteBuffer.wrap(encoded).putInt(1, messageLength);
+      try {
+        decoder.decode(encoded);
+        Assert.fail("should have failed");
+      } catch (IllegalStateException e) {
+        Assert.assertEquals("malformed encoded message", e.getMessage());
+      }
+    }
+
+    // the coded length follows the message length, the symbols end before the coded stream does
+    byte[] encoded = encoder.encode(table, message);
+    ByteBuffer.wrap(encoded).putInt(5, Integer.MAX_VALUE);
+    try {
+      decoder.decode(encoded);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testDecodingStopsAtEndOfMessage() throws IOException {
+    String message = getSkewedMessage();
+    RansEncoder encoder = new RansEncoder(new HuffmanEncoder());
+    AnsFrequencyTable table = encoder.generateFrequencyTable(message);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    encoder.encode(table, message, outputStream);
+    encoder.encode(table, "ba", outputStream);
+
+    ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+    RansDecoder decoder = new RansDecoder(table);
+    StringWriter writer = new StringWriter();
+    Assert.assertEquals(message.length(), decoder.decode(inputStream, writer));
+    Assert.assertEquals(message, writer.toString());
+    writer = new StringWriter();
+    Assert.assertEquals(2, decoder.decode(inputStream, writer));
+    Assert.assertEquals("ba", writer.toString());
+    Assert.assertEquals(-1, inputStream.read());
+  }
+
+  @Test
+  public void testInvalidParams() {
+    RansEncoder encoder = new RansEncoder(new HuffmanEncoder());
+    AnsFrequencyTable table = encoder.generateFrequencyTable("abc");
+    try {
+      encoder.encode(table, "abd");
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid symbol:'d'", e.getMessage());
+    }
+    try {
+      encoder.encode(table, "");
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid string:''", e.getMessage());
+    }
+    try {
+      encoder.encode(null, "abc");
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("table cannot be null", e.getMessage());
+    }
+    try {
+      new RansEncoder(new HuffmanEncoder(), 0, 12);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid state count:'0'", e.getMessage());
+    }
+    try {
+      new RansEncoder(null);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("encoder cannot be null", e.getMessage());
+    }
+    try {
+      new RansDecoder(null);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("table cannot be null", e.getMessage());
+    }
+  }
+}
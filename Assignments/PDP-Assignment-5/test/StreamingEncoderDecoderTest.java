@@ -0,0 +1,225 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import decoder.DecoderImpl;
+import decoder.StreamingDecoder;
+import encoder.HuffmanEncoder;
+import encoder.StreamingEncoder;
+import util.FileChannelOutputStream;
+import util.MappedFileInputStream;
+import util.Utils;
+
+/**
+ * A Junit class to test the packed encoding and decoding of {@link encoder.HuffmanEncoder} and
+ * {@link decoder.DecoderImpl}, in memory and through files.
+ */
+public class StreamingEncoderDecoderTest {
+
+  @Test
+  public void testPackedEncodingWithTwoCodingSymbols() throws IOException {
+    StreamingEncoder encoder = new HuffmanEncoder();
+    List<Character> codingSymbols = Arrays.asList('0', '1');
+    Map<Character, String> codingTable = encoder.generateCodingTable(codingSymbols, "abcde");
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    long encodedLength = encoder.encode(codingSymbols, codingTable, "abcde", outputStream);
+
+    // "110111000110" packed and padded with zeros
+    Assert.assertEquals(12, encodedLength);
+    byte[] packedMessage = outputStream.toByteArray();
+    Assert.assertEquals(2, packedMessage.length);
+    Assert.assertEquals((byte) 0b11011100, packedMessage[0]);
+    Assert.assertEquals((byte) 0b01100000, packedMessage[1]);
+
+    StreamingDecoder decoder = getDecoder("01", codingTable);
+    Assert.assertEquals("abcde", decoder.decode(packedMessage, encodedLength));
+  }
+
+  @Test
+  public void testPackedEncodingAndDecodingInteractively() throws IOException {
+    String originalMessage = "Robots are gonna take over the world, I am just playing my part";
+    for (String codingSymbols : Arrays.asList("01", "012", "0123", "@ #\n$", "0123456789abcdef")) {
+      StreamingEncoder encoder = new HuffmanEncoder();
+      List<Character> codingSymbolList = Utils.convertStringToCharacterArray(codingSymbols);
+      Map<Character, String> codingTable =
+              encoder.generateCodingTable(codingSymbolList, originalMessage);
+
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      long encodedLength = encoder.encode(codingSymbolList, codingTable,
+              new StringReader(originalMessage), outputStream);
+      Assert.assertEquals(encoder.encode(codingTable, originalMessage).length(), encodedLength);
+
+      StreamingDecoder decoder = getDecoder(codingSymbols, codingTable);
+      StringWriter writer = new StringWriter();
+      long decodedLength = decoder.decode(
+              new ByteArrayInputStream(outputStream.toByteArray()), encodedLength, writer);
+
+      Assert.assertEquals(originalMessage.length(), decodedLength);
+      Assert.assertEquals(originalMessage, writer.toString());
+    }
+  }
+
+  @Test
+  public void testPackedEncodingAndDecodingPassageTxt() throws IOException {
+    String originalMessage = TestFixtures.getPassage();
+
+    StreamingEncoder encoder = new HuffmanEncoder();
+    List<Character> codingSymbols = Arrays.asList('0', '1');
+    Map<Character, String> codingTable = encoder.generateCodingTable(codingSymbols, originalMessage);
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    long encodedLength = encoder.encode(codingSymbols, codingTable, originalMessage, outputStream);
+    Assert.assertEquals((encodedLength + 7) / 8, outputStream.size());
+
+    StreamingDecoder decoder = getDecoder("01", codingTable);
+    Assert.assertEquals(originalMessage,
+            decoder.decode(outputStream.toByteArray(), encodedLength));
+  }
+
+  @Test
+  public void testPackedEncodingOfSymbolNotInCodingTable() throws IOException {
+    StreamingEncoder encoder = new HuffmanEncoder();
+    List<Character> codingSymbols = Arrays.asList('0', '1');
+    Map<Character, String> codingTable = encoder.generateCodingTable(codingSymbols, "abcde");
+
+    try {
+      encoder.encode(codingSymbols, codingTable, "abcdef", new ByteArrayOutputStream());
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("invalid coding symbol for symbol:'f'", e.getMessage());
+    }
+
+    try {
+      encoder.encode(Arrays.asList('0', '2'), codingTable, "abcde", new ByteArrayOutputStream());
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("Invalid coding symbol:'1'", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testPackedDecodingOfInvalidMessage() {
+    StreamingDecoder decoder = new DecoderImpl("01");
+    decoder.addCode('a', "00");
+    decoder.addCode('b', "01");
+
+    try {
+      decoder.decode(new byte[]{(byte) 0b10000000}, 2);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+    }
+
+    try {
+      decoder.decode(new byte[]{0}, 3);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("cannot decode given encodedSequence", e.getMessage());
+    }
+
+    try {
+      decoder.decode(new byte[]{0}, 10);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("unexpected end of packed stream", e.getMessage());
+    }
+
+    Assert.assertEquals("", decoder.decode(new byte[0], 0));
+    Assert.assertEquals("aab", decoder.decode(new byte[]{(byte) 0b00000100}, 6));
+  }
+
+  @Test
+  public void testPackedDecodingOfInvalidCodingSymbolIndex() {
+    StreamingDecoder decoder = new DecoderImpl("012");
+    decoder.addCode('a', "0");
+    decoder.addCode('b', "1");
+    decoder.addCode('c', "2");
+
+    Assert.assertEquals("cba", decoder.decode(new byte[]{(byte) 0b10010000}, 3));
+
+    try {
+      decoder.decode(new byte[]{(byte) 0b11000000}, 1);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("Invalid coding symbol index:'3'", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testMappedFileEncodingAndDecoding() throws IOException {
+    String originalMessage = TestFixtures.getPassage();
+
+    for (String codingSymbols : Arrays.asList("01", "012", "0123456789abcdef")) {
+      StreamingEncoder encoder = new HuffmanEncoder();
+      List<Character> codingSymbolList = Utils.convertStringToCharacterArray(codingSymbols);
+      Map<Character, String> codingTable =
+              encoder.generateCodingTable(codingSymbolList, originalMessage);
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      long expectedLength =
+              encoder.encode(codingSymbolList, codingTable, originalMessage, outputStream);
+
+      Path packedFile = Files.createTempFile("packed", ".bin");
+      packedFile.toFile().deleteOnExit();
+      long encodedLength = encoder.encode(codingSymbolList, codingTable,
+              new StringReader(originalMessage), packedFile);
+      Assert.assertEquals(expectedLength, encodedLength);
+      Assert.assertArrayEquals(outputStream.toByteArray(), Files.readAllBytes(packedFile));
+
+      StringWriter writer = new StringWriter();
+      StreamingDecoder decoder = getDecoder(codingSymbols, codingTable);
+      Assert.assertEquals(originalMessage.length(),
+              decoder.decode(packedFile, encodedLength, writer));
+      Assert.assertEquals(originalMessage, writer.toString());
+    }
+  }
+
+  @Test
+  public void testFileStreamsAcrossBuffersAndWindows() throws IOException {
+    byte[] bytes = new byte[1000];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) (i * 31);
+    }
+
+    Path file = Files.createTempFile("mapped", ".bin");
+    file.toFile().deleteOnExit();
+    try (FileChannelOutputStream outputStream = new FileChannelOutputStream(file, 7)) {
+      outputStream.write(bytes, 0, 500);
+      for (int i = 500; i < bytes.length; i++) {
+        outputStream.write(bytes[i]);
+      }
+      Assert.assertEquals(bytes.length, outputStream.getBytesWritten());
+    }
+    Assert.assertArrayEquals(bytes, Files.readAllBytes(file));
+
+    ByteArrayOutputStream read = new ByteArrayOutputStream();
+    try (MappedFileInputStream inputStream = new MappedFileInputStream(file, 13)) {
+      read.write(inputStream.read());
+      byte[] buffer = new byte[64];
+      int bytesRead;
+      while ((bytesRead = inputStream.read(buffer, 0, buffer.length)) != -1) {
+        read.write(buffer, 0, bytesRead);
+      }
+      Assert.assertEquals(-1, inputStream.read());
+    }
+    Assert.assertArrayEquals(bytes, read.toByteArray());
+  }
+
+  private StreamingDecoder getDecoder(String codingSymbols, Map<Character, String> codingTable) {
+    StreamingDecoder decoder = new DecoderImpl(codingSymbols);
+    for (Map.Entry<Character, String> entry : codingTable.entrySet()) {
+      decoder.addCode(entry.getKey(), entry.getValue());
+    }
+    return decoder;
+  }
+}
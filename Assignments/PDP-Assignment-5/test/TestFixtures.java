@@ -0,0 +1,67 @@
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+/**
+ * The fixtures shared by the Junit classes.
+ */
+public class TestFixtures {
+
+  /**
+   * Returns the text of test/passage.txt, its lines joined by the line separator.
+   *
+   * @return the text of the passage
+   * @throws IOException if reading the passage fails
+   */
+  public static String getPassage() throws IOException {
+    try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new FileInputStream("test/passage.txt")))) {
+      return reader.lines().collect(Collectors.joining(System.lineSeparator()));
+    }
+  }
+
+  /**
+   * Returns the given number of copies of the passage, joined by a run of two and three byte
+   * characters and a supplementary character, so that the text exercises every UTF-8 length and
+   * surrogate pairs.
+   *
+   * @param copies the number of copies of the passage
+   * @return the text
+   * @throws IOException if reading the passage fails
+   */
+  public static String getText(int copies) throws IOException {
+    return String.join("\u00e9\u4e16\ud83d\ude00", Collections.nCopies(copies, getPassage()));
+  }
+
+  /**
+   * Creates an empty temporary file with the given suffix which is deleted when the tests end.
+   *
+   * @param suffix the suffix of the file name
+   * @return the path of the file
+   * @throws IOException if creating the file fails
+   */
+  public static Path createTempFile(String suffix) throws IOException {
+    Path file = Files.createTempFile("fixture", suffix);
+    file.toFile().deleteOnExit();
+    return file;
+  }
+
+  /**
+   * Writes the given text as UTF-8 into a temporary file which is deleted when the tests end.
+   *
+   * @param text the text to write
+   * @return the path of the file
+   * @throws IOException if writing the file fails
+   */
+  public static Path writeTempFile(String text) throws IOException {
+    Path file = createTempFile(".txt");
+    Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+}
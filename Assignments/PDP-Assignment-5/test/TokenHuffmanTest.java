@@ -0,0 +1,133 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import codingtable.IntCodingTable;
+import codingtable.TokenCodingTable;
+import decoder.TokenHuffmanDecoder;
+import encoder.IntSymbolHuffmanEncoder;
+import encoder.TokenHuffmanEncoder;
+
+/**
+ * A Junit class to test {@link codingtable.TokenCodingTable}, {@link encoder.TokenHuffmanEncoder}
+ * and {@link decoder.TokenHuffmanDecoder}.
+ */
+public class TokenHuffmanTest {
+
+  @Test
+  public void testTokenize() {
+    Assert.assertEquals(Arrays.asList("Hello", ",", "  ", "world", "!", "\n\t", "42x", ".", "."),
+            TokenHuffmanEncoder.tokenize("Hello,  world!\n\t42x.."));
+    Assert.assertEquals(Arrays.asList("caf\u00e9", " ", "\u4e16\u754c"),
+            TokenHuffmanEncoder.tokenize("caf\u00e9 \u4e16\u754c"));
+    Assert.assertTrue(TokenHuffmanEncoder.tokenize("").isEmpty());
+
+    char[] longRun = new char[TokenCodingTable.MAX_TOKEN_LENGTH + 5];
+    Arrays.fill(longRun, ' ');
+    Assert.assertEquals(2, TokenHuffmanEncoder.tokenize(new String(longRun)).size());
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    String message = TestFixtures.getPassage();
+    TokenHuffmanEncoder encoder = new TokenHuffmanEncoder();
+
+    for (int radix = 2; radix <= 16; radix++) {
+      TokenCodingTable codingTable = encoder.generateCodingTable(radix, message);
+      Assert.assertEquals(0, codingTable.getTokenId(TokenHuffmanEncoder.tokenize(message).get(0)));
+
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      long encodedLength = encoder.encode(codingTable, message, outputStream);
+      TokenHuffmanDecoder decoder = new TokenHuffmanDecoder(codingTable);
+      Assert.assertEquals(message, decoder.decode(
+              new ByteArrayInputStream(outputStream.toByteArray()), encodedLength));
+    }
+  }
+
+  @Test
+  public void testFewerCodingSymbolsThanChars() throws IOException {
+    String message = TestFixtures.getPassage();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    TokenCodingTable tokenTable = new TokenHuffmanEncoder().generateCodingTable(2, message);
+    long tokenLength = new TokenHuffmanEncoder().encode(tokenTable, message, outputStream);
+
+    IntSymbolHuffmanEncoder charEncoder = new IntSymbolHuffmanEncoder();
+    IntCodingTable charTable = charEncoder.generateCodePointCodingTable(2, message);
+    long charLength = charEncoder.encodeCodePoints(charTable, message, new ByteArrayOutputStream());
+    Assert.assertTrue(tokenLength < charLength);
+  }
+
+  @Test
+  public void testSerialization() throws IOException {
+    String message = TestFixtures.getPassage() + " caf\u00e9";
+    TokenHuffmanEncoder encoder = new TokenHuffmanEncoder();
+    TokenCodingTable codingTable = encoder.generateCodingTable(3, message);
+    TokenCodingTable copy = TokenCodingTable.fromByteArray(codingTable.toByteArray());
+    Assert.assertEquals(codingTable.getNumberOfTokens(), copy.getNumberOfTokens());
+    for (int id = 0; id < codingTable.getNumberOfTokens(); id++) {
+      Assert.assertEquals(codingTable.getToken(id), copy.getToken(id));
+      Assert.assertArrayEquals(codingTable.getCodingTable().getCode(id),
+              copy.getCodingTable().getCode(id));
+    }
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    long encodedLength = encoder.encode(codingTable, message, outputStream);
+    Assert.assertEquals(message, new TokenHuffmanDecoder(copy).decode(
+            new ByteArrayInputStream(outputStream.toByteArray()), encodedLength));
+
+    byte[] serializedTable = codingTable.toByteArray();
+    serializedTable[0] = 0;
+    try {
+      TokenCodingTable.fromByteArray(serializedTable);
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("malformed token coding table", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testInvalidParams() throws IOException {
+    TokenHuffmanEncoder encoder = new TokenHuffmanEncoder();
+    TokenCodingTable codingTable = encoder.generateCodingTable(2, "the cat");
+    try {
+      encoder.encode(codingTable, "the dog", new ByteArrayOutputStream());
+      Assert.fail("should have failed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("Invalid token:'dog'", e.getMessage());
+    }
+    try {
+      encoder.encode(null, "the cat", new ByteArrayOutputStream());
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("codingTable cannot be null", e.getMessage());
+    }
+    try {
+      encoder.generateCodingTable(2, "");
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid string:''", e.getMessage());
+    }
+    try {
+      new TokenCodingTable(new String[]{"a", "a"}, new IntCodingTable(2, new int[]{1, 1}));
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("duplicate tokens are not allowed", e.getMessage());
+    }
+    try {
+      new TokenCodingTable(new String[]{"a"}, new IntCodingTable(2, new int[]{1, 1}));
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Invalid token count:'1'", e.getMessage());
+    }
+    try {
+      new TokenHuffmanDecoder(null);
+      Assert.fail("should have failed");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("codingTable cannot be null", e.getMessage());
+    }
+  }
+}